@@ -2,6 +2,7 @@ package auth;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
+import io.prometheus.client.Counter;
 import java.time.Instant;
 import java.util.Optional;
 import javax.inject.Inject;
@@ -18,6 +19,7 @@ import org.pac4j.play.PlayWebContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import services.apikey.ApiKeyService;
+import services.apikey.VerifiedApiCredentialCache;
 
 /**
  * Authenticator for API requests based on HTTP basic auth and backed by the {@link ApiKeyModel}
@@ -45,18 +47,34 @@ import services.apikey.ApiKeyService;
  *   <li>Have a salted key secret that matches the salted password in the request's basic auth
  *       credentials.
  * </ul>
+ *
+ * <p>Once a client passes the subnet and secret checks, its credentials are kept in the {@link
+ * VerifiedApiCredentialCache} and those checks are skipped for its subsequent requests. The key is
+ * still checked for being retired and expired on every request.
  */
 public class ApiAuthenticator implements Authenticator {
 
   private static final Logger logger = LoggerFactory.getLogger(ApiAuthenticator.class);
+
+  private static final Counter VERIFIED_CREDENTIAL_CACHE_REQUESTS =
+      Counter.build()
+          .name("api_verified_credential_cache_requests_total")
+          .help("Authenticated API requests, by whether their credentials were already verified")
+          .labelNames("result")
+          .register();
+
   private final Provider<ApiKeyService> apiKeyService;
   private final ClientIpResolver clientIpResolver;
+  private final VerifiedApiCredentialCache verifiedApiCredentialCache;
 
   @Inject
   public ApiAuthenticator(
-      Provider<ApiKeyService> apiKeyService, ClientIpResolver clientIpResolver) {
+      Provider<ApiKeyService> apiKeyService,
+      ClientIpResolver clientIpResolver,
+      VerifiedApiCredentialCache verifiedApiCredentialCache) {
     this.apiKeyService = checkNotNull(apiKeyService);
     this.clientIpResolver = clientIpResolver;
+    this.verifiedApiCredentialCache = checkNotNull(verifiedApiCredentialCache);
   }
 
   /**
@@ -93,11 +111,18 @@ public class ApiAuthenticator implements Authenticator {
       throwUnauthorized(context.webContext(), "API key is retired: " + keyId);
     }
 
-    if (apiKey.expiredAfter(Instant.now())) {
+    Instant now = Instant.now();
+    if (apiKey.expiredAfter(now)) {
       throwUnauthorized(context.webContext(), "API key is expired: " + keyId);
     }
 
     String resolvedIp = clientIpResolver.resolveClientIp((PlayWebContext) context.webContext());
+    if (verifiedApiCredentialCache.isVerified(keyId, resolvedIp, credentials.getPassword(), now)) {
+      VERIFIED_CREDENTIAL_CACHE_REQUESTS.labels("hit").inc();
+      return Optional.of(rawCredentials);
+    }
+    VERIFIED_CREDENTIAL_CACHE_REQUESTS.labels("miss").inc();
+
     if (!isAllowedIp(apiKey, resolvedIp)) {
       throwUnauthorized(
           context.webContext(),
@@ -111,6 +136,8 @@ public class ApiAuthenticator implements Authenticator {
       throwUnauthorized(context.webContext(), "Invalid secret for key ID: " + keyId);
     }
 
+    verifiedApiCredentialCache.putVerified(
+        keyId, resolvedIp, credentials.getPassword(), apiKey.getExpiration());
     return Optional.of(rawCredentials);
   }
 
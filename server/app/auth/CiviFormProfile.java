@@ -6,6 +6,8 @@ import static java.util.concurrent.CompletableFuture.supplyAsync;
 
 import auth.controllers.MissingOptionalException;
 import com.google.common.base.Preconditions;
+import com.google.common.base.Supplier;
+import com.google.common.base.Suppliers;
 import com.google.common.collect.ImmutableList;
 import jakarta.persistence.EntityNotFoundException;
 import java.time.Instant;
@@ -28,6 +30,11 @@ import services.settings.SettingsManifest;
  * This is a "pure" wrapper of CiviFormProfileData. Since CiviFormProfileData is the serialized data
  * about a profile, this class should not store any data that should be serialized. It should
  * contain only server-local information, like execution contexts, database connections, etc.
+ *
+ * <p>A CiviFormProfile is created for a single request, so it loads its {@link AccountModel} and
+ * {@link ApplicantModel} from the database at most once and returns the same models to every
+ * caller. {@link ProfileUtils} returns the same CiviFormProfile for the whole request once {@link
+ * filters.ValidAccountFilter} has validated it.
  */
 public class CiviFormProfile {
   private final DatabaseExecutionContext dbContext;
@@ -35,6 +42,10 @@ public class CiviFormProfile {
   private final CiviFormProfileData profileData;
   private final SettingsManifest settingsManifest;
   private final AccountRepository accountRepository;
+  private final Supplier<CompletableFuture<AccountModel>> account =
+      Suppliers.memoize(this::loadAccount);
+  private final Supplier<CompletableFuture<ApplicantModel>> applicant =
+      Suppliers.memoize(this::loadApplicant);
 
   public CiviFormProfile(
       DatabaseExecutionContext dbContext,
@@ -49,8 +60,17 @@ public class CiviFormProfile {
     this.accountRepository = Preconditions.checkNotNull(accountRepository);
   }
 
-  /** Get the latest {@link ApplicantModel} associated with the profile. */
+  /**
+   * Get the {@link ApplicantModel} associated with the profile, as loaded the first time it was
+   * requested during this request. Changes made since, by this request or another, aren't
+   * reflected, so reload the applicant to read them.
+   */
   public CompletableFuture<ApplicantModel> getApplicant() {
+    // A copy, so that callers can't complete the memoized future.
+    return applicant.get().copy();
+  }
+
+  private CompletableFuture<ApplicantModel> loadApplicant() {
     if (profileData.containsAttribute(ProfileFactory.APPLICANT_ID_ATTRIBUTE_NAME)) {
       long applicantId =
           profileData.getAttribute(ProfileFactory.APPLICANT_ID_ATTRIBUTE_NAME, Long.class);
@@ -79,8 +99,15 @@ public class CiviFormProfile {
     return account.getApplicants().stream().min(comparing(ApplicantModel::getWhenCreated));
   }
 
-  /** Look up the {@link AccountModel} associated with the profile from database. */
+  /**
+   * Get the {@link AccountModel} associated with the profile, as loaded from the database the first
+   * time it was requested during this request.
+   */
   public CompletableFuture<AccountModel> getAccount() {
+    return account.get().copy();
+  }
+
+  private CompletableFuture<AccountModel> loadAccount() {
     return supplyAsync(
         () -> {
           AccountModel account = new AccountModel();
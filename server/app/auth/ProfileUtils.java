@@ -13,12 +13,20 @@ import org.pac4j.core.context.session.SessionStore;
 import org.pac4j.core.profile.BasicUserProfile;
 import org.pac4j.core.profile.ProfileManager;
 import org.pac4j.play.PlayWebContext;
+import play.libs.typedmap.TypedKey;
 import play.mvc.Http;
 
 // NON_ABSTRACT_CLASS_ALLOWS_SUBCLASSING ProfileUtils
 
 /** A utility class for CiviForm profile. */
 public class ProfileUtils {
+  /**
+   * The key used in {@link play.mvc.Http.Request} attributes to store the profile of a request that
+   * {@link filters.ValidAccountFilter} has validated, so the whole request shares one profile.
+   */
+  public static final TypedKey<CiviFormProfile> CIVIFORM_PROFILE_ATTRIBUTE_KEY =
+      TypedKey.create("CIVIFORM_PROFILE");
+
   private final SessionStore sessionStore;
   private final ProfileFactory profileFactory;
 
@@ -42,6 +50,11 @@ public class ProfileUtils {
 
   /** Fetch the current pac4j profile for the given request. */
   public Optional<CiviFormProfile> optionalCurrentUserProfile(Http.RequestHeader request) {
+    Optional<CiviFormProfile> validatedProfile =
+        request.attrs().getOptional(CIVIFORM_PROFILE_ATTRIBUTE_KEY);
+    if (validatedProfile.isPresent()) {
+      return validatedProfile;
+    }
     PlayWebContext webContext = new PlayWebContext(request);
     return optionalCurrentUserProfile(webContext);
   }
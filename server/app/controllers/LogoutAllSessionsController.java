@@ -55,8 +55,7 @@ public class LogoutAllSessionsController extends Controller {
             .thenAccept(
                 account -> {
                   logger.debug("Found account for back channel logout: {}", account.id);
-                  account.clearActiveSessions();
-                  account.save();
+                  accountRepository.clearActiveSessions(account);
                 })
             .exceptionally(
                 e -> {
@@ -91,8 +90,7 @@ public class LogoutAllSessionsController extends Controller {
       if (maybeAccount.isPresent()) {
         AccountModel account = maybeAccount.get();
         logger.debug("Found account for back channel logout: {}", account.id);
-        account.clearActiveSessions();
-        account.save();
+        accountRepository.clearActiveSessions(account);
       } else {
         logger.warn("No account found for back channel logout with authority ID");
       }
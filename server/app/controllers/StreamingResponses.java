@@ -0,0 +1,68 @@
+package controllers;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import org.apache.pekko.NotUsed;
+import org.apache.pekko.japi.Pair;
+import org.apache.pekko.stream.javadsl.Source;
+import org.apache.pekko.stream.javadsl.StreamConverters;
+import org.apache.pekko.util.ByteString;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/** Streams response bodies to the client as they are written, so they aren't held in memory. */
+public final class StreamingResponses {
+  private static final Logger logger = LoggerFactory.getLogger(StreamingResponses.class);
+
+  /** Writes a response body. */
+  @FunctionalInterface
+  public interface BodyWriter {
+    void write(Writer writer) throws IOException;
+  }
+
+  private StreamingResponses() {}
+
+  /**
+   * A UTF-8 response body written by {@code bodyWriter} on {@code executor}. The writer blocks
+   * when the client falls behind, so {@code executor} shouldn't serve requests.
+   *
+   * <p>The response has already started by the time writing can fail, so a failure is logged with
+   * {@code description} and the body is failed. That aborts the response, so that the client sees
+   * a failed download rather than a truncated one.
+   */
+  public static Source<ByteString, ?> stream(
+      BodyWriter bodyWriter, Executor executor, String description) {
+    return Source.fromMaterializer(
+        (materializer, attributes) -> {
+          Pair<OutputStream, Source<ByteString, NotUsed>> body =
+              StreamConverters.asOutputStream().preMaterialize(materializer);
+          CompletableFuture<Void> written =
+              CompletableFuture.runAsync(
+                  () -> write(bodyWriter, body.first(), description), executor);
+          // Closing the output stream ends the body whether or not writing failed, so fail it once
+          // writing has finished if it failed.
+          return body.second()
+              .concat(
+                  Source.completionStage(written)
+                      .flatMapConcat(unused -> Source.<ByteString>empty()));
+        });
+  }
+
+  private static void write(BodyWriter bodyWriter, OutputStream outputStream, String description) {
+    try (Writer writer = new OutputStreamWriter(outputStream, StandardCharsets.UTF_8)) {
+      bodyWriter.write(writer);
+    } catch (IOException e) {
+      logger.error("Failed to stream {}", description, e);
+      throw new UncheckedIOException(e);
+    } catch (RuntimeException e) {
+      logger.error("Failed to stream {}", description, e);
+      throw e;
+    }
+  }
+}
@@ -11,28 +11,42 @@ import auth.Authorizers;
 import auth.CiviFormProfile;
 import auth.ProfileUtils;
 import auth.controllers.MissingOptionalException;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.google.common.collect.ImmutableList;
 import com.google.inject.Provider;
 import controllers.BadRequestException;
 import controllers.CiviFormController;
 import controllers.FlashKey;
+import controllers.StreamingResponses;
 import forms.admin.BulkStatusUpdateForm;
+import java.io.IOException;
+import java.io.Writer;
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Optional;
 import java.util.concurrent.CompletionException;
 import javax.inject.Inject;
+import models.ApplicationExportFormat;
+import models.ApplicationExportModel;
+import models.ApplicationExportStatus;
 import models.ApplicationModel;
+import org.apache.pekko.stream.javadsl.Source;
+import org.apache.pekko.util.ByteString;
 import org.pac4j.play.java.Secure;
 import play.data.Form;
 import play.data.FormFactory;
 import play.i18n.Messages;
 import play.i18n.MessagesApi;
+import play.libs.Json;
 import play.mvc.Http;
 import play.mvc.Result;
+import repository.AnswerFilter;
+import repository.BulkDatabaseExecutionContext;
 import repository.SubmittedApplicationFilter;
 import repository.TimeFilter;
 import repository.VersionRepository;
@@ -47,12 +61,15 @@ import services.applications.ApplicationAlreadyInStatusException;
 import services.applications.PdfExporterService;
 import services.applications.ProgramAdminApplicationService;
 import services.applications.StatusEmailNotFoundException;
+import services.export.ApplicationExportService;
 import services.export.CsvExporterService;
 import services.export.JsonExporterService;
 import services.export.PdfExporter;
+import services.pagination.BasePaginationSpec;
+import services.pagination.CountStrategy;
 import services.pagination.PageNumberPaginationSpec;
 import services.pagination.PaginationResult;
-import services.pagination.SubmitTimeSequentialAccessPaginationSpec;
+import services.pagination.SubmitTimeKeysetPaginationSpec;
 import services.program.ProgramDefinition;
 import services.program.ProgramNotFoundException;
 import services.program.ProgramService;
@@ -83,6 +100,8 @@ public final class AdminApplicationController extends CiviFormController {
   private final DateConverter dateConverter;
   private final StatusService statusService;
   private final ProgramApplicationTableView tableView;
+  private final BulkDatabaseExecutionContext bulkDbExecutionContext;
+  private final ApplicationExportService applicationExportService;
 
   public enum RelativeTimeOfDay {
     UNKNOWN,
@@ -108,7 +127,9 @@ public final class AdminApplicationController extends CiviFormController {
       @Now Provider<LocalDateTime> nowProvider,
       VersionRepository versionRepository,
       StatusService statusService,
-      ProgramApplicationTableView tableView) {
+      ProgramApplicationTableView tableView,
+      BulkDatabaseExecutionContext bulkDbExecutionContext,
+      ApplicationExportService applicationExportService) {
     super(profileUtils, versionRepository);
     this.programService = checkNotNull(programService);
     this.applicantService = checkNotNull(applicantService);
@@ -123,6 +144,8 @@ public final class AdminApplicationController extends CiviFormController {
     this.dateConverter = checkNotNull(dateConverter);
     this.statusService = checkNotNull(statusService);
     this.tableView = checkNotNull(tableView);
+    this.bulkDbExecutionContext = checkNotNull(bulkDbExecutionContext);
+    this.applicationExportService = checkNotNull(applicationExportService);
   }
 
   /** Download a JSON file containing all applications to all versions of the specified program. */
@@ -145,30 +168,17 @@ public final class AdminApplicationController extends CiviFormController {
       return unauthorized();
     }
 
-    boolean shouldApplyFilters = ignoreFilters.orElse("").isEmpty();
-    SubmittedApplicationFilter filters = SubmittedApplicationFilter.EMPTY;
-    if (shouldApplyFilters) {
-      filters =
-          SubmittedApplicationFilter.builder()
-              .setSearchNameFragment(search)
-              .setSubmitTimeFilter(
-                  TimeFilter.builder()
-                      .setFromTime(
-                          parseDateTimeFromQuery(dateConverter, fromDate, RelativeTimeOfDay.START))
-                      .setUntilTime(
-                          parseDateTimeFromQuery(dateConverter, untilDate, RelativeTimeOfDay.END))
-                      .build())
-              .setApplicationStatus(applicationStatus)
-              .build();
-    }
+    SubmittedApplicationFilter filters =
+        getExportFilters(search, fromDate, untilDate, applicationStatus, ignoreFilters);
 
     String filename = String.format("%s-%s.json", program.adminName(), nowProvider.get());
-    String json =
-        jsonExporterService.export(
-            program,
-            SubmitTimeSequentialAccessPaginationSpec.APPLICATION_MODEL_MAX_PAGE_SIZE_SPEC,
-            filters);
-    return ok(json)
+    // Stream the JSON like the CSV export below, so that large exports aren't held in memory.
+    Source<ByteString, ?> json =
+        StreamingResponses.stream(
+            writer -> jsonExporterService.streamProgramAllVersionsJson(program, filters, writer),
+            bulkDbExecutionContext,
+            String.format("JSON export for program %d", program.id()));
+    return ok().chunked(json)
         .as(Http.MimeTypes.JSON)
         .withHeader("Content-Disposition", String.format("attachment; filename=\"%s\"", filename));
   }
@@ -184,29 +194,20 @@ public final class AdminApplicationController extends CiviFormController {
       Optional<String> applicationStatus,
       Optional<String> ignoreFilters)
       throws ProgramNotFoundException {
-    boolean shouldApplyFilters = ignoreFilters.orElse("").isEmpty();
     try {
-      SubmittedApplicationFilter filters = SubmittedApplicationFilter.EMPTY;
-      if (shouldApplyFilters) {
-        filters =
-            SubmittedApplicationFilter.builder()
-                .setSearchNameFragment(search)
-                .setSubmitTimeFilter(
-                    TimeFilter.builder()
-                        .setFromTime(
-                            parseDateTimeFromQuery(
-                                dateConverter, fromDate, RelativeTimeOfDay.START))
-                        .setUntilTime(
-                            parseDateTimeFromQuery(dateConverter, untilDate, RelativeTimeOfDay.END))
-                        .build())
-                .setApplicationStatus(applicationStatus)
-                .build();
-      }
+      SubmittedApplicationFilter exportFilters =
+          getExportFilters(search, fromDate, untilDate, applicationStatus, ignoreFilters);
       ProgramDefinition program = programService.getFullProgramDefinition(programId);
       checkProgramAdminAuthorization(request, program.adminName()).join();
       String filename = String.format("%s-%s.csv", program.adminName(), nowProvider.get());
-      String csv = exporterService.getProgramAllVersionsCsv(programId, filters);
-      return ok(csv)
+      // Stream the CSV to the client as it is generated so that large exports don't have to be
+      // held in memory.
+      Source<ByteString, ?> csv =
+          StreamingResponses.stream(
+              writer -> streamCsv(programId, exportFilters, writer),
+              bulkDbExecutionContext,
+              String.format("CSV export for program %d", programId));
+      return ok().chunked(csv)
           .as(Http.MimeTypes.BINARY)
           .withHeader(
               "Content-Disposition", String.format("attachment; filename=\"%s\"", filename));
@@ -215,6 +216,143 @@ public final class AdminApplicationController extends CiviFormController {
     }
   }
 
+  private void streamCsv(long programId, SubmittedApplicationFilter filters, Writer writer)
+      throws IOException {
+    try {
+      exporterService.streamProgramAllVersionsCsv(programId, filters, writer);
+    } catch (ProgramNotFoundException e) {
+      throw new RuntimeException(e);
+    }
+  }
+
+  /**
+   * Start a background export of all applications to all versions of the specified program, in
+   * either "csv" or "json" {@code format}. The export is written to cloud storage by a durable job,
+   * so it isn't limited by the lifetime of this request. Redirects to {@link #exportStatus}.
+   */
+  @Secure(authorizers = Authorizers.Labels.ANY_ADMIN)
+  public Result startExport(
+      Http.Request request,
+      long programId,
+      String format,
+      Optional<String> search,
+      Optional<String> fromDate,
+      Optional<String> untilDate,
+      Optional<String> applicationStatus,
+      Optional<String> ignoreFilters)
+      throws ProgramNotFoundException {
+    Optional<ApplicationExportFormat> exportFormat =
+        Arrays.stream(ApplicationExportFormat.values())
+            .filter(f -> f.getFileExtension().equals(format))
+            .findFirst();
+    if (exportFormat.isEmpty()) {
+      return badRequest(String.format("Unsupported export format %s", format));
+    }
+
+    ProgramDefinition program = programService.getFullProgramDefinition(programId);
+    try {
+      checkProgramAdminAuthorization(request, program.adminName()).join();
+    } catch (CompletionException | MissingOptionalException e) {
+      return unauthorized();
+    }
+
+    ApplicationExportModel export =
+        applicationExportService.startExport(
+            program,
+            exportFormat.get(),
+            getExportFilters(search, fromDate, untilDate, applicationStatus, ignoreFilters));
+    return redirect(routes.AdminApplicationController.exportStatus(programId, export.id));
+  }
+
+  /**
+   * Return the progress of a background export as JSON. Once the export is complete, this includes
+   * a link to download it.
+   */
+  @Secure(authorizers = Authorizers.Labels.ANY_ADMIN)
+  public Result exportStatus(Http.Request request, long programId, long exportId)
+      throws ProgramNotFoundException {
+    ProgramDefinition program = programService.getFullProgramDefinition(programId);
+    try {
+      checkProgramAdminAuthorization(request, program.adminName()).join();
+    } catch (CompletionException | MissingOptionalException e) {
+      return unauthorized();
+    }
+    Optional<ApplicationExportModel> maybeExport = getExportForProgram(programId, exportId);
+    if (maybeExport.isEmpty()) {
+      return notFound(String.format("Export %d does not exist.", exportId));
+    }
+    ApplicationExportModel export = maybeExport.get();
+
+    ObjectNode status =
+        Json.newObject()
+            .put("id", export.id)
+            .put("status", export.getStatus().name())
+            .put("exportedApplications", export.getExportedCount());
+    if (export.getStatus() == ApplicationExportStatus.COMPLETE) {
+      status.put(
+          "downloadUrl",
+          routes.AdminApplicationController.downloadExport(programId, exportId).url());
+    }
+    return ok(status.toString()).as(Http.MimeTypes.JSON);
+  }
+
+  /** Redirect to a temporary cloud storage link to download a completed background export. */
+  @Secure(authorizers = Authorizers.Labels.ANY_ADMIN)
+  public Result downloadExport(Http.Request request, long programId, long exportId)
+      throws ProgramNotFoundException {
+    ProgramDefinition program = programService.getFullProgramDefinition(programId);
+    try {
+      checkProgramAdminAuthorization(request, program.adminName()).join();
+    } catch (CompletionException | MissingOptionalException e) {
+      return unauthorized();
+    }
+    Optional<ApplicationExportModel> maybeExport = getExportForProgram(programId, exportId);
+    if (maybeExport.isEmpty()
+        || maybeExport.get().getStatus() != ApplicationExportStatus.COMPLETE) {
+      return notFound(String.format("Export %d is not available for download.", exportId));
+    }
+    ApplicationExportModel export = maybeExport.get();
+
+    String filename =
+        String.format(
+            "%s-%s.%s",
+            program.adminName(),
+            export.getCreateTime(),
+            export.getExportFormat().getFileExtension());
+    return redirect(applicationExportService.getDownloadUrl(export, filename));
+  }
+
+  /** Returns the export with {@code exportId} if it is of the program with {@code programId}. */
+  private Optional<ApplicationExportModel> getExportForProgram(long programId, long exportId) {
+    return applicationExportService
+        .getExport(exportId)
+        .filter(export -> export.getProgramId() == programId);
+  }
+
+  /** Builds the filters for an export of applications from its query parameters. */
+  private SubmittedApplicationFilter getExportFilters(
+      Optional<String> search,
+      Optional<String> fromDate,
+      Optional<String> untilDate,
+      Optional<String> applicationStatus,
+      Optional<String> ignoreFilters) {
+    boolean shouldApplyFilters = ignoreFilters.orElse("").isEmpty();
+    if (!shouldApplyFilters) {
+      return SubmittedApplicationFilter.EMPTY;
+    }
+    return SubmittedApplicationFilter.builder()
+        .setSearchNameFragment(search)
+        .setSubmitTimeFilter(
+            TimeFilter.builder()
+                .setFromTime(
+                    parseDateTimeFromQuery(dateConverter, fromDate, RelativeTimeOfDay.START))
+                .setUntilTime(
+                    parseDateTimeFromQuery(dateConverter, untilDate, RelativeTimeOfDay.END))
+                .build())
+        .setApplicationStatus(applicationStatus)
+        .build();
+  }
+
   /**
    * Parses a date from a raw query string (e.g. 2022-01-02) and returns an instant representing
    * that date in the UTC time zone.
@@ -447,27 +585,21 @@ public final class AdminApplicationController extends CiviFormController {
       long programId,
       Optional<String> search,
       Optional<Integer> page,
+      Optional<String> olderThan,
+      Optional<String> newerThan,
       Optional<String> fromDate,
       Optional<String> untilDate,
       Optional<String> applicationStatus,
+      List<String> answerFilter,
       Optional<String> selectedApplicationUri,
       Optional<Boolean> showDownloadModal,
       Optional<String> message)
       throws ProgramNotFoundException {
-    if (page.isEmpty()) {
-      return redirect(
-          routes.AdminApplicationController.index(
-              programId,
-              search,
-              Optional.of(1),
-              fromDate,
-              untilDate,
-              applicationStatus,
-              selectedApplicationUri,
-              showDownloadModal,
-              message));
-    }
-
+    // The filter form always submits an empty field for adding a filter.
+    ImmutableList<String> answerFilters =
+        answerFilter.stream()
+            .filter(value -> !value.isBlank())
+            .collect(ImmutableList.toImmutableList());
     SubmittedApplicationFilter filters =
         SubmittedApplicationFilter.builder()
             .setSearchNameFragment(search)
@@ -479,6 +611,7 @@ public final class AdminApplicationController extends CiviFormController {
                         parseDateTimeFromQuery(dateConverter, untilDate, RelativeTimeOfDay.END))
                     .build())
             .setApplicationStatus(applicationStatus)
+            .setAnswerFilters(parseAnswerFilters(answerFilters))
             .build();
 
     final ProgramDefinition program;
@@ -493,11 +626,11 @@ public final class AdminApplicationController extends CiviFormController {
         statusService.lookupActiveStatusDefinitions(program.adminName());
 
     CiviFormProfile profile = profileUtils.currentUserProfile(request);
-    var paginationSpec =
-        new PageNumberPaginationSpec(
-            PAGE_SIZE_BULK_STATUS,
-            page.orElse(1),
-            PageNumberPaginationSpec.OrderByEnum.SUBMIT_TIME);
+    BasePaginationSpec paginationSpec =
+        page.isPresent()
+            ? new PageNumberPaginationSpec(
+                PAGE_SIZE_BULK_STATUS, page.get(), PageNumberPaginationSpec.OrderByEnum.SUBMIT_TIME)
+            : getKeysetPaginationSpec(olderThan, newerThan);
     PaginationResult<ApplicationModel> applications =
         programService.getSubmittedProgramApplicationsAllVersions(
             programId, paginationSpec, filters);
@@ -515,11 +648,45 @@ public final class AdminApplicationController extends CiviFormController {
                 .setFromDate(fromDate)
                 .setUntilDate(untilDate)
                 .setSelectedApplicationStatus(applicationStatus)
+                .setAnswerFilters(answerFilters)
                 .build(),
             showDownloadModal,
             message));
   }
 
+  private static ImmutableList<AnswerFilter> parseAnswerFilters(
+      ImmutableList<String> answerFilters) {
+    try {
+      return answerFilters.stream()
+          .map(AnswerFilter::parse)
+          .collect(ImmutableList.toImmutableList());
+    } catch (IllegalArgumentException e) {
+      throw new BadRequestException("Malformed query param: answerFilter: " + e.getMessage());
+    }
+  }
+
+  /**
+   * Pages through applications by stepping from the first or last application shown, rather than
+   * by page number, so that neither the matching applications nor the ones on earlier pages have
+   * to be counted. Falls back to the first page if the cursor is malformed.
+   */
+  private static SubmitTimeKeysetPaginationSpec getKeysetPaginationSpec(
+      Optional<String> olderThan, Optional<String> newerThan) {
+    Optional<SubmitTimeKeysetPaginationSpec.Cursor> olderThanCursor =
+        olderThan.flatMap(SubmitTimeKeysetPaginationSpec.Cursor::fromToken);
+    if (olderThanCursor.isPresent()) {
+      return SubmitTimeKeysetPaginationSpec.olderThan(
+          PAGE_SIZE_BULK_STATUS, CountStrategy.NONE, olderThanCursor.get());
+    }
+    Optional<SubmitTimeKeysetPaginationSpec.Cursor> newerThanCursor =
+        newerThan.flatMap(SubmitTimeKeysetPaginationSpec.Cursor::fromToken);
+    if (newerThanCursor.isPresent()) {
+      return SubmitTimeKeysetPaginationSpec.newerThan(
+          PAGE_SIZE_BULK_STATUS, CountStrategy.NONE, newerThanCursor.get());
+    }
+    return SubmitTimeKeysetPaginationSpec.firstPage(PAGE_SIZE_BULK_STATUS, CountStrategy.NONE);
+  }
+
   /**
    * Updates the status for the associated applications and redirects to the program applications
    * page.
@@ -555,9 +722,12 @@ public final class AdminApplicationController extends CiviFormController {
                   programId,
                   /* search= */ Optional.empty(),
                   /* page= */ Optional.empty(),
+                  /* olderThan= */ Optional.empty(),
+                  /* newerThan= */ Optional.empty(),
                   /* fromDate= */ Optional.empty(),
                   /* untilDate= */ Optional.empty(),
                   /* applicationStatus= */ Optional.empty(),
+                  /* answerFilter= */ ImmutableList.of(),
                   Optional.empty(),
                   /* showDownloadModal= */ Optional.empty(),
                   /* message= */ Optional.of(
@@ -569,9 +739,12 @@ public final class AdminApplicationController extends CiviFormController {
                 programId,
                 /* search= */ Optional.empty(),
                 /* page= */ Optional.empty(),
+                /* olderThan= */ Optional.empty(),
+                /* newerThan= */ Optional.empty(),
                 /* fromDate= */ Optional.empty(),
                 /* untilDate= */ Optional.empty(),
                 /* applicationStatus= */ Optional.empty(),
+                /* answerFilter= */ ImmutableList.of(),
                 Optional.empty(),
                 /* showDownloadModal= */ Optional.empty(),
                 /* message= */ Optional.of("Status update success"))
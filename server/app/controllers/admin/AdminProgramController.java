@@ -194,6 +194,8 @@ public final class AdminProgramController extends CiviFormController {
   public Result publish() {
     try {
       versionRepository.publishNewSynchronizedVersion();
+      // Build the catalog applicants are served from now rather than on their next request.
+      programService.getActiveProgramCatalog();
       return redirect(routes.AdminProgramController.index());
     } catch (RuntimeException e) {
       return badRequest(e.toString());
@@ -207,6 +209,7 @@ public final class AdminProgramController extends CiviFormController {
 
     try {
       versionRepository.publishNewSynchronizedVersion(program.adminName());
+      programService.getActiveProgramCatalog();
       return redirect(routes.AdminProgramController.index());
     } catch (CantPublishProgramWithSharedQuestionsException e) {
       return redirect(routes.AdminProgramController.index())
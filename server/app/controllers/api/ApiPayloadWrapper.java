@@ -3,6 +3,7 @@ package controllers.api;
 import static com.google.common.base.Preconditions.checkNotNull;
 
 import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
 import java.io.IOException;
 import java.io.StringWriter;
 import java.util.Optional;
@@ -32,19 +33,10 @@ public final class ApiPayloadWrapper {
 
     try {
       var jsonGenerator = new JsonFactory().createGenerator(writer);
-      jsonGenerator.writeStartObject();
-      jsonGenerator.writeFieldName("payload");
-      jsonGenerator.writeRawValue(payload);
-
-      jsonGenerator.writeFieldName("nextPageToken");
-      if (paginationTokenPayload.isPresent()) {
-        jsonGenerator.writeString(
-            apiPaginationTokenSerializer.serialize(paginationTokenPayload.get()));
-      } else {
-        jsonGenerator.writeNull();
-      }
-
-      jsonGenerator.writeEndObject();
+      writePayload(
+          jsonGenerator,
+          payloadGenerator -> payloadGenerator.writeRawValue(payload),
+          paginationTokenPayload);
       jsonGenerator.close();
     } catch (IOException e) {
       throw new RuntimeException(e);
@@ -52,4 +44,38 @@ public final class ApiPayloadWrapper {
 
     return writer.toString();
   }
+
+  /**
+   * Writes the same container object as {@link #wrapPayload}, with the "payload" value written by
+   * {@code payloadWriter}, so that large payloads can be written out as they are produced.
+   *
+   * @param jsonGenerator the generator to write the container object to
+   * @param payloadWriter writes a single JSON value for the payload
+   * @param paginationTokenPayload the pagination token to include with the payload
+   */
+  public void writePayload(
+      JsonGenerator jsonGenerator,
+      PayloadWriter payloadWriter,
+      Optional<ApiPaginationTokenPayload> paginationTokenPayload)
+      throws IOException {
+    jsonGenerator.writeStartObject();
+    jsonGenerator.writeFieldName("payload");
+    payloadWriter.write(jsonGenerator);
+
+    jsonGenerator.writeFieldName("nextPageToken");
+    if (paginationTokenPayload.isPresent()) {
+      jsonGenerator.writeString(
+          apiPaginationTokenSerializer.serialize(paginationTokenPayload.get()));
+    } else {
+      jsonGenerator.writeNull();
+    }
+
+    jsonGenerator.writeEndObject();
+  }
+
+  /** Writes the payload of an API response. */
+  @FunctionalInterface
+  public interface PayloadWriter {
+    void write(JsonGenerator jsonGenerator) throws IOException;
+  }
 }
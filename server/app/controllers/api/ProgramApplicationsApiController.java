@@ -3,10 +3,15 @@ package controllers.api;
 import static com.google.common.base.Preconditions.checkNotNull;
 
 import auth.ProfileUtils;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Iterables;
 import com.google.inject.Inject;
 import com.typesafe.config.Config;
+import controllers.StreamingResponses;
+import java.io.IOException;
+import java.io.Writer;
 import java.time.Instant;
 import java.time.format.DateTimeParseException;
 import java.util.Map;
@@ -15,16 +20,22 @@ import java.util.concurrent.CompletionException;
 import java.util.concurrent.CompletionStage;
 import javax.annotation.Nullable;
 import models.ApplicationModel;
+import org.apache.pekko.stream.javadsl.Source;
+import org.apache.pekko.util.ByteString;
 import play.libs.concurrent.ClassLoaderExecutionContext;
 import play.mvc.Http;
 import play.mvc.Result;
+import repository.AnswerFilter;
+import repository.BulkDatabaseExecutionContext;
 import repository.SubmittedApplicationFilter;
 import repository.TimeFilter;
 import repository.VersionRepository;
 import services.DateConverter;
 import services.export.JsonExporterService;
+import services.pagination.CountStrategy;
 import services.pagination.PaginationResult;
 import services.pagination.RowIdSequentialAccessPaginationSpec;
+import services.program.ProgramDefinition;
 import services.program.ProgramNotFoundException;
 import services.program.ProgramService;
 
@@ -34,10 +45,18 @@ public final class ProgramApplicationsApiController extends CiviFormApiControlle
   public static final String PROGRAM_SLUG_PARAM_NAME = "programSlug";
   public static final String FROM_DATE_PARAM_NAME = "fromDate";
   public static final String UNTIL_DATE_PARAM_NAME = "toDate";
+
+  /**
+   * Repeatable param filtering applications by an answer, written as described by {@link
+   * AnswerFilter}, like {@code household_size.number:GREATER_THAN:4}.
+   */
+  public static final String ANSWER_FILTER_PARAM_NAME = "answerFilter";
+
   private final DateConverter dateConverter;
   private final ProgramService programService;
   private final ClassLoaderExecutionContext classLoaderExecutionContext;
   private final JsonExporterService jsonExporterService;
+  private final BulkDatabaseExecutionContext bulkDbExecutionContext;
   private final int maxPageSize;
 
   @Inject
@@ -48,6 +67,7 @@ public final class ProgramApplicationsApiController extends CiviFormApiControlle
       ProfileUtils profileUtils,
       JsonExporterService jsonExporterService,
       ClassLoaderExecutionContext classLoaderExecutionContext,
+      BulkDatabaseExecutionContext bulkDbExecutionContext,
       ProgramService programService,
       VersionRepository versionRepository,
       Config config) {
@@ -55,6 +75,7 @@ public final class ProgramApplicationsApiController extends CiviFormApiControlle
     this.dateConverter = checkNotNull(dateConverter);
     this.classLoaderExecutionContext = checkNotNull(classLoaderExecutionContext);
     this.jsonExporterService = checkNotNull(jsonExporterService);
+    this.bulkDbExecutionContext = checkNotNull(bulkDbExecutionContext);
     this.programService = checkNotNull(programService);
     this.maxPageSize = checkNotNull(config).getInt("civiform_api_applications_list_max_page_size");
   }
@@ -81,6 +102,7 @@ public final class ProgramApplicationsApiController extends CiviFormApiControlle
           }
         });
 
+    ImmutableList<String> answerFilterParams = resolveAnswerFilterParams(paginationToken, request);
     SubmittedApplicationFilter filters =
         SubmittedApplicationFilter.builder()
             .setSubmitTimeFilter(
@@ -90,13 +112,17 @@ public final class ProgramApplicationsApiController extends CiviFormApiControlle
                     .setUntilTime(
                         resolveDateParam(paginationToken, UNTIL_DATE_PARAM_NAME, toDateParam))
                     .build())
+            .setAnswerFilters(parseAnswerFilters(answerFilterParams))
             .build();
     int pageSize = resolvePageSize(paginationToken, pageSizeParam);
 
+    // The API only reports whether there is a next page, so the matching rows aren't counted.
     RowIdSequentialAccessPaginationSpec paginationSpec =
         paginationToken
             .map(this::createPaginationSpec)
-            .orElse(new RowIdSequentialAccessPaginationSpec(pageSize, Long.MAX_VALUE));
+            .orElse(
+                new RowIdSequentialAccessPaginationSpec(
+                    pageSize, Long.MAX_VALUE, CountStrategy.NONE));
 
     return programService
         .getActiveFullProgramDefinitionAsync(programSlug)
@@ -106,16 +132,25 @@ public final class ProgramApplicationsApiController extends CiviFormApiControlle
                   programService.getSubmittedProgramApplicationsAllVersions(
                       programDefinition.id(), paginationSpec, filters);
 
-              String applicationsJson =
-                  jsonExporterService.exportPage(programDefinition, paginationResult);
+              Optional<ApiPaginationTokenPayload> nextPageToken =
+                  getNextPageToken(
+                      paginationResult,
+                      programSlug,
+                      pageSize,
+                      filters.submitTimeFilter(),
+                      answerFilterParams);
 
-              String responseJson =
-                  apiPayloadWrapper.wrapPayload(
-                      applicationsJson,
-                      getNextPageToken(
-                          paginationResult, programSlug, pageSize, filters.submitTimeFilter()));
+              // Write each application to the response as it is rendered rather than building the
+              // whole page in memory first. Rendering loads applicant data, so it runs on the
+              // database execution context.
+              Source<ByteString, ?> responseJson =
+                  StreamingResponses.stream(
+                      writer ->
+                          writeResponse(programDefinition, paginationResult, nextPageToken, writer),
+                      bulkDbExecutionContext,
+                      String.format("applications for program %d", programDefinition.id()));
 
-              return ok(responseJson).as("application/json");
+              return ok().chunked(responseJson).as("application/json");
             },
             classLoaderExecutionContext.current())
         .exceptionally(
@@ -131,11 +166,28 @@ public final class ProgramApplicationsApiController extends CiviFormApiControlle
             });
   }
 
+  private void writeResponse(
+      ProgramDefinition programDefinition,
+      PaginationResult<ApplicationModel> paginationResult,
+      Optional<ApiPaginationTokenPayload> nextPageToken,
+      Writer writer)
+      throws IOException {
+    try (JsonGenerator jsonGenerator = JsonExporterService.createJsonGenerator(writer)) {
+      apiPayloadWrapper.writePayload(
+          jsonGenerator,
+          payloadGenerator ->
+              jsonExporterService.writePage(programDefinition, paginationResult, payloadGenerator),
+          nextPageToken);
+    }
+  }
+
+
   private Optional<ApiPaginationTokenPayload> getNextPageToken(
       PaginationResult<ApplicationModel> paginationResult,
       String programSlug,
       int pageSize,
-      TimeFilter timeFilter) {
+      TimeFilter timeFilter,
+      ImmutableList<String> answerFilterParams) {
     if (!paginationResult.hasMorePages()) {
       return Optional.empty();
     }
@@ -158,6 +210,9 @@ public final class ProgramApplicationsApiController extends CiviFormApiControlle
             (untilInstant) ->
                 requestSpec.put(
                     UNTIL_DATE_PARAM_NAME, dateConverter.formatIso8601Date(untilInstant)));
+    for (int i = 0; i < answerFilterParams.size(); i++) {
+      requestSpec.put(answerFilterTokenKey(i), answerFilterParams.get(i));
+    }
 
     return Optional.of(new ApiPaginationTokenPayload(pageSpec, requestSpec.build()));
   }
@@ -181,6 +236,48 @@ public final class ProgramApplicationsApiController extends CiviFormApiControlle
     return pageSizeParam.orElse(maxPageSize);
   }
 
+  /**
+   * The answer filters of the request, which must be the same as those of the pagination token if
+   * both have them.
+   */
+  private static ImmutableList<String> resolveAnswerFilterParams(
+      Optional<ApiPaginationTokenPayload> apiPaginationTokenPayload, Http.Request request) {
+    ImmutableList<String> queryParamFilters =
+        ImmutableList.copyOf(
+            request.queryString().getOrDefault(ANSWER_FILTER_PARAM_NAME, new String[0]));
+    if (apiPaginationTokenPayload.isEmpty()) {
+      return queryParamFilters;
+    }
+
+    Map<String, String> requestSpec = apiPaginationTokenPayload.get().getRequestSpec();
+    ImmutableList.Builder<String> tokenFilters = ImmutableList.builder();
+    for (int i = 0; requestSpec.containsKey(answerFilterTokenKey(i)); i++) {
+      tokenFilters.add(requestSpec.get(answerFilterTokenKey(i)));
+    }
+    if (!queryParamFilters.isEmpty() && !queryParamFilters.equals(tokenFilters.build())) {
+      throw new BadApiRequestException(
+          "Request parameters must match pagination token: " + ANSWER_FILTER_PARAM_NAME);
+    }
+    return tokenFilters.build();
+  }
+
+  /** The key of the answer filter at {@code index} in the request spec of a pagination token. */
+  private static String answerFilterTokenKey(int index) {
+    return ANSWER_FILTER_PARAM_NAME + "." + index;
+  }
+
+  private static ImmutableList<AnswerFilter> parseAnswerFilters(
+      ImmutableList<String> answerFilterParams) {
+    try {
+      return answerFilterParams.stream()
+          .map(AnswerFilter::parse)
+          .collect(ImmutableList.toImmutableList());
+    } catch (IllegalArgumentException e) {
+      throw new BadApiRequestException(
+          String.format("Malformed query param: %s: %s", ANSWER_FILTER_PARAM_NAME, e.getMessage()));
+    }
+  }
+
   private Optional<Instant> resolveDateParam(
       Optional<ApiPaginationTokenPayload> apiPaginationTokenPayload,
       String paramName,
@@ -230,6 +327,7 @@ public final class ProgramApplicationsApiController extends CiviFormApiControlle
       ApiPaginationTokenPayload apiPaginationTokenPayload) {
     return new RowIdSequentialAccessPaginationSpec(
         apiPaginationTokenPayload.getPageSpec().getPageSize(),
-        Long.valueOf(apiPaginationTokenPayload.getPageSpec().getOffsetIdentifier()));
+        Long.valueOf(apiPaginationTokenPayload.getPageSpec().getOffsetIdentifier()),
+        CountStrategy.NONE);
   }
 }
@@ -30,6 +30,7 @@ import services.applicant.ApplicantService.ApplicantProgramData;
 import services.applicant.ReadOnlyApplicantProgramService;
 import services.applications.ApplicationService;
 import services.applications.PdfExporterService;
+import services.export.ExportExecutionContext;
 import services.export.PdfExporter;
 import services.program.ProgramDefinition;
 import services.program.ProgramNotFoundException;
@@ -57,6 +58,7 @@ public final class UpsellController extends CiviFormController {
   private final PdfExporterService pdfExporterService;
   private final SettingsManifest settingsManifest;
   private final ApplicantRoutes applicantRoutes;
+  private final ExportExecutionContext exportExecutionContext;
 
   @Inject
   public UpsellController(
@@ -73,7 +75,8 @@ public final class UpsellController extends CiviFormController {
       PdfExporterService pdfExporterService,
       SettingsManifest settingsManifest,
       VersionRepository versionRepository,
-      ApplicantRoutes applicantRoutes) {
+      ApplicantRoutes applicantRoutes,
+      ExportExecutionContext exportExecutionContext) {
     super(profileUtils, versionRepository);
     this.classLoaderExecutionContext = checkNotNull(classLoaderExecutionContext);
     this.applicantService = checkNotNull(applicantService);
@@ -87,6 +90,7 @@ public final class UpsellController extends CiviFormController {
     this.pdfExporterService = checkNotNull(pdfExporterService);
     this.settingsManifest = checkNotNull(settingsManifest);
     this.applicantRoutes = checkNotNull(applicantRoutes);
+    this.exportExecutionContext = checkNotNull(exportExecutionContext);
   }
 
   @Secure
@@ -262,7 +266,9 @@ public final class UpsellController extends CiviFormController {
                   .withHeader(
                       "Content-Disposition",
                       String.format("attachment; filename=\"%s\"", pdf.getFileName()));
-            })
+            },
+            // Rendering the PDF is CPU bound, so keep it off the threads serving requests.
+            exportExecutionContext.current())
         .exceptionally(
             ex -> {
               if (ex instanceof CompletionException) {
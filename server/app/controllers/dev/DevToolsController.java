@@ -12,9 +12,6 @@ import io.ebean.Database;
 import io.ebean.Transaction;
 import io.ebean.annotation.TxIsolation;
 import java.time.Clock;
-import java.time.Instant;
-import java.time.LocalDateTime;
-import java.time.temporal.ChronoUnit;
 import models.JobType;
 import models.LifecycleStage;
 import models.Models;
@@ -28,6 +25,7 @@ import play.mvc.Controller;
 import play.mvc.Http.Request;
 import play.mvc.Result;
 import play.mvc.With;
+import repository.PersistedDurableJobRepository;
 import repository.TransactionManager;
 import services.program.ActiveAndDraftPrograms;
 import services.program.ProgramService;
@@ -54,6 +52,9 @@ public class DevToolsController extends Controller {
   private final AsyncCacheApi programCache;
   private final AsyncCacheApi programDefCache;
   private final AsyncCacheApi versionsByProgramCache;
+  private final AsyncCacheApi activeVersionCache;
+  private final AsyncCacheApi programCatalogCache;
+  private final PersistedDurableJobRepository persistedDurableJobRepository;
   private final Clock clock;
   private final TransactionManager transactionManager = new TransactionManager();
 
@@ -65,12 +66,15 @@ public class DevToolsController extends Controller {
       ProgramService programService,
       SettingsService settingsService,
       SettingsManifest settingsManifest,
+      PersistedDurableJobRepository persistedDurableJobRepository,
       Clock clock,
       @NamedCache("version-questions") AsyncCacheApi questionsByVersionCache,
       @NamedCache("version-programs") AsyncCacheApi programsByVersionCache,
       @NamedCache("program") AsyncCacheApi programCache,
       @NamedCache("full-program-definition") AsyncCacheApi programDefCache,
-      @NamedCache("program-versions") AsyncCacheApi versionsByProgramCache) {
+      @NamedCache("program-versions") AsyncCacheApi versionsByProgramCache,
+      @NamedCache("active-version") AsyncCacheApi activeVersionCache,
+      @NamedCache("program-catalog") AsyncCacheApi programCatalogCache) {
     this.devDatabaseSeedTask = checkNotNull(devDatabaseSeedTask);
     this.view = checkNotNull(view);
     this.database = DB.getDefault();
@@ -83,6 +87,9 @@ public class DevToolsController extends Controller {
     this.programCache = checkNotNull(programCache);
     this.programDefCache = checkNotNull(programDefCache);
     this.versionsByProgramCache = checkNotNull(versionsByProgramCache);
+    this.activeVersionCache = checkNotNull(activeVersionCache);
+    this.programCatalogCache = checkNotNull(programCatalogCache);
+    this.persistedDurableJobRepository = checkNotNull(persistedDurableJobRepository);
     this.clock = checkNotNull(clock);
   }
 
@@ -151,20 +158,12 @@ public class DevToolsController extends Controller {
 
   public Result runDurableJob(Request request) throws InterruptedException {
     String jobName = request.body().asFormUrlEncoded().get("durableJobSelect")[0];
-    // I think there's currently a bug where the job runner interprets the timestamps as local
-    // times rather than UTC. So set it to yesterday to ensure it runs.
-    Instant runTime =
-        LocalDateTime.now(clock)
-            .minus(1, ChronoUnit.DAYS)
-            .toInstant(clock.getZone().getRules().getOffset(Instant.now()));
-
-    // Job types run on demand should be set to recurring in order to be picked up by pekko
-    // and run dynamically.
     PersistedDurableJobModel job =
-        new PersistedDurableJobModel(jobName, JobType.RECURRING, runTime);
-    Transaction transaction = database.beginTransaction(TxIsolation.SERIALIZABLE);
-    job.save(transaction);
-    transaction.commit();
+        new PersistedDurableJobModel(jobName, JobType.ON_DEMAND, clock.instant());
+    try (Transaction transaction = database.beginTransaction(TxIsolation.SERIALIZABLE)) {
+      persistedDurableJobRepository.insertJobToRunNow(job);
+      transaction.commit();
+    }
     return ok(String.format("Added one-time run of %s", jobName));
   }
 
@@ -200,6 +199,9 @@ public class DevToolsController extends Controller {
       clearCacheIfEnabled();
       logger.warn("Clearing database tables.");
       truncateTables();
+      // Clearing the tables replaces the active version, which may have been cached again while
+      // the tables were being cleared.
+      clearCacheIfEnabled();
       logger.warn("Done clearing data.");
 
       return true;
@@ -233,6 +235,8 @@ public class DevToolsController extends Controller {
     if (settingsManifest.getVersionCacheEnabled()) {
       programsByVersionCache.removeAll().toCompletableFuture().join();
       questionsByVersionCache.removeAll().toCompletableFuture().join();
+      activeVersionCache.removeAll().toCompletableFuture().join();
+      programCatalogCache.removeAll().toCompletableFuture().join();
     }
     if (settingsManifest.getProgramCacheEnabled()) {
       programCache.removeAll().toCompletableFuture().join();
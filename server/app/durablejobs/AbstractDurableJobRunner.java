@@ -1,51 +1,140 @@
 package durablejobs;
 
 import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Maps;
 import com.typesafe.config.Config;
-import io.ebean.DB;
-import io.ebean.Database;
-import io.ebean.Transaction;
+import io.prometheus.client.Gauge;
+import io.prometheus.client.Histogram;
+import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.time.ZoneOffset;
-import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
-import java.util.concurrent.CancellationException;
+import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ExecutionException;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import javax.annotation.Nullable;
 import javax.inject.Provider;
+import models.JobType;
 import models.PersistedDurableJobModel;
 import org.apache.commons.lang3.exception.ExceptionUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import repository.PersistedDurableJobRepository;
 import services.email.EmailSendClient;
 
 /**
  * Executes {@link DurableJob}s when their time has come.
  *
- * <p>AbstractDurableJobRunner children should be singletons and its {@code runJobs} method is
- * {@code synchronized} to prevent overlapping executions within the same server at the same time.
+ * <p>Jobs run on the threads of {@link DurableJobExecutionContext}, up to {@code
+ * durable_jobs.max_concurrent_jobs} of each {@link JobType} at a time, so that a long running job
+ * doesn't hold up the others. Each job is claimed in a short transaction that leases it to this
+ * runner, and the lease is renewed while the job runs rather than holding a transaction open. A job
+ * whose server stopped while running it, or that timed out, is claimed again once its lease
+ * expires. How a job finished is only recorded while this runner still holds its lease.
+ *
+ * <p>AbstractDurableJobRunner children should be singletons, since the jobs running are counted per
+ * instance.
  */
 public abstract class AbstractDurableJobRunner {
 
   private static final Logger logger = LoggerFactory.getLogger(AbstractDurableJobRunner.class);
 
+  /** The longest a failed {@link JobType#ON_DEMAND} job waits before it is run again. */
+  private static final Duration MAX_RETRY_BACKOFF = Duration.ofHours(1);
+
+  private static final Gauge READY_JOBS =
+      Gauge.build()
+          .name("durable_jobs_ready")
+          .help("Number of durable jobs ready to run that aren't running")
+          .labelNames("job_type")
+          .register();
+
+  private static final Histogram JOB_START_LAG =
+      Histogram.build()
+          .name("durable_job_start_lag_seconds")
+          .help("Time from when a durable job was ready to run until it started")
+          .labelNames("job_name")
+          .buckets(0.1, 1, 5, 15, 30, 60, 300, 900, 3600)
+          .register();
+
+  private static final Histogram JOB_DURATION =
+      Histogram.build()
+          .name("durable_job_duration_seconds")
+          .help("Time durable jobs ran for, by how they finished")
+          .labelNames("job_name", "result")
+          .buckets(0.1, 1, 5, 30, 60, 300, 900, 1800, 3600)
+          .register();
+
+  /**
+   * Renews leases and times out jobs, on a thread of its own so that running jobs can't hold it
+   * up. It only does the database work of renewing leases, and hands anything else over to {@link
+   * #TIMEOUT_EXECUTOR} so that leases are renewed on time.
+   */
+  private static final ScheduledExecutorService LEASE_EXECUTOR =
+      Executors.newSingleThreadScheduledExecutor(
+          runnable -> {
+            Thread thread = new Thread(runnable, "durable-job-leases");
+            thread.setDaemon(true);
+            return thread;
+          });
+
+  /**
+   * Records that jobs timed out. Its threads aren't those of {@link DurableJobExecutionContext},
+   * which may all be taken by the jobs that timed out.
+   */
+  private static final ExecutorService TIMEOUT_EXECUTOR =
+      Executors.newCachedThreadPool(
+          runnable -> {
+            Thread thread = new Thread(runnable, "durable-job-timeouts");
+            thread.setDaemon(true);
+            return thread;
+          });
+
   private final String hostName;
-  private final Database database = DB.getDefault();
   private final DurableJobExecutionContext durableJobExecutionContext;
   private final DurableJobRegistry durableJobRegistry;
+  private final PersistedDurableJobRepository persistedDurableJobRepository;
   private final String itEmailAddress;
   private final int jobTimeoutMinutes;
+  private final Duration leaseDuration;
+  private final Duration retryBackoff;
+  private final ImmutableMap<JobType, Integer> maxConcurrentJobs;
   private final Provider<LocalDateTime> nowProvider;
   private final EmailSendClient emailSendClient;
   private final ZoneOffset zoneOffset;
 
+  /** Identifies the jobs leased to this runner. */
+  private final String leaseOwner = UUID.randomUUID().toString();
+
+  /**
+   * The number of jobs of each type this runner is running, including those that timed out and
+   * haven't returned yet. Guarded by {@code this}.
+   */
+  private final Map<JobType, Integer> runningJobs = new EnumMap<>(JobType.class);
+
+  /** The number of jobs that timed out and haven't returned yet. Guarded by {@code this}. */
+  private int timedOutJobs = 0;
+
   public AbstractDurableJobRunner(
       Config config,
       DurableJobExecutionContext durableJobExecutionContext,
       DurableJobRegistry durableJobRegistry,
+      PersistedDurableJobRepository persistedDurableJobRepository,
       Provider<LocalDateTime> nowProvider,
       EmailSendClient emailSendClient,
       ZoneId zoneId) {
@@ -53,52 +142,87 @@ public abstract class AbstractDurableJobRunner {
         config.getString("base_url").replace("https", "").replace("http", "").replace("://", "");
     this.durableJobExecutionContext = Preconditions.checkNotNull(durableJobExecutionContext);
     this.durableJobRegistry = Preconditions.checkNotNull(durableJobRegistry);
+    this.persistedDurableJobRepository = Preconditions.checkNotNull(persistedDurableJobRepository);
     this.itEmailAddress =
         config.getString("it_email_address").isBlank()
             ? config.getString("support_email_address")
             : config.getString("it_email_address");
     this.jobTimeoutMinutes = config.getInt("durable_jobs.job_timeout_minutes");
+    this.leaseDuration = Duration.ofSeconds(config.getInt("durable_jobs.lease_seconds"));
+    this.retryBackoff = Duration.ofSeconds(config.getInt("durable_jobs.retry_backoff_seconds"));
+    this.maxConcurrentJobs =
+        Arrays.stream(JobType.values())
+            .collect(
+                Maps.toImmutableEnumMap(
+                    Function.identity(),
+                    jobType ->
+                        config.getInt(
+                            "durable_jobs.max_concurrent_jobs."
+                                + jobType.name().toLowerCase(Locale.ROOT))));
 
     this.emailSendClient = Preconditions.checkNotNull(emailSendClient);
     this.nowProvider = Preconditions.checkNotNull(nowProvider);
     this.zoneOffset = zoneId.getRules().getOffset(nowProvider.get());
   }
 
-  /** Get the job to run or an empty optional if one does not exist */
-  abstract Optional<PersistedDurableJobModel> getJobForExecution();
+  /** The types of jobs this runner runs. */
+  abstract ImmutableSet<JobType> jobTypes();
 
-  /** Determines if the provided job, if it exists, is allowed to be run. */
-  abstract boolean canRun(Optional<PersistedDurableJobModel> maybeJobToRun);
+  /**
+   * Starts the durable jobs that are ready to run, up to the concurrency limit of their type, and
+   * returns without waiting for them. Each job that finishes starts the next one that is ready.
+   */
+  public void startJobs() {
+    ImmutableMap<JobType, Long> readyJobs =
+        persistedDurableJobRepository.countJobsReadyForExecution();
+    for (JobType jobType : jobTypes()) {
+      READY_JOBS.labels(jobType.name()).set(readyJobs.getOrDefault(jobType, 0L));
+    }
+    startReadyJobs();
+  }
 
   /**
-   * Queries for durable jobs that are ready to run and executes them.
-   *
-   * <p>Continues executing jobs as long as there are jobs to execute and it does not exceed the
-   * time specified by "durable_jobs.poll_interval_seconds". This is to prevent runners attempting
-   * to run at the same time in the same server.
-   *
-   * <p>{@code synchronized} to avoid overlapping executions within the same server.
+   * Runs the durable jobs that are ready to run, and returns once none are ready and the jobs it
+   * started have finished or timed out.
    */
   public synchronized void runJobs() {
     logger.info("JobRunner_Start thread ID={}", Thread.currentThread().getId());
 
-    Transaction transaction = database.beginTransaction();
-    Optional<PersistedDurableJobModel> maybeJobToRun = getJobForExecution();
-
-    while (canRun(maybeJobToRun)) {
-      PersistedDurableJobModel jobToRun = maybeJobToRun.get();
-      runJob(jobToRun);
-      notifyUponFinalFailure(jobToRun);
-      transaction.commit();
-
-      transaction = database.beginTransaction();
-      maybeJobToRun = getJobForExecution();
+    startJobs();
+    while (runningJobs.values().stream().mapToInt(Integer::intValue).sum() > timedOutJobs) {
+      try {
+        // Finishing and timed out jobs notify after starting the next ready job.
+        wait();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return;
+      }
     }
-    transaction.close();
 
     logger.info("JobRunner_Stop thread_ID={}", Thread.currentThread().getId());
   }
 
+  private synchronized void startReadyJobs() {
+    while (true) {
+      ImmutableSet<JobType> jobTypesWithCapacity =
+          jobTypes().stream()
+              .filter(
+                  jobType -> runningJobs.getOrDefault(jobType, 0) < maxConcurrentJobs.get(jobType))
+              .collect(ImmutableSet.toImmutableSet());
+      if (jobTypesWithCapacity.isEmpty()) {
+        return;
+      }
+
+      Optional<PersistedDurableJobModel> maybeJobToRun =
+          persistedDurableJobRepository.claimJobForExecution(
+              jobTypesWithCapacity, leaseOwner, leaseDuration);
+      if (maybeJobToRun.isEmpty()) {
+        return;
+      }
+      startJob(maybeJobToRun.get());
+    }
+  }
+
   private void notifyUponFinalFailure(PersistedDurableJobModel job) {
     if (!job.hasFailedWithNoRemainingAttempts()) {
       return;
@@ -119,17 +243,20 @@ public abstract class AbstractDurableJobRunner {
     emailSendClient.send(itEmailAddress, subject, contents.toString());
   }
 
-  private void runJob(PersistedDurableJobModel persistedDurableJob) {
-    LocalDateTime startTime = nowProvider.get();
+  /** Starts running a job claimed by this runner on a thread of the job dispatcher. */
+  private synchronized void startJob(PersistedDurableJobModel persistedDurableJob) {
+    Instant startTime = now();
     logger.info(
         "JobRunner_ExecutingJob thread_ID={}, job_name=\"{}\", job_ID={}",
         Thread.currentThread().getId(),
         persistedDurableJob.getJobName(),
         persistedDurableJob.id);
+    JOB_START_LAG
+        .labels(persistedDurableJob.getJobName())
+        .observe(getSecondsSince(readyTime(persistedDurableJob), startTime));
 
+    DurableJob jobToRun;
     try {
-      persistedDurableJob.decrementRemainingAttempts().save();
-
       Optional<DurableJobName> optionalJobName =
           DurableJobName.optionalValueOf(persistedDurableJob.getJobName());
       if (optionalJobName.isEmpty()) {
@@ -137,58 +264,142 @@ public abstract class AbstractDurableJobRunner {
             String.format(
                 "Job name \"%s\" not found in DurableJobName", persistedDurableJob.getJobName()));
       }
+      jobToRun =
+          durableJobRegistry.get(optionalJobName.get()).getFactory().create(persistedDurableJob);
+    } catch (JobNotFoundException e) {
+      deleteJobNotFound(persistedDurableJob, startTime, e);
+      return;
+    } catch (IllegalArgumentException e) {
+      finishJob(persistedDurableJob, startTime, e);
+      return;
+    }
+
+    runningJobs.merge(persistedDurableJob.getJobType(), 1, Integer::sum);
+    CompletableFuture<Void> future =
+        CompletableFuture.runAsync(jobToRun::run, durableJobExecutionContext.current());
+    // Set by whichever of the job finishing and the job timing out happens first.
+    AtomicBoolean settled = new AtomicBoolean();
 
-      // Run the job in a separate thread and block until it completes, fails, or times out.
-      runJobWithTimeout(
-          durableJobRegistry.get(optionalJobName.get()).getFactory().create(persistedDurableJob));
+    long heartbeatMillis = leaseDuration.toMillis() / 3;
+    ScheduledFuture<?> heartbeat =
+        LEASE_EXECUTOR.scheduleAtFixedRate(
+            () -> renewLease(persistedDurableJob, future),
+            heartbeatMillis,
+            heartbeatMillis,
+            TimeUnit.MILLISECONDS);
+    // The job isn't interrupted when it times out. It keeps its lease, which is no longer renewed,
+    // and its slot until it returns, so that it isn't run twice at once by this runner, and only
+    // by another once the lease expires.
+    ScheduledFuture<?> timeout =
+        LEASE_EXECUTOR.schedule(
+            () -> {
+              if (settled.compareAndSet(false, true)) {
+                heartbeat.cancel(/* mayInterruptIfRunning= */ false);
+                TIMEOUT_EXECUTOR.execute(() -> timeOutJob(persistedDurableJob, startTime));
+              }
+            },
+            getJobTimeoutMillis(),
+            TimeUnit.MILLISECONDS);
 
-      persistedDurableJob.setSuccessTime(nowProvider.get().toInstant(zoneOffset)).save();
+    // Runs on the thread of the job, once it returns.
+    future.whenComplete(
+        (unused, throwable) -> {
+          boolean finishedInTime = settled.compareAndSet(false, true);
+          heartbeat.cancel(/* mayInterruptIfRunning= */ false);
+          timeout.cancel(/* mayInterruptIfRunning= */ false);
+          try {
+            if (finishedInTime) {
+              finishJob(persistedDurableJob, startTime, throwable);
+            } else {
+              logger.warn(
+                  "JobRunner_TimedOutJobReturned job_name=\"{}\", job_ID={}, duration_s={}",
+                  persistedDurableJob.getJobName(),
+                  persistedDurableJob.id,
+                  getSecondsSince(startTime, now()));
+            }
+          } finally {
+            synchronized (this) {
+              runningJobs.merge(persistedDurableJob.getJobType(), -1, Integer::sum);
+              if (!finishedInTime) {
+                timedOutJobs--;
+              }
+              try {
+                startReadyJobs();
+              } finally {
+                notifyAll();
+              }
+            }
+          }
+        });
+  }
 
+  private void renewLease(PersistedDurableJobModel persistedDurableJob, CompletableFuture<?> job) {
+    try {
+      if (!persistedDurableJobRepository.renewLease(
+              persistedDurableJob.id, leaseOwner, leaseDuration)
+          && !job.isDone()) {
+        logger.warn(
+            "JobRunner_LeaseLost job_name=\"{}\", job_ID={}",
+            persistedDurableJob.getJobName(),
+            persistedDurableJob.id);
+      }
+    } catch (RuntimeException e) {
+      // Tried again on the next heartbeat, and the lease only lapses if they all fail.
+      logger.warn("JobRunner_LeaseRenewalFailed job_ID={}", persistedDurableJob.id, e);
+    }
+  }
+
+  /** Records how a job finished, and releases it to be run again if it failed. */
+  private void finishJob(
+      PersistedDurableJobModel persistedDurableJob, Instant startTime, @Nullable Throwable error) {
+    double durationSeconds = getSecondsSince(startTime, now());
+    Throwable cause = error instanceof CompletionException ? error.getCause() : error;
+    String result;
+    if (cause == null) {
+      persistedDurableJob.setSuccessTime(now());
+      result = "success";
       logger.info(
           "JobRunner_JobSucceeded job_name=\"{}\", job_ID={}, duration_s={}",
           persistedDurableJob.getJobName(),
           persistedDurableJob.id,
-          getJobDurationInSeconds(startTime));
-    } catch (JobNotFoundException e) {
-      // If the job is not found in the registry, it was likely removed intentionally
-      // In this case, we want to delete the job from the database because it should not be run
-      // anymore
-      if (persistedDurableJob.delete()) {
-        logger.info(
-            String.format(
-                "Job was not found in the registry and was deleted from the db. job_name=\"%s\"",
-                persistedDurableJob.getJobName()));
-      } else {
-        // If the delete fails, handle it like the other errors
-        String msg =
-            String.format(
-                "Job was not found in the registry and there was an error deleting the job. Error:"
-                    + " %s job_name=\"%s\", job_ID=%d, attempts_remaining=%d, duration_s=%f,"
-                    + " message: %s",
-                e.getClass().getSimpleName(),
-                persistedDurableJob.getJobName(),
-                persistedDurableJob.id,
-                persistedDurableJob.getRemainingAttempts(),
-                getJobDurationInSeconds(startTime),
-                e.getMessage());
-        logger.error(msg);
-        persistedDurableJob.appendErrorMessage(msg).save();
-      }
-    } catch (IllegalArgumentException | CancellationException | InterruptedException e) {
+          durationSeconds);
+    } else {
+      result = "failure";
       String msg =
           String.format(
               "JobRunner_JobFailed %s job_name=\"%s\", job_ID=%d, attempts_remaining=%d,"
-                  + " duration_s=%f,"
-                  + " message: %s",
-              e.getClass().getSimpleName(),
+                  + " duration_s=%f, error_message=%s, trace=%s",
+              cause.getClass().getSimpleName(),
               persistedDurableJob.getJobName(),
               persistedDurableJob.id,
               persistedDurableJob.getRemainingAttempts(),
-              getJobDurationInSeconds(startTime),
-              e.getMessage());
+              durationSeconds,
+              cause.getMessage(),
+              ExceptionUtils.getStackTrace(cause));
       logger.error(msg);
-      persistedDurableJob.appendErrorMessage(msg).save();
-    } catch (TimeoutException e) {
+      persistedDurableJob.appendErrorMessage(msg);
+      // Recurring jobs keep the execution time their schedule is found by, and startup jobs only
+      // run while the server starts, so only on demand jobs wait before they are run again.
+      if (persistedDurableJob.getJobType() == JobType.ON_DEMAND) {
+        persistedDurableJob.setExecutionTime(now().plus(getRetryBackoff(persistedDurableJob)));
+      }
+    }
+
+    JOB_DURATION.labels(persistedDurableJob.getJobName(), result).observe(durationSeconds);
+    if (persistedDurableJobRepository.finishLeasedJob(persistedDurableJob, leaseOwner)) {
+      notifyUponFinalFailure(persistedDurableJob);
+    } else {
+      logLeaseLost(persistedDurableJob);
+    }
+  }
+
+  /**
+   * Records that a job timed out, and starts the next ready job if the timed out job's slot is the
+   * only one left. The job is run again once its lease expires, if it has attempts remaining.
+   */
+  private void timeOutJob(PersistedDurableJobModel persistedDurableJob, Instant startTime) {
+    try {
+      double durationSeconds = getSecondsSince(startTime, now());
       String msg =
           String.format(
               "JobRunner_JobTimeout job_name=\"%s\", job_ID=%d, attempts_remaining=%d,"
@@ -196,41 +407,100 @@ public abstract class AbstractDurableJobRunner {
               persistedDurableJob.getJobName(),
               persistedDurableJob.id,
               persistedDurableJob.getRemainingAttempts(),
-              getJobDurationInSeconds(startTime));
+              durationSeconds);
       logger.error(msg);
-      persistedDurableJob.appendErrorMessage(msg).save();
-    } catch (ExecutionException e) {
+      persistedDurableJob.appendErrorMessage(msg);
+      JOB_DURATION.labels(persistedDurableJob.getJobName(), "timeout").observe(durationSeconds);
+      if (persistedDurableJobRepository.recordLeasedJobError(persistedDurableJob, leaseOwner)) {
+        notifyUponFinalFailure(persistedDurableJob);
+      } else {
+        logLeaseLost(persistedDurableJob);
+      }
+    } finally {
+      synchronized (this) {
+        timedOutJobs++;
+        notifyAll();
+      }
+    }
+  }
+
+  private static void logLeaseLost(PersistedDurableJobModel persistedDurableJob) {
+    logger.warn(
+        "JobRunner_LeaseLost job_name=\"{}\", job_ID={}, the job's outcome wasn't recorded",
+        persistedDurableJob.getJobName(),
+        persistedDurableJob.id);
+  }
+
+  private void deleteJobNotFound(
+      PersistedDurableJobModel persistedDurableJob, Instant startTime, JobNotFoundException e) {
+    // If the job is not found in the registry, it was likely removed intentionally
+    // In this case, we want to delete the job from the database because it should not be run
+    // anymore
+    if (persistedDurableJob.delete()) {
+      logger.info(
+          String.format(
+              "Job was not found in the registry and was deleted from the db. job_name=\"%s\"",
+              persistedDurableJob.getJobName()));
+    } else {
+      // If the delete fails, handle it like the other errors
       String msg =
           String.format(
-              "JobRunner_JobFailed ExecutionException job_name=\"%s\", job_ID=%d,"
-                  + " attempts_remaining=%d, duration_s=%f, error_message=%s, trace=%s",
+              "Job was not found in the registry and there was an error deleting the job. Error:"
+                  + " %s job_name=\"%s\", job_ID=%d, attempts_remaining=%d, duration_s=%f,"
+                  + " message: %s",
+              e.getClass().getSimpleName(),
               persistedDurableJob.getJobName(),
               persistedDurableJob.id,
               persistedDurableJob.getRemainingAttempts(),
-              getJobDurationInSeconds(startTime),
-              e.getMessage(),
-              ExceptionUtils.getStackTrace(e));
+              getSecondsSince(startTime, now()),
+              e.getMessage());
       logger.error(msg);
-      persistedDurableJob.appendErrorMessage(msg).save();
+      persistedDurableJobRepository.finishLeasedJob(
+          persistedDurableJob.appendErrorMessage(msg), leaseOwner);
     }
   }
 
-  private synchronized void runJobWithTimeout(DurableJob jobToRun)
-      throws ExecutionException, InterruptedException, TimeoutException {
-    CompletableFuture<Void> future =
-        CompletableFuture.runAsync(() -> jobToRun.run(), durableJobExecutionContext.current());
-
+  private long getJobTimeoutMillis() {
     // We set the job timeout to 0 in test
     if (jobTimeoutMinutes == 0) {
       // Timeout test jobs after 2500ms
-      future.get(2500, TimeUnit.MILLISECONDS);
-      return;
+      return 2500;
     }
 
-    future.get(jobTimeoutMinutes, TimeUnit.MINUTES);
+    return TimeUnit.MINUTES.toMillis(jobTimeoutMinutes);
+  }
+
+  /**
+   * How long a failed job waits before it is run again: as long as it has existed so far, so that
+   * each retry waits about twice as long as the one before, and an outage of a service the job
+   * depends on doesn't use up its attempts. At least {@code durable_jobs.retry_backoff_seconds} and
+   * at most {@link #MAX_RETRY_BACKOFF}.
+   */
+  private Duration getRetryBackoff(PersistedDurableJobModel persistedDurableJob) {
+    Instant createTime = persistedDurableJob.getCreateTime();
+    Duration age = createTime == null ? Duration.ZERO : Duration.between(createTime, now());
+    if (age.compareTo(retryBackoff) < 0) {
+      return retryBackoff;
+    }
+    return age.compareTo(MAX_RETRY_BACKOFF) > 0 ? MAX_RETRY_BACKOFF : age;
+  }
+
+  /**
+   * When the job became ready to run. Jobs inserted to run on demand before {@link
+   * JobType#ON_DEMAND} have an execution time in the past, so they are ready from when they were
+   * created.
+   */
+  private static Instant readyTime(PersistedDurableJobModel persistedDurableJob) {
+    Instant createTime = persistedDurableJob.getCreateTime();
+    Instant executionTime = persistedDurableJob.getExecutionTime();
+    return createTime != null && createTime.isAfter(executionTime) ? createTime : executionTime;
+  }
+
+  private Instant now() {
+    return nowProvider.get().toInstant(zoneOffset);
   }
 
-  private double getJobDurationInSeconds(LocalDateTime startTime) {
-    return ((double) ChronoUnit.MILLIS.between(startTime, nowProvider.get())) / 1000;
+  private static double getSecondsSince(Instant startTime, Instant endTime) {
+    return Math.max(0, (double) Duration.between(startTime, endTime).toMillis() / 1000);
   }
 }
@@ -0,0 +1,371 @@
+package durablejobs;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.ImmutableList;
+import com.typesafe.config.Config;
+import io.ebean.DB;
+import io.ebean.Database;
+import io.ebean.SqlRow;
+import io.ebean.Transaction;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Base for jobs that rewrite a jsonb column on every row matching a filter, like the answers of
+ * applicants and applications stored in an older format.
+ *
+ * <p>Matching rows are processed in chunks of {@link Options#chunkSize} rows in id order, each
+ * locked and committed in a transaction of its own, so that the job doesn't hold locks on the whole
+ * table and a row that fails to migrate doesn't undo the others. Up to {@link Options#parallelism}
+ * chunks are migrated at the same time.
+ *
+ * <p>The id below which every chunk has been committed is checkpointed in {@code
+ * batch_migration_checkpoints}, so that a job that is retried, or interrupted by the server
+ * stopping, resumes from it. A job that fails to migrate some rows fails once the other rows are
+ * migrated, to be retried from before the first chunk with a failure. Migrations are expected to be
+ * idempotent, so that rows migrated again on a retry are unchanged.
+ *
+ * <p>{@link #dryRun} migrates the rows without committing any of them, and reports how many rows
+ * would change and how long it took.
+ */
+public abstract class BatchMigrationJob extends DurableJob {
+  private static final Logger logger = LoggerFactory.getLogger(BatchMigrationJob.class);
+  private static final ObjectMapper objectMapper = new ObjectMapper();
+
+  /** How a batch migration works through the rows, from {@code durable_jobs.batch_migration}. */
+  public record Options(int chunkSize, int parallelism, Duration pauseBetweenChunks) {
+    public static Options fromConfig(Config config) {
+      return new Options(
+          config.getInt("durable_jobs.batch_migration.chunk_size"),
+          config.getInt("durable_jobs.batch_migration.parallelism"),
+          Duration.ofMillis(config.getInt("durable_jobs.batch_migration.pause_millis")));
+    }
+  }
+
+  /**
+   * A jsonb {@code column} of {@code table} that the migration rewrites on the rows matching {@code
+   * filter}. The filter should leave out rows that are already migrated, so that a retried job only
+   * reads the rows left to migrate.
+   */
+  protected record MigratedColumn(String table, String column, String filter) {
+    @Override
+    public String toString() {
+      return table + "." + column;
+    }
+  }
+
+  /** What a migration did, or for {@link #dryRun} would do. */
+  public record Report(
+      long rowsExamined, long rowsMigrated, long rowsFailed, int chunks, Duration elapsed) {}
+
+  private final Database database;
+  private final Options options;
+
+  protected BatchMigrationJob(Options options) {
+    this.database = DB.getDefault();
+    this.options = options;
+  }
+
+  /** The columns to migrate, in the order they are migrated. */
+  protected abstract ImmutableList<MigratedColumn> migratedColumns();
+
+  /**
+   * Migrates the {@code value} of {@code column} on a row, in place or by returning a new value.
+   * The row is only updated if the returned value differs from the original.
+   *
+   * @throws Exception if the row can't be migrated, which is reported without stopping the others
+   */
+  protected abstract JsonNode migrate(MigratedColumn column, JsonNode value) throws Exception;
+
+  /**
+   * Called once every row is migrated, for example to validate constraints that the migration
+   * makes hold. Not called by {@link #dryRun}.
+   */
+  protected void afterMigration() {}
+
+  @Override
+  public final void run() {
+    String jobName = getPersistedDurableJob().getJobName();
+    Report report = migrateColumns(/* dryRun= */ false);
+    logger.info("BatchMigration_Finished job_name=\"{}\", {}", jobName, report);
+    if (report.rowsFailed() > 0) {
+      throw new IllegalStateException(
+          String.format(
+              "Batch migration %s failed to migrate %d rows. See previous logs for failures.",
+              jobName, report.rowsFailed()));
+    }
+    afterMigration();
+
+    // So that running the job again, for example from the dev tools, starts over.
+    database
+        .sqlUpdate("DELETE FROM batch_migration_checkpoints WHERE job_name = :jobName")
+        .setParameter("jobName", jobName)
+        .execute();
+  }
+
+  /**
+   * Migrates every matching row without committing the changes or checkpointing, and reports how
+   * many rows would change.
+   */
+  public final Report dryRun() {
+    Report report = migrateColumns(/* dryRun= */ true);
+    logger.info(
+        "BatchMigration_DryRun job_name=\"{}\", {}",
+        getPersistedDurableJob().getJobName(),
+        report);
+    return report;
+  }
+
+  private Report migrateColumns(boolean dryRun) {
+    Instant startTime = Instant.now();
+    Counts counts = new Counts();
+    ExecutorService workers =
+        Executors.newFixedThreadPool(
+            options.parallelism(),
+            runnable -> {
+              Thread thread = new Thread(runnable, "batch-migration-worker");
+              thread.setDaemon(true);
+              return thread;
+            });
+    try {
+      for (MigratedColumn column : migratedColumns()) {
+        migrateColumn(column, dryRun, workers, counts);
+      }
+    } finally {
+      workers.shutdownNow();
+    }
+    return new Report(
+        counts.rowsExamined.get(),
+        counts.rowsMigrated.get(),
+        counts.rowsFailed.get(),
+        counts.chunks.get(),
+        Duration.between(startTime, Instant.now()));
+  }
+
+  private void migrateColumn(
+      MigratedColumn column, boolean dryRun, ExecutorService workers, Counts counts) {
+    long afterId = dryRun ? 0 : readCheckpoint(column);
+    Checkpoint checkpoint = new Checkpoint(column, dryRun);
+    // Bounds the chunks waiting for a worker, so that finding chunks doesn't run far ahead.
+    Semaphore pendingChunks = new Semaphore(options.parallelism() * 2);
+    List<CompletableFuture<Void>> chunkFutures = new ArrayList<>();
+
+    Optional<Chunk> maybeChunk = findChunk(column, afterId);
+    while (maybeChunk.isPresent()) {
+      Chunk chunk = maybeChunk.get();
+      checkpoint.started(chunk);
+      pendingChunks.acquireUninterruptibly();
+      chunkFutures.add(
+          CompletableFuture.runAsync(
+              () -> {
+                try {
+                  checkpoint.finished(chunk, migrateChunk(column, chunk, dryRun, counts));
+                  pause();
+                } finally {
+                  pendingChunks.release();
+                }
+              },
+              workers));
+      maybeChunk = findChunk(column, chunk.lastId());
+    }
+    CompletableFuture.allOf(chunkFutures.toArray(new CompletableFuture<?>[0])).join();
+  }
+
+  /** The next {@link Options#chunkSize} matching rows with ids after {@code afterId}. */
+  private Optional<Chunk> findChunk(MigratedColumn column, long afterId) {
+    SqlRow page =
+        database
+            .sqlQuery(
+                String.format(
+                    """
+                    SELECT max(id) AS last_id, count(*) AS row_count
+                    FROM (
+                      SELECT id FROM %s WHERE id > :afterId AND (%s) ORDER BY id LIMIT :chunkSize
+                    ) chunk
+                    """,
+                    column.table(), column.filter()))
+            .setParameter("afterId", afterId)
+            .setParameter("chunkSize", options.chunkSize())
+            .findOne();
+    Long lastId = page.getLong("last_id");
+    return lastId == null
+        ? Optional.empty()
+        : Optional.of(new Chunk(afterId, lastId, page.getLong("row_count")));
+  }
+
+  /**
+   * Migrates the matching rows of a chunk in a transaction of its own. Returns false if any row
+   * failed to migrate.
+   */
+  private boolean migrateChunk(MigratedColumn column, Chunk chunk, boolean dryRun, Counts counts) {
+    long rowsExamined = 0;
+    long rowsMigrated = 0;
+    long rowsFailed = 0;
+    try (Transaction transaction = database.beginTransaction()) {
+      List<SqlRow> rows =
+          database
+              .sqlQuery(
+                  String.format(
+                      """
+                      SELECT id, CAST(%s AS text) AS value
+                      FROM %s
+                      WHERE id > :afterId AND id <= :lastId AND (%s)
+                      ORDER BY id
+                      FOR UPDATE
+                      """,
+                      column.column(), column.table(), column.filter()))
+              .setParameter("afterId", chunk.afterId())
+              .setParameter("lastId", chunk.lastId())
+              .findList();
+      String updateSql =
+          String.format(
+              "UPDATE %s SET %s = CAST(:value AS jsonb) WHERE id = :id",
+              column.table(), column.column());
+
+      for (SqlRow row : rows) {
+        rowsExamined++;
+        JsonNode migrated;
+        try {
+          JsonNode value = objectMapper.readTree(row.getString("value"));
+          JsonNode original = value.deepCopy();
+          migrated = migrate(column, value);
+          if (migrated.equals(original)) {
+            continue;
+          }
+        } catch (Exception e) {
+          rowsFailed++;
+          logger.error(
+              "BatchMigration_RowFailed column={}, id={}: {}",
+              column,
+              row.getLong("id"),
+              e.getMessage(),
+              e);
+          continue;
+        }
+        database
+            .sqlUpdate(updateSql)
+            .setParameter("value", migrated.toString())
+            .setParameter("id", row.getLong("id"))
+            .execute();
+        rowsMigrated++;
+      }
+
+      if (dryRun) {
+        transaction.rollback();
+      } else {
+        transaction.commit();
+      }
+    } catch (RuntimeException e) {
+      logger.error(
+          "BatchMigration_ChunkFailed column={}, after_id={}, last_id={}",
+          column,
+          chunk.afterId(),
+          chunk.lastId(),
+          e);
+      counts.rowsExamined.addAndGet(chunk.rowCount());
+      counts.rowsFailed.addAndGet(chunk.rowCount());
+      counts.chunks.incrementAndGet();
+      return false;
+    }
+
+    counts.rowsExamined.addAndGet(rowsExamined);
+    counts.rowsMigrated.addAndGet(rowsMigrated);
+    counts.rowsFailed.addAndGet(rowsFailed);
+    counts.chunks.incrementAndGet();
+    return rowsFailed == 0;
+  }
+
+  /** Throttles the migration, so that it leaves the database room for the site's own queries. */
+  private void pause() {
+    if (options.pauseBetweenChunks().isZero()) {
+      return;
+    }
+    try {
+      Thread.sleep(options.pauseBetweenChunks().toMillis());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private long readCheckpoint(MigratedColumn column) {
+    SqlRow checkpoint =
+        database
+            .sqlQuery(
+                """
+                SELECT last_id FROM batch_migration_checkpoints
+                WHERE job_name = :jobName AND migrated_column = :column
+                """)
+            .setParameter("jobName", getPersistedDurableJob().getJobName())
+            .setParameter("column", column.toString())
+            .findOne();
+    return checkpoint == null ? 0 : checkpoint.getLong("last_id");
+  }
+
+  /** The matching rows with ids after {@code afterId}, up to and including {@code lastId}. */
+  private record Chunk(long afterId, long lastId, long rowCount) {}
+
+  private static final class Counts {
+    final AtomicLong rowsExamined = new AtomicLong();
+    final AtomicLong rowsMigrated = new AtomicLong();
+    final AtomicLong rowsFailed = new AtomicLong();
+    final AtomicInteger chunks = new AtomicInteger();
+  }
+
+  /**
+   * Advances the checkpoint of a column past the chunks that were committed, once every chunk
+   * before them has been too. Chunks finish out of order when migrated in parallel.
+   */
+  private final class Checkpoint {
+    private final MigratedColumn column;
+    private final boolean dryRun;
+
+    /** Whether each started chunk after the checkpoint succeeded, by its last id. */
+    private final TreeMap<Long, Optional<Boolean>> chunks = new TreeMap<>();
+
+    Checkpoint(MigratedColumn column, boolean dryRun) {
+      this.column = column;
+      this.dryRun = dryRun;
+    }
+
+    synchronized void started(Chunk chunk) {
+      chunks.put(chunk.lastId(), Optional.empty());
+    }
+
+    synchronized void finished(Chunk chunk, boolean succeeded) {
+      chunks.put(chunk.lastId(), Optional.of(succeeded));
+      Optional<Long> committedId = Optional.empty();
+      // A chunk that failed holds the checkpoint before it, so that a retry migrates it again.
+      while (!chunks.isEmpty() && chunks.firstEntry().getValue().orElse(false)) {
+        Map.Entry<Long, Optional<Boolean>> committed = chunks.pollFirstEntry();
+        committedId = Optional.of(committed.getKey());
+      }
+      if (committedId.isPresent() && !dryRun) {
+        database
+            .sqlUpdate(
+                """
+                INSERT INTO batch_migration_checkpoints (job_name, migrated_column, last_id)
+                VALUES (:jobName, :column, :lastId)
+                ON CONFLICT (job_name, migrated_column) DO UPDATE SET last_id = excluded.last_id
+                """)
+            .setParameter("jobName", getPersistedDurableJob().getJobName())
+            .setParameter("column", column.toString())
+            .setParameter("lastId", committedId.get())
+            .execute();
+      }
+    }
+  }
+}
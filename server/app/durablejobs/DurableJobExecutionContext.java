@@ -1,18 +1,16 @@
 package durablejobs;
 
-import static com.google.common.base.Preconditions.checkNotNull;
-
 import javax.inject.Inject;
 import javax.inject.Singleton;
 import org.apache.pekko.actor.ActorSystem;
-import play.libs.concurrent.CustomExecutionContext;
+import services.monitoring.InstrumentedExecutionContext;
 
 /** Thread pool for executing durable jobs. */
 @Singleton
-public class DurableJobExecutionContext extends CustomExecutionContext {
+public class DurableJobExecutionContext extends InstrumentedExecutionContext {
 
   @Inject
   public DurableJobExecutionContext(ActorSystem actorSystem) {
-    super(checkNotNull(actorSystem), "durable_jobs.dispatcher");
+    super(actorSystem, "durable_jobs.dispatcher");
   }
 }
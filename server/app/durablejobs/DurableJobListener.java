@@ -0,0 +1,110 @@
+package durablejobs;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import models.JobType;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import play.inject.ApplicationLifecycle;
+import repository.ListenConnectionFactory;
+import repository.PersistedDurableJobRepository;
+
+/**
+ * Starts {@link JobType#ON_DEMAND} jobs, like application exports, as soon as any server inserts
+ * one rather than at the next poll of {@code durable_jobs.poll_interval_seconds}.
+ *
+ * <p>This holds a dedicated connection, opened by {@link ListenConnectionFactory} outside the pool,
+ * that LISTENs on {@link PersistedDurableJobRepository#INSERTED_CHANNEL}. The poll still runs, to
+ * start recurring jobs whose execution time has come and in case a notification is missed.
+ */
+@Singleton
+public final class DurableJobListener {
+  private static final Logger logger = LoggerFactory.getLogger(DurableJobListener.class);
+  private static final int NOTIFICATION_POLL_TIMEOUT_MILLIS = 5_000;
+  private static final long RECONNECT_DELAY_MILLIS = 10_000;
+
+  private final ListenConnectionFactory listenConnectionFactory;
+  private final RecurringDurableJobRunner recurringDurableJobRunner;
+  private final ExecutorService executor;
+  private volatile boolean running = true;
+
+  @Inject
+  public DurableJobListener(
+      RecurringDurableJobRunner recurringDurableJobRunner,
+      ListenConnectionFactory listenConnectionFactory,
+      ApplicationLifecycle applicationLifecycle) {
+    this.listenConnectionFactory = checkNotNull(listenConnectionFactory);
+    this.recurringDurableJobRunner = checkNotNull(recurringDurableJobRunner);
+    this.executor =
+        Executors.newSingleThreadExecutor(
+            runnable -> {
+              Thread thread = new Thread(runnable, "durable-job-listener");
+              thread.setDaemon(true);
+              return thread;
+            });
+    applicationLifecycle.addStopHook(
+        () -> {
+          running = false;
+          executor.shutdownNow();
+          return CompletableFuture.completedFuture(null);
+        });
+  }
+
+  /** Starts listening, once the server is ready to run recurring jobs. */
+  public void start() {
+    executor.execute(this::listen);
+  }
+
+  private void listen() {
+    while (running) {
+      try (Connection connection =
+          listenConnectionFactory.listen(PersistedDurableJobRepository.INSERTED_CHANNEL)) {
+        PGConnection pgConnection = connection.unwrap(PGConnection.class);
+        while (running) {
+          PGNotification[] notifications =
+              pgConnection.getNotifications(NOTIFICATION_POLL_TIMEOUT_MILLIS);
+          if (notifications == null) {
+            continue;
+          }
+          // Notifications arrive in batches when many jobs are inserted at once, and a single
+          // start claims as many of them as there is room for.
+          if (Arrays.stream(notifications)
+              .anyMatch(
+                  notification -> notification.getParameter().equals(JobType.ON_DEMAND.name()))) {
+            startJobs();
+          }
+        }
+      } catch (SQLException e) {
+        if (!running) {
+          return;
+        }
+        logger.warn("Lost connection listening for durable jobs, reconnecting", e);
+        try {
+          Thread.sleep(RECONNECT_DELAY_MILLIS);
+        } catch (InterruptedException interrupted) {
+          Thread.currentThread().interrupt();
+          return;
+        }
+      }
+    }
+  }
+
+  private void startJobs() {
+    try {
+      recurringDurableJobRunner.startJobs();
+    } catch (RuntimeException e) {
+      // The next poll starts the jobs instead.
+      logger.warn("Failed to start durable jobs on notification", e);
+    }
+  }
+}
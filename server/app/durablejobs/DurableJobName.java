@@ -21,6 +21,11 @@ public enum DurableJobName {
   COPY_FILE_KEY_FOR_MULTIPLE_FILE_UPLOAD("COPY_FILE_KEY_FOR_MULTIPLE_FILE_UPLOAD"),
   CONVERT_ADDRESS_SERVICE_AREA_TO_ARRAY("CONVERT_ADDRESS_SERVICE_AREA_TO_ARRAY"),
   ADD_CATEGORY_AND_TRANSLATION("ADD_CATEGORY_AND_TRANSLATION"),
+  APPLICATION_EXPORT("APPLICATION_EXPORT"),
+  BACKFILL_SUBMISSION_STATS("BACKFILL_SUBMISSION_STATS"),
+  SEND_SUBMISSION_NOTIFICATIONS("SEND_SUBMISSION_NOTIFICATIONS"),
+  CONVERT_APPLICANT_DATA_TO_JSONB_OBJECTS("CONVERT_APPLICANT_DATA_TO_JSONB_OBJECTS"),
+  CREATE_ANSWER_FILTER_INDEXES("CREATE_ANSWER_FILTER_INDEXES"),
 
   // job names used for tests
   TEST("TEST");
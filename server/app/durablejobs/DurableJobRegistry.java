@@ -128,6 +128,25 @@ public final class DurableJobRegistry {
             durableJobFactory, jobName, jobType, Optional.of(jobExecutionTimeResolver)));
   }
 
+  /**
+   * Registers a factory for a given job name that is run on demand rather than on a schedule.
+   *
+   * <p>Jobs registered here are never scheduled by the {@link RecurringJobScheduler}. Instead, the
+   * code that needs one inserts a {@link PersistedDurableJobModel} with {@link JobType#ON_DEMAND}
+   * and the {@link RecurringDurableJobRunner} runs it right away.
+   */
+  public void registerOnDemandJob(DurableJobName jobName, DurableJobFactory durableJobFactory) {
+    validateJobName(jobName);
+
+    registeredJobs.put(
+        jobName.getJobNameString(),
+        RegisteredJob.create(
+            durableJobFactory,
+            jobName,
+            JobType.ON_DEMAND,
+            /* jobExecutionTimeResolver= */ Optional.empty()));
+  }
+
   private void validateJobName(DurableJobName jobName) {
     if (registeredJobs.containsKey(jobName.getJobNameString())) {
       throw new IllegalArgumentException(
@@ -1,27 +1,25 @@
 package durablejobs;
 
 import annotations.BindingAnnotations;
-import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableSet;
 import com.typesafe.config.Config;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
-import java.util.Optional;
 import javax.inject.Inject;
 import javax.inject.Provider;
 import javax.inject.Singleton;
-import models.PersistedDurableJobModel;
+import models.JobType;
 import repository.PersistedDurableJobRepository;
 import services.email.EmailSendClient;
 
 /**
- * Executes {@link DurableJob}s when their time has come.
+ * Executes {@link DurableJob}s that run when the server starts.
  *
- * <p>{@link StartupDurableJobRunner} is a singleton and its {@code runJobs} method is {@code
- * synchronized} to prevent overlapping executions within the same server at the same time.
+ * <p>{@link StartupDurableJobRunner} is a singleton, so that the limit on how many jobs run at the
+ * same time applies to the whole server.
  */
 @Singleton
 public final class StartupDurableJobRunner extends AbstractDurableJobRunner {
-  private final PersistedDurableJobRepository persistedDurableJobRepository;
 
   @Inject
   public StartupDurableJobRunner(
@@ -36,21 +34,14 @@ public final class StartupDurableJobRunner extends AbstractDurableJobRunner {
         config,
         durableJobExecutionContext,
         durableJobRegistry,
+        persistedDurableJobRepository,
         nowProvider,
         emailSendClient,
         zoneId);
-    this.persistedDurableJobRepository = Preconditions.checkNotNull(persistedDurableJobRepository);
   }
 
-  /** Get the job to run or an empty optional if one does not exist */
   @Override
-  protected synchronized Optional<PersistedDurableJobModel> getJobForExecution() {
-    return persistedDurableJobRepository.getStartupJobForExecution();
-  }
-
-  /** Determines if the provided job, if it exists, is allowed to be run. */
-  @Override
-  protected synchronized boolean canRun(Optional<PersistedDurableJobModel> maybeJobToRun) {
-    return maybeJobToRun.isPresent();
+  ImmutableSet<JobType> jobTypes() {
+    return ImmutableSet.of(JobType.RUN_ONCE, JobType.RUN_ON_EACH_STARTUP);
   }
 }
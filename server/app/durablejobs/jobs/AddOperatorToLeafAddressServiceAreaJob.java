@@ -3,15 +3,9 @@ package durablejobs.jobs;
 import static com.google.common.base.Preconditions.checkNotNull;
 
 import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ObjectNode;
-import durablejobs.DurableJob;
-import io.ebean.DB;
-import io.ebean.Database;
-import io.ebean.SqlRow;
-import io.ebean.Transaction;
-import io.ebean.TxScope;
-import java.util.List;
+import com.google.common.collect.ImmutableList;
+import durablejobs.BatchMigrationJob;
 import java.util.Objects;
 import models.PersistedDurableJobModel;
 import org.slf4j.Logger;
@@ -29,19 +23,23 @@ import services.program.predicate.Operator;
  * <li>Both hidePredicate and eligibilityDefinition.predicate are checked
  * <li>Will not modify nodes that already have this property added
  * <li>Idempotent
- * <li>Any failure will rollback the entire changeset
+ * <li>A program that fails to migrate doesn't undo the others, and fails the job to be retried
  */
-public final class AddOperatorToLeafAddressServiceAreaJob extends DurableJob {
+public final class AddOperatorToLeafAddressServiceAreaJob extends BatchMigrationJob {
   private static final Logger logger =
       LoggerFactory.getLogger(AddOperatorToLeafAddressServiceAreaJob.class);
-  private static final ObjectMapper objectMapper = new ObjectMapper();
+  private static final String FILTER =
+      """
+jsonb_path_exists(block_definitions, '$.hidePredicate.rootNode.**.node ? (@.type == "leafAddressServiceArea")')
+OR jsonb_path_exists(block_definitions, '$.eligibilityDefinition.predicate.rootNode.**.node ? (@.type == "leafAddressServiceArea")')
+""";
 
-  private final Database database;
   private final PersistedDurableJobModel persistedDurableJobModel;
 
-  public AddOperatorToLeafAddressServiceAreaJob(PersistedDurableJobModel persistedDurableJobModel) {
+  public AddOperatorToLeafAddressServiceAreaJob(
+      BatchMigrationJob.Options options, PersistedDurableJobModel persistedDurableJobModel) {
+    super(options);
     this.persistedDurableJobModel = checkNotNull(persistedDurableJobModel);
-    this.database = DB.getDefault();
   }
 
   @Override
@@ -50,88 +48,33 @@ public final class AddOperatorToLeafAddressServiceAreaJob extends DurableJob {
   }
 
   @Override
-  public void run() {
-    logger.debug("Run - Begin");
-
-    String selectSql =
-        """
-SELECT id, block_definitions
-FROM programs
-WHERE jsonb_path_exists(block_definitions, '$.hidePredicate.rootNode.**.node ? (@.type == "leafAddressServiceArea")')
-OR jsonb_path_exists(block_definitions, '$.eligibilityDefinition.predicate.rootNode.**.node ? (@.type == "leafAddressServiceArea")')
-""";
-
-    List<SqlRow> programs = database.sqlQuery(selectSql).findList();
-
-    try (Transaction jobTransaction = database.beginTransaction()) {
-      jobTransaction.setNestedUseSavepoint();
-      int errorCount = 0;
-
-      for (SqlRow program : programs) {
-        logger.debug("id: {}", program.getLong("id"));
-
-        try {
-          JsonNode rootJsonNode = objectMapper.readTree(program.getString("block_definitions"));
-          int startingRootJsonNodeHashCode = rootJsonNode.hashCode();
-
-          if (!rootJsonNode.isArray()) {
-            logger.error("block_definitions is not an array");
-            continue;
-          }
-
-          for (var blockDefinitionJsonNode : rootJsonNode) {
-            JsonNode nodeJsonNode =
-                blockDefinitionJsonNode.at("/eligibilityDefinition/predicate/rootNode/node");
-            if (!nodeJsonNode.isMissingNode()) {
-              addOperatorToLeafAddressServiceAreaNode(nodeJsonNode);
-            }
-          }
-
-          for (var blockDefinitionJsonNode : rootJsonNode) {
-            JsonNode nodeJsonNode = blockDefinitionJsonNode.at("/hidePredicate/rootNode/node");
-            if (!nodeJsonNode.isMissingNode()) {
-              addOperatorToLeafAddressServiceAreaNode(nodeJsonNode);
-            }
-          }
-
-          if (startingRootJsonNodeHashCode == rootJsonNode.hashCode()) {
-            logger.debug("No changes made to JsonNode. No need to update the database.");
-            continue;
-          }
-
-          String updateSql =
-              """
-              update programs
-              set block_definitions = CAST(:block_definitions AS jsonb)
-              where id = :id
-              """;
+  protected ImmutableList<MigratedColumn> migratedColumns() {
+    return ImmutableList.of(new MigratedColumn("programs", "block_definitions", FILTER));
+  }
 
-          try (Transaction stepTransaction = database.beginTransaction(TxScope.mandatory())) {
-            database
-                .sqlUpdate(updateSql)
-                .setParameter("id", program.getLong("id"))
-                .setParameter("block_definitions", rootJsonNode.toString())
-                .execute();
+  @Override
+  protected JsonNode migrate(MigratedColumn column, JsonNode rootJsonNode) {
+    if (!rootJsonNode.isArray()) {
+      logger.error("block_definitions is not an array");
+      return rootJsonNode;
+    }
 
-            stepTransaction.commit();
-            logger.debug("JsonNode change. Updated database.");
-          }
-        } catch (Exception e) {
-          logger.error(e.getMessage(), e);
-          errorCount++;
-        }
+    for (var blockDefinitionJsonNode : rootJsonNode) {
+      JsonNode nodeJsonNode =
+          blockDefinitionJsonNode.at("/eligibilityDefinition/predicate/rootNode/node");
+      if (!nodeJsonNode.isMissingNode()) {
+        addOperatorToLeafAddressServiceAreaNode(nodeJsonNode);
       }
+    }
 
-      if (errorCount == 0) {
-        logger.debug("Job succeeded.");
-        jobTransaction.commit();
-      } else {
-        logger.error("Job failed to add operator. All changes undone. Error count: {}", errorCount);
-        jobTransaction.rollback();
+    for (var blockDefinitionJsonNode : rootJsonNode) {
+      JsonNode nodeJsonNode = blockDefinitionJsonNode.at("/hidePredicate/rootNode/node");
+      if (!nodeJsonNode.isMissingNode()) {
+        addOperatorToLeafAddressServiceAreaNode(nodeJsonNode);
       }
     }
 
-    logger.debug("Run - End");
+    return rootJsonNode;
   }
 
   public void addOperatorToLeafAddressServiceAreaNode(JsonNode nodeJsonNode) {
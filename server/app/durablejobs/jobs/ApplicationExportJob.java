@@ -0,0 +1,33 @@
+package durablejobs.jobs;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import durablejobs.DurableJob;
+import models.PersistedDurableJobModel;
+import services.export.ApplicationExportService;
+
+/**
+ * A job that writes a background export of the applications to a program to cloud storage. See
+ * {@link ApplicationExportService}.
+ */
+public final class ApplicationExportJob extends DurableJob {
+  private final ApplicationExportService applicationExportService;
+  private final PersistedDurableJobModel persistedDurableJob;
+
+  public ApplicationExportJob(
+      ApplicationExportService applicationExportService,
+      PersistedDurableJobModel persistedDurableJob) {
+    this.applicationExportService = checkNotNull(applicationExportService);
+    this.persistedDurableJob = checkNotNull(persistedDurableJob);
+  }
+
+  @Override
+  public PersistedDurableJobModel getPersistedDurableJob() {
+    return persistedDurableJob;
+  }
+
+  @Override
+  public void run() {
+    applicationExportService.runExport(persistedDurableJob);
+  }
+}
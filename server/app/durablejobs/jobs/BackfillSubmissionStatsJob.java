@@ -0,0 +1,31 @@
+package durablejobs.jobs;
+
+import com.google.common.base.Preconditions;
+import durablejobs.DurableJob;
+import models.PersistedDurableJobModel;
+import repository.ReportingRepository;
+
+/**
+ * Computes the reporting dashboard's stats of the applications submitted before the stats were
+ * updated as applications are submitted.
+ */
+public final class BackfillSubmissionStatsJob extends DurableJob {
+  private final ReportingRepository reportingRepository;
+  private final PersistedDurableJobModel persistedDurableJob;
+
+  public BackfillSubmissionStatsJob(
+      ReportingRepository reportingRepository, PersistedDurableJobModel persistedDurableJob) {
+    this.reportingRepository = Preconditions.checkNotNull(reportingRepository);
+    this.persistedDurableJob = Preconditions.checkNotNull(persistedDurableJob);
+  }
+
+  @Override
+  public PersistedDurableJobModel getPersistedDurableJob() {
+    return persistedDurableJob;
+  }
+
+  @Override
+  public void run() {
+    reportingRepository.rebuildAllSubmissionStats();
+  }
+}
@@ -2,41 +2,41 @@ package durablejobs.jobs;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.JsonNodeType;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.ImmutableList;
-import durablejobs.DurableJob;
-import io.ebean.DB;
-import io.ebean.Database;
-import io.ebean.Transaction;
-import io.ebean.annotation.TxIsolation;
+import durablejobs.BatchMigrationJob;
 import java.util.Arrays;
-import models.ApplicantModel;
-import models.ApplicationModel;
 import models.PersistedDurableJobModel;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 import services.Path;
-import services.applicant.ApplicantData;
 import services.applicant.question.Scalar;
 import services.geo.ServiceAreaInclusion;
 import services.geo.ServiceAreaState;
 
-public final class ConvertAddressServiceAreaToArrayJob extends DurableJob {
-  private static final Logger logger =
-      LoggerFactory.getLogger(ConvertAddressServiceAreaToArrayJob.class);
+/**
+ * Converts the service areas of address answers from the comma separated string in {@code
+ * service_area} to an array of {@link ServiceAreaInclusion}s in {@code service_areas}, on
+ * applicants and applications.
+ */
+public final class ConvertAddressServiceAreaToArrayJob extends BatchMigrationJob {
   private static final ObjectMapper objectMapper = new ObjectMapper();
 
-  private final Database database;
+  // Filter to only include rows that have a service_area key that is a string type. Vastly
+  // improves the run time cutting out a large number of unneeded records.
+  private static final String FILTER =
+      """
+jsonb_path_exists(object, '$.applicant.**.service_area ? (@.type() == "string")')
+""";
+
   private final PersistedDurableJobModel persistedDurableJobModel;
 
-  public ConvertAddressServiceAreaToArrayJob(PersistedDurableJobModel persistedDurableJobModel) {
+  public ConvertAddressServiceAreaToArrayJob(
+      BatchMigrationJob.Options options, PersistedDurableJobModel persistedDurableJobModel) {
+    super(options);
     this.persistedDurableJobModel = checkNotNull(persistedDurableJobModel);
-    this.database = DB.getDefault();
   }
 
   @Override
@@ -45,62 +45,15 @@ public final class ConvertAddressServiceAreaToArrayJob extends DurableJob {
   }
 
   @Override
-  public void run() {
-    logger.info("Run - Begin");
-
-    try (Transaction jobTransaction = database.beginTransaction(TxIsolation.SERIALIZABLE)) {
-      int errorCount = 0;
-
-      // Filter to only include rows that have a service_area key that is a string type. Vastly
-      // improves the run time cutting out a large number of unneeded records.
-      String filter =
-          """
-jsonb_path_exists((object#>>'{}')::jsonb, '$.applicant.**.service_area ? (@.type() == "string")')
-""";
-
-      try (var query = database.find(ApplicantModel.class).where().raw(filter).findIterate()) {
-        while (query.hasNext()) {
-          try {
-            ApplicantModel applicant = query.next();
-            logger.debug("Converting service area for applicant id {}", applicant.id);
-            applicant.setApplicantData(processRow(applicant.getApplicantData()));
-            applicant.save(jobTransaction);
-          } catch (Exception e) {
-            errorCount++;
-            logger.error(e.getMessage(), e);
-          }
-        }
-      }
-
-      try (var query = database.find(ApplicationModel.class).where().raw(filter).findIterate()) {
-        while (query.hasNext()) {
-          try {
-            ApplicationModel application = query.next();
-            logger.debug("Converting service area for application id {}", application.id);
-            application.setApplicantData(processRow(application.getApplicantData()));
-            application.save(jobTransaction);
-          } catch (Exception e) {
-            errorCount++;
-            logger.error(e.getMessage(), e);
-          }
-        }
-      }
-
-      if (errorCount == 0) {
-        logger.info("Job succeeded");
-        jobTransaction.commit();
-      } else {
-        logger.error("Failed to convert service area. All changes undone. Errors: {}", errorCount);
-        jobTransaction.rollback();
-      }
-    }
-
-    logger.info("Run - End");
+  protected ImmutableList<MigratedColumn> migratedColumns() {
+    return ImmutableList.of(
+        new MigratedColumn("applicants", "object", FILTER),
+        new MigratedColumn("applications", "object", FILTER));
   }
 
-  private ApplicantData processRow(ApplicantData applicantData) throws JsonProcessingException {
+  @Override
+  protected JsonNode migrate(MigratedColumn column, JsonNode rootJsonNode) {
     String serviceAreaName = Path.create(Scalar.SERVICE_AREA.name()).keyName();
-    JsonNode rootJsonNode = objectMapper.readTree(applicantData.asJsonString());
 
     for (var questionJsonNode : rootJsonNode.findParents(serviceAreaName)) {
       if (questionJsonNode.has(serviceAreaName)
@@ -121,7 +74,7 @@ jsonb_path_exists((object#>>'{}')::jsonb, '$.applicant.**.service_area ? (@.type
       }
     }
 
-    return new ApplicantData(rootJsonNode.toString());
+    return rootJsonNode;
   }
 
   @VisibleForTesting
@@ -0,0 +1,70 @@
+package durablejobs.jobs;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import durablejobs.BatchMigrationJob;
+import io.ebean.DB;
+import io.ebean.Database;
+import java.io.IOException;
+import models.PersistedDurableJobModel;
+
+/**
+ * Converts the answers of applicants and applications that are still stored as a JSON string
+ * holding the object, rather than as the jsonb object itself, and then validates the constraints
+ * that require them to be objects.
+ *
+ * <p>Once validated, the constraints guarantee that queries can read answers directly, like {@code
+ * object #> '{applicant,name}'}, and that indexes on answers cover every row.
+ */
+public final class ConvertApplicantDataToJsonbObjectsJob extends BatchMigrationJob {
+  private static final ObjectMapper objectMapper = new ObjectMapper();
+  private static final String FILTER = "jsonb_typeof(object) = 'string'";
+
+  /** The constraint that requires the answers of each table to be objects, by table. */
+  private static final ImmutableMap<String, String> OBJECT_CONSTRAINTS =
+      ImmutableMap.of(
+          "applicants", "applicants_object_is_jsonb_object",
+          "applications", "applications_object_is_jsonb_object");
+
+  private final Database database;
+  private final PersistedDurableJobModel persistedDurableJobModel;
+
+  public ConvertApplicantDataToJsonbObjectsJob(
+      BatchMigrationJob.Options options, PersistedDurableJobModel persistedDurableJobModel) {
+    super(options);
+    this.persistedDurableJobModel = checkNotNull(persistedDurableJobModel);
+    this.database = DB.getDefault();
+  }
+
+  @Override
+  public PersistedDurableJobModel getPersistedDurableJob() {
+    return persistedDurableJobModel;
+  }
+
+  @Override
+  protected ImmutableList<MigratedColumn> migratedColumns() {
+    return OBJECT_CONSTRAINTS.keySet().stream()
+        .map(table -> new MigratedColumn(table, "object", FILTER))
+        .collect(ImmutableList.toImmutableList());
+  }
+
+  @Override
+  protected JsonNode migrate(MigratedColumn column, JsonNode value) throws IOException {
+    return objectMapper.readTree(value.asText());
+  }
+
+  @Override
+  protected void afterMigration() {
+    // Only takes a lock that lets rows be read and written while the table is scanned.
+    OBJECT_CONSTRAINTS.forEach(
+        (table, constraint) ->
+            database
+                .sqlUpdate(
+                    String.format("ALTER TABLE %s VALIDATE CONSTRAINT %s", table, constraint))
+                .execute());
+  }
+}
@@ -0,0 +1,143 @@
+package durablejobs.jobs;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.hash.Hashing;
+import durablejobs.DurableJob;
+import io.ebean.DB;
+import io.ebean.Database;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.Map;
+import models.LifecycleStage;
+import models.PersistedDurableJobModel;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import repository.AnswerFilter;
+import services.Path;
+
+/**
+ * Creates an index on each answer listed in {@code answer_filter_indexed_paths}, so that filtering
+ * submitted applications by comparing that answer, like {@code household_size.number > 4}, doesn't
+ * scan every application to the program. Drops the indexes on answers that are no longer listed.
+ *
+ * <p>Indexes are created and dropped concurrently, so that applications can still be submitted
+ * while an index is built. An index whose concurrent build failed is left invalid by the database,
+ * so it is dropped and built again.
+ */
+public final class CreateAnswerFilterIndexesJob extends DurableJob {
+  private static final Logger logger = LoggerFactory.getLogger(CreateAnswerFilterIndexesJob.class);
+
+  @VisibleForTesting static final String INDEX_NAME_PREFIX = "index_applications_by_answer_";
+
+  private final Database database;
+  private final ImmutableList<String> indexedAnswers;
+  private final PersistedDurableJobModel persistedDurableJobModel;
+
+  public CreateAnswerFilterIndexesJob(
+      ImmutableList<String> indexedAnswers, PersistedDurableJobModel persistedDurableJobModel) {
+    this.indexedAnswers = checkNotNull(indexedAnswers);
+    this.persistedDurableJobModel = checkNotNull(persistedDurableJobModel);
+    this.database = DB.getDefault();
+  }
+
+  @Override
+  public PersistedDurableJobModel getPersistedDurableJob() {
+    return persistedDurableJobModel;
+  }
+
+  @Override
+  public void run() {
+    Map<String, Path> answerPathsByIndexName = new HashMap<>();
+    for (String answer : indexedAnswers) {
+      try {
+        Path path = AnswerFilter.answerPath(answer);
+        answerPathsByIndexName.put(indexName(path), path);
+      } catch (IllegalArgumentException e) {
+        logger.error("Not indexing answer_filter_indexed_paths entry {}: {}", answer, e.toString());
+      }
+    }
+
+    // CREATE INDEX CONCURRENTLY can't run inside a transaction, so these run on a connection of
+    // their own in autocommit mode.
+    try (Connection connection = database.dataSource().getConnection()) {
+      connection.setAutoCommit(true);
+      try (Statement statement = connection.createStatement()) {
+        ImmutableMap<String, Boolean> existingIndexes = findIndexes(statement);
+        for (Map.Entry<String, Boolean> index : existingIndexes.entrySet()) {
+          if (!answerPathsByIndexName.containsKey(index.getKey()) || !index.getValue()) {
+            statement.execute(
+                String.format("DROP INDEX CONCURRENTLY IF EXISTS %s", index.getKey()));
+          }
+        }
+        for (Map.Entry<String, Path> answerPath : answerPathsByIndexName.entrySet()) {
+          if (existingIndexes.getOrDefault(answerPath.getKey(), false)) {
+            continue;
+          }
+          logger.info("Creating index {} on answer {}", answerPath.getKey(), answerPath.getValue());
+          statement.execute(createIndexSql(answerPath.getKey(), answerPath.getValue()));
+        }
+      } finally {
+        connection.setAutoCommit(false);
+      }
+    } catch (SQLException e) {
+      throw new RuntimeException(e);
+    }
+  }
+
+  /** The names of the existing answer indexes, mapped to whether they are valid. */
+  private static ImmutableMap<String, Boolean> findIndexes(Statement statement)
+      throws SQLException {
+    ImmutableMap.Builder<String, Boolean> indexes = ImmutableMap.builder();
+    try (ResultSet resultSet =
+        statement.executeQuery(
+            String.format(
+                """
+                SELECT index_class.relname, pg_index.indisvalid
+                FROM pg_index
+                INNER JOIN pg_class index_class ON index_class.oid = pg_index.indexrelid
+                WHERE pg_index.indrelid = 'applications'::regclass
+                AND starts_with(index_class.relname, '%s')
+                """,
+                INDEX_NAME_PREFIX))) {
+      while (resultSet.next()) {
+        indexes.put(resultSet.getString(1), resultSet.getBoolean(2));
+      }
+    }
+    return indexes.build();
+  }
+
+  /**
+   * Indexes the answer as {@link repository.ProgramRepository} compares it, and only on submitted
+   * applications, which are the ones filtered.
+   */
+  private static String createIndexSql(String indexName, Path path) {
+    return String.format(
+        "CREATE INDEX CONCURRENTLY IF NOT EXISTS %s ON applications ((object #> '%s'))"
+            + " WHERE lifecycle_stage IN ('%s', '%s')",
+        indexName,
+        AnswerFilter.jsonbPath(path),
+        LifecycleStage.ACTIVE.getValue(),
+        LifecycleStage.OBSOLETE.getValue());
+  }
+
+  /**
+   * Names the index on an answer by a hash of its path, since a path can be longer than an index
+   * name can be.
+   */
+  @VisibleForTesting
+  static String indexName(Path path) {
+    return INDEX_NAME_PREFIX
+        + Hashing.sha256()
+            .hashString(path.toString(), StandardCharsets.UTF_8)
+            .toString()
+            .substring(0, 16);
+  }
+}
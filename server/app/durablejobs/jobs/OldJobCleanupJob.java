@@ -6,21 +6,27 @@ import models.PersistedDurableJobModel;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import repository.PersistedDurableJobRepository;
+import services.export.ApplicationExportService;
 
 /**
- * A {@link DurableJob} that deletes {@link PersistedDurableJobModel} records from the database when
- * their execution time is older than six months.
+ * A {@link DurableJob} that deletes recurring and on demand {@link PersistedDurableJobModel}
+ * records from the database when their execution time is older than six months. It also deletes
+ * the application exports that are past their retention period, see {@link
+ * ApplicationExportService#deleteExpiredExports}.
  */
 public final class OldJobCleanupJob extends DurableJob {
   private static final Logger logger = LoggerFactory.getLogger(OldJobCleanupJob.class);
 
   private final PersistedDurableJobRepository persistedDurableJobRepository;
+  private final ApplicationExportService applicationExportService;
   private final PersistedDurableJobModel persistedDurableJob;
 
   public OldJobCleanupJob(
       PersistedDurableJobRepository persistedDurableJobRepository,
+      ApplicationExportService applicationExportService,
       PersistedDurableJobModel persistedDurableJob) {
     this.persistedDurableJobRepository = Preconditions.checkNotNull(persistedDurableJobRepository);
+    this.applicationExportService = Preconditions.checkNotNull(applicationExportService);
     this.persistedDurableJob = Preconditions.checkNotNull(persistedDurableJob);
   }
 
@@ -33,5 +39,7 @@ public final class OldJobCleanupJob extends DurableJob {
   public void run() {
     int numRowsDeleted = this.persistedDurableJobRepository.deleteJobsOlderThanSixMonths();
     logger.info("Deleted {} jobs older than 6 months", numRowsDeleted);
+    int numExportsDeleted = applicationExportService.deleteExpiredExports();
+    logger.info("Deleted {} expired application exports", numExportsDeleted);
   }
 }
@@ -5,6 +5,11 @@ import durablejobs.DurableJob;
 import models.PersistedDurableJobModel;
 import repository.ReportingRepository;
 
+/**
+ * Recomputes the reporting dashboard's stats of the month that just ended, which are otherwise
+ * updated as applications are submitted, so that they also count applications submitted by servers
+ * running an older version during a deployment.
+ */
 public final class ReportingDashboardMonthlyRefreshJob extends DurableJob {
   private final ReportingRepository reportingRepository;
   private final PersistedDurableJobModel persistedDurableJob;
@@ -22,6 +27,6 @@ public final class ReportingDashboardMonthlyRefreshJob extends DurableJob {
 
   @Override
   public void run() {
-    reportingRepository.refreshMonthlyReportingView();
+    reportingRepository.rebuildLastMonthSubmissionStats();
   }
 }
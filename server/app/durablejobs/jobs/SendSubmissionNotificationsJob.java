@@ -0,0 +1,75 @@
+package durablejobs.jobs;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import durablejobs.DurableJob;
+import java.util.Optional;
+import models.PersistedDurableJobModel;
+import models.SubmissionNotificationModel;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import repository.ApplicationRepository;
+import services.applicant.ApplicantService;
+
+/**
+ * A job that sends the emails announcing the submission of an application, after the transaction
+ * submitting it has committed. See {@link ApplicantService#sendSubmissionNotifications}.
+ *
+ * <p>If sending any of the emails fails the job is retried, waiting longer before each retry, so an
+ * email may be sent more than once. With {@link #ATTEMPTS} attempts, the emails are retried for
+ * several hours, so that an outage of the email provider doesn't lose them. If every attempt fails,
+ * the emails aren't sent, which is logged as an error along with the durable job failure email to
+ * IT. The submission notification is deleted once the emails are sent.
+ */
+public final class SendSubmissionNotificationsJob extends DurableJob {
+  /** How many times sending the emails of an application is attempted. */
+  public static final int ATTEMPTS = 10;
+
+  private static final Logger logger =
+      LoggerFactory.getLogger(SendSubmissionNotificationsJob.class);
+
+  private final ApplicationRepository applicationRepository;
+  private final ApplicantService applicantService;
+  private final PersistedDurableJobModel persistedDurableJob;
+
+  public SendSubmissionNotificationsJob(
+      ApplicationRepository applicationRepository,
+      ApplicantService applicantService,
+      PersistedDurableJobModel persistedDurableJob) {
+    this.applicationRepository = checkNotNull(applicationRepository);
+    this.applicantService = checkNotNull(applicantService);
+    this.persistedDurableJob = checkNotNull(persistedDurableJob);
+  }
+
+  @Override
+  public PersistedDurableJobModel getPersistedDurableJob() {
+    return persistedDurableJob;
+  }
+
+  @Override
+  public void run() {
+    Optional<SubmissionNotificationModel> notification =
+        applicationRepository.lookupSubmissionNotificationForDurableJob(persistedDurableJob.id);
+    if (notification.isEmpty()) {
+      logger.error("No submission notification found for durable job {}", persistedDurableJob.id);
+      return;
+    }
+    try {
+      applicantService
+          .sendSubmissionNotifications(notification.get().getApplicationId())
+          .toCompletableFuture()
+          .join();
+    } catch (RuntimeException e) {
+      // The runner used up this attempt when it claimed the job.
+      if (persistedDurableJob.getRemainingAttempts() == 0) {
+        logger.error(
+            "Gave up sending the submission emails of application {} after {} attempts",
+            notification.get().getApplicationId(),
+            ATTEMPTS,
+            e);
+      }
+      throw e;
+    }
+    applicationRepository.deleteSubmissionNotification(notification.get());
+  }
+}
@@ -13,8 +13,9 @@ import play.mvc.Http;
 import services.settings.SettingsService;
 
 /**
- * Loads the server settings from the database and adds them to the attributes of each incoming
- * request. This caches them for the life of the request for quick access in application code.
+ * Adds the server settings to the attributes of each incoming request, from the snapshot of them
+ * that {@link SettingsService} keeps in memory. This caches them for the life of the request for
+ * quick access in application code.
  */
 public final class SettingsFilter extends EssentialFilter {
 
@@ -4,13 +4,17 @@ import static com.google.common.base.Preconditions.checkNotNull;
 
 import auth.CiviFormProfile;
 import auth.ProfileUtils;
+import com.google.common.collect.ImmutableSet;
 import java.util.Optional;
+import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
 import javax.inject.Inject;
 import javax.inject.Provider;
 import org.apache.pekko.stream.Materializer;
 import org.apache.pekko.util.ByteString;
+import play.cache.NamedCache;
+import play.cache.SyncCacheApi;
 import play.libs.streams.Accumulator;
 import play.mvc.EssentialAction;
 import play.mvc.EssentialFilter;
@@ -23,24 +27,38 @@ import services.settings.SettingsManifest;
 /**
  * A filter to ensure the account referenced in the browser cookie is valid. This should only matter
  * when the account is deleted from the database which almost will never happen in prod database.
+ *
+ * <p>The active sessions of a valid account are kept in the "account-sessions" named cache for
+ * {@link #ACCOUNT_SESSIONS_CACHE_SECONDS}, so a request from a session found there is let through
+ * without loading the account. {@link repository.AccountRepository} invalidates the cached sessions
+ * when it removes sessions of an account. A session missing from the cache, such as one that just
+ * logged in, is checked against the database. The sessions loaded then are only cached if the
+ * cached sessions weren't invalidated while they were loaded, so that a request that loaded the
+ * account before a logout can't cache the session that logged out. A validated request carries its
+ * profile in the {@link ProfileUtils#CIVIFORM_PROFILE_ATTRIBUTE_KEY} attribute, so the account it
+ * loaded is reused for the rest of the request.
  */
 public class ValidAccountFilter extends EssentialFilter {
+  private static final int ACCOUNT_SESSIONS_CACHE_SECONDS = 30;
 
   private final ProfileUtils profileUtils;
   private final Provider<SettingsManifest> settingsManifest;
   private final Materializer materializer;
   private final Provider<DatabaseExecutionContext> databaseExecutionContext;
+  private final SyncCacheApi accountSessionsCache;
 
   @Inject
   public ValidAccountFilter(
       ProfileUtils profileUtils,
       Provider<SettingsManifest> settingsManifest,
       Materializer materializer,
-      Provider<DatabaseExecutionContext> databaseExecutionContext) {
+      Provider<DatabaseExecutionContext> databaseExecutionContext,
+      @NamedCache("account-sessions") SyncCacheApi accountSessionsCache) {
     this.profileUtils = checkNotNull(profileUtils);
     this.settingsManifest = checkNotNull(settingsManifest);
     this.materializer = checkNotNull(materializer);
     this.databaseExecutionContext = databaseExecutionContext;
+    this.accountSessionsCache = checkNotNull(accountSessionsCache);
   }
 
   @Override
@@ -61,7 +79,9 @@ public class ValidAccountFilter extends EssentialFilter {
                           return Accumulator.done(
                               Results.redirect(org.pac4j.play.routes.LogoutController.logout()));
                         } else {
-                          return next.apply(request);
+                          return next.apply(
+                              request.addAttr(
+                                  ProfileUtils.CIVIFORM_PROFILE_ATTRIBUTE_KEY, profile.get()));
                         }
                       });
 
@@ -70,6 +90,14 @@ public class ValidAccountFilter extends EssentialFilter {
   }
 
   private CompletionStage<Boolean> shouldLogoutUser(CiviFormProfile profile) {
+    if (hasCachedSession(profile)) {
+      return CompletableFuture.completedFuture(false);
+    }
+
+    // Invalidating the account's sessions removes this, so the sessions loaded below are only
+    // cached if it is still there once they're loaded.
+    CachedSessions loading = CachedSessions.loading();
+    accountSessionsCache.set(profile.getId(), loading, ACCOUNT_SESSIONS_CACHE_SECONDS);
 
     return profileUtils
         .validCiviFormProfile(profile)
@@ -78,7 +106,7 @@ public class ValidAccountFilter extends EssentialFilter {
               if (!profileValid) {
                 return CompletableFuture.completedFuture(false);
               }
-              return isValidSession(profile);
+              return isValidSession(profile, loading);
             },
             databaseExecutionContext.get())
         .thenComposeAsync(
@@ -92,15 +120,40 @@ public class ValidAccountFilter extends EssentialFilter {
             databaseExecutionContext.get());
   }
 
-  private CompletionStage<Boolean> isValidSession(CiviFormProfile profile) {
-    if (settingsManifest.get().getSessionReplayProtectionEnabled()) {
-      return profile
-          .getAccount()
-          .thenApply(
-              account ->
-                  account.getActiveSession(profile.getProfileData().getSessionId()).isPresent());
+  private CompletionStage<Boolean> isValidSession(
+      CiviFormProfile profile, CachedSessions loading) {
+    // The profile has already loaded the account to check that it exists.
+    return profile
+        .getAccount()
+        .thenApply(
+            account -> {
+              Optional<CachedSessions> cached = accountSessionsCache.get(profile.getId());
+              if (cached.isPresent() && cached.get().equals(loading)) {
+                ImmutableSet<String> activeSessions =
+                    ImmutableSet.copyOf(account.getActiveSessions().keySet());
+                accountSessionsCache.set(
+                    profile.getId(),
+                    CachedSessions.loaded(activeSessions),
+                    ACCOUNT_SESSIONS_CACHE_SECONDS);
+              }
+              if (!settingsManifest.get().getSessionReplayProtectionEnabled()) {
+                return true;
+              }
+              return account.getActiveSession(profile.getProfileData().getSessionId()).isPresent();
+            });
+  }
+
+  /** Returns true if the account was recently valid and, if required, had the profile's session. */
+  private boolean hasCachedSession(CiviFormProfile profile) {
+    Optional<ImmutableSet<String>> activeSessions =
+        accountSessionsCache
+            .<CachedSessions>get(profile.getId())
+            .flatMap(CachedSessions::activeSessions);
+    if (activeSessions.isEmpty()) {
+      return false;
     }
-    return CompletableFuture.completedFuture(true);
+    return !settingsManifest.get().getSessionReplayProtectionEnabled()
+        || activeSessions.get().contains(profile.getProfileData().getSessionId());
   }
 
   /**
@@ -120,4 +173,18 @@ public class ValidAccountFilter extends EssentialFilter {
   private boolean isLogoutRequest(String uri) {
     return uri.startsWith(org.pac4j.play.routes.LogoutController.logout().url());
   }
+
+  /**
+   * The active sessions of an account in the cache, or, while they are being loaded, a placeholder
+   * that identifies the load.
+   */
+  private record CachedSessions(UUID loadId, Optional<ImmutableSet<String>> activeSessions) {
+    static CachedSessions loading() {
+      return new CachedSessions(UUID.randomUUID(), Optional.empty());
+    }
+
+    static CachedSessions loaded(ImmutableSet<String> activeSessions) {
+      return new CachedSessions(UUID.randomUUID(), Optional.of(activeSessions));
+    }
+  }
 }
@@ -72,6 +72,10 @@ public class ApplicantModel extends BaseModel {
 
   private String preferredLocale;
 
+  /**
+   * The answers as JSON text. Stored as a jsonb object, which the database requires, so queries
+   * can read answers with jsonb operators and indexes.
+   */
   @Constraints.Required @DbJson private String object;
   @ManyToOne private AccountModel account;
 
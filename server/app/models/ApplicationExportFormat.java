@@ -0,0 +1,26 @@
+package models;
+
+import io.ebean.annotation.DbEnumType;
+import io.ebean.annotation.DbEnumValue;
+
+/** The file format produced by an {@link ApplicationExportModel}. */
+public enum ApplicationExportFormat {
+  CSV("csv"),
+  JSON("json");
+
+  private final String fileExtension;
+
+  ApplicationExportFormat(String fileExtension) {
+    this.fileExtension = fileExtension;
+  }
+
+  /** The extension, without a leading dot, of files in this format. */
+  public String getFileExtension() {
+    return fileExtension;
+  }
+
+  @DbEnumValue(storage = DbEnumType.VARCHAR)
+  public String getValue() {
+    return this.name();
+  }
+}
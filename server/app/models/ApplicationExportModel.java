@@ -0,0 +1,218 @@
+package models;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.google.common.collect.ImmutableList;
+import io.ebean.annotation.DbArray;
+import io.ebean.annotation.WhenCreated;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Table;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import play.data.validation.Constraints;
+
+/**
+ * An EBean mapped class that records the progress of a background export of the applications to a
+ * program.
+ *
+ * <p>The export is written to cloud storage as a multipart upload by the {@link
+ * PersistedDurableJobModel} identified by {@code durableJobId}. Each time a part is uploaded, its
+ * id and the keyset cursor of the last application it contains are checkpointed here so that an
+ * interrupted export resumes after that application rather than starting over.
+ *
+ * <p>Applications submitted after {@code snapshotTime} and program versions created after {@code
+ * maxProgramVersionId} are excluded, so that every run of the export sees the same applications
+ * and produces the same columns.
+ */
+@Entity
+@Table(name = "application_exports")
+public final class ApplicationExportModel extends BaseModel {
+
+  @Constraints.Required private long programId;
+  @Constraints.Required private long maxProgramVersionId;
+  @Constraints.Required private ApplicationExportFormat exportFormat;
+  @Constraints.Required private ApplicationExportStatus status;
+
+  private String searchNameFragment;
+  private Instant submitTimeFrom;
+  private Instant submitTimeUntil;
+  private String applicationStatus;
+
+  @Constraints.Required private Instant snapshotTime;
+  @Constraints.Required private long durableJobId;
+  @Constraints.Required private String fileKey;
+
+  private String uploadId;
+  @DbArray private List<String> partIds = new ArrayList<>();
+  private Instant cursorSubmitTime;
+  private Long cursorApplicationId;
+  private long exportedCount;
+  private String errorMessage;
+
+  @WhenCreated private Instant createTime;
+  private Instant completeTime;
+
+  public ApplicationExportModel(
+      long programId,
+      long maxProgramVersionId,
+      ApplicationExportFormat exportFormat,
+      Instant snapshotTime,
+      String fileKey) {
+    this.programId = programId;
+    this.maxProgramVersionId = maxProgramVersionId;
+    this.exportFormat = checkNotNull(exportFormat);
+    this.snapshotTime = checkNotNull(snapshotTime);
+    this.fileKey = checkNotNull(fileKey);
+    this.status = ApplicationExportStatus.PENDING;
+  }
+
+  public long getProgramId() {
+    return programId;
+  }
+
+  public long getMaxProgramVersionId() {
+    return maxProgramVersionId;
+  }
+
+  public ApplicationExportFormat getExportFormat() {
+    return exportFormat;
+  }
+
+  public ApplicationExportStatus getStatus() {
+    return status;
+  }
+
+  public Optional<String> getSearchNameFragment() {
+    return Optional.ofNullable(searchNameFragment);
+  }
+
+  public ApplicationExportModel setSearchNameFragment(Optional<String> searchNameFragment) {
+    this.searchNameFragment = searchNameFragment.orElse(null);
+    return this;
+  }
+
+  public Optional<Instant> getSubmitTimeFrom() {
+    return Optional.ofNullable(submitTimeFrom);
+  }
+
+  public ApplicationExportModel setSubmitTimeFrom(Optional<Instant> submitTimeFrom) {
+    this.submitTimeFrom = submitTimeFrom.orElse(null);
+    return this;
+  }
+
+  public Optional<Instant> getSubmitTimeUntil() {
+    return Optional.ofNullable(submitTimeUntil);
+  }
+
+  public ApplicationExportModel setSubmitTimeUntil(Optional<Instant> submitTimeUntil) {
+    this.submitTimeUntil = submitTimeUntil.orElse(null);
+    return this;
+  }
+
+  public Optional<String> getApplicationStatus() {
+    return Optional.ofNullable(applicationStatus);
+  }
+
+  public ApplicationExportModel setApplicationStatus(Optional<String> applicationStatus) {
+    this.applicationStatus = applicationStatus.orElse(null);
+    return this;
+  }
+
+  public Instant getSnapshotTime() {
+    return snapshotTime;
+  }
+
+  public long getDurableJobId() {
+    return durableJobId;
+  }
+
+  public ApplicationExportModel setDurableJobId(long durableJobId) {
+    this.durableJobId = durableJobId;
+    return this;
+  }
+
+  public String getFileKey() {
+    return fileKey;
+  }
+
+  public Optional<String> getUploadId() {
+    return Optional.ofNullable(uploadId);
+  }
+
+  public ApplicationExportModel setUploadId(String uploadId) {
+    this.uploadId = checkNotNull(uploadId);
+    return this;
+  }
+
+  /** The ids of the uploaded parts, in upload order. */
+  public ImmutableList<String> getPartIds() {
+    return partIds == null ? ImmutableList.of() : ImmutableList.copyOf(partIds);
+  }
+
+  /** The submit time of the last application in the uploaded parts, if any. */
+  public Optional<Instant> getCursorSubmitTime() {
+    return Optional.ofNullable(cursorSubmitTime);
+  }
+
+  /** The id of the last application in the uploaded parts, if any. */
+  public Optional<Long> getCursorApplicationId() {
+    return Optional.ofNullable(cursorApplicationId);
+  }
+
+  /** The number of applications in the uploaded parts. */
+  public long getExportedCount() {
+    return exportedCount;
+  }
+
+  /**
+   * Records that a part has been uploaded.
+   *
+   * @param partId the id returned by cloud storage for the part
+   * @param lastApplication the last application written to the part
+   * @param partApplicationCount the number of applications written to the part
+   */
+  public ApplicationExportModel recordUploadedPart(
+      String partId, ApplicationModel lastApplication, long partApplicationCount) {
+    if (partIds == null) {
+      partIds = new ArrayList<>();
+    }
+    partIds.add(checkNotNull(partId));
+    this.cursorSubmitTime = lastApplication.getSubmitTime();
+    this.cursorApplicationId = lastApplication.id;
+    this.exportedCount += partApplicationCount;
+    this.status = ApplicationExportStatus.IN_PROGRESS;
+    return this;
+  }
+
+  public Optional<String> getErrorMessage() {
+    return Optional.ofNullable(errorMessage);
+  }
+
+  public Instant getCreateTime() {
+    return createTime;
+  }
+
+  public Optional<Instant> getCompleteTime() {
+    return Optional.ofNullable(completeTime);
+  }
+
+  /** True if the export will not make any further progress. */
+  public boolean isFinished() {
+    return status == ApplicationExportStatus.COMPLETE || status == ApplicationExportStatus.FAILED;
+  }
+
+  public ApplicationExportModel markComplete(Instant completeTime, long partApplicationCount) {
+    this.exportedCount += partApplicationCount;
+    this.completeTime = checkNotNull(completeTime);
+    this.status = ApplicationExportStatus.COMPLETE;
+    return this;
+  }
+
+  public ApplicationExportModel markFailed(String errorMessage) {
+    this.errorMessage = checkNotNull(errorMessage);
+    this.status = ApplicationExportStatus.FAILED;
+    return this;
+  }
+}
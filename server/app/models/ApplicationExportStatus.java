@@ -0,0 +1,21 @@
+package models;
+
+import io.ebean.annotation.DbEnumType;
+import io.ebean.annotation.DbEnumValue;
+
+/** Represents the progress of an {@link ApplicationExportModel}. */
+public enum ApplicationExportStatus {
+  // The export has been requested but no output has been written yet.
+  PENDING,
+  // Some of the output has been uploaded and the export will resume from its cursor.
+  IN_PROGRESS,
+  // The output has been fully uploaded and can be downloaded.
+  COMPLETE,
+  // The export could not be completed and will not be retried.
+  FAILED;
+
+  @DbEnumValue(storage = DbEnumType.VARCHAR)
+  public String getValue() {
+    return this.name();
+  }
+}
@@ -34,6 +34,13 @@ public class ApplicationModel extends BaseModel {
 
   @ManyToOne private ProgramModel program;
 
+  /**
+   * The name of the program, which is shared by every version of it. Stored with the application so
+   * that an applicant's applications to any version of a program can be found without joining to
+   * the programs table.
+   */
+  @Constraints.Required private String programName;
+
   // Note: there is not an index on createTime currently as we don't filter on
   // it and expect the number of results to be small.
   @OneToMany(mappedBy = "application")
@@ -46,6 +53,10 @@ public class ApplicationModel extends BaseModel {
 
   @Constraints.Required private EligibilityDetermination eligibilityDetermination;
 
+  /**
+   * The answers as JSON text. Stored as a jsonb object, which the database requires, so queries
+   * can read answers with jsonb operators and indexes.
+   */
   @Constraints.Required @DbJson private String object;
 
   private Instant submitTime;
@@ -58,8 +69,22 @@ public class ApplicationModel extends BaseModel {
 
   public ApplicationModel(
       ApplicantModel applicant, ProgramModel program, LifecycleStage lifecycleStage) {
+    this(applicant, program, program.getProgramDefinition().adminName(), lifecycleStage);
+  }
+
+  /**
+   * Creates an application to {@code program}, whose name is {@code programName}. Unlike {@link
+   * #ApplicationModel(ApplicantModel, ProgramModel, LifecycleStage)} this doesn't need the program
+   * to be loaded, so {@code program} may be a reference.
+   */
+  public ApplicationModel(
+      ApplicantModel applicant,
+      ProgramModel program,
+      String programName,
+      LifecycleStage lifecycleStage) {
     this.applicant = applicant;
     this.program = program;
+    this.programName = programName;
     this.object = "{}";
     this.lifecycleStage = lifecycleStage;
     this.eligibilityDetermination = EligibilityDetermination.NOT_COMPUTED;
@@ -109,6 +134,10 @@ public class ApplicationModel extends BaseModel {
     return this.program;
   }
 
+  public String getProgramName() {
+    return this.programName;
+  }
+
   public ApplicantData getApplicantData() {
     if (this.preferredLocale == null || this.preferredLocale.isEmpty()) {
       // Default to English.
@@ -224,5 +253,6 @@ public class ApplicationModel extends BaseModel {
    */
   public void setProgram(ProgramModel program) {
     this.program = program;
+    this.programName = program.getProgramDefinition().adminName();
   }
 }
@@ -14,7 +14,13 @@ public enum JobType {
   RUN_ON_EACH_STARTUP,
 
   /** Runs a job once at application startup, prior to the site being accessible to users. */
-  RUN_ONCE;
+  RUN_ONCE,
+
+  /**
+   * Runs a job once, as soon as possible after it is inserted, alongside the recurring jobs. Used
+   * for work that is handed off from a request, like sending emails or exporting applications.
+   */
+  ON_DEMAND;
 
   @DbEnumValue(storage = DbEnumType.VARCHAR, length = 32)
   public String getValue() {
@@ -14,11 +14,13 @@ public final class Models {
           ApplicantModel.class,
           ApplicationModel.class,
           ApplicationEventModel.class,
+          ApplicationExportModel.class,
           CategoryModel.class,
           PersistedDurableJobModel.class,
           ProgramModel.class,
           QuestionModel.class,
           StoredFileModel.class,
+          SubmissionNotificationModel.class,
           TrustedIntermediaryGroupModel.class,
           VersionModel.class,
           SettingsGroupModel.class,
@@ -28,7 +30,13 @@ public final class Models {
   public static void truncate(Database database) {
     // Truncate the relational tables we don't want to have models for.
     // Do them first just in case something slips in before the second truncate.
-    database.truncate("programs_categories", "versions_programs", "versions_questions");
+    database.truncate(
+        "batch_migration_checkpoints",
+        "programs_categories",
+        "recorded_submissions",
+        "submission_stats",
+        "versions_programs",
+        "versions_questions");
     database.truncate(MODELS.toArray(new Class[0]));
   }
 }
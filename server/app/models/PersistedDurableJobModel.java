@@ -16,11 +16,13 @@ import play.data.validation.Constraints;
  *
  * <p>When jobs fail, a failure message is recorded on the {@code PersistedDurableJob}'s {@code
  * errorMessage} and its {@code remainingAttempts} count is decremented.
+ *
+ * <p>While a job runs, it is leased to the runner running it by {@code leaseOwner} until {@code
+ * leaseExpiration}, which the runner renews until the job finishes.
  */
 @Entity
 @Table(name = "persisted_durable_jobs")
 public final class PersistedDurableJobModel extends BaseModel {
-
   @Constraints.Required private String jobName;
   @Constraints.Required private JobType jobType;
   @Constraints.Required private Instant executionTime;
@@ -33,6 +35,9 @@ public final class PersistedDurableJobModel extends BaseModel {
 
   private String errorMessage;
 
+  private String leaseOwner;
+  private Instant leaseExpiration;
+
   public PersistedDurableJobModel(String jobName, JobType jobType, Instant executionTime) {
     this.jobName = Preconditions.checkNotNull(jobName);
     this.jobType = jobType;
@@ -52,6 +57,11 @@ public final class PersistedDurableJobModel extends BaseModel {
     return executionTime;
   }
 
+  public PersistedDurableJobModel setExecutionTime(Instant executionTime) {
+    this.executionTime = Preconditions.checkNotNull(executionTime);
+    return this;
+  }
+
   public boolean hasFailedWithNoRemainingAttempts() {
     return successTime == null && remainingAttempts == 0;
   }
@@ -73,6 +83,12 @@ public final class PersistedDurableJobModel extends BaseModel {
     return remainingAttempts;
   }
 
+  public PersistedDurableJobModel setRemainingAttempts(int remainingAttempts) {
+    Preconditions.checkArgument(remainingAttempts > 0, "A job needs at least one attempt");
+    this.remainingAttempts = remainingAttempts;
+    return this;
+  }
+
   public PersistedDurableJobModel decrementRemainingAttempts() {
     this.remainingAttempts--;
     return this;
@@ -89,4 +105,12 @@ public final class PersistedDurableJobModel extends BaseModel {
             : String.format("%s\nEND_ERROR\n\n%s", this.errorMessage, newMessage);
     return this;
   }
+
+  public Optional<String> getLeaseOwner() {
+    return Optional.ofNullable(leaseOwner);
+  }
+
+  public Optional<Instant> getLeaseExpiration() {
+    return Optional.ofNullable(leaseExpiration);
+  }
 }
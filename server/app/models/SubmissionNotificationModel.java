@@ -0,0 +1,41 @@
+package models;
+
+import io.ebean.annotation.WhenCreated;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Table;
+import java.time.Instant;
+import play.data.validation.Constraints;
+
+/**
+ * An EBean mapped class that records the emails owed for a submitted application.
+ *
+ * <p>It is inserted in the transaction that submits the application, together with the {@link
+ * PersistedDurableJobModel} identified by {@code durableJobId} that sends the emails, so that a
+ * submission is never committed without them being sent eventually.
+ */
+@Entity
+@Table(name = "submission_notifications")
+public final class SubmissionNotificationModel extends BaseModel {
+
+  @Constraints.Required private long applicationId;
+  @Constraints.Required private long durableJobId;
+
+  @WhenCreated private Instant createTime;
+
+  public SubmissionNotificationModel(long applicationId, long durableJobId) {
+    this.applicationId = applicationId;
+    this.durableJobId = durableJobId;
+  }
+
+  public long getApplicationId() {
+    return applicationId;
+  }
+
+  public long getDurableJobId() {
+    return durableJobId;
+  }
+
+  public Instant getCreateTime() {
+    return createTime;
+  }
+}
@@ -0,0 +1,16 @@
+package modules;
+
+import com.google.inject.AbstractModule;
+import repository.CacheInvalidationListener;
+
+/**
+ * Binds the listeners that keep this server's caches consistent with changes made by other servers
+ * as eager singletons, so that they start listening at server start time.
+ */
+public final class CacheInvalidationModule extends AbstractModule {
+
+  @Override
+  protected void configure() {
+    bind(CacheInvalidationListener.class).asEagerSingleton();
+  }
+}
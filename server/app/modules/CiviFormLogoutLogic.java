@@ -9,6 +9,7 @@ import org.pac4j.core.context.FrameworkParameters;
 import org.pac4j.core.engine.DefaultLogoutLogic;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import repository.AccountRepository;
 
 /**
  * This class extends the default pac4j logout logic to include removing the active session from the
@@ -17,9 +18,11 @@ import org.slf4j.LoggerFactory;
 class CiviFormLogoutLogic extends DefaultLogoutLogic {
   private static final Logger logger = LoggerFactory.getLogger(CiviFormLogoutLogic.class);
   private final ProfileUtils profileUtils;
+  private final AccountRepository accountRepository;
 
-  public CiviFormLogoutLogic(ProfileUtils profileUtils) {
+  public CiviFormLogoutLogic(ProfileUtils profileUtils, AccountRepository accountRepository) {
     this.profileUtils = profileUtils;
+    this.accountRepository = accountRepository;
   }
 
   @Override
@@ -53,10 +56,9 @@ class CiviFormLogoutLogic extends DefaultLogoutLogic {
           profile
               .getAccount()
               .thenAccept(
-                  account -> {
-                    account.removeActiveSession(profile.getProfileData().getSessionId());
-                    account.save();
-                  })
+                  account ->
+                      accountRepository.removeActiveSession(
+                          account, profile.getProfileData().getSessionId()))
               .exceptionally(
                   e -> {
                     logger.error(e.getMessage(), e);
@@ -8,14 +8,17 @@ import com.typesafe.config.Config;
 import com.typesafe.config.ConfigException;
 import play.Environment;
 import services.cloud.ApplicantStorageClient;
+import services.cloud.ExportStorageClient;
 import services.cloud.PublicStorageClient;
 import services.cloud.StorageServiceName;
 import services.cloud.aws.AwsApplicantStorage;
+import services.cloud.aws.AwsExportStorage;
 import services.cloud.aws.AwsPublicStorage;
 import services.cloud.aws.AwsStorageUtils;
 import services.cloud.azure.AzureApplicantStorage;
 import services.cloud.azure.AzurePublicStorage;
 import services.cloud.gcp.GcpApplicantStorage;
+import services.cloud.gcp.GcpExportStorage;
 import services.cloud.gcp.GcpPublicStorage;
 import services.cloud.gcp.GcpStorageUtils;
 import services.cloud.generic_s3.AbstractS3StorageUtils;
@@ -55,6 +58,7 @@ public class CloudStorageModule extends AbstractModule {
         bind(AbstractS3StorageUtils.class).to(AwsStorageUtils.class);
         bind(ApplicantStorageClient.class).to(AwsApplicantStorage.class);
         bind(PublicStorageClient.class).to(AwsPublicStorage.class);
+        bind(ExportStorageClient.class).to(AwsExportStorage.class);
         bind(FileUploadViewStrategy.class).to(GenericS3FileUploadViewStrategy.class);
         bind(GenericS3ClientWrapper.class).to(GenericS3Client.class);
         break;
@@ -62,12 +66,14 @@ public class CloudStorageModule extends AbstractModule {
         bind(AbstractS3StorageUtils.class).to(GcpStorageUtils.class);
         bind(ApplicantStorageClient.class).to(GcpApplicantStorage.class);
         bind(PublicStorageClient.class).to(GcpPublicStorage.class);
+        bind(ExportStorageClient.class).to(GcpExportStorage.class);
         bind(FileUploadViewStrategy.class).to(GenericS3FileUploadViewStrategy.class);
         bind(GenericS3ClientWrapper.class).to(GenericS3Client.class);
         break;
       case AZURE_BLOB:
         bind(ApplicantStorageClient.class).to(AzureApplicantStorage.class);
         bind(PublicStorageClient.class).to(AzurePublicStorage.class);
+        bind(ExportStorageClient.class).to(AzureApplicantStorage.class);
         bind(FileUploadViewStrategy.class).to(AzureFileUploadViewStrategy.class);
         break;
     }
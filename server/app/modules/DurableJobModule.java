@@ -3,11 +3,14 @@ package modules;
 import annotations.BindingAnnotations;
 import annotations.BindingAnnotations.RecurringJobsProviderName;
 import annotations.BindingAnnotations.StartupJobsProviderName;
+import com.google.common.collect.ImmutableList;
 import com.google.inject.AbstractModule;
 import com.google.inject.Inject;
 import com.google.inject.Provider;
 import com.google.inject.Provides;
 import com.typesafe.config.Config;
+import durablejobs.BatchMigrationJob;
+import durablejobs.DurableJobListener;
 import durablejobs.DurableJobName;
 import durablejobs.DurableJobRegistry;
 import durablejobs.JobExecutionTimeResolver;
@@ -18,10 +21,15 @@ import durablejobs.StartupDurableJobRunner;
 import durablejobs.StartupJobScheduler;
 import durablejobs.jobs.AddCategoryAndTranslationsJob;
 import durablejobs.jobs.AddOperatorToLeafAddressServiceAreaJob;
+import durablejobs.jobs.ApplicationExportJob;
+import durablejobs.jobs.BackfillSubmissionStatsJob;
 import durablejobs.jobs.ConvertAddressServiceAreaToArrayJob;
+import durablejobs.jobs.ConvertApplicantDataToJsonbObjectsJob;
 import durablejobs.jobs.CopyFileKeyForMultipleFileUpload;
+import durablejobs.jobs.CreateAnswerFilterIndexesJob;
 import durablejobs.jobs.OldJobCleanupJob;
 import durablejobs.jobs.ReportingDashboardMonthlyRefreshJob;
+import durablejobs.jobs.SendSubmissionNotificationsJob;
 import durablejobs.jobs.UnusedAccountCleanupJob;
 import durablejobs.jobs.UnusedProgramImagesCleanupJob;
 import java.time.Duration;
@@ -34,12 +42,15 @@ import org.slf4j.LoggerFactory;
 import play.Environment;
 import play.api.db.evolutions.ApplicationEvolutions;
 import repository.AccountRepository;
+import repository.ApplicationRepository;
 import repository.CategoryRepository;
 import repository.PersistedDurableJobRepository;
 import repository.ReportingRepository;
 import repository.VersionRepository;
 import scala.concurrent.ExecutionContext;
+import services.applicant.ApplicantService;
 import services.cloud.PublicStorageClient;
+import services.export.ApplicationExportService;
 
 /**
  * Configures {@link durablejobs.DurableJob}s with their {@link DurableJobName} and, if they are
@@ -73,6 +84,7 @@ public final class DurableJobModule extends AbstractModule {
         ApplicationEvolutions applicationEvolutions,
         ActorSystem actorSystem,
         Config config,
+        DurableJobListener durableJobListener,
         ExecutionContext scalaExecutionContext,
         RecurringDurableJobRunner recurringDurableJobRunner,
         RecurringJobScheduler recurringJobScheduler,
@@ -90,7 +102,8 @@ public final class DurableJobModule extends AbstractModule {
         startupDurableJobRunner.runJobs();
 
         // Start the actorSystem to run recurring jobs. These jobs will run in the background after
-        // the configured initial delay.
+        // the configured initial delay, or as soon as they are inserted to run on demand.
+        durableJobListener.start();
         actorSystem
             .scheduler()
             .scheduleAtFixedRate(
@@ -100,7 +113,7 @@ public final class DurableJobModule extends AbstractModule {
                 /* interval= */ Duration.ofSeconds(pollIntervalSeconds),
                 () -> {
                   recurringJobScheduler.scheduleJobs();
-                  recurringDurableJobRunner.runJobs();
+                  recurringDurableJobRunner.startJobs();
                 },
                 scalaExecutionContext);
         logger.trace("DurableJobRunnerScheduler - Task End");
@@ -114,6 +127,9 @@ public final class DurableJobModule extends AbstractModule {
   @RecurringJobsProviderName
   public DurableJobRegistry provideRecurringDurableJobRegistry(
       AccountRepository accountRepository,
+      ApplicantService applicantService,
+      ApplicationExportService applicationExportService,
+      ApplicationRepository applicationRepository,
       @BindingAnnotations.Now Provider<LocalDateTime> nowProvider,
       PersistedDurableJobRepository persistedDurableJobRepository,
       PublicStorageClient publicStorageClient,
@@ -125,7 +141,8 @@ public final class DurableJobModule extends AbstractModule {
         DurableJobName.OLD_JOB_CLEANUP,
         JobType.RECURRING,
         persistedDurableJob ->
-            new OldJobCleanupJob(persistedDurableJobRepository, persistedDurableJob),
+            new OldJobCleanupJob(
+                persistedDurableJobRepository, applicationExportService, persistedDurableJob),
         new RecurringJobExecutionTimeResolvers.Sunday2Am());
 
     durableJobRegistry.register(
@@ -150,24 +167,41 @@ public final class DurableJobModule extends AbstractModule {
                 publicStorageClient, versionRepository, persistedDurableJob),
         new RecurringJobExecutionTimeResolvers.ThirdOfMonth2Am());
 
+    durableJobRegistry.registerOnDemandJob(
+        DurableJobName.APPLICATION_EXPORT,
+        persistedDurableJob ->
+            new ApplicationExportJob(applicationExportService, persistedDurableJob));
+
+    durableJobRegistry.registerOnDemandJob(
+        DurableJobName.SEND_SUBMISSION_NOTIFICATIONS,
+        persistedDurableJob ->
+            new SendSubmissionNotificationsJob(
+                applicationRepository, applicantService, persistedDurableJob));
+
     return durableJobRegistry;
   }
 
   @Provides
   @StartupJobsProviderName
   public DurableJobRegistry provideStartupDurableJobRegistry(
-      CategoryRepository categoryRepository, Environment environment) {
+      CategoryRepository categoryRepository,
+      Config config,
+      Environment environment,
+      ReportingRepository reportingRepository) {
     var durableJobRegistry = new DurableJobRegistry();
+    BatchMigrationJob.Options batchMigrationOptions = BatchMigrationJob.Options.fromConfig(config);
 
     durableJobRegistry.registerStartupJob(
         DurableJobName.ADD_OPERATOR_TO_LEAF_ADDRESS_SERVICE_AREA,
         JobType.RUN_ONCE,
-        persistedDurableJob -> new AddOperatorToLeafAddressServiceAreaJob(persistedDurableJob));
+        persistedDurableJob ->
+            new AddOperatorToLeafAddressServiceAreaJob(batchMigrationOptions, persistedDurableJob));
 
     durableJobRegistry.registerStartupJob(
         DurableJobName.CONVERT_ADDRESS_SERVICE_AREA_TO_ARRAY,
         JobType.RUN_ONCE,
-        persistedDurableJob -> new ConvertAddressServiceAreaToArrayJob(persistedDurableJob));
+        persistedDurableJob ->
+            new ConvertAddressServiceAreaToArrayJob(batchMigrationOptions, persistedDurableJob));
 
     // TODO(#8833): Remove job from registry once all category translations are in.
     durableJobRegistry.registerStartupJob(
@@ -180,7 +214,29 @@ public final class DurableJobModule extends AbstractModule {
     durableJobRegistry.registerStartupJob(
         DurableJobName.COPY_FILE_KEY_FOR_MULTIPLE_FILE_UPLOAD,
         JobType.RUN_ONCE,
-        persistedDurableJob -> new CopyFileKeyForMultipleFileUpload(persistedDurableJob));
+        persistedDurableJob ->
+            new CopyFileKeyForMultipleFileUpload(batchMigrationOptions, persistedDurableJob));
+
+    durableJobRegistry.registerStartupJob(
+        DurableJobName.BACKFILL_SUBMISSION_STATS,
+        JobType.RUN_ONCE,
+        persistedDurableJob ->
+            new BackfillSubmissionStatsJob(reportingRepository, persistedDurableJob));
+
+    durableJobRegistry.registerStartupJob(
+        DurableJobName.CONVERT_APPLICANT_DATA_TO_JSONB_OBJECTS,
+        JobType.RUN_ONCE,
+        persistedDurableJob ->
+            new ConvertApplicantDataToJsonbObjectsJob(batchMigrationOptions, persistedDurableJob));
+
+    // Runs on each startup so that the indexes follow changes to answer_filter_indexed_paths.
+    ImmutableList<String> answerFilterIndexedPaths =
+        ImmutableList.copyOf(config.getStringList("answer_filter_indexed_paths"));
+    durableJobRegistry.registerStartupJob(
+        DurableJobName.CREATE_ANSWER_FILTER_INDEXES,
+        JobType.RUN_ON_EACH_STARTUP,
+        persistedDurableJob ->
+            new CreateAnswerFilterIndexesJob(answerFilterIndexedPaths, persistedDurableJob));
 
     return durableJobRegistry;
   }
@@ -54,6 +54,7 @@ import org.pac4j.play.LogoutController;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import play.Environment;
+import repository.AccountRepository;
 
 /** SecurityModule configures and initializes all authentication and authorization classes. */
 public class SecurityModule extends AbstractModule {
@@ -178,8 +179,9 @@ public class SecurityModule extends AbstractModule {
 
   @Provides
   @Singleton
-  protected CiviFormLogoutLogic civiFormLogoutLogic(ProfileUtils profileUtils) {
-    return new CiviFormLogoutLogic(checkNotNull(profileUtils));
+  protected CiviFormLogoutLogic civiFormLogoutLogic(
+      ProfileUtils profileUtils, AccountRepository accountRepository) {
+    return new CiviFormLogoutLogic(checkNotNull(profileUtils), checkNotNull(accountRepository));
   }
 
   @Provides
@@ -52,15 +52,20 @@ public final class AccountRepository {
   private final Clock clock;
   private final SettingsManifest settingsManifest;
   private final SessionLifecycle sessionLifecycle;
+  private final CacheInvalidationBus cacheInvalidationBus;
 
   @Inject
   public AccountRepository(
-      DatabaseExecutionContext dbExecutionContext, Clock clock, SettingsManifest settingsManifest) {
+      DatabaseExecutionContext dbExecutionContext,
+      Clock clock,
+      SettingsManifest settingsManifest,
+      CacheInvalidationBus cacheInvalidationBus) {
     this.database = DB.getDefault();
     this.transactionManager = new TransactionManager();
     this.dbExecutionContext = checkNotNull(dbExecutionContext);
     this.clock = clock;
     this.settingsManifest = checkNotNull(settingsManifest);
+    this.cacheInvalidationBus = checkNotNull(cacheInvalidationBus);
 
     int sessionDurationMinutes =
         settingsManifest
@@ -245,6 +250,7 @@ public final class AccountRepository {
                 () -> {
                   left.setAccount(account).save();
                   right.setAccount(account).save();
+                  invalidateAccountSessions(account);
                   return mergeApplicants(left, right).saveAndReturn();
                 }),
         dbExecutionContext);
@@ -489,7 +495,9 @@ public final class AccountRepository {
             + "DELETE FROM accounts "
             + "WHERE accounts.id IN (SELECT account_id FROM unused_accounts);";
 
-    return database.sqlUpdate(sql).execute();
+    int deletedAccounts = database.sqlUpdate(sql).execute();
+    cacheInvalidationBus.invalidateAll(CacheInvalidationBus.Cache.ACCOUNT_SESSIONS);
+    return deletedAccounts;
   }
 
   /**
@@ -520,5 +528,29 @@ public final class AccountRepository {
     }
 
     account.save();
+    invalidateAccountSessions(account);
+  }
+
+  /** Removes the session {@code sessionId} from the active sessions of the account. */
+  public void removeActiveSession(AccountModel account, String sessionId) {
+    account.removeActiveSession(sessionId);
+    account.save();
+    invalidateAccountSessions(account);
+  }
+
+  /** Removes every active session of the account, logging it out everywhere. */
+  public void clearActiveSessions(AccountModel account) {
+    account.clearActiveSessions();
+    account.save();
+    invalidateAccountSessions(account);
+  }
+
+  /**
+   * Makes every server load the active sessions of the account again, rather than trusting the ones
+   * {@link filters.ValidAccountFilter} cached.
+   */
+  private void invalidateAccountSessions(AccountModel account) {
+    cacheInvalidationBus.invalidate(
+        CacheInvalidationBus.Cache.ACCOUNT_SESSIONS, String.valueOf(account.id));
   }
 }
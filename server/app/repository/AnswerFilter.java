@@ -0,0 +1,218 @@
+package repository;
+
+import static services.applicant.ApplicantData.APPLICANT_PATH;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.google.auto.value.AutoValue;
+import com.google.common.base.Joiner;
+import com.google.common.base.Splitter;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+import services.Path;
+import services.applicant.Currency;
+import services.applicant.question.Scalar;
+import services.program.predicate.Operator;
+import services.question.types.ScalarType;
+
+/**
+ * Filters submitted applications to those with an answer matching a condition, like "household
+ * size is greater than 4", by applying a predicate {@link Operator} to a {@link Scalar} of a
+ * question.
+ *
+ * <p>A filter is written {@code <question>.<scalar>:<OPERATOR>:<value>}, where {@code <question>}
+ * is the question's name key, for example {@code household_size.number:GREATER_THAN:4}. Operators
+ * that compare to several values, like {@code county.selection:IN:3,5}, take them comma separated.
+ * Dates are written yyyy-MM-dd and currencies in dollars. Only answers to questions that aren't
+ * repeated can be filtered on.
+ *
+ * <p>{@link ProgramRepository} matches equality operators by jsonb containment, which the index on
+ * the answers of submitted applications serves for every question, and comparisons by the answer
+ * at {@link #path()}, which is served by an index only for the answers listed in {@code
+ * answer_filter_indexed_paths}.
+ */
+@AutoValue
+public abstract class AnswerFilter {
+  private static final Pattern QUESTION_NAME_KEY_PATTERN = Pattern.compile("[a-z0-9_]+");
+  private static final Splitter ANSWER_SPLITTER = Splitter.on('.');
+  private static final Splitter FILTER_SPLITTER = Splitter.on(':').limit(3);
+  private static final Splitter VALUES_SPLITTER = Splitter.on(',').trimResults();
+  private static final Joiner PATH_JOINER = Joiner.on(',');
+
+  /** Operators that match the answer against one of the values by containment. */
+  private static final ImmutableSet<Operator> CONTAINMENT_OPERATORS =
+      ImmutableSet.of(Operator.EQUAL_TO, Operator.IN, Operator.ANY_OF);
+
+  /** Operators that match answers to the question that aren't any of the values. */
+  private static final ImmutableSet<Operator> NEGATED_CONTAINMENT_OPERATORS =
+      ImmutableSet.of(Operator.NOT_EQUAL_TO, Operator.NOT_IN, Operator.NONE_OF);
+
+  /** Operators that take a list of values rather than a single value. */
+  private static final ImmutableSet<Operator> LIST_OPERATORS =
+      ImmutableSet.of(Operator.IN, Operator.NOT_IN, Operator.ANY_OF, Operator.NONE_OF);
+
+  /** Operators that compare the answer to a single value by its order. */
+  private static final ImmutableSet<Operator> COMPARISON_OPERATORS =
+      ImmutableSet.of(
+          Operator.GREATER_THAN,
+          Operator.GREATER_THAN_OR_EQUAL_TO,
+          Operator.LESS_THAN,
+          Operator.LESS_THAN_OR_EQUAL_TO,
+          Operator.IS_AFTER,
+          Operator.IS_ON_OR_AFTER,
+          Operator.IS_BEFORE,
+          Operator.IS_ON_OR_BEFORE);
+
+  /** The path of the answer, like {@code applicant.household_size.number}. */
+  public abstract Path path();
+
+  public abstract Scalar scalar();
+
+  public abstract Operator operator();
+
+  /** The values to compare the answer to, as they are stored in the answers. */
+  public abstract ImmutableList<JsonNode> values();
+
+  /**
+   * Parses a filter written {@code <question>.<scalar>:<OPERATOR>:<value>}.
+   *
+   * @throws IllegalArgumentException if the filter is malformed, or the operator doesn't apply to
+   *     the scalar
+   */
+  public static AnswerFilter parse(String filter) {
+    List<String> parts = FILTER_SPLITTER.splitToList(filter);
+    if (parts.size() != 3) {
+      throw new IllegalArgumentException(
+          String.format(
+              "Answer filter must be <question>.<scalar>:<OPERATOR>:<value>: %s", filter));
+    }
+    Path path = answerPath(parts.get(0).trim());
+    Scalar scalar = Scalar.valueOf(path.keyName().toUpperCase(Locale.ROOT));
+    Operator operator = Operator.valueOf(parts.get(1).trim().toUpperCase(Locale.ROOT));
+    ScalarType scalarType = scalar.toScalarType();
+    if (!isSupported(operator) || !operator.getOperableTypes().contains(scalarType)) {
+      throw new IllegalArgumentException(
+          String.format("Answer filter %s can't apply %s to %s", filter, operator, scalar));
+    }
+
+    List<String> values =
+        LIST_OPERATORS.contains(operator)
+            ? VALUES_SPLITTER.splitToList(parts.get(2))
+            : ImmutableList.of(parts.get(2).trim());
+    return new AutoValue_AnswerFilter(
+        path,
+        scalar,
+        operator,
+        values.stream()
+            .map(value -> parseValue(scalarType, value))
+            .collect(ImmutableList.toImmutableList()));
+  }
+
+  /**
+   * The path of an answer written {@code <question>.<scalar>}, like {@code
+   * applicant.household_size.number} for {@code household_size.number}.
+   *
+   * @throws IllegalArgumentException if the answer isn't a scalar of a question that isn't repeated
+   */
+  public static Path answerPath(String answer) {
+    List<String> segments = ANSWER_SPLITTER.splitToList(answer.toLowerCase(Locale.ROOT));
+    if (segments.size() != 2 || !QUESTION_NAME_KEY_PATTERN.matcher(segments.get(0)).matches()) {
+      throw new IllegalArgumentException(
+          String.format("Answer must be <question>.<scalar>: %s", answer));
+    }
+    Scalar scalar = Scalar.valueOf(segments.get(1).toUpperCase(Locale.ROOT));
+    return APPLICANT_PATH.join(segments.get(0)).join(scalar);
+  }
+
+  /** The answer at {@code path} in the jsonb path form, like {@code {applicant,q,number}}. */
+  public static String jsonbPath(Path path) {
+    return "{" + PATH_JOINER.join(path.segments()) + "}";
+  }
+
+  /** The jsonb type of the answers this filter can match, like {@code number}. */
+  String jsonbType() {
+    return switch (scalar().toScalarType()) {
+      case LIST_OF_STRINGS -> "array";
+      case STRING -> "string";
+      default -> "number";
+    };
+  }
+
+  /** True if an answer matches by being one of {@link #values()}. */
+  boolean isContainment() {
+    return CONTAINMENT_OPERATORS.contains(operator());
+  }
+
+  /** True if an answer matches by not being any of {@link #values()}. */
+  boolean isNegatedContainment() {
+    return NEGATED_CONTAINMENT_OPERATORS.contains(operator());
+  }
+
+  /** The SQL operator a comparison filter compares the answer to its value with. */
+  String comparisonOperator() {
+    return switch (operator()) {
+      case GREATER_THAN, IS_AFTER -> ">";
+      case GREATER_THAN_OR_EQUAL_TO, IS_ON_OR_AFTER -> ">=";
+      case LESS_THAN, IS_BEFORE -> "<";
+      case LESS_THAN_OR_EQUAL_TO, IS_ON_OR_BEFORE -> "<=";
+      default ->
+          throw new IllegalStateException(String.format("%s isn't a comparison", operator()));
+    };
+  }
+
+  /**
+   * For each of {@link #values()}, a document of answers that contains it, like {@code
+   * {"applicant":{"household_size":{"number":4}}}}. Selections are contained in an array.
+   */
+  ImmutableList<String> containingDocuments() {
+    return values().stream()
+        .map(
+            value -> {
+              JsonNode answer =
+                  scalar().toScalarType() == ScalarType.LIST_OF_STRINGS
+                      ? JsonNodeFactory.instance.arrayNode().add(value)
+                      : value;
+              ObjectNode document = JsonNodeFactory.instance.objectNode();
+              ObjectNode parent = document;
+              ImmutableList<String> segments = path().segments();
+              for (String segment : segments.subList(0, segments.size() - 1)) {
+                parent = parent.putObject(segment);
+              }
+              parent.set(path().keyName(), answer);
+              return document.toString();
+            })
+        .collect(ImmutableList.toImmutableList());
+  }
+
+  private static boolean isSupported(Operator operator) {
+    return CONTAINMENT_OPERATORS.contains(operator)
+        || NEGATED_CONTAINMENT_OPERATORS.contains(operator)
+        || COMPARISON_OPERATORS.contains(operator);
+  }
+
+  /** Converts a value to the form answers of {@code scalarType} are stored in. */
+  private static JsonNode parseValue(ScalarType scalarType, String value) {
+    return switch (scalarType) {
+      case LONG -> JsonNodeFactory.instance.numberNode(Long.parseLong(value));
+      case CURRENCY_CENTS -> JsonNodeFactory.instance.numberNode(Currency.parse(value).getCents());
+      case DATE -> JsonNodeFactory.instance.numberNode(parseDateMillis(value));
+      default -> JsonNodeFactory.instance.textNode(value);
+    };
+  }
+
+  /** The date written yyyy-MM-dd as stored, in milliseconds since the epoch at its UTC start. */
+  private static long parseDateMillis(String date) {
+    try {
+      return LocalDate.parse(date).atStartOfDay().toInstant(ZoneOffset.UTC).toEpochMilli();
+    } catch (DateTimeParseException e) {
+      throw new IllegalArgumentException(String.format("Malformed date: %s", date), e);
+    }
+  }
+}
@@ -8,6 +8,8 @@ import io.ebean.DB;
 import io.ebean.Database;
 import io.ebean.PagedList;
 import io.ebean.Query;
+import io.ebean.SqlUpdate;
+import io.ebean.Transaction;
 import java.time.Instant;
 import java.util.Optional;
 import java.util.concurrent.CompletionStage;
@@ -25,13 +27,11 @@ public final class ApiKeyRepository {
   private static final QueryProfileLocationBuilder queryProfileLocationBuilder =
       new QueryProfileLocationBuilder("ApiKeyRepository");
   private final Database database;
-  private final TransactionManager transactionManager;
   private final DatabaseExecutionContext dbExecutionContext;
 
   @Inject
   public ApiKeyRepository(DatabaseExecutionContext dbExecutionContext) {
     this.database = DB.getDefault();
-    this.transactionManager = new TransactionManager();
     this.dbExecutionContext = checkNotNull(dbExecutionContext);
   }
 
@@ -104,25 +104,42 @@ public final class ApiKeyRepository {
         ImmutableList.copyOf(pagedList.getList()));
   }
 
-  /** Increment an API key's call count and set its last call IP address to the one provided. */
-  public void recordApiKeyUsage(String apiKeyId, String remoteAddress) {
-    transactionManager.executeWithRetry(
-        () -> {
-          Optional<ApiKeyModel> apiKey =
-              database
-                  .find(ApiKeyModel.class)
-                  .where()
-                  .eq("key_id", apiKeyId)
-                  .setLabel("ApiKeyModel.findById")
-                  .setProfileLocation(queryProfileLocationBuilder.create("recordApiKeyUsage"))
-                  .findOneOrEmpty();
-
-          if (apiKey.isEmpty()) {
-            throw new IllegalArgumentException("API key %s not found".formatted(apiKeyId));
-          }
-
-          apiKey.get().incrementCallCount().setLastCallIpAddress(remoteAddress).save();
-        });
+  /** Calls made with an API key since its usage was last recorded. */
+  public record ApiKeyUsage(
+      String keyId, long callCount, String lastCallIpAddress, Instant lastCallTime) {}
+
+  /**
+   * Adds the calls in {@code usages} to the call counts of their API keys, and sets each key's last
+   * call IP address and update time, in a single batch. Usage of keys that don't exist is ignored.
+   *
+   * <p>The counts are incremented in the database rather than read and written back, so servers
+   * recording usage of the same key concurrently don't lose each other's calls.
+   */
+  public void recordApiKeyUsage(ImmutableList<ApiKeyUsage> usages) {
+    if (usages.isEmpty()) {
+      return;
+    }
+    try (Transaction transaction = database.beginTransaction()) {
+      SqlUpdate update =
+          database.sqlUpdate(
+              """
+              UPDATE api_keys
+              SET call_count = call_count + :call_count,
+                  last_call_ip_address = :last_call_ip_address,
+                  update_time = GREATEST(update_time, :last_call_time)
+              WHERE key_id = :key_id
+              """);
+      for (ApiKeyUsage usage : usages) {
+        update
+            .setParameter("call_count", usage.callCount())
+            .setParameter("last_call_ip_address", usage.lastCallIpAddress())
+            .setParameter("last_call_time", usage.lastCallTime())
+            .setParameter("key_id", usage.keyId())
+            .addBatch();
+      }
+      update.executeBatch();
+      transaction.commit();
+    }
   }
 
   /** Insert a new {@link ApiKeyModel} record asynchronously. */
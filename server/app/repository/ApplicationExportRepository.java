@@ -0,0 +1,107 @@
+package repository;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.google.common.collect.ImmutableList;
+import io.ebean.DB;
+import io.ebean.Database;
+import io.ebean.Transaction;
+import io.ebean.TxScope;
+import java.time.Instant;
+import java.util.Optional;
+import javax.inject.Inject;
+import models.ApplicationExportModel;
+import models.ApplicationExportStatus;
+import models.PersistedDurableJobModel;
+
+/** Implements queries related to {@link ApplicationExportModel}. */
+public final class ApplicationExportRepository {
+  private static final QueryProfileLocationBuilder queryProfileLocationBuilder =
+      new QueryProfileLocationBuilder("ApplicationExportRepository");
+
+  private final Database database;
+  private final PersistedDurableJobRepository persistedDurableJobRepository;
+
+  @Inject
+  public ApplicationExportRepository(PersistedDurableJobRepository persistedDurableJobRepository) {
+    this.database = DB.getDefault();
+    this.persistedDurableJobRepository = checkNotNull(persistedDurableJobRepository);
+  }
+
+  /**
+   * Inserts {@code export} along with the {@code durableJob} that will run it. Both are inserted
+   * in the same transaction so that every export has a job to make progress on it.
+   */
+  public ApplicationExportModel insertWithDurableJob(
+      ApplicationExportModel export, PersistedDurableJobModel durableJob) {
+    checkNotNull(export);
+    checkNotNull(durableJob);
+    try (Transaction transaction = database.beginTransaction(TxScope.required())) {
+      persistedDurableJobRepository.insertJobToRunNow(durableJob);
+      export.setDurableJobId(durableJob.id);
+      database.insert(export);
+      transaction.commit();
+    }
+    return export;
+  }
+
+  /**
+   * Hands {@code export} over to {@code durableJob}, which is inserted in the same transaction that
+   * updates the export.
+   */
+  public void updateDurableJob(ApplicationExportModel export, PersistedDurableJobModel durableJob) {
+    checkNotNull(export);
+    checkNotNull(durableJob);
+    try (Transaction transaction = database.beginTransaction(TxScope.required())) {
+      persistedDurableJobRepository.insertJobToRunNow(durableJob);
+      export.setDurableJobId(durableJob.id);
+      database.update(export);
+      transaction.commit();
+    }
+  }
+
+  /** Saves the progress recorded on {@code export}. */
+  public void update(ApplicationExportModel export) {
+    database.update(checkNotNull(export));
+  }
+
+  /** Returns the completed and failed exports that were started before {@code createdBefore}. */
+  public ImmutableList<ApplicationExportModel> lookupFinishedExportsCreatedBefore(
+      Instant createdBefore) {
+    return ImmutableList.copyOf(
+        database
+            .find(ApplicationExportModel.class)
+            .setLabel("ApplicationExportModel.findList")
+            .setProfileLocation(
+                queryProfileLocationBuilder.create("lookupFinishedExportsCreatedBefore"))
+            .where()
+            .in("status", ApplicationExportStatus.COMPLETE, ApplicationExportStatus.FAILED)
+            .lt("create_time", checkNotNull(createdBefore))
+            .findList());
+  }
+
+  public void delete(ApplicationExportModel export) {
+    database.delete(checkNotNull(export));
+  }
+
+  public Optional<ApplicationExportModel> lookupExport(long exportId) {
+    return database
+        .find(ApplicationExportModel.class)
+        .setLabel("ApplicationExportModel.findById")
+        .setProfileLocation(queryProfileLocationBuilder.create("lookupExport"))
+        .setId(exportId)
+        .findOneOrEmpty();
+  }
+
+  /** Returns the export that the durable job with {@code durableJobId} is responsible for. */
+  public Optional<ApplicationExportModel> lookupExportForDurableJob(long durableJobId) {
+    return database
+        .find(ApplicationExportModel.class)
+        .setLabel("ApplicationExportModel.findByDurableJobId")
+        .setProfileLocation(queryProfileLocationBuilder.create("lookupExportForDurableJob"))
+        .where()
+        .eq("durable_job_id", durableJobId)
+        .setMaxRows(1)
+        .findOneOrEmpty();
+  }
+}
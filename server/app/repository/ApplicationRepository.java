@@ -6,9 +6,13 @@ import static java.util.concurrent.CompletableFuture.supplyAsync;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.MoreCollectors;
+import durablejobs.DurableJobName;
+import durablejobs.jobs.SendSubmissionNotificationsJob;
 import io.ebean.DB;
 import io.ebean.Database;
 import io.ebean.ExpressionList;
+import java.time.Clock;
 import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.CompletionStage;
@@ -17,12 +21,16 @@ import javax.inject.Inject;
 import models.ApplicantModel;
 import models.ApplicationModel;
 import models.EligibilityDetermination;
+import models.JobType;
 import models.LifecycleStage;
+import models.PersistedDurableJobModel;
 import models.ProgramModel;
+import models.SubmissionNotificationModel;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import services.applicant.exception.ApplicantNotFoundException;
 import services.applicant.exception.DuplicateApplicationException;
+import services.program.ProgramDefinition;
 import services.program.ProgramNotFoundException;
 
 /**
@@ -38,18 +46,27 @@ public final class ApplicationRepository {
   private final ProgramRepository programRepository;
   private final AccountRepository accountRepository;
   private final DatabaseExecutionContext dbExecutionContext;
+  private final ReportingRepository reportingRepository;
+  private final PersistedDurableJobRepository persistedDurableJobRepository;
+  private final Clock clock;
   private static final Logger logger = LoggerFactory.getLogger(ApplicationRepository.class);
 
   @Inject
   public ApplicationRepository(
       ProgramRepository programRepository,
       AccountRepository accountRepository,
-      DatabaseExecutionContext dbExecutionContext) {
+      DatabaseExecutionContext dbExecutionContext,
+      ReportingRepository reportingRepository,
+      PersistedDurableJobRepository persistedDurableJobRepository,
+      Clock clock) {
     this.database = DB.getDefault();
     this.transactionManager = new TransactionManager();
     this.programRepository = checkNotNull(programRepository);
     this.accountRepository = checkNotNull(accountRepository);
     this.dbExecutionContext = checkNotNull(dbExecutionContext);
+    this.reportingRepository = checkNotNull(reportingRepository);
+    this.persistedDurableJobRepository = checkNotNull(persistedDurableJobRepository);
+    this.clock = checkNotNull(clock);
   }
 
   @VisibleForTesting
@@ -69,6 +86,9 @@ public final class ApplicationRepository {
    * Submit an application, which will delete any in-progress drafts, obsolete any submitted
    * applications to a program with the same name (to include past versions of the same program),
    * and create a new application in the active state.
+   *
+   * <p>The same transaction records a {@link SubmissionNotificationModel} and the durable job that
+   * sends the emails announcing the submission.
    */
   public CompletionStage<Optional<ApplicationModel>> submitApplication(
       long applicantId,
@@ -91,17 +111,11 @@ public final class ApplicationRepository {
     return transactionManager.execute(
         () -> {
           List<ApplicationModel> oldApplications =
-              database
-                  .createQuery(ApplicationModel.class)
-                  .where()
-                  .eq("applicant.id", applicant.id)
-                  .eq(
-                      "program.name",
-                      programRepository.getShallowProgramDefinition(program).adminName())
-                  .setLabel("ApplicationModel.findList")
-                  .setProfileLocation(
-                      queryProfileLocationBuilder.create("submitApplicationInternal"))
-                  .findList();
+              findApplicationsToProgram(
+                  applicant.id,
+                  programRepository.getShallowProgramDefinition(program).adminName(),
+                  /* lifecycleStage= */ Optional.empty(),
+                  "submitApplicationInternal");
 
           ImmutableList<ApplicationModel> drafts =
               oldApplications.stream()
@@ -170,11 +184,51 @@ public final class ApplicationRepository {
               .setSubmitTimeToNow();
           tiSubmitterEmail.ifPresent(application::setSubmitterEmail);
           application.save();
+          reportingRepository.recordSubmission(
+              programRepository.getShallowProgramDefinition(program).adminName(), application);
+          insertSubmissionNotification(application);
 
           return application;
         });
   }
 
+  /**
+   * Records that the emails announcing the submission of {@code application} are owed, along with
+   * the on demand durable job that sends them.
+   */
+  private void insertSubmissionNotification(ApplicationModel application) {
+    PersistedDurableJobModel durableJob =
+        new PersistedDurableJobModel(
+                DurableJobName.SEND_SUBMISSION_NOTIFICATIONS.getJobNameString(),
+                JobType.ON_DEMAND,
+                clock.instant())
+            .setRemainingAttempts(SendSubmissionNotificationsJob.ATTEMPTS);
+    persistedDurableJobRepository.insertJobToRunNow(durableJob);
+    database.insert(new SubmissionNotificationModel(application.id, durableJob.id));
+  }
+
+  /** Deletes {@code notification} once its emails are sent. */
+  public void deleteSubmissionNotification(SubmissionNotificationModel notification) {
+    database.delete(checkNotNull(notification));
+  }
+
+  /**
+   * Returns the submission notification that the durable job with {@code durableJobId} is
+   * responsible for sending.
+   */
+  public Optional<SubmissionNotificationModel> lookupSubmissionNotificationForDurableJob(
+      long durableJobId) {
+    return database
+        .find(SubmissionNotificationModel.class)
+        .setLabel("SubmissionNotificationModel.findByDurableJobId")
+        .setProfileLocation(
+            queryProfileLocationBuilder.create("lookupSubmissionNotificationForDurableJob"))
+        .where()
+        .eq("durable_job_id", durableJobId)
+        .setMaxRows(1)
+        .findOneOrEmpty();
+  }
+
   /**
    * Retrieves an applicant and program record and executes the provided function with them with
    * some error handling.
@@ -251,18 +305,10 @@ public final class ApplicationRepository {
     return transactionManager.execute(
         () -> {
           Optional<ApplicationModel> existingDraft =
-              database
-                  .createQuery(ApplicationModel.class)
-                  .where()
-                  .eq("applicant.id", applicant.id)
-                  .eq(
-                      "program.name",
-                      programRepository.getShallowProgramDefinition(program).adminName())
-                  .eq("lifecycle_stage", LifecycleStage.DRAFT)
-                  .setLabel("ApplicationModel.findById")
-                  .setProfileLocation(
-                      queryProfileLocationBuilder.create("createOrUpdateDraftApplicationInternal"))
-                  .findOneOrEmpty();
+              findDraftToProgram(
+                  applicant.id,
+                  programRepository.getShallowProgramDefinition(program).adminName(),
+                  "createOrUpdateDraftApplicationInternal");
           ApplicationModel application =
               existingDraft.orElseGet(
                   () -> new ApplicationModel(applicant, program, LifecycleStage.DRAFT));
@@ -292,6 +338,60 @@ public final class ApplicationRepository {
             createOrUpdateDraftApplicationInternal(appArgs.applicant, appArgs.program));
   }
 
+  /**
+   * Saves the changes to {@code applicant} and creates a draft application to {@code program} for
+   * them unless they already have one, in a single transaction.
+   *
+   * <p>Unlike {@link #createOrUpdateDraft(long, long)} this uses the applicant and program the
+   * caller already has rather than looking them up again.
+   */
+  public CompletionStage<ApplicationModel> updateApplicantAndSaveDraft(
+      ApplicantModel applicant, ProgramDefinition program) {
+    return supplyAsync(
+        () -> saveDraftInternal(applicant, program, /* updateApplicant= */ true),
+        dbExecutionContext.current());
+  }
+
+  /**
+   * Creates a draft application to {@code program} for {@code applicant} unless they already have
+   * one, without saving any changes to the applicant.
+   */
+  public CompletionStage<ApplicationModel> saveDraft(
+      ApplicantModel applicant, ProgramDefinition program) {
+    return supplyAsync(
+        () -> saveDraftInternal(applicant, program, /* updateApplicant= */ false),
+        dbExecutionContext.current());
+  }
+
+  private ApplicationModel saveDraftInternal(
+      ApplicantModel applicant, ProgramDefinition program, boolean updateApplicant) {
+    return transactionManager.executeWithRetry(
+        () -> {
+          if (updateApplicant) {
+            // A retry has to write the applicant again, though the failed attempt marked it clean.
+            database.markAsDirty(applicant);
+            database.update(applicant);
+          }
+
+          // Drafts to any version of the program count, since the draft's program is brought up to
+          // date separately (see updateDraftApplicationProgram).
+          Optional<ApplicationModel> existingDraft =
+              findDraftToProgram(applicant.id, program.adminName(), "saveDraftInternal");
+          if (existingDraft.isPresent()) {
+            return existingDraft.get();
+          }
+
+          ApplicationModel draft =
+              new ApplicationModel(
+                  applicant,
+                  database.reference(ProgramModel.class, program.id()),
+                  program.adminName(),
+                  LifecycleStage.DRAFT);
+          draft.save();
+          return draft;
+        });
+  }
+
   public CompletionStage<Optional<ApplicationModel>> getApplication(long applicationId) {
     return supplyAsync(
         () ->
@@ -358,18 +458,10 @@ public final class ApplicationRepository {
     transactionManager.execute(
         () -> {
           Optional<ApplicationModel> existingDraft =
-              database
-                  .createQuery(ApplicationModel.class)
-                  .where()
-                  .eq("applicant.id", applicantId)
-                  .eq(
-                      "program.name",
-                      programRepository.getShallowProgramDefinition(program).adminName())
-                  .eq("lifecycle_stage", LifecycleStage.DRAFT)
-                  .setLabel("ApplicationModel.findById")
-                  .setProfileLocation(
-                      queryProfileLocationBuilder.create("updateDraftApplicationProgram"))
-                  .findOneOrEmpty();
+              findDraftToProgram(
+                  applicantId,
+                  programRepository.getShallowProgramDefinition(program).adminName(),
+                  "updateDraftApplicationProgram");
 
           if (existingDraft.isPresent()) {
             existingDraft.get().setProgram(program);
@@ -377,4 +469,34 @@ public final class ApplicationRepository {
           }
         });
   }
+  /** The draft application of the applicant to any version of the program {@code programName}. */
+  private Optional<ApplicationModel> findDraftToProgram(
+      long applicantId, String programName, String queryLocation) {
+    return findApplicationsToProgram(
+            applicantId, programName, Optional.of(LifecycleStage.DRAFT), queryLocation)
+        .stream()
+        .collect(MoreCollectors.toOptional());
+  }
+
+  /**
+   * The applications of the applicant to any version of the program named {@code programName},
+   * optionally only those in {@code lifecycleStage}.
+   */
+  private List<ApplicationModel> findApplicationsToProgram(
+      long applicantId,
+      String programName,
+      Optional<LifecycleStage> lifecycleStage,
+      String queryLocation) {
+    ExpressionList<ApplicationModel> query =
+        database
+            .createQuery(ApplicationModel.class)
+            .where()
+            .eq("applicant.id", applicantId)
+            .eq("programName", programName);
+    lifecycleStage.ifPresent(stage -> query.eq("lifecycle_stage", stage));
+    return query
+        .setLabel("ApplicationModel.findList")
+        .setProfileLocation(queryProfileLocationBuilder.create(queryLocation))
+        .findList();
+  }
 }
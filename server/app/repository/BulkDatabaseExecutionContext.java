@@ -0,0 +1,21 @@
+package repository;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import org.apache.pekko.actor.ActorSystem;
+import services.monitoring.InstrumentedExecutionContext;
+
+/**
+ * Custom execution context wired to "database.bulk.dispatcher" thread pool
+ *
+ * <p>This is for database work that can hold a thread for long, like streaming all the applications
+ * to a program to a client, so that it can't take the threads of the {@link
+ * DatabaseExecutionContext} that serve applicants.
+ */
+@Singleton
+public class BulkDatabaseExecutionContext extends InstrumentedExecutionContext {
+  @Inject
+  public BulkDatabaseExecutionContext(ActorSystem actorSystem) {
+    super(actorSystem, "database.bulk.dispatcher");
+  }
+}
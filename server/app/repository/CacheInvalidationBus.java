@@ -0,0 +1,168 @@
+package repository;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.google.common.base.Splitter;
+import com.google.common.collect.ImmutableMap;
+import io.ebean.DB;
+import io.ebean.Database;
+import io.ebean.Transaction;
+import io.ebean.TransactionCallbackAdapter;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import play.cache.AsyncCacheApi;
+import play.cache.NamedCache;
+
+/**
+ * Keeps the named caches of every server consistent when the data they hold changes.
+ *
+ * <p>An invalidation is applied to this server's cache once the current transaction commits, and is
+ * broadcast to the other servers with a Postgres NOTIFY on {@link #CHANNEL} sent in the same
+ * transaction, so that it is only delivered if the change commits. {@link
+ * CacheInvalidationListener} applies the invalidations broadcast by other servers.
+ */
+@Singleton
+public final class CacheInvalidationBus {
+  public static final String CHANNEL = "civiform_cache_invalidation";
+
+  private static final Logger logger = LoggerFactory.getLogger(CacheInvalidationBus.class);
+  private static final String PAYLOAD_SEPARATOR = " ";
+
+  /** The named caches that are kept consistent across servers. */
+  public enum Cache {
+    ACTIVE_VERSION("active-version"),
+    VERSION_QUESTIONS("version-questions"),
+    VERSION_PROGRAMS("version-programs"),
+    PROGRAM("program"),
+    PROGRAM_VERSIONS("program-versions"),
+    FULL_PROGRAM_DEFINITION("full-program-definition"),
+    SETTINGS("settings"),
+    API_KEYS("api-keys"),
+    ACCOUNT_SESSIONS("account-sessions");
+
+    private final String cacheName;
+
+    Cache(String cacheName) {
+      this.cacheName = cacheName;
+    }
+
+    public String getCacheName() {
+      return cacheName;
+    }
+
+    static Optional<Cache> forCacheName(String cacheName) {
+      return Arrays.stream(values())
+          .filter(cache -> cache.cacheName.equals(cacheName))
+          .findFirst();
+    }
+  }
+
+  private final Database database;
+  private final ImmutableMap<Cache, AsyncCacheApi> caches;
+
+  /** Identifies the invalidations sent by this server, which it has already applied. */
+  private final String serverId = UUID.randomUUID().toString();
+
+  @Inject
+  public CacheInvalidationBus(
+      @NamedCache("active-version") AsyncCacheApi activeVersionCache,
+      @NamedCache("version-questions") AsyncCacheApi questionsByVersionCache,
+      @NamedCache("version-programs") AsyncCacheApi programsByVersionCache,
+      @NamedCache("program") AsyncCacheApi programCache,
+      @NamedCache("program-versions") AsyncCacheApi versionsByProgramCache,
+      @NamedCache("full-program-definition") AsyncCacheApi programDefCache,
+      @NamedCache("settings") AsyncCacheApi settingsCache,
+      @NamedCache("api-keys") AsyncCacheApi apiKeyCache,
+      @NamedCache("account-sessions") AsyncCacheApi accountSessionsCache) {
+    this.database = DB.getDefault();
+    this.caches =
+        ImmutableMap.<Cache, AsyncCacheApi>builder()
+            .put(Cache.ACTIVE_VERSION, checkNotNull(activeVersionCache))
+            .put(Cache.VERSION_QUESTIONS, checkNotNull(questionsByVersionCache))
+            .put(Cache.VERSION_PROGRAMS, checkNotNull(programsByVersionCache))
+            .put(Cache.PROGRAM, checkNotNull(programCache))
+            .put(Cache.PROGRAM_VERSIONS, checkNotNull(versionsByProgramCache))
+            .put(Cache.FULL_PROGRAM_DEFINITION, checkNotNull(programDefCache))
+            .put(Cache.SETTINGS, checkNotNull(settingsCache))
+            .put(Cache.API_KEYS, checkNotNull(apiKeyCache))
+            .put(Cache.ACCOUNT_SESSIONS, checkNotNull(accountSessionsCache))
+            .build();
+  }
+
+  /**
+   * Removes {@code key} from {@code cache} on every server once the current transaction commits.
+   */
+  public void invalidate(Cache cache, String key) {
+    checkNotNull(key);
+    broadcast(String.join(PAYLOAD_SEPARATOR, serverId, cache.getCacheName(), key));
+    afterCommit(() -> remove(cache, Optional.of(key)));
+  }
+
+  /** Empties {@code cache} on every server once the current transaction commits. */
+  public void invalidateAll(Cache cache) {
+    broadcast(String.join(PAYLOAD_SEPARATOR, serverId, cache.getCacheName()));
+    afterCommit(() -> remove(cache, Optional.empty()));
+  }
+
+  /** Applies an invalidation broadcast by {@link #invalidate} or {@link #invalidateAll}. */
+  void applyNotification(String payload) {
+    List<String> parts = Splitter.on(PAYLOAD_SEPARATOR).limit(3).splitToList(payload);
+    if (parts.size() < 2) {
+      logger.warn("Ignoring malformed cache invalidation: {}", payload);
+      return;
+    }
+    if (parts.get(0).equals(serverId)) {
+      // Already applied when the transaction that sent it committed.
+      return;
+    }
+    Optional<Cache> cache = Cache.forCacheName(parts.get(1));
+    if (cache.isEmpty()) {
+      logger.warn("Ignoring invalidation of unknown cache: {}", payload);
+      return;
+    }
+    remove(cache.get(), parts.size() == 3 ? Optional.of(parts.get(2)) : Optional.empty());
+  }
+
+  /** Empties every cache on this server, for when invalidations may have been missed. */
+  void invalidateAllLocally() {
+    caches.keySet().forEach(cache -> remove(cache, Optional.empty()));
+  }
+
+  private void broadcast(String payload) {
+    database
+        .sqlQuery("SELECT pg_notify(?, ?)")
+        .setParameter(1, CHANNEL)
+        .setParameter(2, payload)
+        .findOne();
+  }
+
+  private void afterCommit(Runnable action) {
+    Transaction transaction = database.currentTransaction();
+    if (transaction == null || !transaction.isActive()) {
+      action.run();
+      return;
+    }
+    transaction.register(
+        new TransactionCallbackAdapter() {
+          @Override
+          public void postCommit() {
+            action.run();
+          }
+        });
+  }
+
+  private void remove(Cache cache, Optional<String> key) {
+    AsyncCacheApi cacheApi = caches.get(cache);
+    if (key.isPresent()) {
+      cacheApi.remove(key.get()).toCompletableFuture().join();
+    } else {
+      cacheApi.removeAll().toCompletableFuture().join();
+    }
+  }
+}
@@ -0,0 +1,134 @@
+package repository;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.google.common.util.concurrent.MoreExecutors;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import play.inject.ApplicationLifecycle;
+
+/**
+ * Applies the cache invalidations that other servers broadcast through {@link
+ * CacheInvalidationBus}.
+ *
+ * <p>This holds a dedicated connection, opened by {@link ListenConnectionFactory} outside the pool,
+ * that LISTENs on {@link CacheInvalidationBus#CHANNEL}, so every server sharing the database learns
+ * about changes without another service to coordinate them.
+ *
+ * <p>Waiting for notifications doesn't notice a connection whose other end went away without
+ * closing it, so the connection is also checked with a query every {@link
+ * #LIVENESS_CHECK_INTERVAL_MILLIS}. A connection that fails the check is replaced, which drops
+ * every cache since notifications may have been missed.
+ */
+@Singleton
+public final class CacheInvalidationListener {
+  private static final Logger logger = LoggerFactory.getLogger(CacheInvalidationListener.class);
+  private static final int NOTIFICATION_POLL_TIMEOUT_MILLIS = 5_000;
+  private static final long RECONNECT_DELAY_MILLIS = 10_000;
+  private static final long LIVENESS_CHECK_INTERVAL_MILLIS = 60_000;
+  private static final int LIVENESS_CHECK_TIMEOUT_MILLIS = 10_000;
+
+  private final ListenConnectionFactory listenConnectionFactory;
+  private final CacheInvalidationBus cacheInvalidationBus;
+  private final ExecutorService executor;
+  private volatile boolean running = true;
+
+  @Inject
+  public CacheInvalidationListener(
+      CacheInvalidationBus cacheInvalidationBus,
+      ListenConnectionFactory listenConnectionFactory,
+      ApplicationLifecycle applicationLifecycle) {
+    this.listenConnectionFactory = checkNotNull(listenConnectionFactory);
+    this.cacheInvalidationBus = checkNotNull(cacheInvalidationBus);
+    this.executor =
+        Executors.newSingleThreadExecutor(
+            runnable -> {
+              Thread thread = new Thread(runnable, "cache-invalidation-listener");
+              thread.setDaemon(true);
+              return thread;
+            });
+
+    // The settings snapshot is always cached, so this listens even when the other caches are
+    // disabled.
+    executor.execute(this::listen);
+    applicationLifecycle.addStopHook(
+        () -> {
+          running = false;
+          executor.shutdownNow();
+          return CompletableFuture.completedFuture(null);
+        });
+  }
+
+  private void listen() {
+    while (running) {
+      try (Connection connection = listenConnectionFactory.listen(CacheInvalidationBus.CHANNEL)) {
+        // Invalidations may have been broadcast while this server wasn't listening.
+        cacheInvalidationBus.invalidateAllLocally();
+
+        // Bounds how long the liveness check waits on a connection that stopped responding.
+        connection.setNetworkTimeout(MoreExecutors.directExecutor(), LIVENESS_CHECK_TIMEOUT_MILLIS);
+        PGConnection pgConnection = connection.unwrap(PGConnection.class);
+        long lastLivenessCheck = System.nanoTime();
+        while (running) {
+          PGNotification[] notifications =
+              pgConnection.getNotifications(NOTIFICATION_POLL_TIMEOUT_MILLIS);
+          if (notifications != null) {
+            for (PGNotification notification : notifications) {
+              applyNotification(notification);
+            }
+          }
+          if (System.nanoTime() - lastLivenessCheck
+              >= TimeUnit.MILLISECONDS.toNanos(LIVENESS_CHECK_INTERVAL_MILLIS)) {
+            checkLiveness(connection);
+            lastLivenessCheck = System.nanoTime();
+          }
+        }
+      } catch (SQLException e) {
+        if (!running) {
+          return;
+        }
+        logger.warn("Lost connection listening for cache invalidations, reconnecting", e);
+        try {
+          Thread.sleep(RECONNECT_DELAY_MILLIS);
+        } catch (InterruptedException interrupted) {
+          Thread.currentThread().interrupt();
+          return;
+        }
+      }
+    }
+  }
+
+  /**
+   * Applies a notification, dropping every cache instead if it can't be applied so that an entry
+   * it was meant to invalidate isn't kept.
+   */
+  private void applyNotification(PGNotification notification) {
+    try {
+      cacheInvalidationBus.applyNotification(notification.getParameter());
+    } catch (RuntimeException e) {
+      logger.error(
+          "Failed to apply cache invalidation \"{}\", dropping all caches",
+          notification.getParameter(),
+          e);
+      cacheInvalidationBus.invalidateAllLocally();
+    }
+  }
+
+  /** Throws if the connection no longer reaches the database. */
+  private static void checkLiveness(Connection connection) throws SQLException {
+    try (Statement statement = connection.createStatement()) {
+      statement.execute("SELECT 1");
+    }
+  }
+}
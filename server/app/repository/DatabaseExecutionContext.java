@@ -1,17 +1,21 @@
 package repository;
 
-import static com.google.common.base.Preconditions.checkNotNull;
-
 import javax.inject.Inject;
 import javax.inject.Singleton;
 import org.apache.pekko.actor.ActorSystem;
-import play.libs.concurrent.CustomExecutionContext;
+import services.monitoring.InstrumentedExecutionContext;
 
-/** Custom execution context wired to "database.dispatcher" thread pool */
+/**
+ * Custom execution context wired to "database.dispatcher" thread pool
+ *
+ * <p>This is for the short database calls made while serving a request. Database work that can
+ * hold a thread for long, like streaming an export, runs on the {@link
+ * BulkDatabaseExecutionContext}.
+ */
 @Singleton
-public class DatabaseExecutionContext extends CustomExecutionContext {
+public class DatabaseExecutionContext extends InstrumentedExecutionContext {
   @Inject
   public DatabaseExecutionContext(ActorSystem actorSystem) {
-    super(checkNotNull(actorSystem), "database.dispatcher");
+    super(actorSystem, "database.dispatcher");
   }
 }
@@ -0,0 +1,49 @@
+package repository;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.typesafe.config.Config;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+/**
+ * Opens connections that LISTEN for Postgres notifications.
+ *
+ * <p>A listening connection is held for as long as the server runs, so these are opened directly
+ * rather than taken from the connection pool, whose {@code fixedConnectionPool} connections are
+ * all left to serve requests. Each server opens one per listener on top of its pool.
+ */
+@Singleton
+public final class ListenConnectionFactory {
+  private final String url;
+  private final String username;
+  private final String password;
+
+  @Inject
+  public ListenConnectionFactory(Config config) {
+    checkNotNull(config);
+    this.url = config.getString("db.default.url");
+    this.username = config.getString("db.default.username");
+    this.password = config.getString("db.default.password");
+  }
+
+  /**
+   * Opens a connection that LISTENs on {@code channel}. The caller closes it, which stops the
+   * listening.
+   */
+  public Connection listen(String channel) throws SQLException {
+    Connection connection = DriverManager.getConnection(url, username, password);
+    try (Statement statement = connection.createStatement()) {
+      // LISTEN only takes effect once committed, which a new connection does automatically.
+      statement.execute("LISTEN " + channel);
+      return connection;
+    } catch (SQLException e) {
+      connection.close();
+      throw e;
+    }
+  }
+}
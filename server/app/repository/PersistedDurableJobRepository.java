@@ -3,8 +3,14 @@ package repository;
 import annotations.BindingAnnotations;
 import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
 import io.ebean.DB;
 import io.ebean.Database;
+import io.ebean.Transaction;
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.Duration;
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.util.Optional;
@@ -18,14 +24,39 @@ public final class PersistedDurableJobRepository {
   private static final QueryProfileLocationBuilder queryProfileLocationBuilder =
       new QueryProfileLocationBuilder("PersistedDurableJobRepository");
 
+  /** The channel that job runners LISTEN on to learn that a job was inserted to run now. */
+  public static final String INSERTED_CHANNEL = "civiform_durable_jobs";
+
+  /** A job isn't leased, or its runner stopped renewing the lease. */
+  private static final String LEASE_AVAILABLE_CONDITION =
+      "(lease_expiration IS NULL OR lease_expiration < now())";
+
   private final Database database;
   private final Provider<LocalDateTime> nowProvider;
+  private final Clock clock;
 
   @Inject
   public PersistedDurableJobRepository(
-      @BindingAnnotations.Now Provider<LocalDateTime> nowProvider) {
+      @BindingAnnotations.Now Provider<LocalDateTime> nowProvider, Clock clock) {
     this.database = DB.getDefault();
     this.nowProvider = Preconditions.checkNotNull(nowProvider);
+    this.clock = Preconditions.checkNotNull(clock);
+  }
+
+  /**
+   * Inserts {@code job}, a {@link JobType#ON_DEMAND} job, and wakes the job runners of every server
+   * so that it doesn't wait for their next poll. Joins the current transaction if there is one, and
+   * the runners are only woken if it commits.
+   */
+  public void insertJobToRunNow(PersistedDurableJobModel job) {
+    Preconditions.checkArgument(
+        job.getJobType() == JobType.ON_DEMAND, "Only on demand jobs are run as they are inserted");
+    database.insert(job);
+    database
+        .sqlQuery("SELECT pg_notify(:channel, :jobType)")
+        .setParameter("channel", INSERTED_CHANNEL)
+        .setParameter("jobType", job.getJobType().name())
+        .findOne();
   }
 
   /**
@@ -58,57 +89,171 @@ public final class PersistedDurableJobRepository {
   }
 
   /**
-   * Gets a recurring job that is ready to be executed or empty if none are available.
+   * Claims a job of one of {@code jobTypes} that is ready to be executed, by leasing it to {@code
+   * leaseOwner} for {@code leaseDuration} and using up one of its remaining attempts. Returns empty
+   * if none are available.
    *
    * <p>A job is ready to be executed if it:
    *
    * <ul>
-   *   <li>is not locked for update by another transaction i.e. is not currently being executed
-   *       elsewhere
+   *   <li>is not locked for update by another transaction i.e. is not being claimed elsewhere
+   *   <li>is not leased, or its lease has expired i.e. is not currently being executed elsewhere
    *   <li>has more than zero remaining attempts
-   *   <li>has an execution time is now or in the past
+   *   <li>has an execution time is now or in the past. {@link JobType#ON_DEMAND} jobs are inserted
+   *       to run at the current instant, and have their execution time compared to it, while the
+   *       execution times of the other jobs are compared to the local time.
    *   <li>has a null success time (has never succeeded)
    * </ul>
+   *
+   * <p>The job is claimed in a transaction of its own, which is committed before this returns, so
+   * that no transaction is held open while the job runs.
+   */
+  public Optional<PersistedDurableJobModel> claimJobForExecution(
+      ImmutableSet<JobType> jobTypes, String leaseOwner, Duration leaseDuration) {
+    try (Transaction transaction = database.beginTransaction()) {
+      Optional<PersistedDurableJobModel> job =
+          database
+              .find(PersistedDurableJobModel.class)
+              .forUpdateSkipLocked()
+              .setLabel("PersistedDurableJobModel.findById")
+              .setProfileLocation(queryProfileLocationBuilder.create("claimJobForExecution"))
+              .where()
+              .in("job_type", jobTypes)
+              .gt("remaining_attempts", 0)
+              .isNull("success_time")
+              .or()
+              .and()
+              .ne("job_type", JobType.ON_DEMAND)
+              .le("execution_time", nowProvider.get())
+              .endAnd()
+              .and()
+              .eq("job_type", JobType.ON_DEMAND)
+              .le("execution_time", clock.instant())
+              .endAnd()
+              .endOr()
+              .raw(LEASE_AVAILABLE_CONDITION)
+              .orderBy("execution_time asc, id asc")
+              .setMaxRows(1)
+              .findOneOrEmpty();
+      if (job.isEmpty()) {
+        return job;
+      }
+
+      // The lease is computed by the database so that servers with skewed clocks agree on when it
+      // expires.
+      database
+          .sqlUpdate(
+              """
+              UPDATE persisted_durable_jobs
+              SET remaining_attempts = remaining_attempts - 1,
+                lease_owner = :leaseOwner,
+                lease_expiration = now() + make_interval(secs => :leaseSeconds)
+              WHERE id = :id
+              """)
+          .setParameter("leaseOwner", leaseOwner)
+          .setParameter("leaseSeconds", leaseDuration.toSeconds())
+          .setParameter("id", job.get().id)
+          .execute();
+      job.get().refresh();
+      transaction.commit();
+      return job;
+    }
+  }
+
+  /**
+   * Extends the lease of the job with {@code jobId} to {@code leaseDuration} from now, if it is
+   * still leased to {@code leaseOwner}. Returns false if the lease was lost, because it expired
+   * and the job was claimed by another runner.
    */
-  public Optional<PersistedDurableJobModel> getRecurringJobForExecution() {
+  public boolean renewLease(long jobId, String leaseOwner, Duration leaseDuration) {
     return database
-        .find(PersistedDurableJobModel.class)
-        .forUpdateSkipLocked()
-        .setLabel("PersistedDurableJobModel.findById")
-        .setProfileLocation(queryProfileLocationBuilder.create("getRecurringJobForExecution"))
-        .where()
-        .eq("job_type", JobType.RECURRING)
-        .le("execution_time", nowProvider.get())
-        .gt("remaining_attempts", 0)
-        .isNull("success_time")
-        .setMaxRows(1)
-        .findOneOrEmpty();
+            .sqlUpdate(
+                """
+                UPDATE persisted_durable_jobs
+                SET lease_expiration = now() + make_interval(secs => :leaseSeconds)
+                WHERE id = :id AND lease_owner = :leaseOwner
+                """)
+            .setParameter("leaseSeconds", leaseDuration.toSeconds())
+            .setParameter("id", jobId)
+            .setParameter("leaseOwner", leaseOwner)
+            .execute()
+        == 1;
   }
 
   /**
-   * Gets a startup job that is ready to be executed or empty if none are available.
-   *
-   * <p>A job is ready to be executed if it:
-   *
-   * <ul>
-   *   <li>is not locked for update by another transaction i.e. is not currently being executed
-   *       elsewhere
-   *   <li>has more than zero remaining attempts
-   *   <li>has a null success time (has never succeeded)
-   * </ul>
+   * Records the success time, error message and execution time of {@code job}, and releases it so
+   * that it can be run again, once its execution time comes, if it failed. Returns false, without
+   * recording anything, if the job is no longer leased to {@code leaseOwner} because the lease
+   * expired and another runner claimed it.
    */
-  public Optional<PersistedDurableJobModel> getStartupJobForExecution() {
+  public boolean finishLeasedJob(PersistedDurableJobModel job, String leaseOwner) {
     return database
-        .find(PersistedDurableJobModel.class)
-        .forUpdateSkipLocked()
-        .setLabel("PersistedDurableJobModel.findById")
-        .setProfileLocation(queryProfileLocationBuilder.create("getStartupJobForExecution"))
-        .where()
-        .in("job_type", JobType.RUN_ONCE, JobType.RUN_ON_EACH_STARTUP)
-        .gt("remaining_attempts", 0)
-        .isNull("success_time")
-        .setMaxRows(1)
-        .findOneOrEmpty();
+            .sqlUpdate(
+                """
+                UPDATE persisted_durable_jobs
+                SET success_time = :successTime,
+                  error_message = :errorMessage,
+                  execution_time = :executionTime,
+                  lease_owner = NULL,
+                  lease_expiration = NULL
+                WHERE id = :id AND lease_owner = :leaseOwner
+                """)
+            .setParameter(
+                "successTime", job.getSuccessTime().map(Timestamp::from).orElse(null))
+            .setParameter("errorMessage", job.getErrorMessage().orElse(null))
+            .setParameter("executionTime", Timestamp.from(job.getExecutionTime()))
+            .setParameter("id", job.id)
+            .setParameter("leaseOwner", leaseOwner)
+            .execute()
+        == 1;
+  }
+
+  /**
+   * Records the error message of {@code job} without releasing it, so that it is only run again
+   * once its lease expires. Returns false, without recording anything, if the job is no longer
+   * leased to {@code leaseOwner}.
+   */
+  public boolean recordLeasedJobError(PersistedDurableJobModel job, String leaseOwner) {
+    return database
+            .sqlUpdate(
+                """
+                UPDATE persisted_durable_jobs
+                SET error_message = :errorMessage
+                WHERE id = :id AND lease_owner = :leaseOwner
+                """)
+            .setParameter("errorMessage", job.getErrorMessage().orElse(null))
+            .setParameter("id", job.id)
+            .setParameter("leaseOwner", leaseOwner)
+            .execute()
+        == 1;
+  }
+
+  /**
+   * The number of jobs of each {@link JobType} that are ready to be executed and aren't being
+   * executed, as described by {@link #claimJobForExecution}.
+   */
+  public ImmutableMap<JobType, Long> countJobsReadyForExecution() {
+    return database
+        .sqlQuery(
+            String.format(
+                """
+                SELECT job_type, count(*) AS ready_count
+                FROM persisted_durable_jobs
+                WHERE remaining_attempts > 0
+                AND success_time IS NULL
+                AND execution_time <= CASE WHEN job_type = '%s' THEN :instant ELSE :now END
+                AND %s
+                GROUP BY job_type
+                """,
+                JobType.ON_DEMAND.getValue(), LEASE_AVAILABLE_CONDITION))
+        .setParameter("instant", clock.instant())
+        .setParameter("now", nowProvider.get())
+        .findList()
+        .stream()
+        .collect(
+            ImmutableMap.toImmutableMap(
+                row -> JobType.valueOf(row.getString("job_type")),
+                row -> row.getLong("ready_count")));
   }
 
   /** All {@link PersistedDurableJobModel}s ordered by execution time ascending. */
@@ -124,14 +269,14 @@ public final class PersistedDurableJobRepository {
 
   /**
    * Delete all {@link PersistedDurableJobModel}s that have an execution time older than six months
-   * and that are a recurring JobType.
+   * and that are a recurring or on demand JobType.
    */
   public int deleteJobsOlderThanSixMonths() {
     return database
         .sqlUpdate(
             """
             DELETE FROM persisted_durable_jobs
-            WHERE job_type = 'RECURRING'
+            WHERE job_type IN ('RECURRING', 'ON_DEMAND')
             AND execution_time < CURRENT_DATE - INTERVAL '6 months'
             """)
         .execute();
@@ -14,7 +14,9 @@ import io.ebean.Query;
 import io.ebean.SqlRow;
 import io.ebean.Transaction;
 import io.ebean.TxScope;
+import java.util.Collections;
 import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
@@ -22,6 +24,7 @@ import java.util.stream.Collectors;
 import javax.inject.Inject;
 import javax.inject.Provider;
 import models.AccountModel;
+import models.ApplicantModel;
 import models.ApplicationModel;
 import models.LifecycleStage;
 import models.ProgramModel;
@@ -31,6 +34,7 @@ import org.slf4j.LoggerFactory;
 import play.cache.NamedCache;
 import play.cache.SyncCacheApi;
 import services.pagination.BasePaginationSpec;
+import services.pagination.CountStrategy;
 import services.pagination.PaginationResult;
 import services.program.BlockDefinition;
 import services.program.ProgramDefinition;
@@ -47,6 +51,32 @@ import services.settings.SettingsManifest;
  */
 public final class ProgramRepository {
   private static final Logger logger = LoggerFactory.getLogger(ProgramRepository.class);
+
+  /**
+   * Matches the rows of {@code applications} that are submitted to any version of the program with
+   * id {@code :programId}, with {@code :activeStage} and {@code :obsoleteStage} bound to their
+   * lifecycle stages, for native queries over the applications to a program.
+   */
+  private static final String ALL_PROGRAM_VERSIONS_SUBMITTED_APPLICATIONS_CONDITION =
+      """
+      applications.program_id IN (
+        SELECT id
+        FROM programs
+        WHERE name IN (SELECT name FROM programs WHERE id = :programId)
+      )
+      AND applications.lifecycle_stage IN (:activeStage, :obsoleteStage)
+      """;
+
+  /**
+   * The submitted stages in the condition of the partial indexes on the answers of applications.
+   * Written with the property name, which Ebean translates to the column of the applications table
+   * rather than of a fetched table.
+   */
+  private static final String SUBMITTED_STAGES_LITERAL_CONDITION =
+      String.format(
+          "lifecycleStage IN ('%s', '%s')",
+          LifecycleStage.ACTIVE.getValue(), LifecycleStage.OBSOLETE.getValue());
+
   private static final QueryProfileLocationBuilder queryProfileLocationBuilder =
       new QueryProfileLocationBuilder("ProgramRepository");
 
@@ -57,6 +87,7 @@ public final class ProgramRepository {
   private final SyncCacheApi programCache;
   private final SyncCacheApi programDefCache;
   private final SyncCacheApi versionsByProgramCache;
+  private final CacheInvalidationBus cacheInvalidationBus;
 
   @Inject
   public ProgramRepository(
@@ -65,7 +96,8 @@ public final class ProgramRepository {
       SettingsManifest settingsManifest,
       @NamedCache("program") SyncCacheApi programCache,
       @NamedCache("full-program-definition") SyncCacheApi programDefCache,
-      @NamedCache("program-versions") SyncCacheApi versionsByProgramCache) {
+      @NamedCache("program-versions") SyncCacheApi versionsByProgramCache,
+      CacheInvalidationBus cacheInvalidationBus) {
     this.database = DB.getDefault();
     this.dbExecutionContext = checkNotNull(dbExecutionContext);
     this.versionRepository = checkNotNull(versionRepository);
@@ -73,6 +105,7 @@ public final class ProgramRepository {
     this.programCache = checkNotNull(programCache);
     this.programDefCache = checkNotNull(programDefCache);
     this.versionsByProgramCache = checkNotNull(versionsByProgramCache);
+    this.cacheInvalidationBus = checkNotNull(cacheInvalidationBus);
   }
 
   public CompletionStage<Optional<ProgramModel>> lookupProgram(long id) {
@@ -115,9 +148,21 @@ public final class ProgramRepository {
 
   public ProgramModel updateProgramSync(ProgramModel program) {
     database.update(program);
+    invalidateProgramCaches(program.id);
     return program;
   }
 
+  /**
+   * Removes the program with {@code programId} from the caches on every server once the current
+   * transaction commits. Must be called whenever a program is updated.
+   */
+  public void invalidateProgramCaches(long programId) {
+    String key = String.valueOf(programId);
+    cacheInvalidationBus.invalidate(CacheInvalidationBus.Cache.PROGRAM, key);
+    cacheInvalidationBus.invalidate(CacheInvalidationBus.Cache.PROGRAM_VERSIONS, key);
+    cacheInvalidationBus.invalidate(CacheInvalidationBus.Cache.FULL_PROGRAM_DEFINITION, key);
+  }
+
   public ImmutableList<VersionModel> getVersionsForProgram(ProgramModel program) {
     if (settingsManifest.getProgramCacheEnabled()) {
       return versionsByProgramCache.getOrElseUpdate(
@@ -167,7 +212,8 @@ public final class ProgramRepository {
   /**
    * Sets the program definition that contains the related question data in the cache (if enabled).
    *
-   * <p>Draft program definition data must not be set in the cache.
+   * <p>Draft program definition data must not be set in the cache, use {@link
+   * #setDraftFullProgramDefinitionCache} instead.
    */
   public void setFullProgramDefinitionCache(long programId, ProgramDefinition programDefinition) {
     if (!settingsManifest.getQuestionCacheEnabled()
@@ -179,6 +225,27 @@ public final class ProgramRepository {
     if (versionRepository.get().isDraftProgram(programId)) {
       return;
     }
+    cacheFullProgramDefinition(programId, programDefinition);
+  }
+
+  /**
+   * Sets the definition of a draft program that contains the related question data in the cache,
+   * if draft program caching is enabled.
+   *
+   * <p>Drafts change whenever an admin edits them, so this relies on every edit invalidating the
+   * cache through {@link #invalidateProgramCaches}.
+   */
+  public void setDraftFullProgramDefinitionCache(
+      long programId, ProgramDefinition programDefinition) {
+    if (!settingsManifest.getQuestionCacheEnabled()
+        || !settingsManifest.getDraftProgramCacheEnabled()
+        || getFullProgramDefinitionFromCache(programId).isPresent()) {
+      return;
+    }
+    cacheFullProgramDefinition(programId, programDefinition);
+  }
+
+  private void cacheFullProgramDefinition(long programId, ProgramDefinition programDefinition) {
     ImmutableList<BlockDefinition> blocksWithNullQuestion =
         programDefinition.blockDefinitions().stream()
             .filter(BlockDefinition::hasNullQuestion)
@@ -391,12 +458,71 @@ public final class ProgramRepository {
    */
   public PaginationResult<ApplicationModel> getApplicationsForAllProgramVersions(
       long programId, BasePaginationSpec paginationSpec, SubmittedApplicationFilter filters) {
+    ExpressionList<ApplicationModel> query =
+        applicationsForAllProgramVersionsQuery(
+            programId, filters, "getApplicationsForAllProgramVersions");
+
+    // Sort order is dictated by the pagination spec that was specified.
+    Query<ApplicationModel> pageQuery = paginationSpec.apply(query.query());
+
+    if (paginationSpec.getCountStrategy() == CountStrategy.EXACT) {
+      PagedList<ApplicationModel> pagedQuery = pageQuery.findPagedList();
+      pagedQuery.loadCount();
+
+      return new PaginationResult<ApplicationModel>(
+          pagedQuery.hasNext(),
+          pagedQuery.getTotalPageCount(),
+          paginationSpec.orderPageContents(
+              pagedQuery.getList().stream().collect(ImmutableList.toImmutableList())));
+    }
+
+    // Read one row past the end of the page to find out if there is a next page without counting.
+    int pageSize = paginationSpec.getPageSize();
+    List<ApplicationModel> rows =
+        pageQuery.setMaxRows(pageSize == Integer.MAX_VALUE ? pageSize : pageSize + 1).findList();
+
+    return new PaginationResult<ApplicationModel>(
+        rows.size() > pageSize,
+        /* numPages= */ 0,
+        paginationSpec.orderPageContents(
+            rows.stream().limit(pageSize).collect(ImmutableList.toImmutableList())));
+  }
+
+  /**
+   * Get a single page of submitted applications for this program and all other versions of it
+   * matching the specified filters, without computing the total number of matching applications.
+   *
+   * <p>Intended for callers that walk every page in sequence using a sequential access {@link
+   * BasePaginationSpec}, such as streaming exports, where running a {@code COUNT(*)} for every page
+   * would be wasted work.
+   */
+  public ImmutableList<ApplicationModel> getApplicationsPageForAllProgramVersions(
+      long programId, BasePaginationSpec paginationSpec, SubmittedApplicationFilter filters) {
+    ExpressionList<ApplicationModel> query =
+        applicationsForAllProgramVersionsQuery(
+            programId, filters, "getApplicationsPageForAllProgramVersions");
+
+    return paginationSpec.apply(query.query()).findList().stream()
+        .collect(ImmutableList.toImmutableList());
+  }
+
+  /**
+   * Count the submitted applications for this program and all other versions of it, which are the
+   * applications {@link #getApplicationsPageForAllProgramVersions} pages through without filters.
+   */
+  public int countApplicationsForAllProgramVersions(long programId) {
+    return applicationsForAllProgramVersionsQuery(
+            programId, SubmittedApplicationFilter.EMPTY, "countApplicationsForAllProgramVersions")
+        .findCount();
+  }
+
+  private ExpressionList<ApplicationModel> applicationsForAllProgramVersionsQuery(
+      long programId, SubmittedApplicationFilter filters, String profileLocation) {
     ExpressionList<ApplicationModel> query =
         database
             .find(ApplicationModel.class)
             .setLabel("ApplicationModel.findList")
-            .setProfileLocation(
-                queryProfileLocationBuilder.create("getApplicationsForAllProgramVersions"))
+            .setProfileLocation(queryProfileLocationBuilder.create(profileLocation))
             .fetch("applicant")
             .fetch("applicant.account.managedByGroup")
             .where()
@@ -413,7 +539,7 @@ public final class ProgramRepository {
       query = query.where().lt("submit_time", filters.submitTimeFilter().untilTime().get());
     }
 
-    if (filters.searchNameFragment().isPresent() && !filters.searchNameFragment().get().isBlank()) {
+    if (hasSearchFilter(filters)) {
       String search = filters.searchNameFragment().get().trim();
       query = searchUsingPrimaryApplicantInfo(search, query);
     }
@@ -427,14 +553,57 @@ public final class ProgramRepository {
       }
     }
 
-    // Sort order is dictated by the pagination spec that was specified.
-    PagedList<ApplicationModel> pagedQuery = paginationSpec.apply(query.query()).findPagedList();
-    pagedQuery.loadCount();
+    if (!filters.answerFilters().isEmpty()) {
+      // Repeats the submitted stages as literals, which lets the planner use the partial indexes
+      // on answers even for a generic plan of the prepared statement.
+      query = query.where().raw(SUBMITTED_STAGES_LITERAL_CONDITION);
+      for (AnswerFilter answerFilter : filters.answerFilters()) {
+        query = filterByAnswer(query, answerFilter);
+      }
+    }
 
-    return new PaginationResult<ApplicationModel>(
-        pagedQuery.hasNext(),
-        pagedQuery.getTotalPageCount(),
-        pagedQuery.getList().stream().collect(ImmutableList.toImmutableList()));
+    return query;
+  }
+
+  /**
+   * Filters to applications whose answer matches {@code filter}. Containment is served by the GIN
+   * index on the answers of submitted applications, and comparisons by the expression index on the
+   * answer, if the answer is listed in {@code answer_filter_indexed_paths}.
+   */
+  private static ExpressionList<ApplicationModel> filterByAnswer(
+      ExpressionList<ApplicationModel> query, AnswerFilter filter) {
+    // The path is made of question name keys and scalars, so it is safe to write into the SQL.
+    String answer = String.format("object #> '%s'", AnswerFilter.jsonbPath(filter.path()));
+    String hasAnswer = String.format("jsonb_typeof(%s) = '%s'", answer, filter.jsonbType());
+    ImmutableList<String> containingDocuments = filter.containingDocuments();
+    String containsAnyValue =
+        String.format(
+            "(%s)",
+            String.join(
+                " OR ",
+                Collections.nCopies(containingDocuments.size(), "object @> CAST(? AS jsonb)")));
+
+    if (filter.isContainment()) {
+      return query.where().raw(containsAnyValue, containingDocuments.toArray());
+    }
+    if (filter.isNegatedContainment()) {
+      return query
+          .where()
+          .raw(
+              String.format("%s AND NOT %s", hasAnswer, containsAnyValue),
+              containingDocuments.toArray());
+    }
+    return query
+        .where()
+        .raw(
+            String.format(
+                "%s AND %s %s CAST(? AS jsonb)", hasAnswer, answer, filter.comparisonOperator()),
+            filter.values().get(0).toString());
+  }
+
+  private static boolean hasSearchFilter(SubmittedApplicationFilter filters) {
+    return filters.searchNameFragment().isPresent()
+        && !filters.searchNameFragment().get().isBlank();
   }
 
   private Query<ProgramModel> allProgramVersionsQuery(long programId) {
@@ -458,30 +627,64 @@ public final class ProgramRepository {
         .query();
   }
 
+  /**
+   * Matches applications whose primary applicant's search document, or whose submitting trusted
+   * intermediary's email, contains {@code search}. A search that is only digits after dropping
+   * special characters instead matches the application id or the primary applicant's phone number.
+   *
+   * <p>The applicants are found with the trigram index on their search document in a subquery,
+   * rather than matching the columns of each joined applicant, so that Postgres narrows the
+   * applications to the program's versions and checks them against the matching applicants.
+   */
   private ExpressionList<ApplicationModel> searchUsingPrimaryApplicantInfo(
       String search, ExpressionList<ApplicationModel> query) {
     // Remove all special characters
     String maybeOnlyDigits = search.replaceAll("[^a-zA-Z0-9]", "");
-    // Check if remaining string is actually only digits
+    // Check if remaining string is actually only digits, which are then matched against the digits
+    // of the applicant's phone number
     if (maybeOnlyDigits.matches("^\\d+$")) {
       return query
           .or()
           .eq("id", Long.parseLong(maybeOnlyDigits))
-          .ilike("applicant.phoneNumber", "%" + maybeOnlyDigits + "%")
+          .in("applicant.id", applicantsMatchingPhoneNumberQuery(maybeOnlyDigits))
           .endOr();
     }
-    String firstNamePath = "applicant.firstName";
-    String lastNamePath = "applicant.lastName";
     return query
         .or()
-        .ilike("applicant.emailAddress", "%" + search + "%")
+        .in("applicant.id", applicantsMatchingSearchQuery(search))
         .ilike("submitter_email", "%" + search + "%")
-        .ilike(firstNamePath + " || ' ' || " + lastNamePath, "%" + search + "%")
-        .ilike(lastNamePath + " || ' ' || " + firstNamePath, "%" + search + "%")
-        .ilike(lastNamePath + " || ', ' || " + firstNamePath, "%" + search + "%")
         .endOr();
   }
 
+  /**
+   * The applicants whose phone number contains {@code digits}. The search document narrows them
+   * down with its index, and the phone number is checked on those, since the digits may also be in
+   * another line of the search document, like the email address.
+   */
+  private Query<ApplicantModel> applicantsMatchingPhoneNumberQuery(String digits) {
+    return database
+        .find(ApplicantModel.class)
+        .select("id")
+        .setLabel("ApplicantModel.findByPhoneNumber")
+        .setProfileLocation(
+            queryProfileLocationBuilder.create("applicantsMatchingPhoneNumberQuery"))
+        .where()
+        .raw("search_document like ?", "%" + digits + "%")
+        .raw("regexp_replace(phone_number, '[^0-9]', '', 'g') like ?", "%" + digits + "%")
+        .query();
+  }
+
+  private Query<ApplicantModel> applicantsMatchingSearchQuery(String search) {
+    return database
+        .find(ApplicantModel.class)
+        .select("id")
+        .setLabel("ApplicantModel.findBySearchDocument")
+        .setProfileLocation(queryProfileLocationBuilder.create("applicantsMatchingSearchQuery"))
+        .where()
+        .raw("search_document like ?", "%" + search.toLowerCase(Locale.ROOT) + "%")
+        .query();
+  }
+
   /**
    * Get the most recent id for the active program. In the case that there are no active versions of
    * a program, an empty value is returned.
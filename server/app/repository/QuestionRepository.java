@@ -40,14 +40,17 @@ public final class QuestionRepository {
   private final Database database;
   private final DatabaseExecutionContext dbExecutionContext;
   private final Provider<VersionRepository> versionRepositoryProvider;
+  private final CacheInvalidationBus cacheInvalidationBus;
 
   @Inject
   public QuestionRepository(
       DatabaseExecutionContext dbExecutionContext,
-      Provider<VersionRepository> versionRepositoryProvider) {
+      Provider<VersionRepository> versionRepositoryProvider,
+      CacheInvalidationBus cacheInvalidationBus) {
     this.database = DB.getDefault();
     this.dbExecutionContext = checkNotNull(dbExecutionContext);
     this.versionRepositoryProvider = checkNotNull(versionRepositoryProvider);
+    this.cacheInvalidationBus = checkNotNull(cacheInvalidationBus);
   }
 
   public CompletionStage<Set<QuestionModel>> listQuestions() {
@@ -333,7 +336,7 @@ public final class QuestionRepository {
   public CompletionStage<QuestionModel> updateQuestion(QuestionModel question) {
     return supplyAsync(
         () -> {
-          database.update(question);
+          updateQuestionSync(question);
           return question;
         },
         dbExecutionContext);
@@ -341,5 +344,8 @@ public final class QuestionRepository {
 
   public void updateQuestionSync(QuestionModel question) {
     database.update(question);
+    // Full program definitions embed the definitions of their questions, and a question can be
+    // used by any number of programs.
+    cacheInvalidationBus.invalidateAll(CacheInvalidationBus.Cache.FULL_PROGRAM_DEFINITION);
   }
 }
@@ -1,24 +1,31 @@
 package repository;
 
-import static com.google.common.base.Preconditions.checkNotNull;
-
 import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableList;
 import io.ebean.DB;
 import io.ebean.Database;
 import io.ebean.SqlRow;
+import io.ebean.Transaction;
 import java.sql.Timestamp;
 import java.time.Clock;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
-import java.util.Optional;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
 import javax.inject.Inject;
-import org.postgresql.util.PGInterval;
-import services.reporting.ApplicationSubmissionsStat;
+import models.ApplicationModel;
+import services.reporting.MonthlySubmissionStats;
+import services.reporting.SubmissionDurationSketch;
 
 /** Implements queries related to reporting needs. */
 public final class ReportingRepository {
 
+  /** Held while replacing rows of submission_stats, which only one transaction may do at a time. */
+  private static final String SUBMISSION_STATS_LOCK = "submission_stats";
+
   private final Clock clock;
   private final Database database;
 
@@ -29,120 +36,258 @@ public final class ReportingRepository {
   }
 
   /**
-   * Loads data from the monthly reporting view. Does not include data from current month because
-   * the job to refresh the view is scheduled to run at the beginning of each month. For current
-   * month reporting data use {@code loadThisMonthReportingData}.
+   * Loads the stats of the applications submitted to each program with an active version, by
+   * month.
    */
-  public ImmutableList<ApplicationSubmissionsStat> loadMonthlyReportingView() {
-    return database
+  public ImmutableList<MonthlySubmissionStats> loadSubmissionStats() {
+    foldRecordedSubmissions();
+
+    Map<ProgramMonth, SubmissionDurationSketch.Builder> sketches =
+        new TreeMap<>(
+            Comparator.comparing(ProgramMonth::programName)
+                .thenComparing(ProgramMonth::submitMonth, Comparator.reverseOrder()));
+    Map<String, String> localizedNames = new HashMap<>();
+    // Submissions recorded while the stats were folded or rebuilt by someone else are merged here.
+    // A single statement reads them, so that those folded meanwhile are read once.
+    database
         .sqlQuery(
-            "SELECT * FROM monthly_submissions_reporting_view\n"
-                + "WHERE monthly_submissions_reporting_view.submit_month < :first_of_month::date")
-        .setParameter("first_of_month", getFirstOfMonth())
-        .findList()
-        .stream()
+            """
+            SELECT
+              stats.program_name,
+              active_program.en_us_localized_name,
+              stats.submit_month,
+              stats.duration_buckets,
+              stats.bucket,
+              stats.bucket_count
+            FROM (
+              SELECT
+                program_name,
+                submit_month,
+                CAST(duration_buckets AS text) AS duration_buckets,
+                CAST(NULL AS integer) AS bucket,
+                CAST(NULL AS bigint) AS bucket_count
+              FROM submission_stats
+              UNION ALL
+              SELECT program_name, submit_month, CAST(NULL AS text), bucket, count(*)
+              FROM recorded_submissions
+              GROUP BY program_name, submit_month, bucket
+            ) AS stats
+            INNER JOIN (
+              SELECT
+                p.name,
+                ((p.localized_name #>> '{}')::jsonb #>> '{translations,en_US}')
+                  AS en_us_localized_name
+              FROM programs p
+              INNER JOIN versions_programs vp ON vp.programs_id = p.id
+              INNER JOIN versions v ON vp.versions_id = v.id
+              WHERE v.lifecycle_stage IN ('active')
+            ) AS active_program
+            ON active_program.name = stats.program_name
+            """)
+        .findEach(
+            row -> {
+              localizedNames.put(
+                  row.getString("program_name"), row.getString("en_us_localized_name"));
+              SubmissionDurationSketch.Builder sketch =
+                  sketches.computeIfAbsent(
+                      new ProgramMonth(
+                          row.getString("program_name"), row.getTimestamp("submit_month")),
+                      unused -> new SubmissionDurationSketch.Builder());
+              if (row.getString("duration_buckets") != null) {
+                sketch.merge(SubmissionDurationSketch.fromJson(row.getString("duration_buckets")));
+              } else {
+                sketch.addBucket(row.getInteger("bucket"), row.getLong("bucket_count"));
+              }
+            });
+
+    return sketches.entrySet().stream()
         .map(
-            row ->
-                ApplicationSubmissionsStat.create(
-                    row.getString("program_name"),
-                    row.getString("en_us_localized_name"),
-                    Optional.of(row.getTimestamp("submit_month")),
-                    row.getLong("count"),
-                    getSecondsFromPgIntervalRowValue(row, "p25"),
-                    getSecondsFromPgIntervalRowValue(row, "p50"),
-                    getSecondsFromPgIntervalRowValue(row, "p75"),
-                    getSecondsFromPgIntervalRowValue(row, "p99")))
+            entry ->
+                MonthlySubmissionStats.create(
+                    entry.getKey().programName(),
+                    localizedNames.get(entry.getKey().programName()),
+                    entry.getKey().submitMonth(),
+                    entry.getValue().build()))
         .collect(ImmutableList.toImmutableList());
   }
 
-  private Timestamp getFirstOfMonth() {
-    return Timestamp.valueOf(
-        LocalDateTime.now(clock).truncatedTo(ChronoUnit.DAYS).withDayOfMonth(1));
+  /**
+   * Records that {@code application} was submitted to the program named {@code programName}, to be
+   * counted in the stats of its program for the month it was submitted in. Must be called in the
+   * transaction submitting the application, after it is saved, so that the submission is recorded
+   * if and only if it happens.
+   *
+   * <p>Each submission inserts a row of its own, so that submissions to the same program don't
+   * contend on its stats. The rows are folded into the stats when the stats are read.
+   */
+  public void recordSubmission(String programName, ApplicationModel application) {
+    double submissionDurationSeconds =
+        Duration.between(application.getCreateTime(), application.getSubmitTime()).toMillis()
+            / 1000.0;
+    database
+        .sqlUpdate(
+            """
+            INSERT INTO recorded_submissions (program_name, submit_month, bucket)
+            VALUES (:programName, date_trunc('month', CAST(:submitTime AS timestamp)), :bucket)
+            """)
+        .setParameter("programName", programName)
+        .setParameter("submitTime", Timestamp.from(application.getSubmitTime()))
+        .setParameter("bucket", SubmissionDurationSketch.bucketOf(submissionDurationSeconds))
+        .execute();
   }
 
-  /** Loads application submission reporting data for current month. */
-  public ImmutableList<ApplicationSubmissionsStat> loadThisMonthReportingData() {
+  /**
+   * Recomputes the stats of the month before this one from the applications submitted in it, to
+   * count applications submitted by servers running an older version during a deployment.
+   */
+  public void rebuildLastMonthSubmissionStats() {
     Timestamp firstOfMonth = getFirstOfMonth();
+    Timestamp firstOfLastMonth =
+        Timestamp.valueOf(firstOfMonth.toLocalDateTime().minusMonths(1));
+    rebuildSubmissionStats(firstOfLastMonth, firstOfMonth);
+  }
 
-    return database
-        .sqlQuery(
-            "SELECT\n"
-                + "  programs.name AS program_name,\n"
-                + "  active_program.en_us_localized_name AS en_us_localized_name,\n"
-                + "  count(*),\n"
-                + "  percentile_cont(0.5) WITHIN GROUP (\n"
-                + "    ORDER BY applications.submission_duration) AS p50,\n"
-                + "  percentile_cont(0.25) WITHIN GROUP (\n"
-                + "    ORDER BY applications.submission_duration) AS p25,\n"
-                + "  percentile_cont(0.75) WITHIN GROUP (\n"
-                + "    ORDER BY applications.submission_duration) AS p75,\n"
-                + "  percentile_cont(0.99) WITHIN GROUP (\n"
-                + "    ORDER BY applications.submission_duration) AS p99\n"
-                + "FROM applications\n"
-                + "INNER JOIN programs ON applications.program_id = programs.id\n"
-                + "INNER JOIN\n"
-                + "  ( SELECT\n"
-                + "    p.name,\n"
-                + "  ((p.localized_name #>> '{}')::jsonb #>> '{translations,en_US}') AS"
-                + " en_us_localized_name\n"
-                + "  FROM programs p\n"
-                + "  INNER JOIN versions_programs vp ON\n"
-                + "  vp.programs_id = p.id\n"
-                + "  INNER JOIN  versions v ON\n"
-                + "  vp.versions_id = v.id WHERE v.lifecycle_stage IN ('active')) AS"
-                + " active_program\n"
-                + "  ON active_program.name = programs.name\n"
-                + "WHERE applications.lifecycle_stage IN ('active', 'obsolete')\n"
-                + "AND applications.submit_time >= date_trunc('month', :current_date::date)\n"
-                + "GROUP BY programs.name, active_program.en_us_localized_name")
-        .setParameter("current_date", firstOfMonth)
-        .findList()
-        .stream()
-        .map(
-            row ->
-                ApplicationSubmissionsStat.create(
-                    row.getString("program_name"),
-                    row.getString("en_us_localized_name"),
-                    Optional.of(firstOfMonth),
-                    row.getLong("count"),
-                    getSecondsFromPgIntervalRowValue(row, "p25"),
-                    getSecondsFromPgIntervalRowValue(row, "p50"),
-                    getSecondsFromPgIntervalRowValue(row, "p75"),
-                    getSecondsFromPgIntervalRowValue(row, "p99")))
-        .collect(ImmutableList.toImmutableList());
+  /** Recomputes the stats of every month from the applications submitted in it. */
+  public void rebuildAllSubmissionStats() {
+    rebuildSubmissionStats(
+        Timestamp.valueOf(LocalDateTime.of(1970, 1, 1, 0, 0)),
+        Timestamp.valueOf(LocalDateTime.of(9999, 1, 1, 0, 0)));
   }
 
-  /** Triggers a refresh of the monthly reporting view. */
-  public void refreshMonthlyReportingView() {
-    database.sqlUpdate("REFRESH MATERIALIZED VIEW monthly_submissions_reporting_view").execute();
+  /**
+   * Adds the recorded submissions to the stats of their program and month, unless the stats are
+   * already being folded or rebuilt.
+   */
+  private void foldRecordedSubmissions() {
+    Map<ProgramMonth, SubmissionDurationSketch.Builder> sketches = new HashMap<>();
+    try (Transaction transaction = database.beginTransaction()) {
+      boolean locked =
+          database
+              .sqlQuery("SELECT pg_try_advisory_xact_lock(hashtext(:lock)) AS locked")
+              .setParameter("lock", SUBMISSION_STATS_LOCK)
+              .findOne()
+              .getBoolean("locked");
+      if (!locked) {
+        return;
+      }
+
+      database
+          .sqlQuery(
+              """
+              WITH folded AS (
+                DELETE FROM recorded_submissions RETURNING program_name, submit_month, bucket
+              )
+              SELECT program_name, submit_month, bucket, count(*) AS bucket_count
+              FROM folded
+              GROUP BY program_name, submit_month, bucket
+              """)
+          .findEach(
+              row ->
+                  sketches
+                      .computeIfAbsent(
+                          new ProgramMonth(
+                              row.getString("program_name"), row.getTimestamp("submit_month")),
+                          unused -> new SubmissionDurationSketch.Builder())
+                      .addBucket(row.getInteger("bucket"), row.getLong("bucket_count")));
+
+      sketches.forEach(
+          (programMonth, sketch) -> {
+            SqlRow stats =
+                database
+                    .sqlQuery(
+                        """
+                        SELECT CAST(duration_buckets AS text) AS duration_buckets
+                        FROM submission_stats
+                        WHERE program_name = :programName AND submit_month = :submitMonth
+                        """)
+                    .setParameter("programName", programMonth.programName())
+                    .setParameter("submitMonth", programMonth.submitMonth())
+                    .findOne();
+            if (stats != null) {
+              sketch.merge(SubmissionDurationSketch.fromJson(stats.getString("duration_buckets")));
+            }
+            upsertSubmissionStats(programMonth, sketch.build());
+          });
+      transaction.commit();
+    }
   }
 
-  private static double getSecondsFromPgIntervalRowValue(SqlRow row, String key) {
-    Object interval =
-        checkNotNull(
-            row.get(key),
-            String.format("Expected SqlRow to have key %s but not found in %s", key, row));
-
-    if (!(interval instanceof PGInterval pgInterval)) {
-      throw new IllegalStateException(
-          String.format(
-              "Expected value at %s in SqlRow to be a PgInterval but got %s: %s",
-              key, interval.getClass().getName(), interval));
+  /**
+   * Recomputes the stats of the months from {@code fromMonth} until, but not including, {@code
+   * untilMonth}.
+   *
+   * <p>Only folding the recorded submissions waits for this to finish. Submissions don't, and those
+   * submitted meanwhile are counted when their recorded submission is folded.
+   */
+  private void rebuildSubmissionStats(Timestamp fromMonth, Timestamp untilMonth) {
+    Map<ProgramMonth, SubmissionDurationSketch.Builder> sketches = new HashMap<>();
+    try (Transaction transaction = database.beginTransaction()) {
+      database
+          .sqlQuery("SELECT count(*) FROM (SELECT pg_advisory_xact_lock(hashtext(:lock))) AS lock")
+          .setParameter("lock", SUBMISSION_STATS_LOCK)
+          .findOne();
+      // A statement reads from a single snapshot, so this deletes the recorded submissions of
+      // exactly the applications it reads.
+      database
+          .sqlQuery(
+              """
+              WITH counted AS (
+                DELETE FROM recorded_submissions
+                WHERE submit_month >= :fromMonth AND submit_month < :untilMonth
+              )
+              SELECT
+                programs.name AS program_name,
+                date_trunc('month', applications.submit_time) AS submit_month,
+                extract(epoch FROM applications.submission_duration) AS duration_seconds
+              FROM applications
+              INNER JOIN programs ON applications.program_id = programs.id
+              WHERE applications.lifecycle_stage IN ('active', 'obsolete')
+              AND applications.submit_time >= :fromMonth
+              AND applications.submit_time < :untilMonth
+              """)
+          .setParameter("fromMonth", fromMonth)
+          .setParameter("untilMonth", untilMonth)
+          .findEach(
+              row ->
+                  sketches
+                      .computeIfAbsent(
+                          new ProgramMonth(
+                              row.getString("program_name"), row.getTimestamp("submit_month")),
+                          unused -> new SubmissionDurationSketch.Builder())
+                      .add(row.getDouble("duration_seconds")));
+
+      database
+          .sqlUpdate(
+              "DELETE FROM submission_stats"
+                  + " WHERE submit_month >= :fromMonth AND submit_month < :untilMonth")
+          .setParameter("fromMonth", fromMonth)
+          .setParameter("untilMonth", untilMonth)
+          .execute();
+      sketches.forEach(
+          (programMonth, sketch) -> upsertSubmissionStats(programMonth, sketch.build()));
+      transaction.commit();
     }
+  }
 
-    return intervalToSeconds(pgInterval);
+  private void upsertSubmissionStats(ProgramMonth programMonth, SubmissionDurationSketch sketch) {
+    database
+        .sqlUpdate(
+            """
+            INSERT INTO submission_stats (program_name, submit_month, duration_buckets)
+            VALUES (:programName, :submitMonth, CAST(:durationBuckets AS jsonb))
+            ON CONFLICT (program_name, submit_month) DO UPDATE
+            SET duration_buckets = excluded.duration_buckets
+            """)
+        .setParameter("programName", programMonth.programName())
+        .setParameter("submitMonth", programMonth.submitMonth())
+        .setParameter("durationBuckets", sketch.toJson())
+        .execute();
   }
 
-  private static final long SECONDS_PER_YEAR = 31556926L;
-  private static final long SECONDS_PER_DAY = 86400L;
-  private static final long SECONDS_PER_HOUR = 3600L;
-  private static final long SECONDS_PER_MINUTE = 60L;
-
-  private static double intervalToSeconds(PGInterval interval) {
-    return interval.getYears() * SECONDS_PER_YEAR
-        + interval.getDays() * SECONDS_PER_DAY
-        + interval.getHours() * SECONDS_PER_HOUR
-        + interval.getMinutes() * SECONDS_PER_MINUTE
-        + interval.getSeconds();
+  private Timestamp getFirstOfMonth() {
+    return Timestamp.valueOf(
+        LocalDateTime.now(clock).truncatedTo(ChronoUnit.DAYS).withDayOfMonth(1));
   }
+
+  private record ProgramMonth(String programName, Timestamp submitMonth) {}
 }
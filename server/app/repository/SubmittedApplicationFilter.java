@@ -1,6 +1,7 @@
 package repository;
 
 import com.google.auto.value.AutoValue;
+import com.google.common.collect.ImmutableList;
 import java.util.Optional;
 
 /**
@@ -30,8 +31,11 @@ public abstract class SubmittedApplicationFilter {
    */
   public abstract Optional<String> applicationStatus();
 
+  /** Filters to applications with answers matching all of the provided filters. */
+  public abstract ImmutableList<AnswerFilter> answerFilters();
+
   public static Builder builder() {
-    return new AutoValue_SubmittedApplicationFilter.Builder();
+    return new AutoValue_SubmittedApplicationFilter.Builder().setAnswerFilters(ImmutableList.of());
   }
 
   @AutoValue.Builder
@@ -42,6 +46,8 @@ public abstract class SubmittedApplicationFilter {
 
     public abstract Builder setApplicationStatus(Optional<String> v);
 
+    public abstract Builder setAnswerFilters(ImmutableList<AnswerFilter> v);
+
     public abstract SubmittedApplicationFilter build();
   }
 }
@@ -15,8 +15,10 @@ import io.ebean.DB;
 import io.ebean.Database;
 import io.ebean.SerializableConflictException;
 import io.ebean.Transaction;
+import io.ebean.TransactionCallbackAdapter;
 import io.ebean.TxScope;
 import io.ebean.annotation.TxIsolation;
+import io.prometheus.client.Counter;
 import jakarta.persistence.NonUniqueResultException;
 import jakarta.persistence.RollbackException;
 import java.util.Collection;
@@ -25,6 +27,7 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Optional;
 import java.util.Set;
+import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
 import java.util.function.Predicate;
@@ -60,6 +63,22 @@ public final class VersionRepository {
   private static final Logger logger = LoggerFactory.getLogger(VersionRepository.class);
   private static final QueryProfileLocationBuilder profileLocationBuilder =
       new QueryProfileLocationBuilder("VersionRepository");
+
+  static final String ACTIVE_VERSION_CACHE_KEY = "active";
+
+  /**
+   * Bounds how long a server can serve a stale active version if it misses the notification sent
+   * when another server publishes.
+   */
+  private static final int ACTIVE_VERSION_CACHE_EXPIRATION_SECONDS = 300;
+
+  private static final Counter ACTIVE_VERSION_CACHE_REQUESTS =
+      Counter.build()
+          .name("active_version_cache_requests_total")
+          .help("Count of active version lookups, by whether they were served from the cache")
+          .labelNames("result")
+          .register();
+
   private final Database database;
   private final ProgramRepository programRepository;
   private final QuestionRepository questionRepository;
@@ -67,6 +86,8 @@ public final class VersionRepository {
   private final SettingsManifest settingsManifest;
   private final SyncCacheApi questionsByVersionCache;
   private final SyncCacheApi programsByVersionCache;
+  private final SyncCacheApi activeVersionCache;
+  private final CacheInvalidationBus cacheInvalidationBus;
 
   @Inject
   public VersionRepository(
@@ -75,7 +96,9 @@ public final class VersionRepository {
       DatabaseExecutionContext databaseExecutionContext,
       SettingsManifest settingsManifest,
       @NamedCache("version-questions") SyncCacheApi questionsByVersionCache,
-      @NamedCache("version-programs") SyncCacheApi programsByVersionCache) {
+      @NamedCache("version-programs") SyncCacheApi programsByVersionCache,
+      @NamedCache("active-version") SyncCacheApi activeVersionCache,
+      CacheInvalidationBus cacheInvalidationBus) {
     this.database = DB.getDefault();
     this.programRepository = checkNotNull(programRepository);
     this.questionRepository = checkNotNull(questionRepository);
@@ -83,6 +106,8 @@ public final class VersionRepository {
     this.settingsManifest = checkNotNull(settingsManifest);
     this.questionsByVersionCache = checkNotNull(questionsByVersionCache);
     this.programsByVersionCache = checkNotNull(programsByVersionCache);
+    this.activeVersionCache = checkNotNull(activeVersionCache);
+    this.cacheInvalidationBus = checkNotNull(cacheInvalidationBus);
   }
 
   /**
@@ -115,7 +140,8 @@ public final class VersionRepository {
     try (Transaction transaction =
         database.beginTransaction(TxScope.required().setIsolation(TxIsolation.SERIALIZABLE))) {
       VersionModel draft = getDraftVersionOrCreate();
-      VersionModel active = getActiveVersion();
+      // The active version is modified below, so it must not be the cached instance.
+      VersionModel active = lookupActiveVersion();
 
       ImmutableSet<String> draftProgramsNames = getProgramNamesForVersion(draft);
       ImmutableSet<String> draftQuestionNames = getQuestionNamesForVersion(draft);
@@ -195,6 +221,7 @@ public final class VersionRepository {
           draft.refresh();
           active.refresh();
           validateProgramQuestionState();
+          onActiveVersionPublished(transaction, draft);
           break;
         case DRY_RUN:
           break;
@@ -223,7 +250,8 @@ public final class VersionRepository {
         database.beginTransaction(TxScope.required().setIsolation(TxIsolation.SERIALIZABLE));
     try {
       VersionModel existingDraft = getDraftVersionOrCreate();
-      VersionModel active = getActiveVersion();
+      // The active version is modified below, so it must not be the cached instance.
+      VersionModel active = lookupActiveVersion();
 
       // Any drafts not being published right now will be moved to newDraft.
       VersionModel newDraft = new VersionModel(LifecycleStage.DRAFT);
@@ -294,6 +322,7 @@ public final class VersionRepository {
       active.refresh();
       newDraft.refresh();
       validateProgramQuestionState();
+      onActiveVersionPublished(transaction, existingDraft);
       transaction.commit();
     } catch (NonUniqueResultException | SerializableConflictException | RollbackException e) {
       transaction.rollback(e);
@@ -379,7 +408,107 @@ public final class VersionRepository {
     }
   }
 
+  /**
+   * Returns the active version.
+   *
+   * <p>When the version cache is enabled the id of the active version is cached, and a reference
+   * to it is returned without querying the database. Most callers only need the id; the first
+   * access to any other property loads the version. The cached id is replaced when this server
+   * publishes a new version and dropped when another server does (see {@link
+   * CacheInvalidationBus}). An id looked up from the database is only cached if the cache wasn't
+   * invalidated during the lookup, so a version that was replaced meanwhile isn't cached. The cache
+   * is bypassed inside a transaction so that a transaction always sees its own publish.
+   */
   public VersionModel getActiveVersion() {
+    if (!settingsManifest.getVersionCacheEnabled() || isInTransaction()) {
+      return lookupActiveVersion();
+    }
+    Optional<Long> cachedActiveVersionId =
+        activeVersionCache
+            .<CachedActiveVersion>get(ACTIVE_VERSION_CACHE_KEY)
+            .flatMap(CachedActiveVersion::activeVersionId);
+    if (cachedActiveVersionId.isPresent()) {
+      ACTIVE_VERSION_CACHE_REQUESTS.labels("hit").inc();
+      return database.reference(VersionModel.class, cachedActiveVersionId.get());
+    }
+    ACTIVE_VERSION_CACHE_REQUESTS.labels("miss").inc();
+    // Invalidating the active version removes this, so the version looked up below is only cached
+    // if it is still there once the lookup is done.
+    CachedActiveVersion loading = CachedActiveVersion.loading();
+    activeVersionCache.set(
+        ACTIVE_VERSION_CACHE_KEY, loading, ACTIVE_VERSION_CACHE_EXPIRATION_SECONDS);
+    VersionModel activeVersion = lookupActiveVersion();
+    Optional<CachedActiveVersion> cached = activeVersionCache.get(ACTIVE_VERSION_CACHE_KEY);
+    if (activeVersion != null && cached.isPresent() && cached.get().equals(loading)) {
+      cacheActiveVersionId(activeVersion.id);
+    }
+    return activeVersion;
+  }
+
+  /**
+   * Drops the cached active version, for callers that replace the active version without
+   * publishing, like clearing the database.
+   */
+  public void invalidateActiveVersionCache() {
+    activeVersionCache.remove(ACTIVE_VERSION_CACHE_KEY);
+  }
+
+  private void cacheActiveVersionId(long activeVersionId) {
+    activeVersionCache.set(
+        ACTIVE_VERSION_CACHE_KEY,
+        CachedActiveVersion.loaded(activeVersionId),
+        ACTIVE_VERSION_CACHE_EXPIRATION_SECONDS);
+  }
+
+  /**
+   * The id of the active version in the cache, or, while it is being looked up, a placeholder that
+   * identifies the lookup.
+   */
+  record CachedActiveVersion(UUID loadId, Optional<Long> activeVersionId) {
+    static CachedActiveVersion loading() {
+      return new CachedActiveVersion(UUID.randomUUID(), Optional.empty());
+    }
+
+    static CachedActiveVersion loaded(long activeVersionId) {
+      return new CachedActiveVersion(UUID.randomUUID(), Optional.of(activeVersionId));
+    }
+  }
+
+  private boolean isInTransaction() {
+    Transaction transaction = database.currentTransaction();
+    return transaction != null && transaction.isActive();
+  }
+
+  /**
+   * Tells this and every other server that {@code newActiveVersion} is now active, once {@code
+   * transaction} commits.
+   *
+   * <p>Publishing adds the carried over programs to the new version and moves draft programs and
+   * questions into it, so the caches keyed by program are invalidated along with the active
+   * version. The caches keyed by version only hold active and obsolete versions, which don't
+   * change.
+   */
+  private void onActiveVersionPublished(Transaction transaction, VersionModel newActiveVersion) {
+    cacheInvalidationBus.invalidate(
+        CacheInvalidationBus.Cache.ACTIVE_VERSION, ACTIVE_VERSION_CACHE_KEY);
+    cacheInvalidationBus.invalidateAll(CacheInvalidationBus.Cache.PROGRAM);
+    cacheInvalidationBus.invalidateAll(CacheInvalidationBus.Cache.PROGRAM_VERSIONS);
+    cacheInvalidationBus.invalidateAll(CacheInvalidationBus.Cache.FULL_PROGRAM_DEFINITION);
+    if (!settingsManifest.getVersionCacheEnabled()) {
+      return;
+    }
+    // Registered after the invalidation above, so that this server caches the new version once
+    // the invalidation has been applied.
+    transaction.register(
+        new TransactionCallbackAdapter() {
+          @Override
+          public void postCommit() {
+            cacheActiveVersionId(newActiveVersion.id);
+          }
+        });
+  }
+
+  private VersionModel lookupActiveVersion() {
     return database
         .find(VersionModel.class)
         .where()
@@ -640,6 +769,7 @@ public final class VersionRepository {
     draftProgram = new ProgramModel(updatedDefinition.build());
     logger.trace("Submitting update.");
     database.update(draftProgram);
+    programRepository.invalidateProgramCaches(draftProgram.id);
     draftProgram.refresh();
   }
 
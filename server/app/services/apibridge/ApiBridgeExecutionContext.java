@@ -1,11 +1,9 @@
 package services.apibridge;
 
-import static com.google.common.base.Preconditions.checkNotNull;
-
 import javax.inject.Inject;
 import javax.inject.Singleton;
 import org.apache.pekko.actor.ActorSystem;
-import play.libs.concurrent.CustomExecutionContext;
+import services.monitoring.InstrumentedExecutionContext;
 
 /**
  * Custom execution context wired to "api-bridge.dispatcher" thread pool
@@ -13,9 +11,9 @@ import play.libs.concurrent.CustomExecutionContext;
  * <p>This is only to be used with the API Bridge
  */
 @Singleton
-public class ApiBridgeExecutionContext extends CustomExecutionContext {
+public class ApiBridgeExecutionContext extends InstrumentedExecutionContext {
   @Inject
   public ApiBridgeExecutionContext(ActorSystem actorSystem) {
-    super(checkNotNull(actorSystem), "api-bridge.dispatcher");
+    super(actorSystem, "api-bridge.dispatcher");
   }
 }
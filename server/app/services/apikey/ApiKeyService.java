@@ -26,6 +26,7 @@ import play.cache.NamedCache;
 import play.cache.SyncCacheApi;
 import play.data.DynamicForm;
 import repository.ApiKeyRepository;
+import repository.CacheInvalidationBus;
 import services.CryptographicUtils;
 import services.DateConverter;
 import services.pagination.PageNumberPaginationSpec;
@@ -83,6 +84,9 @@ public final class ApiKeyService {
   private final String secretSalt;
   private final SyncCacheApi apiKeyCache;
   private final boolean banGlobalSubnet;
+  private final ApiKeyUsageAggregator apiKeyUsageAggregator;
+  private final VerifiedApiCredentialCache verifiedApiCredentialCache;
+  private final CacheInvalidationBus cacheInvalidationBus;
 
   @Inject
   public ApiKeyService(
@@ -91,7 +95,10 @@ public final class ApiKeyService {
       Environment environment,
       ProgramService programService,
       DateConverter dateConverter,
-      Config config) {
+      Config config,
+      ApiKeyUsageAggregator apiKeyUsageAggregator,
+      VerifiedApiCredentialCache verifiedApiCredentialCache,
+      CacheInvalidationBus cacheInvalidationBus) {
     this.apiKeyCache = checkNotNull(apiKeyCache);
     this.repository = checkNotNull(repository);
     this.environment = checkNotNull(environment);
@@ -99,6 +106,9 @@ public final class ApiKeyService {
     this.dateConverter = checkNotNull(dateConverter);
     this.secretSalt = checkNotNull(config).getString("api_secret_salt");
     this.banGlobalSubnet = checkNotNull(config).getBoolean("api_keys_ban_global_subnet");
+    this.apiKeyUsageAggregator = checkNotNull(apiKeyUsageAggregator);
+    this.verifiedApiCredentialCache = checkNotNull(verifiedApiCredentialCache);
+    this.cacheInvalidationBus = checkNotNull(cacheInvalidationBus);
   }
 
   /**
@@ -140,9 +150,12 @@ public final class ApiKeyService {
         keyId, () -> findByKeyId(keyId), CACHE_EXPIRATION_TIME_SECONDS);
   }
 
-  /** Increment an API key's call count and set its last call IP address to the one provided. */
+  /**
+   * Increment an API key's call count and set its last call IP address to the one provided. The
+   * usage is recorded in the database in the background (see {@link ApiKeyUsageAggregator}).
+   */
   public void recordApiKeyUsage(String apiKeyId, String remoteAddress) {
-    repository.recordApiKeyUsage(apiKeyId, remoteAddress);
+    apiKeyUsageAggregator.record(apiKeyId, remoteAddress);
   }
 
   /**
@@ -165,6 +178,9 @@ public final class ApiKeyService {
 
     apiKey.retire(getAuthorityId(profile));
     apiKey.save();
+    // Takes effect immediately on every server rather than when the cached key expires.
+    cacheInvalidationBus.invalidate(CacheInvalidationBus.Cache.API_KEYS, apiKey.getKeyId());
+    verifiedApiCredentialCache.invalidateKey(apiKey.getKeyId());
 
     return apiKey;
   }
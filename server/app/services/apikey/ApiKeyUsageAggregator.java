@@ -0,0 +1,117 @@
+package services.apikey;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableList;
+import com.typesafe.config.Config;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import org.apache.pekko.actor.ActorSystem;
+import org.apache.pekko.actor.Cancellable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import play.inject.ApplicationLifecycle;
+import repository.ApiKeyRepository;
+import repository.ApiKeyRepository.ApiKeyUsage;
+import repository.DatabaseExecutionContext;
+
+/**
+ * Counts the calls made with each API key in memory, and periodically records them in the database
+ * in a single batch.
+ *
+ * <p>Counting a call only increments a striped counter, so API requests neither wait on the
+ * database nor contend for the row of the key they use. The counts are flushed every {@code
+ * api_keys_usage_flush_interval_seconds} and when the server stops. Calls not yet flushed are lost
+ * if the server crashes, which is acceptable since the call count doesn't need to be exact.
+ */
+@Singleton
+public final class ApiKeyUsageAggregator {
+  private static final Logger logger = LoggerFactory.getLogger(ApiKeyUsageAggregator.class);
+
+  /** The most recent call made with a key. */
+  private record LastCall(String ipAddress, Instant time) {}
+
+  /** The calls made with a key that haven't been flushed yet. */
+  private static final class PendingUsage {
+    private final LongAdder callCount = new LongAdder();
+    private volatile LastCall lastCall;
+  }
+
+  private final ApiKeyRepository apiKeyRepository;
+  private final Clock clock;
+  private final ConcurrentHashMap<String, PendingUsage> pendingUsageByKeyId =
+      new ConcurrentHashMap<>();
+
+  @Inject
+  public ApiKeyUsageAggregator(
+      ApiKeyRepository apiKeyRepository,
+      Clock clock,
+      Config config,
+      ActorSystem actorSystem,
+      DatabaseExecutionContext dbExecutionContext,
+      ApplicationLifecycle applicationLifecycle) {
+    this(apiKeyRepository, clock);
+    Duration flushInterval =
+        Duration.ofSeconds(config.getInt("api_keys_usage_flush_interval_seconds"));
+    Cancellable scheduledFlushes =
+        actorSystem
+            .scheduler()
+            .scheduleWithFixedDelay(flushInterval, flushInterval, this::flush, dbExecutionContext);
+    applicationLifecycle.addStopHook(
+        () -> {
+          scheduledFlushes.cancel();
+          return CompletableFuture.runAsync(this::flush, dbExecutionContext);
+        });
+  }
+
+  @VisibleForTesting
+  ApiKeyUsageAggregator(ApiKeyRepository apiKeyRepository, Clock clock) {
+    this.apiKeyRepository = checkNotNull(apiKeyRepository);
+    this.clock = checkNotNull(clock);
+  }
+
+  /** Counts a call made with the API key {@code keyId} from {@code remoteAddress}. */
+  public void record(String keyId, String remoteAddress) {
+    PendingUsage pendingUsage =
+        pendingUsageByKeyId.computeIfAbsent(keyId, unused -> new PendingUsage());
+    // Set before counting the call, so that a flush that sees the call also sees a last call.
+    pendingUsage.lastCall = new LastCall(remoteAddress, clock.instant());
+    pendingUsage.callCount.increment();
+  }
+
+  /**
+   * Records the calls counted since the last flush in the database. If that fails they are kept to
+   * be recorded by the next flush.
+   */
+  public synchronized void flush() {
+    ImmutableList.Builder<ApiKeyUsage> usages = ImmutableList.builder();
+    for (Map.Entry<String, PendingUsage> entry : pendingUsageByKeyId.entrySet()) {
+      PendingUsage pendingUsage = entry.getValue();
+      long callCount = pendingUsage.callCount.sum();
+      if (callCount == 0) {
+        continue;
+      }
+      // Subtracted rather than reset, so calls counted meanwhile are left for the next flush.
+      pendingUsage.callCount.add(-callCount);
+      LastCall lastCall = pendingUsage.lastCall;
+      usages.add(new ApiKeyUsage(entry.getKey(), callCount, lastCall.ipAddress(), lastCall.time()));
+    }
+
+    ImmutableList<ApiKeyUsage> flushedUsages = usages.build();
+    try {
+      apiKeyRepository.recordApiKeyUsage(flushedUsages);
+    } catch (RuntimeException e) {
+      logger.error("Error recording ApiKey usage, will retry: {}", e.toString());
+      flushedUsages.forEach(
+          usage -> pendingUsageByKeyId.get(usage.keyId()).callCount.add(usage.callCount()));
+    }
+  }
+}
@@ -0,0 +1,58 @@
+package services.apikey;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hashing;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import javax.inject.Singleton;
+
+/**
+ * Remembers the API credentials that recently passed authentication, so that a client calling the
+ * API repeatedly doesn't have its secret salted and its IP address matched against the key's
+ * subnets on every call.
+ *
+ * <p>A credential is the key ID, the client's IP address and a SHA-256 digest of the secret, so the
+ * secret itself isn't kept, and a different secret or IP address is verified again. A credential is
+ * remembered for at most {@link #MAX_VERIFIED_AGE}, and never past the expiration of its key.
+ * Credentials of a retired key are forgotten by {@link #invalidateKey}.
+ */
+@Singleton
+public final class VerifiedApiCredentialCache {
+  /** Bounds how long a change to a key's subnet or secret takes to apply to verified clients. */
+  private static final Duration MAX_VERIFIED_AGE = Duration.ofMinutes(5);
+
+  private static final int MAX_VERIFIED_CREDENTIALS = 10_000;
+
+  private record Credential(String keyId, String clientIp, HashCode secretDigest) {}
+
+  /** Verified credentials, mapped to the expiration of their key. */
+  private final Cache<Credential, Instant> verifiedCredentials =
+      CacheBuilder.newBuilder()
+          .maximumSize(MAX_VERIFIED_CREDENTIALS)
+          .expireAfterWrite(MAX_VERIFIED_AGE)
+          .build();
+
+  /** True if the credential was verified recently and its key hasn't expired since. */
+  public boolean isVerified(String keyId, String clientIp, String secret, Instant now) {
+    Instant keyExpiration =
+        verifiedCredentials.getIfPresent(new Credential(keyId, clientIp, digest(secret)));
+    return keyExpiration != null && keyExpiration.isAfter(now);
+  }
+
+  /** Remembers that the credential passed authentication with a key expiring at {@code until}. */
+  public void putVerified(String keyId, String clientIp, String secret, Instant until) {
+    verifiedCredentials.put(new Credential(keyId, clientIp, digest(secret)), until);
+  }
+
+  /** Forgets every verified credential of the key {@code keyId}. */
+  public void invalidateKey(String keyId) {
+    verifiedCredentials.asMap().keySet().removeIf(credential -> credential.keyId().equals(keyId));
+  }
+
+  private static HashCode digest(String secret) {
+    return Hashing.sha256().hashString(secret, StandardCharsets.UTF_8);
+  }
+}
@@ -16,6 +16,7 @@ import controllers.admin.routes;
 import io.ebean.DB;
 import io.ebean.Database;
 import io.ebean.Transaction;
+import io.prometheus.client.Histogram;
 import java.time.Clock;
 import java.time.DateTimeException;
 import java.time.Instant;
@@ -42,7 +43,6 @@ import models.LifecycleStage;
 import models.ProgramModel;
 import models.ProgramNotificationPreference;
 import models.StoredFileModel;
-import models.VersionModel;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import play.i18n.Lang;
@@ -57,7 +57,6 @@ import repository.ApplicationStatusesRepository;
 import repository.ProgramRepository;
 import repository.StoredFileRepository;
 import repository.TimeFilter;
-import repository.VersionRepository;
 import services.Address;
 import services.DeploymentType;
 import services.LocalizedStrings;
@@ -84,6 +83,7 @@ import services.geo.AddressSuggestion;
 import services.geo.AddressSuggestionGroup;
 import services.geo.CorrectedAddressState;
 import services.geo.esri.EsriClient;
+import services.program.ActiveProgramCatalog;
 import services.program.PathNotInBlockException;
 import services.program.ProgramDefinition;
 import services.program.ProgramNotFoundException;
@@ -106,12 +106,18 @@ import views.applicant.AddressCorrectionBlockView;
 public final class ApplicantService {
   private static final Logger logger = LoggerFactory.getLogger(ApplicantService.class);
 
+  private static final Histogram BLOCK_SAVE_STEP_TIME =
+      Histogram.build()
+          .name("block_save_step_time_seconds")
+          .help("Execution time of each step of saving the answers to a block")
+          .labelNames("step")
+          .register();
+
   private final ApplicationEventRepository applicationEventRepository;
   private final ApplicationRepository applicationRepository;
   private final AccountRepository accountRepository;
   private final StoredFileRepository storedFileRepository;
   private final JsonPathPredicateGeneratorFactory jsonPathPredicateGeneratorFactory;
-  private final VersionRepository versionRepository;
   private final ProgramRepository programRepository;
   private final ApplicationStatusesRepository applicationStatusesRepository;
   private final ProgramService programService;
@@ -134,7 +140,6 @@ public final class ApplicantService {
       ApplicationEventRepository applicationEventRepository,
       ApplicationRepository applicationRepository,
       AccountRepository accountRepository,
-      VersionRepository versionRepository,
       ProgramRepository programRepository,
       StoredFileRepository storedFileRepository,
       JsonPathPredicateGeneratorFactory jsonPathPredicateGeneratorFactory,
@@ -152,7 +157,6 @@ public final class ApplicantService {
     this.applicationEventRepository = checkNotNull(applicationEventRepository);
     this.applicationRepository = checkNotNull(applicationRepository);
     this.accountRepository = checkNotNull(accountRepository);
-    this.versionRepository = checkNotNull(versionRepository);
     this.programRepository = checkNotNull(programRepository);
     this.storedFileRepository = checkNotNull(storedFileRepository);
     this.jsonPathPredicateGeneratorFactory = checkNotNull(jsonPathPredicateGeneratorFactory);
@@ -313,6 +317,7 @@ public final class ApplicantService {
       ImmutableSet<Update> updates,
       boolean addressServiceAreaValidationEnabled,
       boolean forceUpdate) {
+    Histogram.Timer loadTimer = BLOCK_SAVE_STEP_TIME.labels("load").startTimer();
     CompletableFuture<Optional<ApplicantModel>> applicantCompletableFuture =
         accountRepository.lookupApplicant(applicantId).toCompletableFuture();
 
@@ -322,6 +327,7 @@ public final class ApplicantService {
     return CompletableFuture.allOf(applicantCompletableFuture, programDefinitionCompletableFuture)
         .thenComposeAsync(
             (v) -> {
+              loadTimer.observeDuration();
               Optional<ApplicantModel> applicantMaybe = applicantCompletableFuture.join();
               if (applicantMaybe.isEmpty()) {
                 return CompletableFuture.failedFuture(new ApplicantNotFoundException(applicantId));
@@ -369,12 +375,7 @@ public final class ApplicantService {
                   Optional.empty(),
                   forceUpdate);
             },
-            classLoaderExecutionContext.current())
-        .thenCompose(
-            (v) ->
-                applicationRepository
-                    .createOrUpdateDraft(applicantId, programId)
-                    .thenApplyAsync(appDraft -> v));
+            classLoaderExecutionContext.current());
   }
 
   private CompletionStage<ReadOnlyApplicantProgramService> stageAndUpdateIfValid(
@@ -384,6 +385,7 @@ public final class ApplicantService {
       ImmutableSet<Update> updates,
       Optional<ServiceAreaUpdate> serviceAreaUpdate,
       boolean forceUpdate) {
+    Histogram.Timer stageTimer = BLOCK_SAVE_STEP_TIME.labels("stage").startTimer();
     UpdateMetadata updateMetadata = UpdateMetadata.create(programDefinition.id(), clock.millis());
     ImmutableMap<Path, String> failedUpdates;
     try {
@@ -408,14 +410,23 @@ public final class ApplicantService {
 
     Optional<Block> blockMaybe =
         roApplicantProgramService.getActiveBlock(blockBeforeUpdate.getId());
-    if (forceUpdate || (blockMaybe.isPresent() && !blockMaybe.get().hasErrors())) {
-      return accountRepository
-          .updateApplicant(applicant)
-          .thenApplyAsync(
-              (finishedSaving) -> roApplicantProgramService, classLoaderExecutionContext.current());
-    }
-
-    return CompletableFuture.completedFuture(roApplicantProgramService);
+    boolean updateApplicant =
+        forceUpdate || (blockMaybe.isPresent() && !blockMaybe.get().hasErrors());
+    stageTimer.observeDuration();
+
+    // The applicant has a draft application to the program once they've started it, even if the
+    // answers to this block aren't valid yet.
+    Histogram.Timer saveTimer = BLOCK_SAVE_STEP_TIME.labels("save").startTimer();
+    CompletionStage<ApplicationModel> savedDraft =
+        updateApplicant
+            ? applicationRepository.updateApplicantAndSaveDraft(applicant, programDefinition)
+            : applicationRepository.saveDraft(applicant, programDefinition);
+    return savedDraft.thenApplyAsync(
+        draft -> {
+          saveTimer.observeDuration();
+          return roApplicantProgramService;
+        },
+        classLoaderExecutionContext.current());
   }
 
   /**
@@ -623,83 +634,111 @@ public final class ApplicantService {
           }
 
           ApplicationModel application = applicationMaybe.get();
-          ProgramModel applicationProgram = application.getProgram();
-          ProgramDefinition programDefinition =
-              programRepository.getShallowProgramDefinition(applicationProgram);
-          String programName = programDefinition.adminName();
-          StatusDefinitions activeStatusDefinitions =
-              applicationStatusesRepository.lookupActiveStatusDefinitions(programName);
+          String programName =
+              programRepository.getShallowProgramDefinition(application.getProgram()).adminName();
           Optional<StatusDefinitions.Status> maybeDefaultStatus =
-              activeStatusDefinitions.getDefaultStatus();
+              applicationStatusesRepository
+                  .lookupActiveStatusDefinitions(programName)
+                  .getDefaultStatus();
           CompletableFuture<ApplicationEventModel> updateStatusFuture =
               maybeDefaultStatus
                   .map(status -> setApplicationStatus(application, status).toCompletableFuture())
                   .orElse(CompletableFuture.completedFuture(null));
 
-          CompletableFuture<Void> notifyProgramAdminsFuture =
-              CompletableFuture.runAsync(
-                  () -> {
-                    if (programDefinition
-                        .notificationPreferences()
-                        .contains(
-                            ProgramNotificationPreference.EMAIL_PROGRAM_ADMIN_ALL_SUBMISSIONS)) {
-                      notifyProgramAdmins(applicantId, programId, application.id, programName);
-                    }
-                  },
-                  classLoaderExecutionContext.current());
-
-          CompletableFuture<Void> notifyTiSubmitterFuture =
-              tiSubmitterEmail
-                  .map(
-                      email ->
-                          notifyTiSubmitter(
-                                  email,
-                                  applicantId,
-                                  application.id,
-                                  programName,
-                                  maybeDefaultStatus)
-                              .toCompletableFuture())
-                  .orElse(CompletableFuture.completedFuture(null));
+          // The emails announcing the submission are sent by a durable job that the repository
+          // recorded along with the application, see sendSubmissionNotifications.
+          return CompletableFuture.allOf(
+                  updateStatusFuture,
+                  updateStoredFileAclsForSubmit(applicantId, programId).toCompletableFuture())
+              .thenApplyAsync((ignoreVoid) -> application, classLoaderExecutionContext.current());
+        },
+        classLoaderExecutionContext.current());
+  }
+
+  /**
+   * Sends the emails announcing the submission of an application: to the program admins if the
+   * program asks for them, to the Trusted Intermediary who submitted it, and to the applicant.
+   *
+   * <p>Called by {@link durablejobs.jobs.SendSubmissionNotificationsJob} once the application is
+   * submitted, so that the applicant doesn't wait on the email provider. The emails use the
+   * program's current default status, as the submission did. The returned stage completes once
+   * every email is sent, and fails with {@link services.email.EmailSendException} if any isn't, so
+   * that the job is retried.
+   *
+   * @param applicationId the ID of the submitted application
+   */
+  public CompletionStage<Void> sendSubmissionNotifications(long applicationId) {
+    return applicationRepository
+        .getApplication(applicationId)
+        .thenComposeAsync(
+            applicationMaybe -> {
+              if (applicationMaybe.isEmpty()) {
+                logger.warn(
+                    "Application {} not found, not sending its submission emails", applicationId);
+                return CompletableFuture.completedFuture(null);
+              }
 
-          return getPersonalInfo(applicantId)
-              .thenComposeAsync(
-                  applicantPersonalInfo -> {
-                    Optional<ImmutableSet<String>> applicantEmails =
-                        getApplicantEmails(applicantPersonalInfo);
-
-                    CompletableFuture<Void> notifyApplicantFuture;
-                    if (applicantEmails.isEmpty() || applicantEmails.get().isEmpty()) {
-                      notifyApplicantFuture = CompletableFuture.completedFuture(null);
-                    } else {
-                      ImmutableList<CompletableFuture<Void>> futures =
-                          applicantEmails.get().stream()
-                              .map(
-                                  email -> {
-                                    return notifyApplicant(
-                                            applicantId,
-                                            application.id,
-                                            email,
-                                            programDefinition,
-                                            maybeDefaultStatus)
-                                        .toCompletableFuture();
-                                  })
-                              .collect(ImmutableList.toImmutableList());
-                      notifyApplicantFuture =
-                          CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]));
-                    }
-                    return CompletableFuture.allOf(
-                            updateStatusFuture,
+              ApplicationModel application = applicationMaybe.get();
+              long applicantId = application.getApplicant().id;
+              ProgramModel applicationProgram = application.getProgram();
+              long programId = applicationProgram.id;
+              ProgramDefinition programDefinition =
+                  programRepository.getShallowProgramDefinition(applicationProgram);
+              String programName = programDefinition.adminName();
+              Optional<StatusDefinitions.Status> maybeDefaultStatus =
+                  applicationStatusesRepository
+                      .lookupActiveStatusDefinitions(programName)
+                      .getDefaultStatus();
+
+              CompletableFuture<Void> notifyProgramAdminsFuture =
+                  programDefinition
+                          .notificationPreferences()
+                          .contains(
+                              ProgramNotificationPreference.EMAIL_PROGRAM_ADMIN_ALL_SUBMISSIONS)
+                      ? notifyProgramAdmins(applicantId, programId, applicationId, programName)
+                          .toCompletableFuture()
+                      : CompletableFuture.completedFuture(null);
+
+              CompletableFuture<Void> notifyTiSubmitterFuture =
+                  application
+                      .getSubmitterEmail()
+                      .map(
+                          email ->
+                              notifyTiSubmitter(
+                                      email,
+                                      applicantId,
+                                      applicationId,
+                                      programName,
+                                      maybeDefaultStatus)
+                                  .toCompletableFuture())
+                      .orElse(CompletableFuture.completedFuture(null));
+
+              return getPersonalInfo(applicantId)
+                  .thenComposeAsync(
+                      applicantPersonalInfo -> {
+                        ImmutableList<CompletableFuture<Void>> notifyApplicantFutures =
+                            getApplicantEmails(applicantPersonalInfo)
+                                .orElse(ImmutableSet.of())
+                                .stream()
+                                .map(
+                                    email ->
+                                        notifyApplicant(
+                                                applicantId,
+                                                applicationId,
+                                                email,
+                                                programDefinition,
+                                                maybeDefaultStatus)
+                                            .toCompletableFuture())
+                                .collect(ImmutableList.toImmutableList());
+                        return CompletableFuture.allOf(
                             notifyProgramAdminsFuture,
-                            notifyApplicantFuture,
                             notifyTiSubmitterFuture,
-                            updateStoredFileAclsForSubmit(applicantId, programId)
-                                .toCompletableFuture())
-                        .thenApplyAsync(
-                            (ignoreVoid) -> application, classLoaderExecutionContext.current());
-                  },
-                  classLoaderExecutionContext.current());
-        },
-        classLoaderExecutionContext.current());
+                            CompletableFuture.allOf(
+                                notifyApplicantFutures.toArray(new CompletableFuture[0])));
+                      },
+                      classLoaderExecutionContext.current());
+            },
+            classLoaderExecutionContext.current());
   }
 
   public Optional<ImmutableSet<String>> getApplicantEmails(
@@ -787,7 +826,7 @@ public final class ApplicantService {
    * @param applicationId the ID of the application
    * @param programName the name of the program that was applied to
    */
-  private void notifyProgramAdmins(
+  private CompletionStage<Void> notifyProgramAdmins(
       long applicantId, long programId, long applicationId, String programName) {
     String applicationViewLink =
         controllers.admin.routes.AdminApplicationController.show(programId, applicationId).url();
@@ -798,9 +837,12 @@ public final class ApplicantService {
                     programId,
                     /* search= */ Optional.empty(),
                     /* page= */ Optional.empty(),
+                    /* olderThan= */ Optional.empty(),
+                    /* newerThan= */ Optional.empty(),
                     /* fromDate= */ Optional.empty(),
                     /* untilDate= */ Optional.empty(),
                     /* applicationStatus= */ Optional.empty(),
+                    /* answerFilter= */ ImmutableList.of(),
                     Optional.of(applicationViewLink),
                     /* showDownloadModal= */ Optional.empty(),
                     /* message= */ Optional.empty())
@@ -812,12 +854,17 @@ public final class ApplicantService {
             "Applicant %d submitted a new application %d to program %s.\n"
                 + "View the application at %s.",
             applicantId, applicationId, programName, viewLink);
-    if (isStaging) {
-      emailSendClient.send(stagingProgramAdminNotificationMailingList, subject, message);
-    } else {
-      emailSendClient.send(
-          programService.getNotificationEmailAddresses(programName), subject, message);
-    }
+    return CompletableFuture.runAsync(
+        () -> {
+          if (isStaging) {
+            emailSendClient.sendOrThrow(
+                stagingProgramAdminNotificationMailingList, subject, message);
+          } else {
+            emailSendClient.sendOrThrow(
+                programService.getNotificationEmailAddresses(programName), subject, message);
+          }
+        },
+        classLoaderExecutionContext.current());
   }
 
   /**
@@ -876,9 +923,9 @@ public final class ApplicantService {
                       messages.at(
                           MessageKey.EMAIL_TI_MANAGE_YOUR_CLIENTS.getKeyName(), tiDashLink));
               if (isStaging) {
-                emailSendClient.send(stagingTiNotificationMailingList, subject, message);
+                emailSendClient.sendOrThrow(stagingTiNotificationMailingList, subject, message);
               } else {
-                emailSendClient.send(tiEmail, subject, message);
+                emailSendClient.sendOrThrow(tiEmail, subject, message);
               }
             },
             classLoaderExecutionContext.current())
@@ -926,9 +973,9 @@ public final class ApplicantService {
                           applicationId),
                   messages.at(MessageKey.EMAIL_LOGIN_TO_CIVIFORM.getKeyName(), baseUrl));
           if (isStaging) {
-            emailSendClient.send(stagingApplicantNotificationMailingList, subject, message);
+            emailSendClient.sendOrThrow(stagingApplicantNotificationMailingList, subject, message);
           } else {
-            emailSendClient.send(applicantEmail, subject, message);
+            emailSendClient.sendOrThrow(applicantEmail, subject, message);
           }
         },
         classLoaderExecutionContext.current());
@@ -1043,35 +1090,32 @@ public final class ApplicantService {
             .getApplicationsForApplicant(
                 applicantId, ImmutableSet.of(LifecycleStage.DRAFT, LifecycleStage.ACTIVE))
             .toCompletableFuture();
+    ActiveProgramCatalog catalog = programService.getActiveProgramCatalog();
     ImmutableList<ProgramDefinition> activeProgramDefinitions =
-        versionRepository.getProgramsForVersion(versionRepository.getActiveVersion()).stream()
-            .map(p -> programRepository.getShallowProgramDefinition(p))
-            .filter(
-                pdef ->
-                    pdef.displayMode().equals(DisplayMode.PUBLIC)
-                        || (requesterProfile.isTrustedIntermediary()
-                            && pdef.displayMode().equals(DisplayMode.TI_ONLY))
-                        || (pdef.displayMode().equals(DisplayMode.SELECT_TI)
-                            && pdef.acls().hasProgramViewPermission(requesterProfile)))
-            .collect(ImmutableList.toImmutableList());
+        catalog.getProgramsVisibleTo(requesterProfile);
 
     return applicationsFuture
         .thenComposeAsync(
-            v -> {
-              ImmutableSet<ApplicationModel> applications = applicationsFuture.join();
-              if (applications.isEmpty()) {
-                return CompletableFuture.completedFuture(activeProgramDefinitions);
-              }
-              List<ProgramDefinition> programDefinitionsList =
+            applications -> {
+              // Programs in the catalog already have their questions synced, so only the
+              // programs of applications to other versions need to be synced here.
+              ImmutableList<ProgramDefinition> applicationProgramDefinitions =
                   applications.stream()
-                      .map(
-                          application ->
-                              programRepository.getShallowProgramDefinition(
-                                  application.getProgram()))
-                      .collect(Collectors.toList());
-              programDefinitionsList.addAll(activeProgramDefinitions);
-              return programService.syncQuestionsToProgramDefinitions(
-                  programDefinitionsList.stream().collect(ImmutableList.toImmutableList()));
+                      .map(ApplicationModel::getProgram)
+                      .filter(program -> catalog.getProgram(program.id).isEmpty())
+                      .map(programRepository::getShallowProgramDefinition)
+                      .collect(ImmutableList.toImmutableList());
+              if (applicationProgramDefinitions.isEmpty()) {
+                return CompletableFuture.completedFuture(catalog.getPrograms());
+              }
+              return programService
+                  .syncQuestionsToProgramDefinitions(applicationProgramDefinitions)
+                  .thenApply(
+                      syncedPrograms ->
+                          ImmutableList.<ProgramDefinition>builder()
+                              .addAll(syncedPrograms)
+                              .addAll(catalog.getPrograms())
+                              .build());
             })
         .thenApplyAsync(
             allPrograms -> {
@@ -1090,14 +1134,10 @@ public final class ApplicantService {
    * @return - CompletionStage of the relevant programs
    */
   public CompletionStage<ApplicationPrograms> relevantProgramsWithoutApplicant(Request request) {
-    CompletionStage<VersionModel> versionFuture = versionRepository.getActiveVersionAsync();
-    return versionFuture.thenApplyAsync(
-        version -> {
+    return CompletableFuture.supplyAsync(
+        () -> {
           ImmutableList<ProgramDefinition> activeProgramDefinitions =
-              versionRepository.getProgramsForVersion(version).stream()
-                  .map(p -> programRepository.getShallowProgramDefinition(p))
-                  .filter(pdef -> pdef.displayMode().equals(DisplayMode.PUBLIC))
-                  .collect(ImmutableList.toImmutableList());
+              programService.getActiveProgramCatalog().getPrograms(DisplayMode.PUBLIC);
           return relevantProgramsForApplicantInternal(
               activeProgramDefinitions, ImmutableSet.of(), activeProgramDefinitions, request);
         },
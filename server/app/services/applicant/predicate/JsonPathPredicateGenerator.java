@@ -48,6 +48,10 @@ public final class JsonPathPredicateGenerator {
     this.currentRepeatedContext = checkNotNull(currentRepeatedContext);
   }
 
+  DateConverter getDateConverter() {
+    return dateConverter;
+  }
+
   public static final ImmutableList<Operator> AGE_OPERATORS =
       ImmutableList.of(Operator.AGE_BETWEEN, Operator.AGE_OLDER_THAN, Operator.AGE_YOUNGER_THAN);
 
@@ -170,7 +174,11 @@ public final class JsonPathPredicateGenerator {
             node.scalar().name().toLowerCase(Locale.ROOT)));
   }
 
-  private Path getPath(LeafExpressionNode node) throws InvalidPredicateException {
+  /**
+   * The path to the answer of the question {@code node} depends on, in the repeated context of the
+   * block being evaluated.
+   */
+  Path getPath(LeafExpressionNode node) throws InvalidPredicateException {
     if (!questionsById.containsKey(node.questionId())) {
       // This means a predicate was incorrectly configured - we are depending upon a question that
       // does not appear anywhere in this program.
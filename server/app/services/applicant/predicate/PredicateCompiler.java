@@ -0,0 +1,383 @@
+package services.applicant.predicate;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.google.common.base.Splitter;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.BiPredicate;
+import java.util.function.LongPredicate;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+import javax.annotation.Nullable;
+import services.DateConverter;
+import services.Path;
+import services.applicant.exception.InvalidPredicateException;
+import services.program.predicate.LeafAddressServiceAreaExpressionNode;
+import services.program.predicate.LeafOperationExpressionNode;
+import services.program.predicate.Operator;
+import services.program.predicate.PredicateExpressionNode;
+
+/**
+ * Compiles {@link PredicateExpressionNode}s into a form that can be evaluated against many
+ * applicants' data without generating and parsing a {@link JsonPathPredicate} for every leaf node.
+ *
+ * <p>A compiled leaf node has its compared value parsed ahead of time, and on evaluation reads the
+ * answer it compares straight from the applicant data. JsonPath's filter semantics are only
+ * reproduced for answers of the type the compared value implies, so a leaf node whose answer is
+ * missing or of another type, and a leaf node that can't be compiled at all, such as a service area
+ * check, is evaluated with its {@link JsonPathPredicate} as before.
+ *
+ * <p>Compiled predicates are kept for as long as the node they were compiled from, which belongs to
+ * a program definition, so each predicate of a program version is compiled once.
+ */
+final class PredicateCompiler {
+
+  /** Keyed on the identity of the node, since nodes with equal values may be in other programs. */
+  private static final LoadingCache<PredicateExpressionNode, CompiledPredicate>
+      COMPILED_PREDICATES =
+          CacheBuilder.newBuilder()
+              .weakKeys()
+              .build(CacheLoader.from(PredicateCompiler::compileNode));
+
+  private static final Splitter LIST_SPLITTER = Splitter.on(", ");
+  private static final Pattern LONG_LITERAL = Pattern.compile("-?\\d{1,18}");
+  private static final char QUOTE = '"';
+
+  private PredicateCompiler() {}
+
+  /** Returns the compiled form of {@code node}, compiling it if it hasn't been already. */
+  static CompiledPredicate compile(PredicateExpressionNode node) {
+    return COMPILED_PREDICATES.getUnchecked(node);
+  }
+
+  /** A predicate expression that has been compiled for evaluation. */
+  interface CompiledPredicate {
+    boolean evaluate(PredicateEvaluator evaluator);
+  }
+
+  /**
+   * Compiles {@code node}. The compiled predicate must not refer to {@code node} itself, which
+   * would keep it from being collected from {@link #COMPILED_PREDICATES}.
+   */
+  private static CompiledPredicate compileNode(PredicateExpressionNode node) {
+    return switch (node.getType()) {
+      case LEAF_OPERATION -> compileLeafNode(node.getLeafOperationNode());
+      case LEAF_ADDRESS_SERVICE_AREA -> {
+        LeafAddressServiceAreaExpressionNode leafAddressNode = node.getLeafAddressNode();
+        yield evaluator -> evaluator.evaluateLeafAddressServiceAreaNode(leafAddressNode);
+      }
+      case AND -> {
+        ImmutableList<CompiledPredicate> children = compileChildren(node.getAndNode().children());
+        yield evaluator -> children.stream().allMatch(child -> child.evaluate(evaluator));
+      }
+      case OR -> {
+        ImmutableList<CompiledPredicate> children = compileChildren(node.getOrNode().children());
+        yield evaluator -> children.stream().anyMatch(child -> child.evaluate(evaluator));
+      }
+    };
+  }
+
+  private static ImmutableList<CompiledPredicate> compileChildren(
+      ImmutableList<PredicateExpressionNode> children) {
+    return children.stream()
+        .map(PredicateCompiler::compile)
+        .collect(ImmutableList.toImmutableList());
+  }
+
+  private static CompiledPredicate compileLeafNode(LeafOperationExpressionNode node) {
+    Optional<AnswerCondition> condition;
+    try {
+      condition = compileCondition(node);
+    } catch (RuntimeException e) {
+      // The JsonPath predicate for the node fails the same way, and reports why.
+      condition = Optional.empty();
+    }
+    if (condition.isEmpty()) {
+      return evaluator -> evaluator.evaluateLeafNode(node);
+    }
+    return new CompiledLeafNode(node, condition.get());
+  }
+
+  /**
+   * Compiles the comparison {@code node} makes, following the filter the {@link
+   * JsonPathPredicateGenerator} would generate for it, or returns empty if it is one only JsonPath
+   * can evaluate.
+   */
+  private static Optional<AnswerCondition> compileCondition(LeafOperationExpressionNode node) {
+    String value = node.comparedValue().value();
+    return switch (node.operator()) {
+      case EQUAL_TO, NOT_EQUAL_TO -> {
+        boolean equal = node.operator() == Operator.EQUAL_TO;
+        Optional<Long> comparedLong = parseLongLiteral(value);
+        if (comparedLong.isPresent()) {
+          long compared = comparedLong.get();
+          yield Optional.of(longCondition(answer -> (answer == compared) == equal));
+        }
+        yield parseStringLiteral(value)
+            .map(compared -> stringCondition(answer -> answer.equals(compared) == equal));
+      }
+      case GREATER_THAN, IS_AFTER ->
+          parseLongLiteral(value).map(compared -> longCondition(answer -> answer > compared));
+      case GREATER_THAN_OR_EQUAL_TO, IS_ON_OR_AFTER ->
+          parseLongLiteral(value).map(compared -> longCondition(answer -> answer >= compared));
+      case LESS_THAN, IS_BEFORE ->
+          parseLongLiteral(value).map(compared -> longCondition(answer -> answer < compared));
+      case LESS_THAN_OR_EQUAL_TO, IS_ON_OR_BEFORE ->
+          parseLongLiteral(value).map(compared -> longCondition(answer -> answer <= compared));
+      case BETWEEN -> {
+        ImmutableList<Long> range = parseSortedLongPair(value);
+        long min = range.get(0);
+        long max = range.get(1);
+        yield Optional.of(longCondition(answer -> min <= answer && answer <= max));
+      }
+      case IN -> compileInCondition(value, /* in= */ true);
+      case NOT_IN -> compileInCondition(value, /* in= */ false);
+      case ANY_OF ->
+          parseStringListLiteral(value)
+              .map(
+                  compared ->
+                      stringListCondition(
+                          answers -> answers.stream().anyMatch(compared::contains)));
+      case NONE_OF ->
+          parseStringListLiteral(value)
+              .map(
+                  compared ->
+                      stringListCondition(
+                          answers -> answers.stream().noneMatch(compared::contains)));
+      case SUBSET_OF ->
+          parseStringListLiteral(value).map(compared -> stringListCondition(compared::containsAll));
+      case AGE_OLDER_THAN, AGE_YOUNGER_THAN -> {
+        double age = Double.parseDouble(value);
+        boolean older = node.operator() == Operator.AGE_OLDER_THAN;
+        // Ages are relative to today, so the birth date an age corresponds to is found when the
+        // predicate is evaluated.
+        yield Optional.of(
+            birthDateCondition(
+                (birthDate, dateConverter) -> {
+                  long ageCutoff = dateConverter.getDateTimestampFromAge(age);
+                  return older ? birthDate <= ageCutoff : birthDate > ageCutoff;
+                }));
+      }
+      case AGE_BETWEEN -> {
+        ImmutableList<Long> ages = parseSortedLongPair(value);
+        yield Optional.of(
+            birthDateCondition(
+                (birthDate, dateConverter) ->
+                    birthDate <= dateConverter.getDateTimestampFromAge(ages.get(0))
+                        && birthDate >= dateConverter.getDateTimestampFromAge(ages.get(1))));
+      }
+      default -> Optional.empty();
+    };
+  }
+
+  private static Optional<AnswerCondition> compileInCondition(String value, boolean in) {
+    Optional<ImmutableSet<Long>> comparedLongs = parseLongListLiteral(value);
+    if (comparedLongs.isPresent()) {
+      ImmutableSet<Long> compared = comparedLongs.get();
+      return Optional.of(longCondition(answer -> compared.contains(answer) == in));
+    }
+    return parseStringListLiteral(value)
+        .map(compared -> stringCondition(answer -> compared.contains(answer) == in));
+  }
+
+  /** Parses a pair of longs stored as {@code "[123, 456]"}, smallest first. */
+  private static ImmutableList<Long> parseSortedLongPair(String value) {
+    ImmutableList<Long> pair =
+        LIST_SPLITTER
+            .splitToStream(value.substring(1, value.length() - 1))
+            .map(Long::parseLong)
+            .sorted()
+            .collect(ImmutableList.toImmutableList());
+    if (pair.size() != 2) {
+      throw new IllegalArgumentException("Expected a pair of values but received " + value);
+    }
+    return pair;
+  }
+
+  private static Optional<Long> parseLongLiteral(String literal) {
+    return LONG_LITERAL.matcher(literal).matches()
+        ? Optional.of(Long.parseLong(literal))
+        : Optional.empty();
+  }
+
+  /** Parses a quoted string that JsonPath reads verbatim, which is one without escapes. */
+  private static Optional<String> parseStringLiteral(String literal) {
+    if (literal.length() < 2
+        || literal.charAt(0) != QUOTE
+        || literal.charAt(literal.length() - 1) != QUOTE) {
+      return Optional.empty();
+    }
+    String string = literal.substring(1, literal.length() - 1);
+    return string.indexOf(QUOTE) < 0 && string.indexOf('\\') < 0
+        ? Optional.of(string)
+        : Optional.empty();
+  }
+
+  private static Optional<ImmutableList<String>> splitListLiteral(String literal) {
+    if (literal.length() < 3 || literal.charAt(0) != '[' || !literal.endsWith("]")) {
+      return Optional.empty();
+    }
+    return Optional.of(
+        ImmutableList.copyOf(LIST_SPLITTER.split(literal.substring(1, literal.length() - 1))));
+  }
+
+  private static Optional<ImmutableSet<Long>> parseLongListLiteral(String literal) {
+    Optional<ImmutableList<String>> elements = splitListLiteral(literal);
+    if (elements.isEmpty()
+        || !elements.get().stream().allMatch(element -> LONG_LITERAL.matcher(element).matches())) {
+      return Optional.empty();
+    }
+    return Optional.of(
+        elements.get().stream().map(Long::parseLong).collect(ImmutableSet.toImmutableSet()));
+  }
+
+  private static Optional<ImmutableSet<String>> parseStringListLiteral(String literal) {
+    Optional<ImmutableList<String>> elements = splitListLiteral(literal);
+    if (elements.isEmpty()) {
+      return Optional.empty();
+    }
+    ImmutableSet.Builder<String> strings = ImmutableSet.builder();
+    for (String element : elements.get()) {
+      Optional<String> string = parseStringLiteral(element);
+      if (string.isEmpty()) {
+        return Optional.empty();
+      }
+      strings.add(string.get());
+    }
+    return Optional.of(strings.build());
+  }
+
+  /** Whether the answer is a JSON integer, which JsonPath compares with numbers by value. */
+  private static boolean isLong(Object answer) {
+    return answer instanceof Long || answer instanceof Integer;
+  }
+
+  private static AnswerCondition longCondition(LongPredicate condition) {
+    return (answer, evaluator) ->
+        isLong(answer)
+            ? Outcome.of(condition.test(((Number) answer).longValue()))
+            : Outcome.UNDECIDED;
+  }
+
+  private static AnswerCondition birthDateCondition(BiPredicate<Long, DateConverter> condition) {
+    return (answer, evaluator) ->
+        isLong(answer)
+            ? Outcome.of(
+                condition.test(
+                    ((Number) answer).longValue(),
+                    evaluator.getPredicateGenerator().getDateConverter()))
+            : Outcome.UNDECIDED;
+  }
+
+  private static AnswerCondition stringCondition(Predicate<String> condition) {
+    return (answer, evaluator) ->
+        answer instanceof String string ? Outcome.of(condition.test(string)) : Outcome.UNDECIDED;
+  }
+
+  private static AnswerCondition stringListCondition(Predicate<List<?>> condition) {
+    return (answer, evaluator) ->
+        answer instanceof List<?> list && list.stream().allMatch(String.class::isInstance)
+            ? Outcome.of(condition.test(list))
+            : Outcome.UNDECIDED;
+  }
+
+  /** The result of a compiled comparison, which is undecided if only JsonPath can decide it. */
+  private enum Outcome {
+    TRUE,
+    FALSE,
+    UNDECIDED;
+
+    static Outcome of(boolean result) {
+      return result ? TRUE : FALSE;
+    }
+  }
+
+  /** A comparison of the applicant's answer, read from the applicant data, to a compared value. */
+  @FunctionalInterface
+  private interface AnswerCondition {
+    Outcome test(Object answer, PredicateEvaluator evaluator);
+  }
+
+  /** A leaf node whose comparison is compiled to an {@link AnswerCondition}. */
+  private static final class CompiledLeafNode implements CompiledPredicate {
+    /** Marks a path that isn't in the applicant data. */
+    private static final Object MISSING = new Object();
+
+    private final LeafOperationExpressionNode node;
+    private final String scalarKey;
+    private final AnswerCondition condition;
+
+    CompiledLeafNode(LeafOperationExpressionNode node, AnswerCondition condition) {
+      this.node = checkNotNull(node);
+      this.scalarKey = node.scalar().name().toLowerCase(Locale.ROOT);
+      this.condition = checkNotNull(condition);
+    }
+
+    @Override
+    public boolean evaluate(PredicateEvaluator evaluator) {
+      Path questionPath;
+      try {
+        questionPath = evaluator.getPredicateGenerator().getPath(node);
+      } catch (InvalidPredicateException e) {
+        // Reports the invalid predicate.
+        return evaluator.evaluateLeafNode(node);
+      }
+
+      Object question =
+          read(evaluator.getApplicantData().getDocumentContext().json(), questionPath);
+      if (question == MISSING) {
+        // An unanswered question matches nothing.
+        return false;
+      }
+      // JsonPath filters the elements of arrays, and treats missing answers as undefined values
+      // that some operators match.
+      if (question instanceof Map<?, ?> answers && answers.get(scalarKey) != null) {
+        Outcome outcome = condition.test(answers.get(scalarKey), evaluator);
+        if (outcome != Outcome.UNDECIDED) {
+          return outcome == Outcome.TRUE;
+        }
+      }
+      return evaluator.evaluateLeafNode(node);
+    }
+
+    /**
+     * Returns the value at {@code path} in {@code json}, or {@link #MISSING} if there isn't one.
+     * Returns null for a null value, and if the path can't be followed without JsonPath.
+     */
+    @Nullable
+    private static Object read(Object json, Path path) {
+      Object value = json;
+      for (String segment : path.segments()) {
+        if (!(value instanceof Map<?, ?> object)) {
+          return null;
+        }
+        int indexStart = segment.indexOf('[');
+        String key = indexStart < 0 ? segment : segment.substring(0, indexStart);
+        if (!object.containsKey(key)) {
+          return MISSING;
+        }
+        value = object.get(key);
+        if (indexStart >= 0) {
+          Optional<Long> index =
+              parseLongLiteral(segment.substring(indexStart + 1, segment.length() - 1));
+          if (!(value instanceof List<?> array)
+              || index.isEmpty()
+              || index.get() < 0
+              || index.get() >= array.size()) {
+            return null;
+          }
+          value = array.get(index.get().intValue());
+        }
+      }
+      return value;
+    }
+  }
+}
@@ -4,13 +4,18 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import services.applicant.ApplicantData;
 import services.applicant.exception.InvalidPredicateException;
-import services.program.predicate.AndNode;
 import services.program.predicate.LeafAddressServiceAreaExpressionNode;
 import services.program.predicate.LeafOperationExpressionNode;
-import services.program.predicate.OrNode;
 import services.program.predicate.PredicateExpressionNode;
 
-/** Evaluates complex predicates based on the given {@link ApplicantData}. */
+/**
+ * Evaluates complex predicates based on the given {@link ApplicantData}.
+ *
+ * <p>Predicates are evaluated in the form {@link PredicateCompiler} compiles them to, which reads
+ * the answers that leaf nodes compare directly from the applicant data. Leaf nodes it can't compile
+ * are evaluated by generating a {@link JsonPathPredicate} for them and running it against the
+ * applicant data.
+ */
 public final class PredicateEvaluator {
 
   private static final Logger logger = LoggerFactory.getLogger(PredicateEvaluator.class);
@@ -24,18 +29,34 @@ public final class PredicateEvaluator {
     this.predicateGenerator = predicateGenerator;
   }
 
+  ApplicantData getApplicantData() {
+    return applicantData;
+  }
+
+  JsonPathPredicateGenerator getPredicateGenerator() {
+    return predicateGenerator;
+  }
+
   /**
    * Evaluate an expression tree rooted at the given {@link PredicateExpressionNode}. Will return
    * true if and only if the entire tree evaluates to true based on the {@link ApplicantData} used
    * to create this evaluator.
    */
   public boolean evaluate(PredicateExpressionNode node) {
+    return PredicateCompiler.compile(node).evaluate(this);
+  }
+
+  /**
+   * Evaluate an expression tree without compiling it, generating a {@link JsonPathPredicate} for
+   * every leaf node. Gives the same result as {@link #evaluate}.
+   */
+  boolean evaluateWithJsonPath(PredicateExpressionNode node) {
     return switch (node.getType()) {
       case LEAF_OPERATION -> evaluateLeafNode(node.getLeafOperationNode());
       case LEAF_ADDRESS_SERVICE_AREA ->
           evaluateLeafAddressServiceAreaNode(node.getLeafAddressNode());
-      case AND -> evaluateAndNode(node.getAndNode());
-      case OR -> evaluateOrNode(node.getOrNode());
+      case AND -> node.getAndNode().children().stream().allMatch(this::evaluateWithJsonPath);
+      case OR -> node.getOrNode().children().stream().anyMatch(this::evaluateWithJsonPath);
     };
   }
 
@@ -44,7 +65,7 @@ public final class PredicateEvaluator {
    * given leaf node operation. Returns false if the predicate is invalid or the predicate evaluates
    * to false.
    */
-  private boolean evaluateLeafNode(LeafOperationExpressionNode node) {
+  boolean evaluateLeafNode(LeafOperationExpressionNode node) {
     try {
       JsonPathPredicate predicate = predicateGenerator.fromLeafNode(node);
       return applicantData.evalPredicate(predicate);
@@ -62,7 +83,7 @@ public final class PredicateEvaluator {
    * LeafAddressServiceAreaExpressionNode} has an in-area or failed service area in {@link
    * ApplicantData}.
    */
-  private boolean evaluateLeafAddressServiceAreaNode(LeafAddressServiceAreaExpressionNode node) {
+  boolean evaluateLeafAddressServiceAreaNode(LeafAddressServiceAreaExpressionNode node) {
     try {
       JsonPathPredicate predicate = predicateGenerator.fromLeafAddressServiceAreaNode(node);
       return applicantData.evalPredicate(predicate);
@@ -74,14 +95,4 @@ public final class PredicateEvaluator {
       return false;
     }
   }
-
-  /** Returns true if and only if each of the node's children evaluates to true. */
-  private boolean evaluateAndNode(AndNode node) {
-    return node.children().stream().allMatch(this::evaluate);
-  }
-
-  /** Returns true if and only if one or more of the node's children evaluates to true. */
-  private boolean evaluateOrNode(OrNode node) {
-    return node.children().stream().anyMatch(this::evaluate);
-  }
 }
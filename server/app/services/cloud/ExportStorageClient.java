@@ -0,0 +1,59 @@
+package services.cloud;
+
+import com.google.common.collect.ImmutableList;
+import services.cloud.aws.FileDeletionFailureException;
+
+/**
+ * Interface for writing server-generated exports of applicant data to cloud file storage.
+ *
+ * <p>Exports are written as multipart uploads so that they can be produced a piece at a time and
+ * resumed after an interruption: an upload is started with {@link #startMultipartUpload}, each part
+ * is uploaded with {@link #uploadPart}, and the file only becomes visible once {@link
+ * #completeMultipartUpload} is called with the ids of all of its parts. An upload that won't be
+ * completed is discarded with {@link #abortMultipartUpload}, and a finished export is removed with
+ * {@link #deleteExport} once it is no longer kept.
+ *
+ * <p>Exports are stored alongside applicant files, so the finished file can be downloaded with
+ * {@link ApplicantStorageClient#getPresignedUrlString(String, java.util.Optional)}.
+ */
+public interface ExportStorageClient {
+  /**
+   * The size every part except the last one must be at least. S3 compatible backends reject
+   * smaller parts.
+   */
+  int MINIMUM_PART_SIZE_BYTES = 5 * 1024 * 1024;
+
+  /**
+   * Starts a multipart upload to {@code fileKey} and returns the id that identifies the upload in
+   * later calls.
+   */
+  String startMultipartUpload(String fileKey) throws FileUploadFailureException;
+
+  /**
+   * Uploads a single part of a multipart upload and returns the id that identifies the part when
+   * completing the upload.
+   *
+   * @param fileKey the file key the upload was started with
+   * @param uploadId the id returned by {@link #startMultipartUpload}
+   * @param partNumber the 1-based position of this part in the file
+   * @param content the bytes of this part
+   */
+  String uploadPart(String fileKey, String uploadId, int partNumber, byte[] content)
+      throws FileUploadFailureException;
+
+  /**
+   * Assembles the uploaded parts, in the order given by {@code partIds}, into the file at {@code
+   * fileKey}.
+   */
+  void completeMultipartUpload(String fileKey, String uploadId, ImmutableList<String> partIds)
+      throws FileUploadFailureException;
+
+  /**
+   * Discards the parts uploaded so far by an upload that won't be completed. Aborting an upload
+   * that was already aborted succeeds.
+   */
+  void abortMultipartUpload(String fileKey, String uploadId) throws FileUploadFailureException;
+
+  /** Deletes the file at {@code fileKey}, if there is one. */
+  void deleteExport(String fileKey) throws FileDeletionFailureException;
+}
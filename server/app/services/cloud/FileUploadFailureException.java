@@ -0,0 +1,8 @@
+package services.cloud;
+
+/** Exception for when a request to upload a file to cloud storage has failed. */
+public final class FileUploadFailureException extends Exception {
+  public FileUploadFailureException(Exception originalException) {
+    super("The upload was unable to be processed", originalException);
+  }
+}
@@ -0,0 +1,35 @@
+package services.cloud.aws;
+
+import com.typesafe.config.Config;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import play.Environment;
+import services.cloud.generic_s3.AbstractS3ExportStorage;
+import services.cloud.generic_s3.GenericS3ClientWrapper;
+
+/**
+ * An AWS Simple Storage Service (S3) implementation of export storage of {@link
+ * AbstractS3ExportStorage}.
+ */
+@Singleton
+public final class AwsExportStorage extends AbstractS3ExportStorage {
+  // Exports contain applicant data, so they are kept in the applicant file bucket.
+  private static final String AWS_S3_BUCKET_CONF_PATH = "aws.s3.bucket";
+
+  @Inject
+  public AwsExportStorage(
+      GenericS3ClientWrapper awsS3ClientWrapper,
+      AwsStorageUtils awsStorageUtils,
+      AwsRegion region,
+      Credentials credentials,
+      Config config,
+      Environment environment) {
+    super(awsS3ClientWrapper, awsStorageUtils, region, credentials, config, environment);
+  }
+
+  /** The bucket path defined in the conf file */
+  @Override
+  protected String getBucketConfigPath() {
+    return AWS_S3_BUCKET_CONF_PATH;
+  }
+}
@@ -2,22 +2,32 @@ package services.cloud.azure;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
+import com.azure.storage.blob.models.BlobStorageException;
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableList;
 import com.typesafe.config.Config;
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
 import java.time.ZoneId;
+import java.util.Base64;
 import java.util.Optional;
 import java.util.UUID;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 import play.Environment;
 import services.cloud.ApplicantStorageClient;
+import services.cloud.ExportStorageClient;
+import services.cloud.FileUploadFailureException;
 import services.cloud.StorageServiceName;
+import services.cloud.aws.FileDeletionFailureException;
 
-/** An Azure Blob Storage implementation of {@link ApplicantStorageClient}. */
+/**
+ * An Azure Blob Storage implementation of {@link ApplicantStorageClient}. Exports are stored in the
+ * same container, so this is also the Azure implementation of {@link ExportStorageClient}.
+ */
 @Singleton
-public class AzureApplicantStorage implements ApplicantStorageClient {
+public class AzureApplicantStorage implements ApplicantStorageClient, ExportStorageClient {
   @VisibleForTesting static final String AZURE_FILE_LIMIT_MB_CONF_PATH = "azure.blob.file_limit_mb";
 
   public static final String AZURE_STORAGE_ACCT_CONF_PATH = "azure.blob.account";
@@ -119,4 +129,56 @@ public class AzureApplicantStorage implements ApplicantStorageClient {
   public StorageServiceName getStorageServiceName() {
     return StorageServiceName.AZURE_BLOB;
   }
+
+  /**
+   * Block blobs don't need an upload to be started. The returned id namespaces the block ids of
+   * this upload, so that blocks left uncommitted by an abandoned upload are never reused.
+   */
+  @Override
+  public String startMultipartUpload(String fileKey) {
+    return UUID.randomUUID().toString();
+  }
+
+  @Override
+  public String uploadPart(String fileKey, String uploadId, int partNumber, byte[] content)
+      throws FileUploadFailureException {
+    // All block ids of a blob must be the same length, so the part number is zero padded.
+    String blockId =
+        Base64.getEncoder()
+            .encodeToString(
+                String.format("%s-%06d", uploadId, partNumber).getBytes(StandardCharsets.UTF_8));
+    try {
+      client.stageBlock(fileKey, blockId, content);
+    } catch (BlobStorageException e) {
+      throw new FileUploadFailureException(e);
+    }
+    return blockId;
+  }
+
+  @Override
+  public void completeMultipartUpload(
+      String fileKey, String uploadId, ImmutableList<String> partIds)
+      throws FileUploadFailureException {
+    try {
+      client.commitBlockList(fileKey, partIds);
+    } catch (BlobStorageException e) {
+      throw new FileUploadFailureException(e);
+    }
+  }
+
+  /**
+   * Uncommitted blocks can't be deleted directly. Azure discards them a week after they were
+   * staged if the blob isn't committed.
+   */
+  @Override
+  public void abortMultipartUpload(String fileKey, String uploadId) {}
+
+  @Override
+  public void deleteExport(String fileKey) throws FileDeletionFailureException {
+    try {
+      client.deleteBlob(fileKey);
+    } catch (BlobStorageException e) {
+      throw new FileDeletionFailureException(e);
+    }
+  }
 }
@@ -2,6 +2,7 @@ package services.cloud.azure;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
+import com.azure.core.util.BinaryData;
 import com.azure.storage.blob.BlobClient;
 import com.azure.storage.blob.BlobServiceClient;
 import com.azure.storage.blob.BlobServiceClientBuilder;
@@ -9,6 +10,7 @@ import com.azure.storage.blob.models.UserDelegationKey;
 import com.azure.storage.blob.sas.BlobSasPermission;
 import com.azure.storage.blob.sas.BlobServiceSasSignatureValues;
 import com.azure.storage.common.sas.SasProtocol;
+import com.google.common.collect.ImmutableList;
 import com.typesafe.config.Config;
 import java.net.URLConnection;
 import java.time.Duration;
@@ -93,4 +95,30 @@ class AzureBlobStorageClient extends BaseAzureBlobStorageClient {
         blobServiceClient.getBlobContainerClient(containerName).getBlobClient(fileName);
     return blobClient.getBlobUrl();
   }
+
+  @Override
+  public void stageBlock(String fileName, String base64BlockId, byte[] content) {
+    blobServiceClient
+        .getBlobContainerClient(containerName)
+        .getBlobClient(fileName)
+        .getBlockBlobClient()
+        .stageBlock(base64BlockId, BinaryData.fromBytes(content));
+  }
+
+  @Override
+  public void commitBlockList(String fileName, ImmutableList<String> base64BlockIds) {
+    blobServiceClient
+        .getBlobContainerClient(containerName)
+        .getBlobClient(fileName)
+        .getBlockBlobClient()
+        .commitBlockList(base64BlockIds, /* overwrite= */ true);
+  }
+
+  @Override
+  public void deleteBlob(String fileName) {
+    blobServiceClient
+        .getBlobContainerClient(containerName)
+        .getBlobClient(fileName)
+        .deleteIfExists();
+  }
 }
@@ -1,5 +1,6 @@
 package services.cloud.azure;
 
+import com.google.common.collect.ImmutableList;
 import java.util.Optional;
 
 /** Interface defintion for Azure blob storage client. */
@@ -8,4 +9,13 @@ interface AzureBlobStorageClientInterface {
   String getSasToken(String fileName, Optional<String> originalFileName);
 
   String getBlobUrl(String fileName);
+
+  /** Uploads {@code content} as an uncommitted block of the block blob {@code fileName}. */
+  void stageBlock(String fileName, String base64BlockId, byte[] content);
+
+  /** Writes the block blob {@code fileName} from previously staged blocks, in the given order. */
+  void commitBlockList(String fileName, ImmutableList<String> base64BlockIds);
+
+  /** Deletes the blob {@code fileName}, if it exists. */
+  void deleteBlob(String fileName);
 }
@@ -2,6 +2,7 @@ package services.cloud.azure;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
+import com.azure.core.util.BinaryData;
 import com.azure.storage.blob.BlobClient;
 import com.azure.storage.blob.BlobContainerClient;
 import com.azure.storage.blob.BlobServiceClient;
@@ -12,6 +13,7 @@ import com.azure.storage.blob.models.PublicAccessType;
 import com.azure.storage.blob.sas.BlobSasPermission;
 import com.azure.storage.blob.sas.BlobServiceSasSignatureValues;
 import com.azure.storage.common.sas.SasProtocol;
+import com.google.common.collect.ImmutableList;
 import com.typesafe.config.Config;
 import java.net.URLConnection;
 import java.time.Duration;
@@ -94,4 +96,25 @@ class DevAzureBlobStorageClient extends BaseAzureBlobStorageClient {
   public String getBlobUrl(String fileName) {
     return blobContainerClient.getBlobClient(fileName).getBlobUrl();
   }
+
+  @Override
+  public void stageBlock(String fileName, String base64BlockId, byte[] content) {
+    blobContainerClient
+        .getBlobClient(fileName)
+        .getBlockBlobClient()
+        .stageBlock(base64BlockId, BinaryData.fromBytes(content));
+  }
+
+  @Override
+  public void commitBlockList(String fileName, ImmutableList<String> base64BlockIds) {
+    blobContainerClient
+        .getBlobClient(fileName)
+        .getBlockBlobClient()
+        .commitBlockList(base64BlockIds, /* overwrite= */ true);
+  }
+
+  @Override
+  public void deleteBlob(String fileName) {
+    blobContainerClient.getBlobClient(fileName).deleteIfExists();
+  }
 }
@@ -1,9 +1,13 @@
 package services.cloud.azure;
 
+import com.google.common.collect.ImmutableList;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Optional;
 
 /** Class to use for BlobStorage unit tests. */
 class TestAzureBlobStorageClient implements AzureBlobStorageClientInterface {
+  private final Map<String, ImmutableList<String>> committedBlockIds = new HashMap<>();
 
   TestAzureBlobStorageClient() {}
 
@@ -19,4 +23,22 @@ class TestAzureBlobStorageClient implements AzureBlobStorageClientInterface {
   public String getBlobUrl(String fileName) {
     return "http://localhost";
   }
+
+  @Override
+  public void stageBlock(String fileName, String base64BlockId, byte[] content) {}
+
+  @Override
+  public void commitBlockList(String fileName, ImmutableList<String> base64BlockIds) {
+    committedBlockIds.put(fileName, base64BlockIds);
+  }
+
+  @Override
+  public void deleteBlob(String fileName) {
+    committedBlockIds.remove(fileName);
+  }
+
+  /** Returns the block ids most recently committed to {@code fileName}. */
+  ImmutableList<String> getCommittedBlockIds(String fileName) {
+    return committedBlockIds.getOrDefault(fileName, ImmutableList.of());
+  }
 }
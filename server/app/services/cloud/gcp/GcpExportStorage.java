@@ -0,0 +1,33 @@
+package services.cloud.gcp;
+
+import com.typesafe.config.Config;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import play.Environment;
+import services.cloud.aws.Credentials;
+import services.cloud.generic_s3.AbstractS3ExportStorage;
+import services.cloud.generic_s3.GenericS3ClientWrapper;
+
+/** An GCP Simple Storage Service (S3) implementation of export storage. */
+@Singleton
+public final class GcpExportStorage extends AbstractS3ExportStorage {
+  // Exports contain applicant data, so they are kept in the applicant file bucket.
+  private static final String GCP_S3_BUCKET_CONF_PATH = "gcp.s3.bucket";
+
+  @Inject
+  public GcpExportStorage(
+      GenericS3ClientWrapper gcpS3ClientWrapper,
+      GcpStorageUtils gcpStorageUtils,
+      GcpRegion region,
+      Credentials credentials,
+      Config config,
+      Environment environment) {
+    super(gcpS3ClientWrapper, gcpStorageUtils, region, credentials, config, environment);
+  }
+
+  /** The bucket path defined in the conf file */
+  @Override
+  protected String getBucketConfigPath() {
+    return GCP_S3_BUCKET_CONF_PATH;
+  }
+}
@@ -0,0 +1,119 @@
+package services.cloud.generic_s3;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.google.common.collect.ImmutableList;
+import com.typesafe.config.Config;
+import java.net.URI;
+import java.util.stream.IntStream;
+import play.Environment;
+import services.cloud.ExportStorageClient;
+import services.cloud.FileUploadFailureException;
+import services.cloud.aws.Credentials;
+import services.cloud.aws.FileDeletionFailureException;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.model.AbortMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompleteMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompletedMultipartUpload;
+import software.amazon.awssdk.services.s3.model.CompletedPart;
+import software.amazon.awssdk.services.s3.model.CreateMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.Delete;
+import software.amazon.awssdk.services.s3.model.DeleteObjectsRequest;
+import software.amazon.awssdk.services.s3.model.ObjectIdentifier;
+import software.amazon.awssdk.services.s3.model.UploadPartRequest;
+
+/** An Simple Storage Service (S3) implementation of {@link ExportStorageClient}. */
+public abstract class AbstractS3ExportStorage implements ExportStorageClient {
+  private final GenericS3ClientWrapper s3ClientWrapper;
+  private final Region region;
+  private final Credentials credentials;
+  private final String bucket;
+  private final URI endpoint;
+
+  public AbstractS3ExportStorage(
+      GenericS3ClientWrapper s3ClientWrapper,
+      AbstractS3StorageUtils s3StorageUtils,
+      AbstractS3Region region,
+      Credentials credentials,
+      Config config,
+      Environment environment) {
+    this.s3ClientWrapper = checkNotNull(s3ClientWrapper);
+    this.region = checkNotNull(region).get();
+    this.credentials = checkNotNull(credentials);
+    this.bucket = checkNotNull(config).getString(getBucketConfigPath());
+    if (environment.isDev()) {
+      endpoint = checkNotNull(s3StorageUtils).localStackEndpoint(config);
+    } else if (environment.isProd()) {
+      endpoint = checkNotNull(s3StorageUtils).prodEndpoint(this.region);
+    } else {
+      endpoint = URI.create("http://fake-endpoint.com");
+    }
+  }
+
+  /** The bucket path defined in the conf file */
+  protected abstract String getBucketConfigPath();
+
+  @Override
+  public String startMultipartUpload(String fileKey) throws FileUploadFailureException {
+    return s3ClientWrapper.createMultipartUpload(
+        credentials,
+        region,
+        endpoint,
+        CreateMultipartUploadRequest.builder().bucket(bucket).key(fileKey).build());
+  }
+
+  @Override
+  public String uploadPart(String fileKey, String uploadId, int partNumber, byte[] content)
+      throws FileUploadFailureException {
+    UploadPartRequest request =
+        UploadPartRequest.builder()
+            .bucket(bucket)
+            .key(fileKey)
+            .uploadId(uploadId)
+            .partNumber(partNumber)
+            .contentLength((long) content.length)
+            .build();
+    return s3ClientWrapper.uploadPart(credentials, region, endpoint, request, content);
+  }
+
+  @Override
+  public void completeMultipartUpload(
+      String fileKey, String uploadId, ImmutableList<String> partIds)
+      throws FileUploadFailureException {
+    ImmutableList<CompletedPart> completedParts =
+        IntStream.range(0, partIds.size())
+            .mapToObj(i -> CompletedPart.builder().partNumber(i + 1).eTag(partIds.get(i)).build())
+            .collect(ImmutableList.toImmutableList());
+    CompleteMultipartUploadRequest request =
+        CompleteMultipartUploadRequest.builder()
+            .bucket(bucket)
+            .key(fileKey)
+            .uploadId(uploadId)
+            .multipartUpload(CompletedMultipartUpload.builder().parts(completedParts).build())
+            .build();
+    s3ClientWrapper.completeMultipartUpload(credentials, region, endpoint, request);
+  }
+
+  @Override
+  public void abortMultipartUpload(String fileKey, String uploadId)
+      throws FileUploadFailureException {
+    AbortMultipartUploadRequest request =
+        AbortMultipartUploadRequest.builder()
+            .bucket(bucket)
+            .key(fileKey)
+            .uploadId(uploadId)
+            .build();
+    s3ClientWrapper.abortMultipartUpload(credentials, region, endpoint, request);
+  }
+
+  @Override
+  public void deleteExport(String fileKey) throws FileDeletionFailureException {
+    DeleteObjectsRequest request =
+        DeleteObjectsRequest.builder()
+            .bucket(bucket)
+            .delete(
+                Delete.builder().objects(ObjectIdentifier.builder().key(fileKey).build()).build())
+            .build();
+    s3ClientWrapper.deleteObjects(credentials, region, endpoint, request);
+  }
+}
@@ -3,17 +3,24 @@ package services.cloud.generic_s3;
 import com.google.common.collect.ImmutableList;
 import com.google.inject.Inject;
 import java.net.URI;
+import services.cloud.FileUploadFailureException;
 import services.cloud.aws.Credentials;
 import services.cloud.aws.FileDeletionFailureException;
 import services.cloud.aws.FileListFailureException;
 import software.amazon.awssdk.awscore.exception.AwsServiceException;
 import software.amazon.awssdk.core.exception.SdkClientException;
+import software.amazon.awssdk.core.sync.RequestBody;
 import software.amazon.awssdk.regions.Region;
 import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.AbortMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompleteMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CreateMultipartUploadRequest;
 import software.amazon.awssdk.services.s3.model.DeleteObjectsRequest;
 import software.amazon.awssdk.services.s3.model.ListObjectsV2Request;
 import software.amazon.awssdk.services.s3.model.ListObjectsV2Response;
+import software.amazon.awssdk.services.s3.model.NoSuchUploadException;
 import software.amazon.awssdk.services.s3.model.S3Object;
+import software.amazon.awssdk.services.s3.model.UploadPartRequest;
 
 /**
  * A real implementation of {@link GenericS3ClientWrapper} that delegates to the real {@link
@@ -67,6 +74,64 @@ public final class GenericS3Client implements GenericS3ClientWrapper {
     }
   }
 
+  @Override
+  public String createMultipartUpload(
+      Credentials credentials, Region region, URI endpoint, CreateMultipartUploadRequest request)
+      throws FileUploadFailureException {
+    try (S3Client s3Client = createS3Client(credentials, region, endpoint)) {
+      try {
+        return s3Client.createMultipartUpload(request).uploadId();
+      } catch (AwsServiceException | SdkClientException e) {
+        throw new FileUploadFailureException(e);
+      }
+    }
+  }
+
+  @Override
+  public String uploadPart(
+      Credentials credentials,
+      Region region,
+      URI endpoint,
+      UploadPartRequest request,
+      byte[] content)
+      throws FileUploadFailureException {
+    try (S3Client s3Client = createS3Client(credentials, region, endpoint)) {
+      try {
+        return s3Client.uploadPart(request, RequestBody.fromBytes(content)).eTag();
+      } catch (AwsServiceException | SdkClientException e) {
+        throw new FileUploadFailureException(e);
+      }
+    }
+  }
+
+  @Override
+  public void completeMultipartUpload(
+      Credentials credentials, Region region, URI endpoint, CompleteMultipartUploadRequest request)
+      throws FileUploadFailureException {
+    try (S3Client s3Client = createS3Client(credentials, region, endpoint)) {
+      try {
+        s3Client.completeMultipartUpload(request);
+      } catch (AwsServiceException | SdkClientException e) {
+        throw new FileUploadFailureException(e);
+      }
+    }
+  }
+
+  @Override
+  public void abortMultipartUpload(
+      Credentials credentials, Region region, URI endpoint, AbortMultipartUploadRequest request)
+      throws FileUploadFailureException {
+    try (S3Client s3Client = createS3Client(credentials, region, endpoint)) {
+      try {
+        s3Client.abortMultipartUpload(request);
+      } catch (NoSuchUploadException e) {
+        // The upload was already aborted or completed.
+      } catch (AwsServiceException | SdkClientException e) {
+        throw new FileUploadFailureException(e);
+      }
+    }
+  }
+
   private S3Client createS3Client(Credentials credentials, Region region, URI endpoint) {
     return S3Client.builder()
         .credentialsProvider(credentials.credentialsProvider())
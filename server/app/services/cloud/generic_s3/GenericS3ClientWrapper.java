@@ -2,12 +2,17 @@ package services.cloud.generic_s3;
 
 import com.google.common.collect.ImmutableList;
 import java.net.URI;
+import services.cloud.FileUploadFailureException;
 import services.cloud.aws.Credentials;
 import services.cloud.aws.FileDeletionFailureException;
 import services.cloud.aws.FileListFailureException;
 import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.model.AbortMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompleteMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CreateMultipartUploadRequest;
 import software.amazon.awssdk.services.s3.model.DeleteObjectsRequest;
 import software.amazon.awssdk.services.s3.model.ListObjectsV2Request;
+import software.amazon.awssdk.services.s3.model.UploadPartRequest;
 
 /**
  * A wrapper around AWS's {@link software.amazon.awssdk.services.s3.S3Client} so that we can fake it
@@ -35,4 +40,45 @@ public interface GenericS3ClientWrapper {
   ImmutableList<String> listObjects(
       Credentials credentials, Region region, URI endpoint, ListObjectsV2Request request)
       throws FileListFailureException;
+
+  /**
+   * Starts the multipart upload specified by {@code request} and returns its upload id.
+   *
+   * @throws FileUploadFailureException if there was a problem starting the upload.
+   */
+  String createMultipartUpload(
+      Credentials credentials, Region region, URI endpoint, CreateMultipartUploadRequest request)
+      throws FileUploadFailureException;
+
+  /**
+   * Uploads {@code content} as the part specified by {@code request} and returns the part's ETag.
+   *
+   * @throws FileUploadFailureException if there was a problem uploading the part.
+   */
+  String uploadPart(
+      Credentials credentials,
+      Region region,
+      URI endpoint,
+      UploadPartRequest request,
+      byte[] content)
+      throws FileUploadFailureException;
+
+  /**
+   * Completes the multipart upload specified by {@code request}.
+   *
+   * @throws FileUploadFailureException if there was a problem completing the upload.
+   */
+  void completeMultipartUpload(
+      Credentials credentials, Region region, URI endpoint, CompleteMultipartUploadRequest request)
+      throws FileUploadFailureException;
+
+  /**
+   * Aborts the multipart upload specified by {@code request}, discarding its uploaded parts. An
+   * upload that no longer exists is treated as already aborted.
+   *
+   * @throws FileUploadFailureException if there was a problem aborting the upload.
+   */
+  void abortMultipartUpload(
+      Credentials credentials, Region region, URI endpoint, AbortMultipartUploadRequest request)
+      throws FileUploadFailureException;
 }
@@ -22,4 +22,25 @@ public interface EmailSendClient {
    * @param bodyText The email body.
    */
   void send(ImmutableList<String> toAddresses, String subject, String bodyText);
+
+  /**
+   * Sends an email from CiviForm with one recipient, and throws if it isn't sent.
+   *
+   * @param toAddress A single address of where the email should be sent.
+   * @param subject The email subject.
+   * @param bodyText The email body.
+   * @throws EmailSendException if the email provider fails to send the email.
+   */
+  void sendOrThrow(String toAddress, String subject, String bodyText);
+
+  /**
+   * Sends an email from CiviForm with multiple recipients, and throws if it isn't sent. For callers
+   * that retry failed emails, where {@link #send} would only log the failure.
+   *
+   * @param toAddresses A list of email addresses of where the email should be sent.
+   * @param subject The email subject.
+   * @param bodyText The email body.
+   * @throws EmailSendException if the email provider fails to send the email.
+   */
+  void sendOrThrow(ImmutableList<String> toAddresses, String subject, String bodyText);
 }
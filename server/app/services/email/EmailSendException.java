@@ -0,0 +1,11 @@
+package services.email;
+
+/**
+ * EmailSendException is thrown by {@link EmailSendClient#sendOrThrow} when the email provider fails
+ * to send an email.
+ */
+public final class EmailSendException extends RuntimeException {
+  public EmailSendException(Throwable cause) {
+    super("The email provider failed to send an email", cause);
+  }
+}
@@ -17,6 +17,7 @@ import play.Environment;
 import play.inject.ApplicationLifecycle;
 import services.cloud.aws.AwsRegion;
 import services.email.EmailSendClient;
+import services.email.EmailSendException;
 import services.monitoring.EmailSendMetrics;
 import software.amazon.awssdk.http.HttpStatusCode;
 import software.amazon.awssdk.services.ses.SesClient;
@@ -73,6 +74,20 @@ public final class SimpleEmail implements EmailSendClient {
 
   @Override
   public void send(ImmutableList<String> toAddresses, String subject, String bodyText) {
+    try {
+      sendOrThrow(toAddresses, subject, bodyText);
+    } catch (EmailSendException e) {
+      // Already logged and counted as failed.
+    }
+  }
+
+  @Override
+  public void sendOrThrow(String toAddress, String subject, String bodyText) {
+    sendOrThrow(ImmutableList.of(toAddress), subject, bodyText);
+  }
+
+  @Override
+  public void sendOrThrow(ImmutableList<String> toAddresses, String subject, String bodyText) {
     if (toAddresses.isEmpty()) {
       return;
     }
@@ -113,6 +128,7 @@ public final class SimpleEmail implements EmailSendClient {
       e.printStackTrace();
       emailSendMetrics.getEmailFailCount().inc();
       emailSendMetrics.getEmailSendCount().labels(String.valueOf(e.statusCode())).inc();
+      throw new EmailSendException(e);
     } finally {
       // Increase the count of emails sent.
       emailSendMetrics.getEmailSendCount().labels(String.valueOf(HttpStatusCode.OK)).inc();
@@ -21,6 +21,7 @@ import org.slf4j.LoggerFactory;
 import play.Environment;
 import services.cloud.azure.Credentials;
 import services.email.EmailSendClient;
+import services.email.EmailSendException;
 import services.monitoring.EmailSendMetrics;
 import services.settings.SettingsManifest;
 import software.amazon.awssdk.http.HttpStatusCode;
@@ -63,6 +64,20 @@ public class GraphApiEmailClient implements EmailSendClient {
 
   @Override
   public void send(ImmutableList<String> toAddresses, String subject, String bodyText) {
+    try {
+      sendOrThrow(toAddresses, subject, bodyText);
+    } catch (EmailSendException e) {
+      // Already logged and counted as failed.
+    }
+  }
+
+  @Override
+  public void sendOrThrow(String toAddress, String subject, String bodyText) {
+    sendOrThrow(ImmutableList.of(toAddress), subject, bodyText);
+  }
+
+  @Override
+  public void sendOrThrow(ImmutableList<String> toAddresses, String subject, String bodyText) {
     if (toAddresses.isEmpty()) {
       return;
     }
@@ -133,6 +148,7 @@ public class GraphApiEmailClient implements EmailSendClient {
       e.printStackTrace();
       emailSendMetrics.getEmailFailCount().inc();
       emailSendMetrics.getEmailSendCount().labels(String.valueOf(e.getResponseStatusCode())).inc();
+      throw new EmailSendException(e);
     } finally {
       // Increase the count of emails sent.
       emailSendMetrics.getEmailSendCount().labels(String.valueOf(HttpStatusCode.OK)).inc();
@@ -0,0 +1,398 @@
+package services.export;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Iterables;
+import com.typesafe.config.Config;
+import durablejobs.DurableJobName;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+import javax.inject.Inject;
+import models.ApplicationExportFormat;
+import models.ApplicationExportModel;
+import models.ApplicationExportStatus;
+import models.ApplicationModel;
+import models.JobType;
+import models.PersistedDurableJobModel;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import repository.ApplicationExportRepository;
+import repository.SubmittedApplicationFilter;
+import repository.TimeFilter;
+import services.cloud.ApplicantStorageClient;
+import services.cloud.ExportStorageClient;
+import services.cloud.FileUploadFailureException;
+import services.cloud.aws.FileDeletionFailureException;
+import services.pagination.SubmitTimeSequentialAccessPaginationSpec;
+import services.program.ProgramDefinition;
+import services.program.ProgramNotFoundException;
+import services.program.ProgramService;
+
+/**
+ * Exports the applications to a program to cloud storage in the background, so that large exports
+ * aren't bound by the lifetime of a request.
+ *
+ * <p>{@link #startExport} records an {@link ApplicationExportModel} along with an {@link
+ * DurableJobName#APPLICATION_EXPORT} durable job that calls {@link #runExport}. The export is
+ * uploaded in parts of at least {@link ExportStorageClient#MINIMUM_PART_SIZE_BYTES}, and the keyset
+ * cursor of the last application in each part is checkpointed, so a job that is interrupted
+ * resumes after the last uploaded part.
+ *
+ * <p>Exports hold applicant data, so {@link #deleteExpiredExports} removes finished exports and
+ * their files once they are older than {@link #EXPORT_RETENTION}.
+ */
+public final class ApplicationExportService {
+  private static final Logger logger = LoggerFactory.getLogger(ApplicationExportService.class);
+
+  /** How long after it was started an export is kept for, to be downloaded. */
+  static final Duration EXPORT_RETENTION = Duration.ofDays(7);
+
+  private final ApplicationExportRepository applicationExportRepository;
+  private final ProgramService programService;
+  private final CsvExporterService csvExporterService;
+  private final JsonExporterService jsonExporterService;
+  private final ExportStorageClient exportStorageClient;
+  private final ApplicantStorageClient applicantStorageClient;
+  private final Clock clock;
+  private final Optional<Duration> runBudget;
+
+  @Inject
+  public ApplicationExportService(
+      ApplicationExportRepository applicationExportRepository,
+      ProgramService programService,
+      CsvExporterService csvExporterService,
+      JsonExporterService jsonExporterService,
+      ExportStorageClient exportStorageClient,
+      ApplicantStorageClient applicantStorageClient,
+      Clock clock,
+      Config config) {
+    this.applicationExportRepository = checkNotNull(applicationExportRepository);
+    this.programService = checkNotNull(programService);
+    this.csvExporterService = checkNotNull(csvExporterService);
+    this.jsonExporterService = checkNotNull(jsonExporterService);
+    this.exportStorageClient = checkNotNull(exportStorageClient);
+    this.applicantStorageClient = checkNotNull(applicantStorageClient);
+    this.clock = checkNotNull(clock);
+    // Hand the export over to a new job well before the durable job timeout is reached. The
+    // timeout is set to 0 in tests, where exports run to completion in a single job.
+    int jobTimeoutMinutes = checkNotNull(config).getInt("durable_jobs.job_timeout_minutes");
+    this.runBudget =
+        jobTimeoutMinutes > 0
+            ? Optional.of(Duration.ofMinutes(jobTimeoutMinutes).dividedBy(2))
+            : Optional.empty();
+  }
+
+  /**
+   * Starts a background export of the applications to all versions of {@code program} that match
+   * {@code filters}.
+   */
+  public ApplicationExportModel startExport(
+      ProgramDefinition program,
+      ApplicationExportFormat format,
+      SubmittedApplicationFilter filters) {
+    // A draft published while the export runs must not add columns to the rest of the export.
+    long maxProgramVersionId =
+        programService.getPublishedVersionsFullProgramDefinition(program.id()).stream()
+            .mapToLong(ProgramDefinition::id)
+            .max()
+            .orElse(program.id());
+    String fileKey =
+        String.format(
+            "exports/program-%d/%s.%s", program.id(), UUID.randomUUID(), format.getFileExtension());
+
+    ApplicationExportModel export =
+        new ApplicationExportModel(
+                program.id(), maxProgramVersionId, format, clock.instant(), fileKey)
+            .setSearchNameFragment(filters.searchNameFragment())
+            .setSubmitTimeFrom(filters.submitTimeFilter().fromTime())
+            .setSubmitTimeUntil(filters.submitTimeFilter().untilTime())
+            .setApplicationStatus(filters.applicationStatus());
+    return applicationExportRepository.insertWithDurableJob(export, newDurableJob());
+  }
+
+  public Optional<ApplicationExportModel> getExport(long exportId) {
+    return applicationExportRepository.lookupExport(exportId);
+  }
+
+  /**
+   * Returns a URL that gives temporary access to download the completed {@code export}, which will
+   * be saved as {@code fileName}.
+   */
+  public String getDownloadUrl(ApplicationExportModel export, String fileName) {
+    return applicantStorageClient.getPresignedUrlString(export.getFileKey(), Optional.of(fileName));
+  }
+
+  /**
+   * Makes progress on the export that {@code durableJob} is responsible for. The export is either
+   * completed, or handed over to a new durable job once this job has run for long enough.
+   *
+   * @throws IllegalStateException if the export can't be completed. If {@code durableJob} has no
+   *     attempts remaining, the export is also marked as failed.
+   */
+  public void runExport(PersistedDurableJobModel durableJob) {
+    ApplicationExportModel export =
+        applicationExportRepository
+            .lookupExportForDurableJob(durableJob.id)
+            .orElseThrow(
+                () ->
+                    new IllegalStateException(
+                        String.format("No application export for durable job %d", durableJob.id)));
+    if (export.isFinished()) {
+      return;
+    }
+
+    try {
+      continueExport(export);
+    } catch (IOException | FileUploadFailureException | ProgramNotFoundException e) {
+      if (durableJob.getRemainingAttempts() <= 0) {
+        export.markFailed(e.toString());
+        applicationExportRepository.update(export);
+        abortUpload(export);
+      }
+      throw new IllegalStateException(String.format("Application export %d failed", export.id), e);
+    }
+  }
+
+  /**
+   * Deletes the finished exports that are older than {@link #EXPORT_RETENTION}, along with their
+   * files. An export whose file can't be deleted is kept so that deleting it is retried.
+   *
+   * @return the number of exports deleted
+   */
+  public int deleteExpiredExports() {
+    int deletedCount = 0;
+    for (ApplicationExportModel export :
+        applicationExportRepository.lookupFinishedExportsCreatedBefore(
+            clock.instant().minus(EXPORT_RETENTION))) {
+      try {
+        if (export.getStatus() == ApplicationExportStatus.COMPLETE) {
+          exportStorageClient.deleteExport(export.getFileKey());
+        } else if (!abortUpload(export)) {
+          continue;
+        }
+      } catch (FileDeletionFailureException e) {
+        logger.error("Failed to delete the file of application export {}", export.id, e);
+        continue;
+      }
+      applicationExportRepository.delete(export);
+      deletedCount++;
+    }
+    return deletedCount;
+  }
+
+  /**
+   * Discards the parts uploaded by a failed export, and returns whether that succeeded. A failure
+   * is only logged, since the export has already failed.
+   */
+  private boolean abortUpload(ApplicationExportModel export) {
+    if (export.getUploadId().isEmpty()) {
+      return true;
+    }
+    try {
+      exportStorageClient.abortMultipartUpload(export.getFileKey(), export.getUploadId().get());
+      return true;
+    } catch (FileUploadFailureException e) {
+      logger.error("Failed to abort the upload of application export {}", export.id, e);
+      return false;
+    }
+  }
+
+  private void continueExport(ApplicationExportModel export)
+      throws IOException, FileUploadFailureException, ProgramNotFoundException {
+    Optional<Instant> deadline = runBudget.map(clock.instant()::plus);
+    SubmittedApplicationFilter filters = getFilters(export);
+
+    if (export.getUploadId().isEmpty()) {
+      export.setUploadId(exportStorageClient.startMultipartUpload(export.getFileKey()));
+      applicationExportRepository.update(export);
+    }
+    String uploadId = export.getUploadId().get();
+
+    ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+    Writer writer = new OutputStreamWriter(buffer, StandardCharsets.UTF_8);
+    PageWriter pageWriter = createPageWriter(export, filters, writer);
+
+    Optional<SubmitTimeSequentialAccessPaginationSpec> paginationSpec =
+        export.getCursorSubmitTime().isPresent()
+            ? Optional.of(
+                CsvExporterService.streamingPageSpecAfter(
+                    export.getCursorSubmitTime().get(), export.getCursorApplicationId().get()))
+            : Optional.of(CsvExporterService.FIRST_STREAMING_PAGE_SPEC);
+    long bufferedApplicationCount = 0;
+    while (paginationSpec.isPresent()) {
+      ImmutableList<ApplicationModel> page =
+          programService.getSubmittedProgramApplicationsPageAllVersions(
+              export.getProgramId(), paginationSpec.get(), filters);
+      pageWriter.writeApplications(page);
+      writer.flush();
+      bufferedApplicationCount += page.size();
+      paginationSpec = CsvExporterService.nextStreamingPageSpec(page);
+
+      // Every part except the last must meet the minimum part size, so only upload once the
+      // buffer is big enough and there is more to come.
+      if (paginationSpec.isPresent()
+          && buffer.size() >= ExportStorageClient.MINIMUM_PART_SIZE_BYTES) {
+        String partId =
+            exportStorageClient.uploadPart(
+                export.getFileKey(),
+                uploadId,
+                export.getPartIds().size() + 1,
+                buffer.toByteArray());
+        export.recordUploadedPart(partId, Iterables.getLast(page), bufferedApplicationCount);
+        applicationExportRepository.update(export);
+        buffer.reset();
+        bufferedApplicationCount = 0;
+
+        if (deadline.isPresent() && clock.instant().isAfter(deadline.get())) {
+          logger.info(
+              "Application export {} handing over to a new job after {} applications",
+              export.id,
+              export.getExportedCount());
+          applicationExportRepository.updateDurableJob(export, newDurableJob());
+          return;
+        }
+      }
+    }
+
+    pageWriter.finish();
+    writer.flush();
+    ImmutableList.Builder<String> partIds =
+        ImmutableList.<String>builder().addAll(export.getPartIds());
+    if (buffer.size() > 0 || export.getPartIds().isEmpty()) {
+      partIds.add(
+          exportStorageClient.uploadPart(
+              export.getFileKey(),
+              uploadId,
+              export.getPartIds().size() + 1,
+              buffer.toByteArray()));
+    }
+    exportStorageClient.completeMultipartUpload(export.getFileKey(), uploadId, partIds.build());
+    export.markComplete(clock.instant(), bufferedApplicationCount);
+    applicationExportRepository.update(export);
+  }
+
+  /**
+   * The filters the export was started with. Applications submitted after the export started are
+   * excluded so that the columns and applications don't change if the export is resumed.
+   */
+  private static SubmittedApplicationFilter getFilters(ApplicationExportModel export) {
+    Instant untilTime =
+        export
+            .getSubmitTimeUntil()
+            .filter(time -> time.isBefore(export.getSnapshotTime()))
+            .orElse(export.getSnapshotTime());
+    return SubmittedApplicationFilter.builder()
+        .setSearchNameFragment(export.getSearchNameFragment())
+        .setSubmitTimeFilter(
+            TimeFilter.builder()
+                .setFromTime(export.getSubmitTimeFrom())
+                .setUntilTime(Optional.of(untilTime))
+                .build())
+        .setApplicationStatus(export.getApplicationStatus())
+        .build();
+  }
+
+  /** Returns a new on demand job to run an export. */
+  private PersistedDurableJobModel newDurableJob() {
+    return new PersistedDurableJobModel(
+        DurableJobName.APPLICATION_EXPORT.getJobNameString(), JobType.ON_DEMAND, clock.instant());
+  }
+
+  private PageWriter createPageWriter(
+      ApplicationExportModel export, SubmittedApplicationFilter filters, Writer writer)
+      throws IOException, ProgramNotFoundException {
+    boolean isFirstPart = export.getPartIds().isEmpty();
+    return switch (export.getExportFormat()) {
+      case CSV ->
+          new CsvPageWriter(
+              csvExporterService.prepareProgramAllVersionsCsv(
+                  export.getProgramId(), filters, export.getMaxProgramVersionId()),
+              writer,
+              isFirstPart);
+      case JSON ->
+          new JsonPageWriter(
+              jsonExporterService.prepareProgramJsonExport(
+                  programService.getFullProgramDefinition(export.getProgramId())),
+              writer,
+              isFirstPart,
+              export.getExportedCount() > 0);
+    };
+  }
+
+  /** Writes pages of applications in an export's format. */
+  private interface PageWriter {
+    void writeApplications(ImmutableList<ApplicationModel> applications) throws IOException;
+
+    /** Writes anything that needs to follow the last application. */
+    void finish() throws IOException;
+  }
+
+  private static final class CsvPageWriter implements PageWriter {
+    private final CsvExporterService.ProgramCsvExport programCsvExport;
+    private final CsvExporter csvExporter;
+
+    CsvPageWriter(
+        CsvExporterService.ProgramCsvExport programCsvExport, Writer writer, boolean isFirstPart)
+        throws IOException {
+      this.programCsvExport = checkNotNull(programCsvExport);
+      // The header was written to the first part, so a resumed export must not repeat it.
+      this.csvExporter = programCsvExport.createCsvExporter(writer, /* printHeader= */ isFirstPart);
+    }
+
+    @Override
+    public void writeApplications(ImmutableList<ApplicationModel> applications) throws IOException {
+      programCsvExport.exportApplications(csvExporter, applications);
+    }
+
+    @Override
+    public void finish() {}
+  }
+
+  /** Writes a single JSON array of applications, continuing it if the export is resumed. */
+  private static final class JsonPageWriter implements PageWriter {
+    private final JsonExporterService.ProgramJsonExport programJsonExport;
+    private final JsonGenerator jsonGenerator;
+    private boolean hasWrittenApplication;
+
+    JsonPageWriter(
+        JsonExporterService.ProgramJsonExport programJsonExport,
+        Writer writer,
+        boolean isFirstPart,
+        boolean hasWrittenApplication)
+        throws IOException {
+      this.programJsonExport = checkNotNull(programJsonExport);
+      // A resumed export continues an array opened by an earlier job, which the generator can't
+      // know about, so the array's punctuation is written raw.
+      this.jsonGenerator =
+          JsonExporterService.createJsonGenerator(writer).setRootValueSeparator(null);
+      this.hasWrittenApplication = hasWrittenApplication;
+      if (isFirstPart) {
+        jsonGenerator.writeRaw('[');
+      }
+    }
+
+    @Override
+    public void writeApplications(ImmutableList<ApplicationModel> applications) throws IOException {
+      programJsonExport.writeApplicationsToRawArray(
+          jsonGenerator, applications, hasWrittenApplication);
+      hasWrittenApplication |= !applications.isEmpty();
+      jsonGenerator.flush();
+    }
+
+    @Override
+    public void finish() throws IOException {
+      jsonGenerator.writeRaw(']');
+      jsonGenerator.flush();
+    }
+  }
+}
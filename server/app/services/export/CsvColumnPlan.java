@@ -0,0 +1,167 @@
+package services.export;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import services.Path;
+import services.applicant.question.ApplicantQuestion;
+
+/**
+ * The repeated questions seen in the submitted applications to a set of program versions, which
+ * together with the program definitions determine the question columns of a CSV export.
+ *
+ * <p>A plan only holds the paths of the questions and of the repeated entities they belong to,
+ * rather than the {@link ApplicantQuestion}s, which hold on to the applicant's data. The questions
+ * are rebuilt from the program definitions when the plan is used.
+ *
+ * <p>Submitted applications don't change, so a plan is brought up to date by extending it with
+ * the applications ordered after its newest one. Applications can become visible out of that
+ * order, so the plan also counts the applications it has seen, and one whose count differs from
+ * the database's is rebuilt. Each question remembers when it was first submitted, so the plan also
+ * serves exports of the applications submitted before a point in time.
+ */
+final class CsvColumnPlan {
+  static final CsvColumnPlan EMPTY =
+      new CsvColumnPlan(
+          ImmutableMap.of(),
+          Optional.empty(),
+          /* newestApplicationId= */ 0L,
+          /* applicationCount= */ 0L);
+
+  /**
+   * A repeated question seen in the applications, by the program version it was answered in and
+   * the path of its repeated entity, and the earliest submit time of an application with it.
+   */
+  record SeenQuestion(
+      Path questionPath, long programId, Path repeatedEntityPath, Instant firstSubmitTime) {}
+
+  private final ImmutableMap<Path, SeenQuestion> repeatedQuestions;
+  private final Optional<Instant> newestSubmitTime;
+  private final long newestApplicationId;
+  private final long applicationCount;
+
+  private CsvColumnPlan(
+      ImmutableMap<Path, SeenQuestion> repeatedQuestions,
+      Optional<Instant> newestSubmitTime,
+      long newestApplicationId,
+      long applicationCount) {
+    this.repeatedQuestions = checkNotNull(repeatedQuestions);
+    this.newestSubmitTime = checkNotNull(newestSubmitTime);
+    this.newestApplicationId = newestApplicationId;
+    this.applicationCount = applicationCount;
+  }
+
+  /** The number of applications the plan has seen. */
+  long applicationCount() {
+    return applicationCount;
+  }
+
+  /**
+   * Whether the plan has seen an application, going by its position in the descending submit time
+   * then id order that exports page through applications in. Applications without a submit time
+   * come first in that order, and a plan is first built from every application, so it has seen
+   * them unless it is empty.
+   */
+  boolean hasSeen(Optional<Instant> submitTime, long applicationId) {
+    return applicationCount > 0
+        && !isNewer(submitTime, applicationId, newestSubmitTime, newestApplicationId);
+  }
+
+  /**
+   * Whether an application is ordered after the newest one with a submit time. Applications without
+   * a submit time are never newer.
+   */
+  private static boolean isNewer(
+      Optional<Instant> submitTime,
+      long applicationId,
+      Optional<Instant> newestSubmitTime,
+      long newestApplicationId) {
+    if (submitTime.isEmpty()) {
+      return false;
+    }
+    if (newestSubmitTime.isEmpty()) {
+      return true;
+    }
+    return submitTime.get().isAfter(newestSubmitTime.get())
+        || (submitTime.get().equals(newestSubmitTime.get())
+            && applicationId > newestApplicationId);
+  }
+
+  /**
+   * The repeated questions seen in applications submitted before {@code untilTime}, or in any
+   * application if it is empty.
+   */
+  ImmutableList<SeenQuestion> getRepeatedQuestions(Optional<Instant> untilTime) {
+    return repeatedQuestions.values().stream()
+        .filter(
+            seenQuestion ->
+                untilTime.isEmpty() || seenQuestion.firstSubmitTime().isBefore(untilTime.get()))
+        .collect(ImmutableList.toImmutableList());
+  }
+
+  Builder toBuilder() {
+    return new Builder(this);
+  }
+
+  /** Extends a plan with more applications, which may be added in any order. */
+  static final class Builder {
+    private final Map<Path, SeenQuestion> repeatedQuestions;
+    private Optional<Instant> newestSubmitTime;
+    private long newestApplicationId;
+    private long applicationCount;
+
+    private Builder(CsvColumnPlan plan) {
+      this.repeatedQuestions = new HashMap<>(plan.repeatedQuestions);
+      this.newestSubmitTime = plan.newestSubmitTime;
+      this.newestApplicationId = plan.newestApplicationId;
+      this.applicationCount = plan.applicationCount;
+    }
+
+    /**
+     * Adds the repeated questions of an application to the program version {@code programId}
+     * submitted at {@code maybeSubmitTime}. An application without a submit time is treated as
+     * submitted before any other.
+     */
+    Builder addApplication(
+        Optional<Instant> maybeSubmitTime,
+        long applicationId,
+        long programId,
+        ImmutableList<ApplicantQuestion> questions) {
+      if (isNewer(maybeSubmitTime, applicationId, newestSubmitTime, newestApplicationId)) {
+        newestSubmitTime = maybeSubmitTime;
+        newestApplicationId = applicationId;
+      }
+      applicationCount++;
+      Instant submitTime = maybeSubmitTime.orElse(Instant.MIN);
+      questions.stream()
+          .filter(question -> question.getRepeatedEntity().isPresent())
+          .forEach(
+              question ->
+                  repeatedQuestions.merge(
+                      question.getContextualizedPath(),
+                      new SeenQuestion(
+                          question.getContextualizedPath(),
+                          programId,
+                          question.getRepeatedEntity().get().contextualizedPath(),
+                          submitTime),
+                      (seen, added) ->
+                          added.firstSubmitTime().isBefore(seen.firstSubmitTime())
+                              ? added
+                              : seen));
+      return this;
+    }
+
+    CsvColumnPlan build() {
+      return new CsvColumnPlan(
+          ImmutableMap.copyOf(repeatedQuestions),
+          newestSubmitTime,
+          newestApplicationId,
+          applicationCount);
+    }
+  }
+}
@@ -2,6 +2,7 @@ package services.export;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
+import com.google.common.base.Strings;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.hash.Hashing;
@@ -44,6 +45,20 @@ public final class CsvExporter implements AutoCloseable {
   public CsvExporter(
       ImmutableList<Column> columns, String secret, Writer writer, DateConverter dateConverter)
       throws IOException {
+    this(columns, secret, writer, dateConverter, /* printHeader= */ true);
+  }
+
+  /**
+   * Provide a secret if you will need to use OPAQUE_ID type columns. Set {@code printHeader} to
+   * false when appending records to a CSV whose header has already been written.
+   */
+  public CsvExporter(
+      ImmutableList<Column> columns,
+      String secret,
+      Writer writer,
+      DateConverter dateConverter,
+      boolean printHeader)
+      throws IOException {
     this.columns = checkNotNull(columns);
     this.secret = checkNotNull(secret);
     this.dateConverter = dateConverter;
@@ -52,6 +67,7 @@ public final class CsvExporter implements AutoCloseable {
         CSVFormat.DEFAULT
             .builder()
             .setHeader(columns.stream().map(Column::header).toArray(String[]::new))
+            .setSkipHeaderRecord(!printHeader)
             .get();
     this.printer = new CSVPrinter(writer, format);
   }
@@ -63,6 +79,20 @@ public final class CsvExporter implements AutoCloseable {
       Optional<Boolean> optionalEligibilityStatus,
       ProgramDefinition programDefinition)
       throws IOException {
+    printRecord(
+        renderRecord(
+            application, roApplicantProgramService, optionalEligibilityStatus, programDefinition));
+  }
+
+  /**
+   * Returns the values of a single {@link ApplicationModel} record, one for each column, without
+   * writing them. Unlike writing, rendering records may be done from several threads at once.
+   */
+  public ImmutableList<String> renderRecord(
+      ApplicationModel application,
+      ReadOnlyApplicantProgramService roApplicantProgramService,
+      Optional<Boolean> optionalEligibilityStatus,
+      ProgramDefinition programDefinition) {
     ImmutableMap<Path, ApplicantQuestion> questionMap =
         roApplicantProgramService
             .getAllQuestions()
@@ -81,58 +111,60 @@ public final class CsvExporter implements AutoCloseable {
                       return replacement;
                     }));
 
+    ImmutableList.Builder<String> values = ImmutableList.builderWithExpectedSize(columns.size());
     for (Column column : columns) {
       switch (column.columnType()) {
         case APPLICANT_ANSWER:
-          printer.print(getValueFromQuestionMap(column, questionMap));
+          // Printed as an empty value, like a missing answer.
+          values.add(Strings.nullToEmpty(getValueFromQuestionMap(column, questionMap)));
           break;
         case APPLICANT_ID:
-          printer.print(application.getApplicant().id);
+          values.add(String.valueOf(application.getApplicant().id));
           break;
         case APPLICATION_ID:
-          printer.print(application.id);
+          values.add(String.valueOf(application.id));
           break;
         case LANGUAGE:
-          printer.print(application.getApplicantData().preferredLocale().toLanguageTag());
+          values.add(application.getApplicantData().preferredLocale().toLanguageTag());
           break;
         case CREATE_TIME:
-          printer.print(dateConverter.renderDateTimeDataOnly(application.getCreateTime()));
+          values.add(dateConverter.renderDateTimeDataOnly(application.getCreateTime()));
           break;
         case SUBMIT_TIME:
           if (application.getSubmitTime() == null) {
-            printer.print(EMPTY_VALUE);
+            values.add(EMPTY_VALUE);
           } else {
-            printer.print(dateConverter.renderDateTimeDataOnly(application.getSubmitTime()));
+            values.add(dateConverter.renderDateTimeDataOnly(application.getSubmitTime()));
           }
           break;
         case TI_EMAIL_OPAQUE:
           if (secret.isBlank()) {
             throw new RuntimeException("Secret not present, but opaque ID requested.");
           }
-          printer.print(
+          values.add(
               application
                   .getSubmitterEmail()
                   .map(email -> opaqueIdentifier(secret, email))
                   .orElse(EMPTY_VALUE));
           break;
         case TI_EMAIL:
-          printer.print(application.getSubmitterEmail().orElse(EMPTY_VALUE));
+          values.add(application.getSubmitterEmail().orElse(EMPTY_VALUE));
           break;
         case SUBMITTER_TYPE:
           // The field on the application is called `submitter_email`, but it's only ever used to
           // store the TI's email, never the applicant's.
           // TODO(#5325): Rename the `submitter_email` database field to `ti_email` and move the
           // submitter_type logic upstream.
-          printer.print(
+          values.add(
               application.getSubmitterEmail().isPresent()
                   ? SubmitterType.TRUSTED_INTERMEDIARY.toString()
                   : SubmitterType.APPLICANT.toString());
           break;
         case PROGRAM:
-          printer.print(programDefinition.adminName());
+          values.add(programDefinition.adminName());
           break;
         case TI_ORGANIZATION:
-          printer.print(
+          values.add(
               application
                   .getApplicant()
                   .getAccount()
@@ -144,35 +176,35 @@ public final class CsvExporter implements AutoCloseable {
           if (secret.isEmpty()) {
             throw new RuntimeException("Secret not present, but opaque ID requested.");
           }
-          printer.print(opaqueIdentifier(secret, application.getApplicant().id));
+          values.add(opaqueIdentifier(secret, application.getApplicant().id));
           break;
         case APPLICANT_OPAQUE:
           if (secret.isEmpty()) {
             throw new RuntimeException("Secret not present, but opaque applicant data requested.");
           }
           // We still hash the empty value.
-          printer.print(opaqueIdentifier(secret, getValueFromQuestionMap(column, questionMap)));
+          values.add(opaqueIdentifier(secret, getValueFromQuestionMap(column, questionMap)));
           break;
         case ELIGIBILITY_STATUS:
           if (optionalEligibilityStatus.isPresent()) {
             String eligibilityText =
                 optionalEligibilityStatus.get() ? "Meets eligibility" : "Doesn't meet eligibility";
-            printer.print(eligibilityText);
+            values.add(eligibilityText);
           } else {
-            printer.print(EMPTY_VALUE);
+            values.add(EMPTY_VALUE);
           }
           break;
         case STATUS_TEXT:
-          printer.print(application.getLatestStatus().orElse(EMPTY_VALUE));
+          values.add(application.getLatestStatus().orElse(EMPTY_VALUE));
           break;
         case ADMIN_NOTE:
-          printer.print(application.getLatestNote().orElse(EMPTY_VALUE));
+          values.add(application.getLatestNote().orElse(EMPTY_VALUE));
           break;
         case STATUS_LAST_MODIFIED_TIME:
           if (application.getStatusLastModifiedTime().isEmpty()) {
-            printer.print(EMPTY_VALUE);
+            values.add(EMPTY_VALUE);
           } else {
-            printer.print(
+            values.add(
                 dateConverter.renderDateTimeDataOnly(
                     application.getStatusLastModifiedTime().get()));
           }
@@ -180,7 +212,12 @@ public final class CsvExporter implements AutoCloseable {
       }
     }
 
-    printer.println();
+    return values.build();
+  }
+
+  /** Writes a record rendered by {@link #renderRecord} to the CSV. */
+  public void printRecord(ImmutableList<String> values) throws IOException {
+    printer.printRecord(values);
   }
 
   /**
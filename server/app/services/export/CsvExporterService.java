@@ -5,6 +5,7 @@ import static com.google.common.base.Preconditions.checkNotNull;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Iterables;
 import com.typesafe.config.Config;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
@@ -12,15 +13,21 @@ import java.io.OutputStream;
 import java.io.OutputStreamWriter;
 import java.io.Writer;
 import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
+import java.util.TreeMap;
 import java.util.function.Function;
+import java.util.stream.Collectors;
 import javax.inject.Inject;
 import models.ApplicantModel;
 import models.ApplicationModel;
 import models.QuestionTag;
+import play.cache.NamedCache;
+import play.cache.SyncCacheApi;
 import repository.SubmittedApplicationFilter;
 import repository.TimeFilter;
 import services.DateConverter;
@@ -31,6 +38,7 @@ import services.applicant.ReadOnlyApplicantProgramService;
 import services.applicant.question.ApplicantQuestion;
 import services.export.enums.ColumnType;
 import services.pagination.SubmitTimeSequentialAccessPaginationSpec;
+import services.program.BlockDefinition;
 import services.program.ProgramDefinition;
 import services.program.ProgramNotFoundException;
 import services.program.ProgramQuestionDefinition;
@@ -50,10 +58,25 @@ public final class CsvExporterService {
   private final Config config;
   private final DateConverter dateConverter;
   private final CsvColumnFactory csvColumnFactory;
+  private final SyncCacheApi columnPlanCache;
+  private final ExportRowRenderer rowRenderer;
 
   public static final ImmutableSet<QuestionType> NON_EXPORTED_QUESTION_TYPES =
       ImmutableSet.of(QuestionType.ENUMERATOR, QuestionType.STATIC);
 
+  /** Number of applications read from the database at a time by streaming exports. */
+  static final int STREAMING_EXPORT_PAGE_SIZE = 500;
+
+  static final SubmitTimeSequentialAccessPaginationSpec FIRST_STREAMING_PAGE_SPEC =
+      new SubmitTimeSequentialAccessPaginationSpec(
+          STREAMING_EXPORT_PAGE_SIZE, Instant.MAX, Long.MAX_VALUE);
+
+  /**
+   * How long a {@link CsvColumnPlan} is cached for after it was last used. The cache also bounds
+   * how many plans it holds, in {@code play.cache.caffeine.caches}.
+   */
+  private static final int COLUMN_PLAN_CACHE_SECONDS = 60 * 60;
+
   @Inject
   public CsvExporterService(
       ProgramService programService,
@@ -61,13 +84,17 @@ public final class CsvExporterService {
       ApplicantService applicantService,
       Config config,
       DateConverter dateConverter,
-      CsvColumnFactory csvColumnFactory) {
+      CsvColumnFactory csvColumnFactory,
+      @NamedCache("csv-column-plans") SyncCacheApi columnPlanCache,
+      ExportRowRenderer rowRenderer) {
     this.programService = checkNotNull(programService);
     this.questionService = checkNotNull(questionService);
     this.applicantService = checkNotNull(applicantService);
     this.config = checkNotNull(config);
     this.dateConverter = dateConverter;
     this.csvColumnFactory = checkNotNull(csvColumnFactory);
+    this.columnPlanCache = checkNotNull(columnPlanCache);
+    this.rowRenderer = checkNotNull(rowRenderer);
   }
 
   /** Return a string containing a CSV of all applications at all versions of particular program. */
@@ -99,6 +126,344 @@ public final class CsvExporterService {
         Optional.of(currentProgram));
   }
 
+  /**
+   * Write a CSV of all applications at all versions of a particular program to {@code writer}.
+   *
+   * <p>Unlike {@link #getProgramAllVersionsCsv}, applications are read one page at a time using
+   * keyset pagination and each record is written as soon as it is rendered, so memory usage stays
+   * flat regardless of the number of applications. The question columns are derived from the
+   * program definitions rather than from a scan of every application.
+   */
+  public void streamProgramAllVersionsCsv(
+      long programId, SubmittedApplicationFilter filters, Writer writer)
+      throws ProgramNotFoundException, IOException {
+    ProgramCsvExport programCsvExport =
+        prepareProgramAllVersionsCsv(programId, filters, /* maxProgramVersionId= */ Long.MAX_VALUE);
+
+    try (CsvExporter csvExporter =
+        programCsvExport.createCsvExporter(writer, /* printHeader= */ true)) {
+      Optional<SubmitTimeSequentialAccessPaginationSpec> paginationSpec =
+          Optional.of(FIRST_STREAMING_PAGE_SPEC);
+      while (paginationSpec.isPresent()) {
+        ImmutableList<ApplicationModel> page =
+            programService.getSubmittedProgramApplicationsPageAllVersions(
+                programId, paginationSpec.get(), filters);
+        programCsvExport.exportApplications(csvExporter, page);
+        // Hand each page to the consumer as it is completed.
+        writer.flush();
+        paginationSpec = nextStreamingPageSpec(page);
+      }
+    }
+  }
+
+  /**
+   * Prepare a CSV export of the applications to all versions of a particular program that can be
+   * written a page at a time, possibly across several writers.
+   *
+   * @param programId the program to export applications to
+   * @param filters the filters the exported applications match
+   * @param maxProgramVersionId program versions with a greater id are left out of the columns, so
+   *     that a resumed export produces the same columns as the export it continues
+   */
+  public ProgramCsvExport prepareProgramAllVersionsCsv(
+      long programId, SubmittedApplicationFilter filters, long maxProgramVersionId)
+      throws ProgramNotFoundException {
+    // The draft version has no submitted applications, so its questions don't get columns.
+    ImmutableMap<Long, ProgramDefinition> programDefinitionsForAllVersions =
+        programService.getPublishedVersionsFullProgramDefinition(programId).stream()
+            .filter(pd -> pd.id() <= maxProgramVersionId)
+            .collect(ImmutableMap.toImmutableMap(ProgramDefinition::id, pd -> pd));
+    boolean shouldCheckEligibility =
+        programService.getFullProgramDefinition(programId).hasEligibilityEnabled();
+
+    CsvExportConfig exportConfig =
+        generateCsvConfigFromProgramDefinitions(
+            programId, filters, programDefinitionsForAllVersions, shouldCheckEligibility);
+    return new ProgramCsvExport(
+        programDefinitionsForAllVersions, exportConfig, shouldCheckEligibility);
+  }
+
+  /**
+   * The columns and program definitions of a CSV export of the applications to all versions of a
+   * program. See {@link #prepareProgramAllVersionsCsv}.
+   */
+  public final class ProgramCsvExport {
+    private final ImmutableMap<Long, ProgramDefinition> programDefinitionsForAllVersions;
+    private final CsvExportConfig exportConfig;
+    private final boolean shouldCheckEligibility;
+
+    private ProgramCsvExport(
+        ImmutableMap<Long, ProgramDefinition> programDefinitionsForAllVersions,
+        CsvExportConfig exportConfig,
+        boolean shouldCheckEligibility) {
+      this.programDefinitionsForAllVersions = checkNotNull(programDefinitionsForAllVersions);
+      this.exportConfig = checkNotNull(exportConfig);
+      this.shouldCheckEligibility = shouldCheckEligibility;
+    }
+
+    /**
+     * Returns a {@link CsvExporter} that writes this export's columns to {@code writer}. The header
+     * is only written if {@code printHeader} is true.
+     */
+    public CsvExporter createCsvExporter(Writer writer, boolean printHeader) throws IOException {
+      return new CsvExporter(
+          exportConfig.columns(),
+          config.getString("play.http.secret.key"),
+          writer,
+          dateConverter,
+          printHeader);
+    }
+
+    /**
+     * Writes a record for each of {@code applications} to {@code csvExporter}, in order. The
+     * records are rendered in parallel by the {@link ExportRowRenderer}.
+     */
+    public void exportApplications(
+        CsvExporter csvExporter, ImmutableList<ApplicationModel> applications) throws IOException {
+      rowRenderer.renderInOrder(
+          applications,
+          application -> renderApplication(csvExporter, application),
+          csvExporter::printRecord);
+    }
+
+    private ImmutableList<String> renderApplication(
+        CsvExporter csvExporter, ApplicationModel application) {
+      ProgramDefinition programDefForApplication =
+          programDefinitionsForAllVersions.get(application.getProgram().id);
+      ReadOnlyApplicantProgramService roApplicantService =
+          applicantService.getReadOnlyApplicantProgramService(
+              application, programDefForApplication);
+
+      // Reuse the service built above rather than letting
+      // ApplicantService#getApplicationEligibilityStatus build a second one.
+      Optional<Boolean> optionalEligibilityStatus =
+          shouldCheckEligibility && programDefForApplication.hasEligibilityEnabled()
+              ? Optional.of(!roApplicantService.isApplicationNotEligible())
+              : Optional.empty();
+
+      return csvExporter.renderRecord(
+          application, roApplicantService, optionalEligibilityStatus, programDefForApplication);
+    }
+  }
+
+  /**
+   * Build the {@link CsvExportConfig} for a streaming export from the program definitions.
+   *
+   * <p>Questions outside of repeated blocks don't depend on the applicant's answers, so their
+   * columns come straight from the definitions. The columns of repeated questions depend on how
+   * many entities applicants added, so only programs that contain repeated blocks need a pass over
+   * the applications. That pass is paged and only retains the distinct questions it sees.
+   *
+   * <p>When the filters only limit how recently applications were submitted, the repeated questions
+   * come from the cached {@link CsvColumnPlan} for the program versions instead, which only has to
+   * be extended with the applications submitted since it was last used.
+   */
+  private CsvExportConfig generateCsvConfigFromProgramDefinitions(
+      long programId,
+      SubmittedApplicationFilter filters,
+      ImmutableMap<Long, ProgramDefinition> programDefinitionsForAllVersions,
+      boolean showEligibilityColumn) {
+    Map<Path, ApplicantQuestion> uniqueQuestions = new HashMap<>();
+
+    programDefinitionsForAllVersions.values().stream()
+        .flatMap(
+            programDefinition ->
+                applicantService
+                    .getReadOnlyApplicantProgramService(new ApplicantData(), programDefinition)
+                    .getAllQuestions())
+        .forEach(aq -> uniqueQuestions.putIfAbsent(aq.getContextualizedPath(), aq));
+
+    boolean hasRepeatedQuestions =
+        programDefinitionsForAllVersions.values().stream()
+            .flatMap(programDefinition -> programDefinition.blockDefinitions().stream())
+            .anyMatch(BlockDefinition::isRepeated);
+    if (hasRepeatedQuestions && canUseColumnPlan(filters)) {
+      toApplicantQuestions(
+              getColumnPlan(programId, programDefinitionsForAllVersions)
+                  .getRepeatedQuestions(filters.submitTimeFilter().untilTime()),
+              programDefinitionsForAllVersions)
+          .forEach(aq -> uniqueQuestions.putIfAbsent(aq.getContextualizedPath(), aq));
+    } else if (hasRepeatedQuestions) {
+      Optional<SubmitTimeSequentialAccessPaginationSpec> paginationSpec =
+          Optional.of(FIRST_STREAMING_PAGE_SPEC);
+      while (paginationSpec.isPresent()) {
+        ImmutableList<ApplicationModel> page =
+            programService.getSubmittedProgramApplicationsPageAllVersions(
+                programId, paginationSpec.get(), filters);
+        page.stream()
+            .flatMap(
+                app ->
+                    applicantService
+                        .getReadOnlyApplicantProgramService(
+                            app, programDefinitionsForAllVersions.get(app.getProgram().id))
+                        .getAllQuestions())
+            .filter(aq -> aq.getRepeatedEntity().isPresent())
+            .forEach(aq -> uniqueQuestions.putIfAbsent(aq.getContextualizedPath(), aq));
+        paginationSpec = nextStreamingPageSpec(page);
+      }
+    }
+
+    return buildColumnHeaders(sortQuestionsByPath(uniqueQuestions), showEligibilityColumn);
+  }
+
+  /**
+   * Whether the repeated questions of the applications matching {@code filters} can be found from a
+   * {@link CsvColumnPlan}, which only supports telling apart applications by submit time.
+   */
+  private static boolean canUseColumnPlan(SubmittedApplicationFilter filters) {
+    return filters.searchNameFragment().filter(search -> !search.isBlank()).isEmpty()
+        && filters.applicationStatus().filter(status -> !status.isBlank()).isEmpty()
+        && filters.submitTimeFilter().fromTime().isEmpty();
+  }
+
+  /**
+   * Returns the {@link CsvColumnPlan} for all submitted applications to the program versions,
+   * extending the cached plan with any applications submitted since it was built. A plan that
+   * doesn't account for every application afterwards, because one was committed after newer ones
+   * were added to it, is rebuilt from all of them.
+   */
+  private CsvColumnPlan getColumnPlan(
+      long programId, ImmutableMap<Long, ProgramDefinition> programDefinitionsForAllVersions) {
+    String cacheKey =
+        programId
+            + ":"
+            + programDefinitionsForAllVersions.keySet().stream()
+                .sorted()
+                .map(String::valueOf)
+                .collect(Collectors.joining(","));
+    CsvColumnPlan cachedPlan =
+        columnPlanCache.<CsvColumnPlan>get(cacheKey).orElse(CsvColumnPlan.EMPTY);
+
+    CsvColumnPlan updatedPlan =
+        extendColumnPlan(cachedPlan, programId, programDefinitionsForAllVersions);
+    if (updatedPlan.applicationCount()
+        != programService.countSubmittedProgramApplicationsAllVersions(programId)) {
+      updatedPlan =
+          extendColumnPlan(CsvColumnPlan.EMPTY, programId, programDefinitionsForAllVersions);
+    }
+    columnPlanCache.set(cacheKey, updatedPlan, COLUMN_PLAN_CACHE_SECONDS);
+    return updatedPlan;
+  }
+
+  /** Extends {@code cachedPlan} with the applications it hasn't seen. */
+  private CsvColumnPlan extendColumnPlan(
+      CsvColumnPlan cachedPlan,
+      long programId,
+      ImmutableMap<Long, ProgramDefinition> programDefinitionsForAllVersions) {
+    CsvColumnPlan.Builder plan = cachedPlan.toBuilder();
+    Optional<SubmitTimeSequentialAccessPaginationSpec> paginationSpec =
+        Optional.of(FIRST_STREAMING_PAGE_SPEC);
+    while (paginationSpec.isPresent()) {
+      ImmutableList<ApplicationModel> page =
+          programService.getSubmittedProgramApplicationsPageAllVersions(
+              programId, paginationSpec.get(), SubmittedApplicationFilter.EMPTY);
+      boolean reachedSeenApplications = false;
+      for (ApplicationModel app : page) {
+        Optional<Instant> submitTime = Optional.ofNullable(app.getSubmitTime());
+        if (cachedPlan.hasSeen(submitTime, app.id)) {
+          // Applications without a submit time come first, and the rest are newest first, so the
+          // plan has seen all the applications after the first seen one that has a submit time.
+          if (submitTime.isEmpty()) {
+            continue;
+          }
+          reachedSeenApplications = true;
+          break;
+        }
+        ProgramDefinition programDefinition =
+            programDefinitionsForAllVersions.get(app.getProgram().id);
+        plan.addApplication(
+            submitTime,
+            app.id,
+            programDefinition.id(),
+            applicantService
+                .getReadOnlyApplicantProgramService(app, programDefinition)
+                .getAllQuestions()
+                .collect(ImmutableList.toImmutableList()));
+      }
+      paginationSpec = reachedSeenApplications ? Optional.empty() : nextStreamingPageSpec(page);
+    }
+    return plan.build();
+  }
+
+  /**
+   * Rebuilds the repeated questions a {@link CsvColumnPlan} has seen from the program definitions,
+   * with placeholder repeated entities standing in for the ones applicants added.
+   */
+  private ImmutableList<ApplicantQuestion> toApplicantQuestions(
+      ImmutableList<CsvColumnPlan.SeenQuestion> seenQuestions,
+      ImmutableMap<Long, ProgramDefinition> programDefinitionsForAllVersions) {
+    ImmutableList.Builder<ApplicantQuestion> questions = ImmutableList.builder();
+    seenQuestions.stream()
+        .collect(Collectors.groupingBy(CsvColumnPlan.SeenQuestion::programId))
+        .forEach(
+            (programId, seenInProgram) -> {
+              ApplicantData applicantData = new ApplicantData();
+              putPlaceholderRepeatedEntities(
+                  applicantData,
+                  seenInProgram.stream()
+                      .map(CsvColumnPlan.SeenQuestion::repeatedEntityPath)
+                      .collect(ImmutableSet.toImmutableSet()));
+              ImmutableSet<Path> seenPaths =
+                  seenInProgram.stream()
+                      .map(CsvColumnPlan.SeenQuestion::questionPath)
+                      .collect(ImmutableSet.toImmutableSet());
+              applicantService
+                  .getReadOnlyApplicantProgramService(
+                      applicantData, programDefinitionsForAllVersions.get(programId))
+                  .getAllQuestions()
+                  .filter(aq -> seenPaths.contains(aq.getContextualizedPath()))
+                  .forEach(questions::add);
+            });
+    return questions.build();
+  }
+
+  /**
+   * Adds enough unnamed repeated entities to {@code applicantData} for each of {@code
+   * repeatedEntityPaths}, such as {@code applicant.household_members[2].jobs[0]}, to exist.
+   */
+  private static void putPlaceholderRepeatedEntities(
+      ApplicantData applicantData, ImmutableSet<Path> repeatedEntityPaths) {
+    // The number of entities needed in each collection, outermost collections first.
+    Map<Path, Integer> entityCounts =
+        new TreeMap<>(
+            Comparator.comparingInt((Path path) -> path.segments().size())
+                .thenComparing(Path::toString));
+    for (Path repeatedEntityPath : repeatedEntityPaths) {
+      Path entityPath = Path.empty();
+      for (String segment : repeatedEntityPath.segments()) {
+        entityPath = entityPath.join(segment);
+        if (entityPath.isArrayElement()) {
+          entityCounts.merge(
+              entityPath.withoutArrayReference(), entityPath.arrayIndex() + 1, Math::max);
+        }
+      }
+    }
+    entityCounts.forEach(
+        (collectionPath, count) ->
+            applicantData.putRepeatedEntities(
+                collectionPath, ImmutableList.copyOf(Collections.nCopies(count, ""))));
+  }
+
+  /**
+   * Returns the pagination spec for the page following {@code page}, or empty if {@code page} was
+   * the last one.
+   */
+  static Optional<SubmitTimeSequentialAccessPaginationSpec> nextStreamingPageSpec(
+      ImmutableList<ApplicationModel> page) {
+    if (page.size() < STREAMING_EXPORT_PAGE_SIZE) {
+      return Optional.empty();
+    }
+    ApplicationModel lastApplication = Iterables.getLast(page);
+    return Optional.of(streamingPageSpecAfter(lastApplication.getSubmitTime(), lastApplication.id));
+  }
+
+  /** Returns the pagination spec for the page following the application with the given keys. */
+  static SubmitTimeSequentialAccessPaginationSpec streamingPageSpecAfter(
+      Instant submitTime, long applicationId) {
+    return new SubmitTimeSequentialAccessPaginationSpec(
+        STREAMING_EXPORT_PAGE_SIZE, submitTime, applicationId);
+  }
+
   private CsvExportConfig generateCsvConfig(
       ImmutableList<ApplicationModel> applications,
       ImmutableMap<Long, ProgramDefinition> programDefinitionsForAllVersions,
@@ -115,16 +480,18 @@ public final class CsvExporterService {
                     .getAllQuestions())
         .forEach(aq -> uniqueQuestions.putIfAbsent(aq.getContextualizedPath(), aq));
 
-    ImmutableList<ApplicantQuestion> sortedUniqueQuestions =
-        uniqueQuestions.values().stream()
-            // TODO(#9196): This sorts the paths lexicographically, so
-            // "household members[10] - name" is sorted above "household members[1] - name".
-            // It should be possible to write a comparator that iteratively compares segments of
-            // the Path, so that nested repeated questions are sorted correctly.
-            .sorted(Comparator.comparing(aq -> aq.getContextualizedPath().toString()))
-            .collect(ImmutableList.toImmutableList());
+    return buildColumnHeaders(sortQuestionsByPath(uniqueQuestions), showEligibilityColumn);
+  }
 
-    return buildColumnHeaders(sortedUniqueQuestions, showEligibilityColumn);
+  private static ImmutableList<ApplicantQuestion> sortQuestionsByPath(
+      Map<Path, ApplicantQuestion> uniqueQuestions) {
+    return uniqueQuestions.values().stream()
+        // TODO(#9196): This sorts the paths lexicographically, so
+        // "household members[10] - name" is sorted above "household members[1] - name".
+        // It should be possible to write a comparator that iteratively compares segments of
+        // the Path, so that nested repeated questions are sorted correctly.
+        .sorted(Comparator.comparing(aq -> aq.getContextualizedPath().toString()))
+        .collect(ImmutableList.toImmutableList());
   }
 
   /**
@@ -151,22 +518,28 @@ public final class CsvExporterService {
         boolean shouldCheckEligibility =
             currentProgram.isPresent() && currentProgram.get().hasEligibilityEnabled();
 
-        for (ApplicationModel application : applications) {
-          ProgramDefinition programDefForApplication =
-              getProgramDefinition.apply(application.getProgram().id);
-          ReadOnlyApplicantProgramService roApplicantService =
-              applicantService.getReadOnlyApplicantProgramService(
-                  application, programDefForApplication);
-
-          Optional<Boolean> optionalEligibilityStatus =
-              shouldCheckEligibility
-                  ? applicantService.getApplicationEligibilityStatus(
-                      application, programDefForApplication)
-                  : Optional.empty();
-
-          csvExporter.exportRecord(
-              application, roApplicantService, optionalEligibilityStatus, programDefForApplication);
-        }
+        rowRenderer.renderInOrder(
+            applications,
+            application -> {
+              ProgramDefinition programDefForApplication =
+                  getProgramDefinition.apply(application.getProgram().id);
+              ReadOnlyApplicantProgramService roApplicantService =
+                  applicantService.getReadOnlyApplicantProgramService(
+                      application, programDefForApplication);
+
+              Optional<Boolean> optionalEligibilityStatus =
+                  shouldCheckEligibility
+                      ? applicantService.getApplicationEligibilityStatus(
+                          application, programDefForApplication)
+                      : Optional.empty();
+
+              return csvExporter.renderRecord(
+                  application,
+                  roApplicantService,
+                  optionalEligibilityStatus,
+                  programDefForApplication);
+            },
+            csvExporter::printRecord);
       }
     } catch (IOException e) {
       // Since it's an in-memory writer, this shouldn't happen.  Catch so that callers don't
@@ -0,0 +1,19 @@
+package services.export;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import org.apache.pekko.actor.ActorSystem;
+import services.monitoring.InstrumentedExecutionContext;
+
+/**
+ * Custom execution context wired to "export.dispatcher" thread pool
+ *
+ * <p>This is for CPU bound rendering, like the rows of an export or an application PDF.
+ */
+@Singleton
+public class ExportExecutionContext extends InstrumentedExecutionContext {
+  @Inject
+  public ExportExecutionContext(ActorSystem actorSystem) {
+    super(actorSystem, "export.dispatcher");
+  }
+}
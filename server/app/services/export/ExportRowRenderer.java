@@ -0,0 +1,86 @@
+package services.export;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.google.common.base.Throwables;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+/**
+ * Renders the rows of an export several at a time on the {@link ExportExecutionContext}, and hands
+ * them to a writer in the order of the applications they were rendered from.
+ *
+ * <p>Rendering a row builds the applicant's answers to the program and evaluates eligibility, which
+ * is CPU bound and independent for each application, while the rows have to be written one after
+ * another. At most {@code maxRowsInFlight} rows are being rendered or waiting to be written at a
+ * time, so a slow writer holds back rendering rather than letting rendered rows pile up in memory.
+ */
+@Singleton
+public final class ExportRowRenderer {
+  /** Enough to keep every thread of the export dispatcher busy while the writer catches up. */
+  private static final int DEFAULT_MAX_ROWS_IN_FLIGHT = 64;
+
+  private final Executor executor;
+  private final int maxRowsInFlight;
+
+  @Inject
+  public ExportRowRenderer(ExportExecutionContext exportExecutionContext) {
+    this(exportExecutionContext, DEFAULT_MAX_ROWS_IN_FLIGHT);
+  }
+
+  ExportRowRenderer(Executor executor, int maxRowsInFlight) {
+    checkArgument(maxRowsInFlight > 0, "maxRowsInFlight must be positive");
+    this.executor = checkNotNull(executor);
+    this.maxRowsInFlight = maxRowsInFlight;
+  }
+
+  /** Writes a rendered row. */
+  @FunctionalInterface
+  public interface RowWriter<R> {
+    void write(R row) throws IOException;
+  }
+
+  /**
+   * Renders each of {@code items} with {@code renderer} and writes the rows with {@code writer}, in
+   * the order of {@code items}. Returns once every row is written.
+   *
+   * <p>{@code renderer} is called concurrently, so it must be safe to call from several threads.
+   * {@code writer} is only called from the calling thread. If rendering or writing a row fails, the
+   * rows not yet started are abandoned and the failure is rethrown.
+   */
+  public <T, R> void renderInOrder(
+      Iterable<T> items, Function<? super T, ? extends R> renderer, RowWriter<? super R> writer)
+      throws IOException {
+    ArrayDeque<CompletableFuture<R>> rowsInFlight = new ArrayDeque<>(maxRowsInFlight);
+    try {
+      for (T item : items) {
+        if (rowsInFlight.size() == maxRowsInFlight) {
+          writer.write(await(rowsInFlight.removeFirst()));
+        }
+        rowsInFlight.addLast(CompletableFuture.supplyAsync(() -> renderer.apply(item), executor));
+      }
+      while (!rowsInFlight.isEmpty()) {
+        writer.write(await(rowsInFlight.removeFirst()));
+      }
+    } finally {
+      // Empty unless a row failed, in which case the rest won't be written.
+      rowsInFlight.forEach(row -> row.cancel(/* mayInterruptIfRunning= */ false));
+    }
+  }
+
+  private static <R> R await(CompletableFuture<R> row) {
+    try {
+      return row.join();
+    } catch (CompletionException e) {
+      Throwables.throwIfUnchecked(e.getCause());
+      throw e;
+    }
+  }
+}
@@ -2,15 +2,21 @@ package services.export;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.guava.GuavaModule;
+import com.fasterxml.jackson.datatype.jdk8.Jdk8Module;
 import com.google.auto.value.AutoValue;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
-import com.jayway.jsonpath.DocumentContext;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
 import java.time.Instant;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.concurrent.atomic.AtomicBoolean;
 import javax.inject.Inject;
 import models.ApplicationModel;
 import models.LifecycleStage;
@@ -22,7 +28,6 @@ import services.DateConverter;
 import services.Path;
 import services.applicant.ApplicantData;
 import services.applicant.ApplicantService;
-import services.applicant.JsonPathProvider;
 import services.applicant.question.ApplicantQuestion;
 import services.export.enums.RevisionState;
 import services.export.enums.SubmitterType;
@@ -39,18 +44,23 @@ public final class JsonExporterService {
   private final ProgramService programService;
   private final DateConverter dateConverter;
   private final QuestionJsonPresenter.Factory presenterFactory;
+  private final ExportRowRenderer rowRenderer;
   private static final String EMPTY_VALUE = "";
+  private static final ObjectMapper mapper =
+      new ObjectMapper().registerModule(new GuavaModule()).registerModule(new Jdk8Module());
 
   @Inject
   JsonExporterService(
       ApplicantService applicantService,
       ProgramService programService,
       DateConverter dateConverter,
-      QuestionJsonPresenter.Factory presenterFactory) {
+      QuestionJsonPresenter.Factory presenterFactory,
+      ExportRowRenderer rowRenderer) {
     this.applicantService = checkNotNull(applicantService);
     this.programService = checkNotNull(programService);
     this.dateConverter = dateConverter;
     this.presenterFactory = checkNotNull(presenterFactory);
+    this.rowRenderer = checkNotNull(rowRenderer);
   }
 
   /**
@@ -83,8 +93,66 @@ public final class JsonExporterService {
    */
   public String exportPage(
       ProgramDefinition programDefinition, PaginationResult<ApplicationModel> paginationResult) {
-    ImmutableList<ApplicationModel> applications = paginationResult.getPageContents();
+    StringWriter writer = new StringWriter();
+    try (JsonGenerator jsonGenerator = createJsonGenerator(writer)) {
+      writePage(programDefinition, paginationResult, jsonGenerator);
+    } catch (IOException e) {
+      throw new RuntimeException(e);
+    }
+    return writer.toString();
+  }
 
+  /**
+   * Writes a JSON list of applications to the given program, using the page of applications
+   * supplied, to {@code jsonGenerator} one application at a time.
+   *
+   * @param programDefinition the program definition of the exported applications
+   * @param paginationResult the page of applications to export
+   * @param jsonGenerator the generator to write the list to
+   */
+  public void writePage(
+      ProgramDefinition programDefinition,
+      PaginationResult<ApplicationModel> paginationResult,
+      JsonGenerator jsonGenerator)
+      throws IOException {
+    ProgramJsonExport programJsonExport = prepareProgramJsonExport(programDefinition);
+    jsonGenerator.writeStartArray();
+    programJsonExport.writeApplications(jsonGenerator, paginationResult.getPageContents());
+    jsonGenerator.writeEndArray();
+  }
+
+  /**
+   * Writes a JSON list of all applications to all versions of the given program that match {@code
+   * filters} to {@code writer}. Applications are loaded and written a page at a time, so the whole
+   * export is never held in memory.
+   */
+  public void streamProgramAllVersionsJson(
+      ProgramDefinition programDefinition, SubmittedApplicationFilter filters, Writer writer)
+      throws IOException {
+    ProgramJsonExport programJsonExport = prepareProgramJsonExport(programDefinition);
+
+    try (JsonGenerator jsonGenerator = createJsonGenerator(writer)) {
+      jsonGenerator.writeStartArray();
+      Optional<SubmitTimeSequentialAccessPaginationSpec> paginationSpec =
+          Optional.of(CsvExporterService.FIRST_STREAMING_PAGE_SPEC);
+      while (paginationSpec.isPresent()) {
+        ImmutableList<ApplicationModel> page =
+            programService.getSubmittedProgramApplicationsPageAllVersions(
+                programDefinition.id(), paginationSpec.get(), filters);
+        programJsonExport.writeApplications(jsonGenerator, page);
+        // Hand each page to the consumer as it is completed.
+        jsonGenerator.flush();
+        paginationSpec = CsvExporterService.nextStreamingPageSpec(page);
+      }
+      jsonGenerator.writeEndArray();
+    }
+  }
+
+  /**
+   * Prepare a JSON export of applications to all versions of the given program, which can then be
+   * written an application at a time.
+   */
+  public ProgramJsonExport prepareProgramJsonExport(ProgramDefinition programDefinition) {
     ImmutableMap<Long, ProgramDefinition> programDefinitionsForAllVersions =
         programService.getAllVersionsFullProgramDefinition(programDefinition.id()).stream()
             .collect(ImmutableMap.toImmutableMap(ProgramDefinition::id, pd -> pd));
@@ -120,23 +188,69 @@ public final class JsonExporterService {
     // TODO(#8147): I'm not sure if reading the template out into a string, just to re-parse it into
     // a JsonData for each application, is more or less efficient than trying to clone a JsonData
     // object.
-    String jsonStringTemplate = template.asJsonString();
-
-    // Then use the template when exporting each application.
-    DocumentContext jsonData =
-        applications.stream()
-            .map(
-                app ->
-                    buildApplicationExportData(
-                        app, programDefinitionsForAllVersions.get(app.getProgram().id)))
-            .collect(
-                Collectors.collectingAndThen(
-                    ImmutableList.toImmutableList(),
-                    appDataList ->
-                        convertApplicationExportDataListToJsonArray(
-                            appDataList, jsonStringTemplate)));
-
-    return jsonData.jsonString();
+    return new ProgramJsonExport(programDefinitionsForAllVersions, template.asJsonString());
+  }
+
+  /**
+   * The program definitions and answer template of a JSON export of the applications to all
+   * versions of a program. See {@link #prepareProgramJsonExport}.
+   */
+  public final class ProgramJsonExport {
+    private final ImmutableMap<Long, ProgramDefinition> programDefinitionsForAllVersions;
+    private final String jsonTemplate;
+
+    private ProgramJsonExport(
+        ImmutableMap<Long, ProgramDefinition> programDefinitionsForAllVersions,
+        String jsonTemplate) {
+      this.programDefinitionsForAllVersions = checkNotNull(programDefinitionsForAllVersions);
+      this.jsonTemplate = checkNotNull(jsonTemplate);
+    }
+
+    /**
+     * Writes each of {@code applications} to {@code jsonGenerator} as a JSON object, in order. The
+     * answers of the applications are gathered in parallel by the {@link ExportRowRenderer}.
+     */
+    public void writeApplications(
+        JsonGenerator jsonGenerator, ImmutableList<ApplicationModel> applications)
+        throws IOException {
+      rowRenderer.renderInOrder(
+          applications,
+          this::buildApplicationExportData,
+          applicationExportData ->
+              writeApplicationExportData(jsonGenerator, applicationExportData, jsonTemplate));
+    }
+
+    /**
+     * Writes each of {@code applications} to {@code jsonGenerator} as a JSON object, separated by
+     * raw commas, for continuing an array the generator doesn't know about. A comma is written
+     * before the first application too if {@code followsApplication}.
+     */
+    public void writeApplicationsToRawArray(
+        JsonGenerator jsonGenerator,
+        ImmutableList<ApplicationModel> applications,
+        boolean followsApplication)
+        throws IOException {
+      AtomicBoolean needsSeparator = new AtomicBoolean(followsApplication);
+      rowRenderer.renderInOrder(
+          applications,
+          this::buildApplicationExportData,
+          applicationExportData -> {
+            if (needsSeparator.getAndSet(true)) {
+              jsonGenerator.writeRaw(',');
+            }
+            writeApplicationExportData(jsonGenerator, applicationExportData, jsonTemplate);
+          });
+    }
+
+    private ApplicationExportData buildApplicationExportData(ApplicationModel application) {
+      return JsonExporterService.this.buildApplicationExportData(
+          application, programDefinitionsForAllVersions.get(application.getProgram().id));
+    }
+  }
+
+  /** Returns a generator that writes compact JSON to {@code writer}. */
+  public static JsonGenerator createJsonGenerator(Writer writer) throws IOException {
+    return mapper.getFactory().createGenerator(writer);
   }
 
   /**
@@ -145,18 +259,19 @@ public final class JsonExporterService {
    * @param applicationExportDataList the list of applications to export as JSON
    * @return the exported applications, as a JSON array
    */
-  public DocumentContext convertApplicationExportDataListToJsonArray(
+  public String convertApplicationExportDataListToJsonArray(
       ImmutableList<ApplicationExportData> applicationExportDataList, String jsonTemplate) {
-    DocumentContext applications = makeEmptyJsonArray();
-    applicationExportDataList.forEach(
-        applicationExportData -> {
-          applications.add(
-              "$",
-              convertExportDataToJson(applicationExportData, jsonTemplate)
-                  .getDocumentContext()
-                  .json());
-        });
-    return applications;
+    StringWriter writer = new StringWriter();
+    try (JsonGenerator jsonGenerator = createJsonGenerator(writer)) {
+      jsonGenerator.writeStartArray();
+      for (ApplicationExportData applicationExportData : applicationExportDataList) {
+        writeApplicationExportData(jsonGenerator, applicationExportData, jsonTemplate);
+      }
+      jsonGenerator.writeEndArray();
+    } catch (IOException e) {
+      throw new RuntimeException(e);
+    }
+    return writer.toString();
   }
 
   private ApplicationExportData buildApplicationExportData(
@@ -212,60 +327,67 @@ public final class JsonExporterService {
         .build();
   }
 
-  private CfJsonDocumentContext convertExportDataToJson(
-      ApplicationExportData applicationExportData, String jsonTemplate) {
-    CfJsonDocumentContext jsonApplication = new CfJsonDocumentContext(jsonTemplate);
-
-    jsonApplication.putString(Path.create("program_name"), applicationExportData.adminName());
-    jsonApplication.putLong(Path.create("program_version_id"), applicationExportData.programId());
-    jsonApplication.putLong(Path.create("applicant_id"), applicationExportData.applicantId());
-    jsonApplication.putLong(Path.create("application_id"), applicationExportData.applicationId());
-    jsonApplication.putString(Path.create("language"), applicationExportData.languageTag());
-    jsonApplication.putString(
-        Path.create("create_time"),
-        dateConverter.renderDateTimeIso8601ExtendedOffset(applicationExportData.createTime()));
-    jsonApplication.putString(
-        Path.create("submitter_type"), applicationExportData.submitterType().toString());
-    jsonApplication.putString(Path.create("ti_email"), applicationExportData.tiEmail());
-    jsonApplication.putString(
-        Path.create("ti_organization"), applicationExportData.tiOrganization());
-    Path submitTimePath = Path.create("submit_time");
-    Optional.ofNullable(applicationExportData.submitTime())
-        .ifPresentOrElse(
-            submitTime ->
-                jsonApplication.putString(
-                    submitTimePath, dateConverter.renderDateTimeIso8601ExtendedOffset(submitTime)),
-            () -> jsonApplication.putNull(submitTimePath));
-    jsonApplication.putString(
-        Path.create("revision_state"), applicationExportData.revisionState().toString());
-
-    Path statusPath = Path.create("status");
-    applicationExportData
-        .status()
-        .ifPresentOrElse(
-            status -> jsonApplication.putString(statusPath, status),
-            () -> jsonApplication.putNull(statusPath));
-
-    Path notePath = Path.create("application_note");
-    applicationExportData
-        .applicationNote()
-        .ifPresentOrElse(
-            applicationNote -> jsonApplication.putString(notePath, applicationNote),
-            () -> jsonApplication.putNull(notePath));
-
-    Path statusLastModiedTimePath = Path.create("status_last_modified_time");
-    applicationExportData
-        .statusLastModifiedTime()
-        .ifPresentOrElse(
-            statusLastModifiedTime ->
-                jsonApplication.putString(
-                    statusLastModiedTimePath,
-                    dateConverter.renderDateTimeIso8601ExtendedOffset(statusLastModifiedTime)),
-            () -> jsonApplication.putNull(statusLastModiedTimePath));
-
+  private void writeApplicationExportData(
+      JsonGenerator jsonGenerator, ApplicationExportData applicationExportData, String jsonTemplate)
+      throws IOException {
+    // The answers are nested under paths of arbitrary depth, so they are assembled in a document
+    // before being written out.
+    CfJsonDocumentContext jsonAnswers = new CfJsonDocumentContext(jsonTemplate);
     exportApplicationEntriesToJsonApplication(
-        jsonApplication, applicationExportData.applicationEntries());
-    return jsonApplication;
+        jsonAnswers, applicationExportData.applicationEntries());
+    Map<?, ?> answers = jsonAnswers.getDocumentContext().json();
+
+    jsonGenerator.writeStartObject();
+    for (Map.Entry<?, ?> entry : answers.entrySet()) {
+      jsonGenerator.writeFieldName((String) entry.getKey());
+      jsonGenerator.writeObject(entry.getValue());
+    }
+    writeStringOrNull(
+        jsonGenerator, "program_name", Optional.of(applicationExportData.adminName()));
+    jsonGenerator.writeNumberField("program_version_id", applicationExportData.programId());
+    jsonGenerator.writeNumberField("applicant_id", applicationExportData.applicantId());
+    jsonGenerator.writeNumberField("application_id", applicationExportData.applicationId());
+    writeStringOrNull(jsonGenerator, "language", Optional.of(applicationExportData.languageTag()));
+    writeStringOrNull(
+        jsonGenerator,
+        "create_time",
+        Optional.of(
+            dateConverter.renderDateTimeIso8601ExtendedOffset(applicationExportData.createTime())));
+    writeStringOrNull(
+        jsonGenerator,
+        "submitter_type",
+        Optional.of(applicationExportData.submitterType().toString()));
+    writeStringOrNull(jsonGenerator, "ti_email", Optional.of(applicationExportData.tiEmail()));
+    writeStringOrNull(
+        jsonGenerator, "ti_organization", Optional.of(applicationExportData.tiOrganization()));
+    writeStringOrNull(
+        jsonGenerator,
+        "submit_time",
+        Optional.ofNullable(applicationExportData.submitTime())
+            .map(dateConverter::renderDateTimeIso8601ExtendedOffset));
+    writeStringOrNull(
+        jsonGenerator,
+        "revision_state",
+        Optional.of(applicationExportData.revisionState().toString()));
+    writeStringOrNull(jsonGenerator, "status", applicationExportData.status());
+    writeStringOrNull(jsonGenerator, "application_note", applicationExportData.applicationNote());
+    writeStringOrNull(
+        jsonGenerator,
+        "status_last_modified_time",
+        applicationExportData
+            .statusLastModifiedTime()
+            .map(dateConverter::renderDateTimeIso8601ExtendedOffset));
+    jsonGenerator.writeEndObject();
+  }
+
+  /** Writes {@code value}, or null if it is empty, as {@link CfJsonDocumentContext} would. */
+  private static void writeStringOrNull(
+      JsonGenerator jsonGenerator, String fieldName, Optional<String> value) throws IOException {
+    if (value.isPresent() && !value.get().isEmpty()) {
+      jsonGenerator.writeStringField(fieldName, value.get());
+    } else {
+      jsonGenerator.writeNullField(fieldName);
+    }
   }
 
   private static void exportApplicationEntriesToJsonApplication(
@@ -312,10 +434,6 @@ public final class JsonExporterService {
     return ((ImmutableList<?>) value).isEmpty();
   }
 
-  private DocumentContext makeEmptyJsonArray() {
-    return JsonPathProvider.getJsonPath().parse("[]");
-  }
-
   private static RevisionState toRevisionState(LifecycleStage lifecycleStage) {
     return switch (lifecycleStage) {
       case ACTIVE -> RevisionState.CURRENT;
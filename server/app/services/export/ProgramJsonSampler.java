@@ -92,10 +92,8 @@ public final class ProgramJsonSampler {
     }
 
     return apiPayloadWrapper.wrapPayload(
-        jsonExporterService
-            .convertApplicationExportDataListToJsonArray(
-                ImmutableList.of(jsonExportData.build()), "{}")
-            .jsonString(),
+        jsonExporterService.convertApplicationExportDataListToJsonArray(
+            ImmutableList.of(jsonExportData.build()), "{}"),
         /* paginationTokenPayload= */ Optional.empty());
   }
 }
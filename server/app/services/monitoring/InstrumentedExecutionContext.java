@@ -0,0 +1,73 @@
+package services.monitoring;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import io.prometheus.client.Gauge;
+import io.prometheus.client.Histogram;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import org.apache.pekko.actor.ActorSystem;
+import play.libs.concurrent.CustomExecutionContext;
+import scala.concurrent.ExecutionContext;
+import scala.concurrent.ExecutionContextExecutor;
+
+/**
+ * A {@link CustomExecutionContext} that exports to Prometheus how many tasks are waiting for a
+ * thread of its dispatcher and how long they waited, labelled with the name of the dispatcher.
+ *
+ * <p>Each kind of blocking work has its own dispatcher so that one kind running slow can't take the
+ * threads of another. A growing queue on one of them shows which kind of work is short of threads.
+ */
+public abstract class InstrumentedExecutionContext extends CustomExecutionContext {
+  private static final Gauge QUEUED_TASKS =
+      Gauge.build()
+          .name("executor_queued_tasks")
+          .help("Number of tasks waiting for a thread of the dispatcher")
+          .labelNames("dispatcher")
+          .register();
+
+  private static final Histogram QUEUE_WAIT_TIME =
+      Histogram.build()
+          .name("executor_queue_wait_seconds")
+          .help("Time tasks waited for a thread of the dispatcher")
+          .labelNames("dispatcher")
+          .buckets(0.001, 0.005, 0.01, 0.05, 0.1, 0.5, 1, 5, 10, 30)
+          .register();
+
+  private final Gauge.Child queuedTasks;
+  private final Histogram.Child queueWaitTime;
+
+  protected InstrumentedExecutionContext(ActorSystem actorSystem, String dispatcherName) {
+    super(checkNotNull(actorSystem), dispatcherName);
+    this.queuedTasks = QUEUED_TASKS.labels(dispatcherName);
+    this.queueWaitTime = QUEUE_WAIT_TIME.labels(dispatcherName);
+  }
+
+  @Override
+  public void execute(Runnable command) {
+    executeInstrumented(command, super::execute);
+  }
+
+  /** Like {@link CustomExecutionContext#current}, with the tasks it runs counted too. */
+  @Override
+  public ExecutionContextExecutor current() {
+    ExecutionContextExecutor current = super.current();
+    return ExecutionContext.fromExecutor(command -> executeInstrumented(command, current::execute));
+  }
+
+  private void executeInstrumented(Runnable command, Executor executor) {
+    long queuedAtNanos = System.nanoTime();
+    queuedTasks.inc();
+    try {
+      executor.execute(
+          () -> {
+            queuedTasks.dec();
+            queueWaitTime.observe((System.nanoTime() - queuedAtNanos) / 1e9);
+            command.run();
+          });
+    } catch (RejectedExecutionException e) {
+      queuedTasks.dec();
+      throw e;
+    }
+  }
+}
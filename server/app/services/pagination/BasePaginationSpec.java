@@ -1,5 +1,8 @@
 package services.pagination;
 
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.google.common.collect.ImmutableList;
 import io.ebean.Query;
 
 /**
@@ -17,7 +20,8 @@ import io.ebean.Query;
  * only access pages in sequence. Usually used for export functions and API retrieve methods.
  *
  * <p>Implementations of this interface are: PageNumberPaginationSpec,
- * RowIdSequentialAccessPaginationSpec, and SubmitTimeSequentialAccessPaginationSpec.
+ * RowIdSequentialAccessPaginationSpec, SubmitTimeSequentialAccessPaginationSpec, and
+ * SubmitTimeKeysetPaginationSpec.
  *
  * <p>PageNumberPaginationSpec: sorts by submit time, is a random access paging spec. Recommended
  * for user facing views.
@@ -28,6 +32,12 @@ import io.ebean.Query;
  * <p>SubmitTimeSequentialAccessPaginationSpec: sorts by submit time, is a sequential access paging
  * spec. Recommended for CSV/JSON export methods.
  *
+ * <p>SubmitTimeKeysetPaginationSpec: sorts by submit time, is a sequential access paging spec that
+ * can step backwards as well as forwards. Recommended for user facing views over large results.
+ *
+ * <p>Each spec also has a {@link CountStrategy} for how the total number of matching rows is
+ * worked out. It defaults to {@link CountStrategy#EXACT}.
+ *
  * <p>Usage:
  *
  * <p>During query build-up for a list of Models, apply the pagination spec before calling
@@ -37,15 +47,25 @@ import io.ebean.Query;
  */
 public abstract class BasePaginationSpec {
   private final int pageSize;
+  private final CountStrategy countStrategy;
 
   public BasePaginationSpec(int pageSize) {
+    this(pageSize, CountStrategy.EXACT);
+  }
+
+  public BasePaginationSpec(int pageSize, CountStrategy countStrategy) {
     this.pageSize = pageSize;
+    this.countStrategy = checkNotNull(countStrategy);
   }
 
   public int getPageSize() {
     return this.pageSize;
   }
 
+  public CountStrategy getCountStrategy() {
+    return this.countStrategy;
+  }
+
   /**
    * Modifies the passed in query the following expressions: - setMaxRows: page size - orderBy:
    * desired sort order
@@ -85,4 +105,12 @@ public abstract class BasePaginationSpec {
   protected <T> Query<T> maybeApplySetFirstRow(Query<T> query) {
     return query;
   }
+
+  /**
+   * Puts the rows read by a query built with {@link #apply} in the order they should be returned.
+   * Only implemented in the subclass if the query reads rows in the opposite order.
+   */
+  public <T> ImmutableList<T> orderPageContents(ImmutableList<T> pageContents) {
+    return pageContents;
+  }
 }
@@ -0,0 +1,18 @@
+package services.pagination;
+
+/**
+ * How the total number of rows matching a paginated query is worked out, which determines {@link
+ * PaginationResult#getNumPages()}.
+ *
+ * <p>Counting every matching row is the most expensive part of serving a page of a large result,
+ * so callers that don't show a page count should use {@link #NONE}.
+ */
+public enum CountStrategy {
+  /** Runs a {@code COUNT(*)} over every matching row. */
+  EXACT,
+  /**
+   * Doesn't count the matching rows. Whether there is a next page is found by reading one row past
+   * the end of the page, and the number of pages is reported as 0.
+   */
+  NONE
+}
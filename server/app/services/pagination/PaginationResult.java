@@ -20,6 +20,10 @@ public class PaginationResult<T> {
     return hasNext;
   }
 
+  /**
+   * The number of pages of matching rows, worked out with the {@link CountStrategy} of the spec
+   * used for the query. Always 0 for {@link CountStrategy#NONE}.
+   */
   public int getNumPages() {
     return this.numPages;
   }
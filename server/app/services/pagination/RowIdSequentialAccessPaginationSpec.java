@@ -27,6 +27,12 @@ public class RowIdSequentialAccessPaginationSpec extends BasePaginationSpec {
     this.currentRowId = currentRowId;
   }
 
+  public RowIdSequentialAccessPaginationSpec(
+      int pageSize, Long currentRowId, CountStrategy countStrategy) {
+    super(pageSize, countStrategy);
+    this.currentRowId = currentRowId;
+  }
+
   @Override
   protected <T> Query<T> applyOrderBy(Query<T> query) {
     return query.orderBy("id desc");
@@ -0,0 +1,151 @@
+package services.pagination;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.google.common.collect.ImmutableList;
+import io.ebean.Query;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Optional;
+
+/**
+ * SubmitTimeKeysetPaginationSpec implements sequential paging access into a list of rows sorted by
+ * the submitTime column, newest first, that can step to the page of older or newer rows next to a
+ * row.
+ *
+ * <p>The table being paged must have the following columns defined: submitTime, id.
+ *
+ * <p>This spec is recommended for paging in a user interface view over a result too large to count
+ * or to page through by offset. Every page is read with the (submitTime, id) index, so access
+ * performance is constant, but there are no page numbers: the view can only link to the next and
+ * previous pages, using the {@link Cursor} of the last and first rows shown.
+ */
+public class SubmitTimeKeysetPaginationSpec extends BasePaginationSpec {
+
+  /** The position of a row in the sort order, which may be passed between requests as a token. */
+  public record Cursor(Instant submitTime, long id) {
+    private static final char TOKEN_SEPARATOR = '_';
+
+    public Cursor {
+      checkNotNull(submitTime);
+    }
+
+    public String toToken() {
+      return submitTime.toString() + TOKEN_SEPARATOR + id;
+    }
+
+    /** Parses a token made by {@link #toToken()}, or returns empty if it is malformed. */
+    public static Optional<Cursor> fromToken(String token) {
+      int separatorIndex = token.lastIndexOf(TOKEN_SEPARATOR);
+      if (separatorIndex < 0) {
+        return Optional.empty();
+      }
+      try {
+        return Optional.of(
+            new Cursor(
+                Instant.parse(token.substring(0, separatorIndex)),
+                Long.parseLong(token.substring(separatorIndex + 1))));
+      } catch (DateTimeParseException | NumberFormatException e) {
+        return Optional.empty();
+      }
+    }
+  }
+
+  private enum Direction {
+    OLDER,
+    NEWER
+  }
+
+  private final Optional<Cursor> cursor;
+  private final Direction direction;
+
+  private SubmitTimeKeysetPaginationSpec(
+      int pageSize, CountStrategy countStrategy, Optional<Cursor> cursor, Direction direction) {
+    super(pageSize, countStrategy);
+    this.cursor = checkNotNull(cursor);
+    this.direction = checkNotNull(direction);
+  }
+
+  /** The page of the newest rows. */
+  public static SubmitTimeKeysetPaginationSpec firstPage(
+      int pageSize, CountStrategy countStrategy) {
+    return new SubmitTimeKeysetPaginationSpec(
+        pageSize, countStrategy, Optional.empty(), Direction.OLDER);
+  }
+
+  /** The page of rows that come just after {@code cursor}, which are older than it. */
+  public static SubmitTimeKeysetPaginationSpec olderThan(
+      int pageSize, CountStrategy countStrategy, Cursor cursor) {
+    return new SubmitTimeKeysetPaginationSpec(
+        pageSize, countStrategy, Optional.of(cursor), Direction.OLDER);
+  }
+
+  /** The page of rows that come just before {@code cursor}, which are newer than it. */
+  public static SubmitTimeKeysetPaginationSpec newerThan(
+      int pageSize, CountStrategy countStrategy, Cursor cursor) {
+    return new SubmitTimeKeysetPaginationSpec(
+        pageSize, countStrategy, Optional.of(cursor), Direction.NEWER);
+  }
+
+  /** True if this is the page of the newest rows. */
+  public boolean isFirstPage() {
+    return cursor.isEmpty();
+  }
+
+  /**
+   * True if this page steps towards newer rows, in which case {@link
+   * PaginationResult#hasMorePages()} says whether there are newer rows than the page rather than
+   * older ones.
+   */
+  public boolean isNewerThanCursor() {
+    return direction == Direction.NEWER;
+  }
+
+  @Override
+  protected <T> Query<T> applyOrderBy(Query<T> query) {
+    return direction == Direction.OLDER
+        ? query.orderBy("submitTime desc, id desc")
+        : query.orderBy("submitTime asc, id asc");
+  }
+
+  @Override
+  protected <T> Query<T> maybeApplyWhere(Query<T> query) {
+    if (cursor.isEmpty()) {
+      return query;
+    }
+    Instant submitTime = cursor.get().submitTime();
+    long id = cursor.get().id();
+
+    if (direction == Direction.OLDER) {
+      // WHERE (submitTime == cursorSubmitTime AND id < cursorId) OR (submitTime <
+      // cursorSubmitTime)
+      return query
+          .where()
+          .or()
+          .and()
+          .eq("submitTime", submitTime)
+          .lt("id", id)
+          .endAnd()
+          .lt("submitTime", submitTime)
+          .endOr()
+          .query();
+    }
+    // WHERE (submitTime == cursorSubmitTime AND id > cursorId) OR (submitTime > cursorSubmitTime)
+    return query
+        .where()
+        .or()
+        .and()
+        .eq("submitTime", submitTime)
+        .gt("id", id)
+        .endAnd()
+        .gt("submitTime", submitTime)
+        .endOr()
+        .query();
+  }
+
+  /** Newer pages are read oldest first, so they're reversed to be returned newest first. */
+  @Override
+  public <T> ImmutableList<T> orderPageContents(ImmutableList<T> pageContents) {
+    return direction == Direction.OLDER ? pageContents : pageContents.reverse();
+  }
+}
@@ -0,0 +1,79 @@
+package services.program;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import auth.CiviFormProfile;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableListMultimap;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Multimaps;
+import java.util.Optional;
+import models.DisplayMode;
+
+/**
+ * An immutable snapshot of the programs in an active version, with the question definitions needed
+ * to evaluate eligibility already synced, for serving the programs applicants can see.
+ *
+ * <p>Unlike {@link ActiveAndDraftPrograms}, a catalog may be kept for as long as its version is
+ * active, since the programs in a published version don't change. Use {@link
+ * ProgramService#getActiveProgramCatalog()} to get the catalog for the current active version.
+ */
+public final class ActiveProgramCatalog {
+  private final long versionId;
+  private final ImmutableList<ProgramDefinition> programs;
+  private final ImmutableMap<Long, ProgramDefinition> programsById;
+  private final ImmutableListMultimap<DisplayMode, ProgramDefinition> programsByDisplayMode;
+  private final ImmutableList<ProgramDefinition> trustedIntermediaryPrograms;
+
+  ActiveProgramCatalog(long versionId, ImmutableList<ProgramDefinition> programs) {
+    this.versionId = versionId;
+    this.programs = checkNotNull(programs);
+    this.programsById = Maps.uniqueIndex(programs, ProgramDefinition::id);
+    this.programsByDisplayMode = Multimaps.index(programs, ProgramDefinition::displayMode);
+    this.trustedIntermediaryPrograms =
+        programs.stream()
+            .filter(
+                program ->
+                    program.displayMode().equals(DisplayMode.PUBLIC)
+                        || program.displayMode().equals(DisplayMode.TI_ONLY))
+            .collect(ImmutableList.toImmutableList());
+  }
+
+  /** The id of the version the programs belong to. */
+  public long getVersionId() {
+    return versionId;
+  }
+
+  /** All programs in the version, including disabled and hidden ones. */
+  public ImmutableList<ProgramDefinition> getPrograms() {
+    return programs;
+  }
+
+  /** The program with {@code programId} if it is in the version. */
+  public Optional<ProgramDefinition> getProgram(long programId) {
+    return Optional.ofNullable(programsById.get(programId));
+  }
+
+  /** The programs in the version with {@code displayMode}. */
+  public ImmutableList<ProgramDefinition> getPrograms(DisplayMode displayMode) {
+    return programsByDisplayMode.get(displayMode);
+  }
+
+  /**
+   * The programs {@code profile} may see: public programs, programs for trusted intermediaries if
+   * the profile is one, and programs for selected trusted intermediary groups the profile belongs
+   * to.
+   */
+  public ImmutableList<ProgramDefinition> getProgramsVisibleTo(CiviFormProfile profile) {
+    ImmutableList.Builder<ProgramDefinition> visiblePrograms = ImmutableList.builder();
+    visiblePrograms.addAll(
+        profile.isTrustedIntermediary()
+            ? trustedIntermediaryPrograms
+            : getPrograms(DisplayMode.PUBLIC));
+    getPrograms(DisplayMode.SELECT_TI).stream()
+        .filter(program -> program.acls().hasProgramViewPermission(profile))
+        .forEach(visiblePrograms::add);
+    return visiblePrograms.build();
+  }
+}
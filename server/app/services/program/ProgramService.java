@@ -35,6 +35,8 @@ import models.ProgramNotificationPreference;
 import models.VersionModel;
 import modules.MainModule;
 import org.apache.commons.lang3.StringUtils;
+import play.cache.NamedCache;
+import play.cache.SyncCacheApi;
 import play.libs.concurrent.ClassLoaderExecutionContext;
 import repository.AccountRepository;
 import repository.ApplicationStatusesRepository;
@@ -54,6 +56,7 @@ import services.question.QuestionService;
 import services.question.ReadOnlyQuestionService;
 import services.question.exceptions.QuestionNotFoundException;
 import services.question.types.QuestionDefinition;
+import services.settings.SettingsManifest;
 import services.statuses.StatusDefinitions;
 
 /**
@@ -94,6 +97,8 @@ public final class ProgramService {
   private final CategoryRepository categoryRepository;
   private final ProgramBlockValidationFactory programBlockValidationFactory;
   private final ApplicationStatusesRepository applicationStatusesRepository;
+  private final SettingsManifest settingsManifest;
+  private final SyncCacheApi programCatalogCache;
 
   @Inject
   public ProgramService(
@@ -104,7 +109,9 @@ public final class ProgramService {
       CategoryRepository categoryRepository,
       ClassLoaderExecutionContext classLoaderExecutionContext,
       ProgramBlockValidationFactory programBlockValidationFactory,
-      ApplicationStatusesRepository applicationStatusesRepository) {
+      ApplicationStatusesRepository applicationStatusesRepository,
+      SettingsManifest settingsManifest,
+      @NamedCache("program-catalog") SyncCacheApi programCatalogCache) {
     this.programRepository = checkNotNull(programRepository);
     this.questionService = checkNotNull(questionService);
     this.classLoaderExecutionContext = checkNotNull(classLoaderExecutionContext);
@@ -113,6 +120,8 @@ public final class ProgramService {
     this.categoryRepository = checkNotNull(categoryRepository);
     this.programBlockValidationFactory = checkNotNull(programBlockValidationFactory);
     this.applicationStatusesRepository = checkNotNull(applicationStatusesRepository);
+    this.settingsManifest = checkNotNull(settingsManifest);
+    this.programCatalogCache = checkNotNull(programCatalogCache);
   }
 
   /** Get the names for all programs. */
@@ -168,6 +177,28 @@ public final class ProgramService {
     return ActiveAndDraftPrograms.buildInUseProgramFromCurrentVersionsUnsynced(versionRepository);
   }
 
+  /**
+   * Get the catalog of programs in the active version, with question definitions synced for
+   * eligibility. When the version cache is enabled the catalog is built once per active version.
+   */
+  public ActiveProgramCatalog getActiveProgramCatalog() {
+    VersionModel activeVersion = versionRepository.getActiveVersion();
+    if (settingsManifest.getVersionCacheEnabled()) {
+      return programCatalogCache.getOrElseUpdate(
+          String.valueOf(activeVersion.id), () -> buildProgramCatalog(activeVersion));
+    }
+    return buildProgramCatalog(activeVersion);
+  }
+
+  private ActiveProgramCatalog buildProgramCatalog(VersionModel version) {
+    ImmutableList<ProgramDefinition> programs =
+        versionRepository.getProgramsForVersion(version).stream()
+            .map(programRepository::getShallowProgramDefinition)
+            .collect(ImmutableList.toImmutableList());
+    return new ActiveProgramCatalog(
+        version.id, syncQuestionsToProgramDefinitions(programs).toCompletableFuture().join());
+  }
+
   /** Checks if there is any disabled program in active or draft version. */
   public boolean anyDisabledPrograms() {
     return versionRepository.anyDisabledPrograms();
@@ -240,8 +271,8 @@ public final class ProgramService {
    * the cache if enabled.
    *
    * <p>The cache is set within the {@link #syncProgramAssociations} method, since that method
-   * already checks whether the program is not a draft program, and we only want to set the cache if
-   * the program has been published.
+   * already checks whether the program is a draft program, and draft programs are only cached if
+   * draft program caching is enabled.
    */
   public CompletionStage<ProgramDefinition> getFullProgramDefinition(ProgramModel p) {
     return programRepository
@@ -288,6 +319,23 @@ public final class ProgramService {
         .collect(ImmutableList.toImmutableList());
   }
 
+  /**
+   * Get the active and obsolete versions of the program matching programId, which are the versions
+   * that applications can have been submitted to. The draft version is left out, even if it is the
+   * program matching programId.
+   */
+  public ImmutableList<ProgramDefinition> getPublishedVersionsFullProgramDefinition(
+      long programId) {
+    ImmutableSet<Long> draftProgramIds =
+        versionRepository.getProgramsForVersion(versionRepository.getDraftVersion()).stream()
+            .map(program -> program.id)
+            .collect(ImmutableSet.toImmutableSet());
+    return programRepository.getAllProgramVersions(programId).stream()
+        .filter(program -> !draftProgramIds.contains(program.id))
+        .map(p -> getFullProgramDefinition(p).toCompletableFuture().join())
+        .collect(ImmutableList.toImmutableList());
+  }
+
   /**
    * Get the program definition with the underlying question data.
    *
@@ -307,7 +355,13 @@ public final class ProgramService {
       // draft versions, so we should only call it if we're syncing program
       // associations for a draft program (which means we're in the admin flow).
       return syncProgramDefinitionQuestions(programRepository.getShallowProgramDefinition(program))
-          .thenApply(ProgramDefinition::orderBlockDefinitions);
+          .thenApply(ProgramDefinition::orderBlockDefinitions)
+          .thenApply(
+              programDefinition -> {
+                programRepository.setDraftFullProgramDefinitionCache(
+                    program.id, programDefinition);
+                return programDefinition;
+              });
     }
 
     ProgramDefinition programDefinition =
@@ -1836,6 +1890,28 @@ public final class ProgramService {
         programId, paginationSpec, filters);
   }
 
+  /**
+   * Get a single page of submitted applications for this program and all other previous and
+   * future versions of it that match the specified filters, without counting the total number of
+   * matches. Use a sequential access pagination spec to walk through every page.
+   *
+   * @param paginationSpec the pagination spec to apply to the query.
+   * @param filters a set of filters to apply to the examined applications.
+   */
+  public ImmutableList<ApplicationModel> getSubmittedProgramApplicationsPageAllVersions(
+      long programId, BasePaginationSpec paginationSpec, SubmittedApplicationFilter filters) {
+    return programRepository.getApplicationsPageForAllProgramVersions(
+        programId, paginationSpec, filters);
+  }
+
+  /**
+   * Count the submitted applications for this program and all other previous and future versions
+   * of it.
+   */
+  public int countSubmittedProgramApplicationsAllVersions(long programId) {
+    return programRepository.countApplicationsForAllProgramVersions(programId);
+  }
+
   private static ImmutableSet<CiviFormError> validateBlockDefinition(
       BlockDefinition blockDefinition) {
     ImmutableSet.Builder<CiviFormError> errors = ImmutableSet.builder();
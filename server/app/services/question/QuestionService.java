@@ -331,7 +331,7 @@ public final class QuestionService {
         throw new InvalidUpdateException(
             String.format("Unknown question export state: %s", questionExportState));
     }
-    question.save();
+    questionRepository.updateQuestionSync(question);
   }
 
   /**
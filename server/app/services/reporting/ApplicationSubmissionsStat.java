@@ -32,6 +32,23 @@ public abstract class ApplicationSubmissionsStat {
         submissionDurationSeconds99p);
   }
 
+  /** The stats of the applications whose submission durations are in {@code sketch}. */
+  public static ApplicationSubmissionsStat create(
+      String programName,
+      String enUSLocalizedProgramName,
+      Optional<Timestamp> timestamp,
+      SubmissionDurationSketch sketch) {
+    return create(
+        programName,
+        enUSLocalizedProgramName,
+        timestamp,
+        sketch.count(),
+        sketch.percentile(0.25),
+        sketch.percentile(0.5),
+        sketch.percentile(0.75),
+        sketch.percentile(0.99));
+  }
+
   /** The name of the program the applications were submitted for. */
   public abstract String programName();
 
@@ -56,15 +73,13 @@ public abstract class ApplicationSubmissionsStat {
   /** The 99th percentile average of the submission time - creation time. */
   public abstract double submissionDurationSeconds99p();
 
+  /** Merges the monthly stats of programs into stats of all of them. */
   static final class Aggregator {
     private final String programName;
     private final String enUSLocalizedProgramName;
     private final Optional<Timestamp> timestamp;
-    private long count = 0;
-    private double p25WithWeights = 0;
-    private double p50WithWeights = 0;
-    private double p75WithWeights = 0;
-    private double p99WithWeights = 0;
+    private final SubmissionDurationSketch.Builder submissionDurations =
+        new SubmissionDurationSketch.Builder();
 
     Aggregator(String programName, String enUSLocalizedProgramName, Timestamp timestamp) {
       this.programName = Preconditions.checkNotNull(programName);
@@ -78,24 +93,13 @@ public abstract class ApplicationSubmissionsStat {
       this.timestamp = Optional.empty();
     }
 
-    void update(ApplicationSubmissionsStat stat) {
-      count += stat.applicationCount();
-      p25WithWeights += stat.submissionDurationSeconds25p() * stat.applicationCount();
-      p50WithWeights += stat.submissionDurationSeconds50p() * stat.applicationCount();
-      p75WithWeights += stat.submissionDurationSeconds75p() * stat.applicationCount();
-      p99WithWeights += stat.submissionDurationSeconds99p() * stat.applicationCount();
+    void update(MonthlySubmissionStats stats) {
+      submissionDurations.merge(stats.submissionDurations());
     }
 
     ApplicationSubmissionsStat getAggregateStat() {
       return ApplicationSubmissionsStat.create(
-          programName,
-          enUSLocalizedProgramName,
-          timestamp,
-          count,
-          p25WithWeights / count,
-          p50WithWeights / count,
-          p75WithWeights / count,
-          p99WithWeights / count);
+          programName, enUSLocalizedProgramName, timestamp, submissionDurations.build());
     }
   }
 }
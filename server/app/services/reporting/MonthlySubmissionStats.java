@@ -0,0 +1,33 @@
+package services.reporting;
+
+import com.google.auto.value.AutoValue;
+import java.sql.Timestamp;
+
+/**
+ * The applications submitted to a program in a month, as kept up to date in the {@code
+ * submission_stats} table when applications are submitted.
+ */
+@AutoValue
+public abstract class MonthlySubmissionStats {
+
+  public static MonthlySubmissionStats create(
+      String programName,
+      String enUSLocalizedProgramName,
+      Timestamp submitMonth,
+      SubmissionDurationSketch submissionDurations) {
+    return new AutoValue_MonthlySubmissionStats(
+        programName, enUSLocalizedProgramName, submitMonth, submissionDurations);
+  }
+
+  /** The name of the program the applications were submitted for. */
+  public abstract String programName();
+
+  /** The localized name of the program the applications were submitted for. */
+  public abstract String enUSLocalizedProgramName();
+
+  /** The first moment of the month the applications were submitted in. */
+  public abstract Timestamp submitMonth();
+
+  /** How long the applications took to submit, from their creation. */
+  public abstract SubmissionDurationSketch submissionDurations();
+}
@@ -0,0 +1,137 @@
+package services.reporting;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableSortedMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * A mergeable summary of how long applications took to submit, from which percentiles are
+ * estimated without keeping every duration.
+ *
+ * <p>Durations are counted in buckets whose bounds grow geometrically, so that every duration in a
+ * bucket is within {@link #RELATIVE_ACCURACY} of the value the bucket reports. Sketches of
+ * different programs or months merge by adding up their bucket counts, and the percentiles of the
+ * merged sketch are as accurate as those of its parts. Durations of a second or less share a
+ * bucket.
+ */
+public final class SubmissionDurationSketch {
+  /** How far, relative to the actual value, the percentiles reported by a sketch can be off. */
+  public static final double RELATIVE_ACCURACY = 0.01;
+
+  private static final double GAMMA = (1 + RELATIVE_ACCURACY) / (1 - RELATIVE_ACCURACY);
+  private static final double LOG_GAMMA = Math.log(GAMMA);
+  private static final ObjectMapper objectMapper = new ObjectMapper();
+
+  private final ImmutableSortedMap<Integer, Long> bucketCounts;
+  private final long count;
+
+  private SubmissionDurationSketch(ImmutableSortedMap<Integer, Long> bucketCounts) {
+    this.bucketCounts = bucketCounts;
+    this.count = bucketCounts.values().stream().mapToLong(Long::longValue).sum();
+  }
+
+  /** The sketch stored as JSON by {@link #toJson}. */
+  public static SubmissionDurationSketch fromJson(String json) {
+    try {
+      Map<Integer, Long> bucketCounts =
+          objectMapper.readValue(json, new TypeReference<Map<Integer, Long>>() {});
+      return new SubmissionDurationSketch(ImmutableSortedMap.copyOf(bucketCounts));
+    } catch (JsonProcessingException e) {
+      throw new IllegalArgumentException("Malformed submission duration sketch: " + json, e);
+    }
+  }
+
+  /** The sketch as a JSON object of the number of durations in each bucket, by bucket. */
+  public String toJson() {
+    try {
+      return objectMapper.writeValueAsString(bucketCounts);
+    } catch (JsonProcessingException e) {
+      throw new RuntimeException(e);
+    }
+  }
+
+  /** The bucket that counts a duration of {@code durationSeconds}. */
+  public static int bucketOf(double durationSeconds) {
+    return durationSeconds <= 1 ? 0 : (int) Math.ceil(Math.log(durationSeconds) / LOG_GAMMA);
+  }
+
+  /** The number of durations in the sketch. */
+  public long count() {
+    return count;
+  }
+
+  /**
+   * Estimates the {@code fraction} percentile of the durations in seconds, interpolating between
+   * the two closest durations like postgres' {@code percentile_cont}.
+   */
+  public double percentile(double fraction) {
+    Preconditions.checkArgument(fraction >= 0 && fraction <= 1, "Invalid fraction %s", fraction);
+    Preconditions.checkState(count > 0, "Can't estimate a percentile of no durations");
+    double rank = fraction * (count - 1);
+    long lowerRank = (long) Math.floor(rank);
+    double lower = durationAtRank(lowerRank);
+    double upper = durationAtRank((long) Math.ceil(rank));
+    return lower + (rank - lowerRank) * (upper - lower);
+  }
+
+  @Override
+  public boolean equals(Object other) {
+    return other instanceof SubmissionDurationSketch sketch
+        && bucketCounts.equals(sketch.bucketCounts);
+  }
+
+  @Override
+  public int hashCode() {
+    return bucketCounts.hashCode();
+  }
+
+  @Override
+  public String toString() {
+    return toJson();
+  }
+
+  /** The estimated duration in seconds at {@code rank} in the sorted durations, from 0. */
+  private double durationAtRank(long rank) {
+    long seen = 0;
+    for (Map.Entry<Integer, Long> bucket : bucketCounts.entrySet()) {
+      seen += bucket.getValue();
+      if (rank < seen) {
+        // Halfway, relative to its bounds, through the bucket.
+        return 2 * Math.pow(GAMMA, bucket.getKey()) / (GAMMA + 1);
+      }
+    }
+    throw new IllegalStateException(
+        String.format("Rank %d is out of the %d durations", rank, count));
+  }
+
+  /** Builds a sketch from durations and other sketches. */
+  public static final class Builder {
+    private final TreeMap<Integer, Long> bucketCounts = new TreeMap<>();
+
+    /** Counts a duration of {@code durationSeconds}. */
+    public Builder add(double durationSeconds) {
+      bucketCounts.merge(bucketOf(durationSeconds), 1L, Long::sum);
+      return this;
+    }
+
+    /** Counts {@code count} durations in {@code bucket}, as returned by {@link #bucketOf}. */
+    public Builder addBucket(int bucket, long count) {
+      bucketCounts.merge(bucket, count, Long::sum);
+      return this;
+    }
+
+    /** Counts every duration of {@code sketch}. */
+    public Builder merge(SubmissionDurationSketch sketch) {
+      sketch.bucketCounts.forEach((bucket, count) -> bucketCounts.merge(bucket, count, Long::sum));
+      return this;
+    }
+
+    public SubmissionDurationSketch build() {
+      return new SubmissionDurationSketch(ImmutableSortedMap.copyOf(bucketCounts));
+    }
+  }
+}
@@ -3,8 +3,8 @@ package services.settings;
 import static com.google.common.base.Preconditions.checkNotNull;
 import static services.settings.SettingMode.ADMIN_WRITEABLE;
 import static services.settings.SettingsService.CIVIFORM_SETTINGS_ATTRIBUTE_KEY;
+import static services.settings.SettingsService.CIVIFORM_TYPED_SETTINGS_ATTRIBUTE_KEY;
 
-import com.google.common.base.Splitter;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSortedMap;
@@ -12,6 +12,7 @@ import com.typesafe.config.Config;
 import com.typesafe.config.ConfigException;
 import java.util.Locale;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -24,6 +25,16 @@ public abstract class AbstractSettingsManifest {
   private final Config config;
   private static final Logger logger = LoggerFactory.getLogger("SettingsManifest");
 
+  // Values looked up in the config, by HOCON name.
+  private final ConcurrentHashMap<String, Optional<Boolean>> configBools =
+      new ConcurrentHashMap<>();
+  private final ConcurrentHashMap<String, Optional<String>> configStrings =
+      new ConcurrentHashMap<>();
+  private final ConcurrentHashMap<String, Optional<Integer>> configInts =
+      new ConcurrentHashMap<>();
+  private final ConcurrentHashMap<String, Optional<ImmutableList<String>>> configListsOfStrings =
+      new ConcurrentHashMap<>();
+
   public AbstractSettingsManifest(Config config) {
     this.config = checkNotNull(config);
   }
@@ -118,26 +129,17 @@ public abstract class AbstractSettingsManifest {
   }
 
   protected boolean getBool(String variableName, Http.RequestHeader request) {
-    if (!request.attrs().containsKey(CIVIFORM_SETTINGS_ATTRIBUTE_KEY)) {
-      logger.warn(
-          String.format(
-              "Settings not found on request when looking up value for %s", variableName));
-      return getBool(variableName);
-    }
-
-    var writableSettings = request.attrs().get(CIVIFORM_SETTINGS_ATTRIBUTE_KEY);
-
-    return writableSettings.containsKey(variableName)
-        ? writableSettings.get(variableName).equals("true")
-        : getBool(variableName);
+    return getWritableSettings(variableName, request)
+        .flatMap(writableSettings -> writableSettings.getBool(variableName))
+        .orElseGet(() -> getBool(variableName));
   }
 
   protected Optional<Boolean> getBool(SettingDescription settingDescription) {
-    return getConfigVal(config::getBoolean, getHoconName(settingDescription));
+    return getConfigVal(configBools, config::getBoolean, getHoconName(settingDescription));
   }
 
   public boolean getBool(String variableName) {
-    return getConfigVal(config::getBoolean, getHoconName(variableName)).orElse(false);
+    return getConfigVal(configBools, config::getBoolean, getHoconName(variableName)).orElse(false);
   }
 
   protected Optional<String> getString(
@@ -146,26 +148,19 @@ public abstract class AbstractSettingsManifest {
   }
 
   protected Optional<String> getString(String variableName, Http.RequestHeader request) {
-    if (!request.attrs().containsKey(CIVIFORM_SETTINGS_ATTRIBUTE_KEY)) {
-      logger.warn(
-          String.format(
-              "Settings not found on request when looking up value for %s", variableName));
+    Optional<TypedSettings> maybeWritableSettings = getWritableSettings(variableName, request);
+    if (maybeWritableSettings.isEmpty()) {
       return getString(variableName);
     }
-
-    var writableSettings = request.attrs().get(CIVIFORM_SETTINGS_ATTRIBUTE_KEY);
-
-    return writableSettings.containsKey(variableName)
-        ? Optional.of(writableSettings.get(variableName))
-        : getString(variableName);
+    return maybeWritableSettings.get().getString(variableName).or(() -> getString(variableName));
   }
 
   protected Optional<String> getString(SettingDescription settingDescription) {
-    return getConfigVal(config::getString, getHoconName(settingDescription));
+    return getConfigVal(configStrings, config::getString, getHoconName(settingDescription));
   }
 
   protected Optional<String> getString(String variableName) {
-    return getConfigVal(config::getString, getHoconName(variableName));
+    return getConfigVal(configStrings, config::getString, getHoconName(variableName));
   }
 
   protected Optional<Integer> getInt(
@@ -174,26 +169,19 @@ public abstract class AbstractSettingsManifest {
   }
 
   protected Optional<Integer> getInt(String variableName, Http.RequestHeader request) {
-    if (!request.attrs().containsKey(CIVIFORM_SETTINGS_ATTRIBUTE_KEY)) {
-      logger.warn(
-          String.format(
-              "Settings not found on request when looking up value for %s", variableName));
+    Optional<TypedSettings> maybeWritableSettings = getWritableSettings(variableName, request);
+    if (maybeWritableSettings.isEmpty()) {
       return getInt(variableName);
     }
-
-    var writableSettings = request.attrs().get(CIVIFORM_SETTINGS_ATTRIBUTE_KEY);
-
-    return writableSettings.containsKey(variableName)
-        ? Optional.of(Integer.parseInt(writableSettings.get(variableName)))
-        : getInt(variableName);
+    return maybeWritableSettings.get().getInt(variableName).or(() -> getInt(variableName));
   }
 
   protected Optional<Integer> getInt(SettingDescription settingDescription) {
-    return getConfigVal(config::getInt, getHoconName(settingDescription));
+    return getConfigVal(configInts, config::getInt, getHoconName(settingDescription));
   }
 
   protected Optional<Integer> getInt(String variableName) {
-    return getConfigVal(config::getInt, getHoconName(variableName));
+    return getConfigVal(configInts, config::getInt, getHoconName(variableName));
   }
 
   protected Optional<ImmutableList<String>> getListOfStrings(
@@ -203,35 +191,67 @@ public abstract class AbstractSettingsManifest {
 
   protected Optional<ImmutableList<String>> getListOfStrings(
       String variableName, Http.RequestHeader request) {
-    if (!request.attrs().containsKey(CIVIFORM_SETTINGS_ATTRIBUTE_KEY)) {
-      logger.warn(
-          String.format(
-              "Settings not found on request when looking up value for %s", variableName));
+    Optional<TypedSettings> maybeWritableSettings = getWritableSettings(variableName, request);
+    if (maybeWritableSettings.isEmpty()) {
       return getListOfStrings(variableName);
     }
-
-    var writableSettings = request.attrs().get(CIVIFORM_SETTINGS_ATTRIBUTE_KEY);
-
-    if (!writableSettings.containsKey(variableName)) {
-      return getListOfStrings(variableName);
-    }
-
-    return Optional.of(
-        ImmutableList.copyOf(Splitter.on(",").split(writableSettings.get(variableName))));
+    return maybeWritableSettings
+        .get()
+        .getListOfStrings(variableName)
+        .or(() -> getListOfStrings(variableName));
   }
 
   protected Optional<ImmutableList<String>> getListOfStrings(
       SettingDescription settingDescription) {
-    return getConfigVal(
-        name -> ImmutableList.copyOf(config.getStringList(name)), getHoconName(settingDescription));
+    return getListOfStrings(settingDescription.variableName());
   }
 
   protected Optional<ImmutableList<String>> getListOfStrings(String variableName) {
     return getConfigVal(
-        name -> ImmutableList.copyOf(config.getStringList(name)), getHoconName(variableName));
+        configListsOfStrings,
+        name -> ImmutableList.copyOf(config.getStringList(name)),
+        getHoconName(variableName));
+  }
+
+  /**
+   * The writeable settings stored on the request, already parsed if {@link SettingsService} stored
+   * them. Empty if the request has no settings.
+   */
+  private static Optional<TypedSettings> getWritableSettings(
+      String variableName, Http.RequestHeader request) {
+    Optional<TypedSettings> typedSettings =
+        request.attrs().getOptional(CIVIFORM_TYPED_SETTINGS_ATTRIBUTE_KEY);
+    if (typedSettings.isPresent()) {
+      return typedSettings;
+    }
+
+    if (!request.attrs().containsKey(CIVIFORM_SETTINGS_ATTRIBUTE_KEY)) {
+      logger.warn(
+          String.format(
+              "Settings not found on request when looking up value for %s", variableName));
+      return Optional.empty();
+    }
+
+    // Only requests that didn't pass through the SettingsFilter, like in tests, get here.
+    return Optional.of(TypedSettings.parse(request.attrs().get(CIVIFORM_SETTINGS_ATTRIBUTE_KEY)));
+  }
+
+  /**
+   * Gets a value from the application {@link Config}, which doesn't change once the server has
+   * started, so each value is only looked up once and then served from {@code cache}.
+   */
+  private static <T> Optional<T> getConfigVal(
+      ConcurrentHashMap<String, Optional<T>> cache,
+      Function<String, T> configGetter,
+      String hoconName) {
+    Optional<T> cachedValue = cache.get(hoconName);
+    if (cachedValue != null) {
+      return cachedValue;
+    }
+    return cache.computeIfAbsent(hoconName, name -> getConfigVal(configGetter, name));
   }
 
-  private <T> Optional<T> getConfigVal(Function<String, T> configGetter, String hoconName) {
+  private static <T> Optional<T> getConfigVal(Function<String, T> configGetter, String hoconName) {
     try {
       return Optional.of(configGetter.apply(hoconName));
     } catch (ConfigException.Missing e) {
@@ -455,6 +455,14 @@ public final class SettingsManifest extends AbstractSettingsManifest {
     return getInt("DATABASE_CONNECTION_POOL_SIZE");
   }
 
+  /**
+   * The number of threads that run long database work, like streaming the applications to a
+   * program to an API client or a download. Default value is 2.
+   */
+  public Optional<Integer> getDatabaseBulkThreadPoolSize() {
+    return getInt("DATABASE_BULK_THREAD_POOL_SIZE");
+  }
+
   /** The database URL. */
   public Optional<String> getDbJdbcString() {
     return getString("DB_JDBC_STRING");
@@ -519,6 +527,13 @@ public final class SettingsManifest extends AbstractSettingsManifest {
     return getInt("AKKA_THROUGHPUT");
   }
 
+  /**
+   * The maximum number of threads that render application exports and PDFs. Default value is 16.
+   */
+  public Optional<Integer> getExportParallelismMax() {
+    return getInt("EXPORT_PARALLELISM_MAX");
+  }
+
   /**
    * Region where the AWS SES service exists. If STORAGE_SERVICE_NAME is set to 'aws', it is also
    * the region where the AWS s3 service exists.
@@ -895,6 +910,14 @@ public final class SettingsManifest extends AbstractSettingsManifest {
     return getBool("CIVIFORM_API_KEYS_BAN_GLOBAL_SUBNET");
   }
 
+  /**
+   * An integer specifying how often in seconds the call counts of API keys are written to the
+   * database. Calls are counted in memory in between. Default value is 10.
+   */
+  public Optional<Integer> getCiviformApiKeysUsageFlushIntervalSeconds() {
+    return getInt("CIVIFORM_API_KEYS_USAGE_FLUSH_INTERVAL_SECONDS");
+  }
+
   /**
    * An integer specifying the maximum number of entries returned in a page of results for the
    * applications export API.
@@ -903,6 +926,15 @@ public final class SettingsManifest extends AbstractSettingsManifest {
     return getInt("CIVIFORM_API_APPLICATIONS_LIST_MAX_PAGE_SIZE");
   }
 
+  /**
+   * Answers, written as a question name key and scalar like household_size.number, that
+   * applications are often filtered on by comparison. An index on each is created at server start,
+   * and indexes on answers no longer listed are dropped.
+   */
+  public Optional<ImmutableList<String>> getAnswerFilterIndexedPaths() {
+    return getListOfStrings("ANSWER_FILTER_INDEXED_PATHS");
+  }
+
   /**
    * An integer specifying the polling interval in seconds for the durable job system. A smaller
    * number here increases the polling frequency, which results in jobs running sooner when they are
@@ -921,9 +953,70 @@ public final class SettingsManifest extends AbstractSettingsManifest {
     return getInt("DURABLE_JOBS_JOB_TIMEOUT_MINUTES");
   }
 
+  /**
+   * How long in seconds a durable job is leased to the server running it. The server renews the
+   * lease while the job runs, so this only bounds how soon another server runs a job whose server
+   * stopped. Default value is 60.
+   */
+  public Optional<Integer> getDurableJobsLeaseSeconds() {
+    return getInt("DURABLE_JOBS_LEASE_SECONDS");
+  }
+
+  /**
+   * The least time in seconds a failed on demand durable job, like sending the emails of a
+   * submitted application, waits before it is run again. Each retry waits about twice as long as
+   * the one before, up to an hour. Default value is 30.
+   */
+  public Optional<Integer> getDurableJobsRetryBackoffSeconds() {
+    return getInt("DURABLE_JOBS_RETRY_BACKOFF_SECONDS");
+  }
+
+  /**
+   * The number of recurring durable jobs a server runs at the same time, so that a long running job
+   * doesn't hold up the others. Should be no more than DURABLE_JOBS_THREAD_POOL_SIZE. Default value
+   * is 2.
+   */
+  public Optional<Integer> getDurableJobsMaxConcurrentRecurringJobs() {
+    return getInt("DURABLE_JOBS_MAX_CONCURRENT_RECURRING_JOBS");
+  }
+
+  /**
+   * The number of on demand durable jobs, like sending the emails of a submitted application, a
+   * server runs at the same time, in addition to its recurring jobs. Together with
+   * DURABLE_JOBS_MAX_CONCURRENT_RECURRING_JOBS, should be no more than
+   * DURABLE_JOBS_THREAD_POOL_SIZE. Default value is 2.
+   */
+  public Optional<Integer> getDurableJobsMaxConcurrentOnDemandJobs() {
+    return getInt("DURABLE_JOBS_MAX_CONCURRENT_ON_DEMAND_JOBS");
+  }
+
+  /**
+   * The number of rows that jobs migrating rows in batches commit in each transaction. Default
+   * value is 1000.
+   */
+  public Optional<Integer> getDurableJobsBatchMigrationChunkSize() {
+    return getInt("DURABLE_JOBS_BATCH_MIGRATION_CHUNK_SIZE");
+  }
+
+  /**
+   * The number of chunks of rows that jobs migrating rows in batches migrate at the same time.
+   * Default value is 2.
+   */
+  public Optional<Integer> getDurableJobsBatchMigrationParallelism() {
+    return getInt("DURABLE_JOBS_BATCH_MIGRATION_PARALLELISM");
+  }
+
+  /**
+   * How long in milliseconds jobs migrating rows in batches pause after each chunk of rows, to
+   * throttle the load on the database. Default value is 0.
+   */
+  public Optional<Integer> getDurableJobsBatchMigrationPauseMillis() {
+    return getInt("DURABLE_JOBS_BATCH_MIGRATION_PAUSE_MILLIS");
+  }
+
   /**
    * The number of server threads available for the durable job runner. More than a single thread
-   * will the server execute multiple jobs in parallel. Default value is 1.
+   * will the server execute multiple jobs in parallel. Default value is 4.
    */
   public Optional<Integer> getDurableJobsThreadPoolSize() {
     return getInt("DURABLE_JOBS_THREAD_POOL_SIZE");
@@ -1006,6 +1099,14 @@ public final class SettingsManifest extends AbstractSettingsManifest {
     return getBool("QUESTION_CACHE_ENABLED");
   }
 
+  /**
+   * Enables caching the full definitions of draft programs for admin views. Requires
+   * QUESTION_CACHE_ENABLED.
+   */
+  public boolean getDraftProgramCacheEnabled() {
+    return getBool("DRAFT_PROGRAM_CACHE_ENABLED");
+  }
+
   /** Enables populating more fields in OIDC logout requests to admin identity provider. */
   public boolean getAdminOidcEnhancedLogoutEnabled() {
     return getBool("ADMIN_OIDC_ENHANCED_LOGOUT_ENABLED");
@@ -1643,6 +1744,14 @@ public final class SettingsManifest extends AbstractSettingsManifest {
                                   /* isRequired= */ false,
                                   SettingType.INT,
                                   SettingMode.HIDDEN),
+                              SettingDescription.create(
+                                  "DATABASE_BULK_THREAD_POOL_SIZE",
+                                  "The number of threads that run long database work, like"
+                                      + " streaming the applications to a program to an API client"
+                                      + " or a download. Default value is 2.",
+                                  /* isRequired= */ false,
+                                  SettingType.INT,
+                                  SettingMode.HIDDEN),
                               SettingDescription.create(
                                   "DB_JDBC_STRING",
                                   "The database URL.",
@@ -1714,6 +1823,13 @@ public final class SettingsManifest extends AbstractSettingsManifest {
                                       + " possible.",
                                   /* isRequired= */ false,
                                   SettingType.INT,
+                                  SettingMode.HIDDEN),
+                              SettingDescription.create(
+                                  "EXPORT_PARALLELISM_MAX",
+                                  "The maximum number of threads that render application exports"
+                                      + " and PDFs. Default value is 16.",
+                                  /* isRequired= */ false,
+                                  SettingType.INT,
                                   SettingMode.HIDDEN))),
                       SettingsSection.create(
                           "Application File Upload Storage",
@@ -2088,13 +2204,30 @@ public final class SettingsManifest extends AbstractSettingsManifest {
                           /* isRequired= */ false,
                           SettingType.BOOLEAN,
                           SettingMode.HIDDEN),
+                      SettingDescription.create(
+                          "CIVIFORM_API_KEYS_USAGE_FLUSH_INTERVAL_SECONDS",
+                          "An integer specifying how often in seconds the call counts of API keys"
+                              + " are written to the database. Calls are counted in memory in"
+                              + " between. Default value is 10.",
+                          /* isRequired= */ false,
+                          SettingType.INT,
+                          SettingMode.HIDDEN),
                       SettingDescription.create(
                           "CIVIFORM_API_APPLICATIONS_LIST_MAX_PAGE_SIZE",
                           "An integer specifying the maximum number of entries returned in a page"
                               + " of results for the applications export API.",
                           /* isRequired= */ false,
                           SettingType.INT,
-                          SettingMode.ADMIN_READABLE))))
+                          SettingMode.ADMIN_READABLE),
+                      SettingDescription.create(
+                          "ANSWER_FILTER_INDEXED_PATHS",
+                          "Answers, written as a question name key and scalar like"
+                              + " household_size.number, that applications are often filtered on"
+                              + " by comparison. An index on each is created at server start, and"
+                              + " indexes on answers no longer listed are dropped.",
+                          /* isRequired= */ false,
+                          SettingType.LIST_OF_STRINGS,
+                          SettingMode.HIDDEN))))
           .put(
               "Durable Jobs",
               SettingsSection.create(
@@ -2120,11 +2253,69 @@ public final class SettingsManifest extends AbstractSettingsManifest {
                           /* isRequired= */ false,
                           SettingType.INT,
                           SettingMode.HIDDEN),
+                      SettingDescription.create(
+                          "DURABLE_JOBS_LEASE_SECONDS",
+                          "How long in seconds a durable job is leased to the server running it."
+                              + " The server renews the lease while the job runs, so this only"
+                              + " bounds how soon another server runs a job whose server stopped."
+                              + " Default value is 60.",
+                          /* isRequired= */ false,
+                          SettingType.INT,
+                          SettingMode.HIDDEN),
+                      SettingDescription.create(
+                          "DURABLE_JOBS_RETRY_BACKOFF_SECONDS",
+                          "The least time in seconds a failed on demand durable job, like sending"
+                              + " the emails of a submitted application, waits before it is run"
+                              + " again. Each retry waits about twice as long as the one before, up"
+                              + " to an hour. Default value is 30.",
+                          /* isRequired= */ false,
+                          SettingType.INT,
+                          SettingMode.HIDDEN),
+                      SettingDescription.create(
+                          "DURABLE_JOBS_MAX_CONCURRENT_RECURRING_JOBS",
+                          "The number of recurring durable jobs a server runs at the same time, so"
+                              + " that a long running job doesn't hold up the others. Should be no"
+                              + " more than DURABLE_JOBS_THREAD_POOL_SIZE. Default value is 2.",
+                          /* isRequired= */ false,
+                          SettingType.INT,
+                          SettingMode.HIDDEN),
+                      SettingDescription.create(
+                          "DURABLE_JOBS_MAX_CONCURRENT_ON_DEMAND_JOBS",
+                          "The number of on demand durable jobs, like sending the emails of a"
+                              + " submitted application, a server runs at the same time, in"
+                              + " addition to its recurring jobs. Together with"
+                              + " DURABLE_JOBS_MAX_CONCURRENT_RECURRING_JOBS, should be no more"
+                              + " than DURABLE_JOBS_THREAD_POOL_SIZE. Default value is 2.",
+                          /* isRequired= */ false,
+                          SettingType.INT,
+                          SettingMode.HIDDEN),
+                      SettingDescription.create(
+                          "DURABLE_JOBS_BATCH_MIGRATION_CHUNK_SIZE",
+                          "The number of rows that jobs migrating rows in batches commit in each"
+                              + " transaction. Default value is 1000.",
+                          /* isRequired= */ false,
+                          SettingType.INT,
+                          SettingMode.HIDDEN),
+                      SettingDescription.create(
+                          "DURABLE_JOBS_BATCH_MIGRATION_PARALLELISM",
+                          "The number of chunks of rows that jobs migrating rows in batches"
+                              + " migrate at the same time. Default value is 2.",
+                          /* isRequired= */ false,
+                          SettingType.INT,
+                          SettingMode.HIDDEN),
+                      SettingDescription.create(
+                          "DURABLE_JOBS_BATCH_MIGRATION_PAUSE_MILLIS",
+                          "How long in milliseconds jobs migrating rows in batches pause after"
+                              + " each chunk of rows, to throttle the load on the database."
+                              + " Default value is 0.",
+                          /* isRequired= */ false,
+                          SettingType.INT,
+                          SettingMode.HIDDEN),
                       SettingDescription.create(
                           "DURABLE_JOBS_THREAD_POOL_SIZE",
                           "The number of server threads available for the durable job runner. More"
                               + " than a single thread will the server execute multiple jobs in"
-                              + " parallel. Default value is 1.",
+                              + " parallel. Default value is 4.",
                           /* isRequired= */ false,
                           SettingType.INT,
                           SettingMode.HIDDEN))))
@@ -2223,6 +2414,13 @@ public final class SettingsManifest extends AbstractSettingsManifest {
                           /* isRequired= */ false,
                           SettingType.BOOLEAN,
                           SettingMode.HIDDEN),
+                      SettingDescription.create(
+                          "DRAFT_PROGRAM_CACHE_ENABLED",
+                          "Enables caching the full definitions of draft programs for admin views."
+                              + " Requires QUESTION_CACHE_ENABLED.",
+                          /* isRequired= */ false,
+                          SettingType.BOOLEAN,
+                          SettingMode.HIDDEN),
                       SettingDescription.create(
                           "ADMIN_OIDC_ENHANCED_LOGOUT_ENABLED",
                           "Enables populating more fields in OIDC logout requests to admin identity"
@@ -12,7 +12,11 @@ import com.google.common.collect.Maps;
 import com.google.common.collect.Streams;
 import com.google.inject.Inject;
 import controllers.BadRequestException;
+import io.prometheus.client.Counter;
+import io.prometheus.client.Gauge;
 import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
 import java.util.stream.Stream;
 import models.SettingsGroupModel;
@@ -20,9 +24,12 @@ import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.tuple.Pair;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import play.cache.NamedCache;
+import play.cache.SyncCacheApi;
 import play.libs.typedmap.TypedKey;
 import play.libs.typedmap.TypedMap;
 import play.mvc.Http;
+import repository.CacheInvalidationBus;
 import repository.SettingsGroupRepository;
 import services.ColorUtil;
 
@@ -32,9 +39,12 @@ import services.ColorUtil;
  * <p>Each time an admin updates the server settings using the admin UI, a SettingsGroup is saved.
  * The latest snapshot is used to provide settings for a given request to the server.
  *
- * <p>On each incoming request, the most recent SettingsGroup is loaded and its settings map stored
- * in the attributes of the incoming {@link play.mvc.Http.Request} object for ease of access
- * throughout the request lifecycle.
+ * <p>On each incoming request, the settings map of the most recent SettingsGroup is stored in the
+ * attributes of the incoming {@link play.mvc.Http.Request} object for ease of access throughout the
+ * request lifecycle. Each server keeps a snapshot of the most recent SettingsGroup in memory for
+ * this, so serving a request doesn't query the database. The snapshot is dropped on every server
+ * when the settings are updated (see {@link CacheInvalidationBus}), and settings loaded while it
+ * was being dropped aren't kept as the new snapshot, since they may predate the update.
  */
 public final class SettingsService {
 
@@ -42,16 +52,76 @@ public final class SettingsService {
   public static final TypedKey<ImmutableMap<String, String>> CIVIFORM_SETTINGS_ATTRIBUTE_KEY =
       TypedKey.create("CIVIFORM_SETTINGS");
 
+  /**
+   * The key used in {@link play.mvc.Http.Request} attributes to store the system settings parsed
+   * for {@link SettingsManifest}.
+   */
+  static final TypedKey<TypedSettings> CIVIFORM_TYPED_SETTINGS_ATTRIBUTE_KEY =
+      TypedKey.create("CIVIFORM_TYPED_SETTINGS");
+
   private static final Logger logger = LoggerFactory.getLogger(SettingsService.class);
 
+  /** The settings cache only holds the snapshot of the most recent SettingsGroup, at this key. */
+  static final String SETTINGS_SNAPSHOT_CACHE_KEY = "current";
+
+  /**
+   * Bounds how long a server can serve stale settings if it misses the notification sent when
+   * another server updates them.
+   */
+  private static final int SETTINGS_SNAPSHOT_EXPIRATION_SECONDS = 300;
+
+  private static final Counter SETTINGS_SNAPSHOT_REQUESTS =
+      Counter.build()
+          .name("settings_snapshot_requests_total")
+          .help("Count of settings lookups for requests, by whether they were served from memory")
+          .labelNames("result")
+          .register();
+
+  private static final Gauge SETTINGS_SNAPSHOT_LOAD_TIME =
+      Gauge.build()
+          .name("settings_snapshot_load_time_seconds")
+          .help("When this server last loaded its settings snapshot, in seconds since the epoch")
+          .register();
+
+  private static final Gauge SETTINGS_SNAPSHOT_VERSION =
+      Gauge.build()
+          .name("settings_snapshot_version")
+          .help("Id of the settings group in this server's settings snapshot")
+          .register();
+
+  /** The settings of a SettingsGroup, with the id of the group as its version. */
+  private record SettingsSnapshot(
+      long version, ImmutableMap<String, String> settings, TypedSettings typedSettings) {}
+
+  /**
+   * The settings snapshot in the cache, or, while the settings are being loaded, a placeholder that
+   * identifies the load.
+   */
+  private record CachedSettingsSnapshot(UUID loadId, Optional<SettingsSnapshot> snapshot) {
+    static CachedSettingsSnapshot loading() {
+      return new CachedSettingsSnapshot(UUID.randomUUID(), Optional.empty());
+    }
+
+    static CachedSettingsSnapshot loaded(SettingsSnapshot snapshot) {
+      return new CachedSettingsSnapshot(UUID.randomUUID(), Optional.of(snapshot));
+    }
+  }
+
   private final SettingsGroupRepository settingsGroupRepository;
   private final SettingsManifest settingsManifest;
+  private final SyncCacheApi settingsSnapshotCache;
+  private final CacheInvalidationBus cacheInvalidationBus;
 
   @Inject
   public SettingsService(
-      SettingsGroupRepository settingsGroupRepository, SettingsManifest settingsManifest) {
+      SettingsGroupRepository settingsGroupRepository,
+      SettingsManifest settingsManifest,
+      @NamedCache("settings") SyncCacheApi settingsSnapshotCache,
+      CacheInvalidationBus cacheInvalidationBus) {
     this.settingsGroupRepository = checkNotNull(settingsGroupRepository);
     this.settingsManifest = checkNotNull(settingsManifest);
+    this.settingsSnapshotCache = checkNotNull(settingsSnapshotCache);
+    this.cacheInvalidationBus = checkNotNull(cacheInvalidationBus);
   }
 
   /**
@@ -65,26 +135,77 @@ public final class SettingsService {
   }
 
   /**
-   * Loads the server settings from the database and returns a new request that has the settings in
-   * the request attributes. If no settings are found an error is logged and the request argument is
-   * returned.
+   * Returns a new request that has the server settings in the request attributes. The settings are
+   * read from this server's snapshot, which is only loaded from the database if it was dropped. If
+   * no settings are found an error is logged and the request argument is returned.
    */
   public CompletionStage<Http.RequestHeader> applySettingsToRequest(Http.RequestHeader request) {
-    return loadSettings()
+    return loadSettingsSnapshot()
         .thenApply(
-            maybeSettings -> {
-              if (maybeSettings.isEmpty()) {
+            maybeSnapshot -> {
+              if (maybeSnapshot.isEmpty()) {
                 logger.error("No settings found when serving request.");
                 return request;
               }
 
               TypedMap newAttrs =
-                  request.attrs().put(CIVIFORM_SETTINGS_ATTRIBUTE_KEY, maybeSettings.get());
+                  request
+                      .attrs()
+                      .put(CIVIFORM_SETTINGS_ATTRIBUTE_KEY, maybeSnapshot.get().settings())
+                      .put(
+                          CIVIFORM_TYPED_SETTINGS_ATTRIBUTE_KEY,
+                          maybeSnapshot.get().typedSettings());
 
               return request.withAttrs(newAttrs);
             });
   }
 
+  private CompletionStage<Optional<SettingsSnapshot>> loadSettingsSnapshot() {
+    Optional<SettingsSnapshot> cachedSnapshot =
+        settingsSnapshotCache
+            .<CachedSettingsSnapshot>get(SETTINGS_SNAPSHOT_CACHE_KEY)
+            .flatMap(CachedSettingsSnapshot::snapshot);
+    if (cachedSnapshot.isPresent()) {
+      SETTINGS_SNAPSHOT_REQUESTS.labels("hit").inc();
+      return CompletableFuture.completedFuture(cachedSnapshot);
+    }
+    SETTINGS_SNAPSHOT_REQUESTS.labels("miss").inc();
+    // Dropping the snapshot removes this, so the settings loaded below are only kept as the
+    // snapshot if it is still there once they're loaded.
+    CachedSettingsSnapshot loading = CachedSettingsSnapshot.loading();
+    settingsSnapshotCache.set(
+        SETTINGS_SNAPSHOT_CACHE_KEY, loading, SETTINGS_SNAPSHOT_EXPIRATION_SECONDS);
+    return settingsGroupRepository
+        .getCurrentSettings()
+        .thenApply(
+            maybeSettingsGroup ->
+                maybeSettingsGroup.map(
+                    settingsGroup -> {
+                      ImmutableMap<String, String> settings =
+                          ImmutableMap.copyOf(settingsGroup.getSettings());
+                      SettingsSnapshot snapshot =
+                          new SettingsSnapshot(
+                              settingsGroup.id, settings, TypedSettings.parse(settings));
+                      Optional<CachedSettingsSnapshot> cached =
+                          settingsSnapshotCache.get(SETTINGS_SNAPSHOT_CACHE_KEY);
+                      if (cached.isPresent() && cached.get().equals(loading)) {
+                        settingsSnapshotCache.set(
+                            SETTINGS_SNAPSHOT_CACHE_KEY,
+                            CachedSettingsSnapshot.loaded(snapshot),
+                            SETTINGS_SNAPSHOT_EXPIRATION_SECONDS);
+                        SETTINGS_SNAPSHOT_LOAD_TIME.setToCurrentTime();
+                        SETTINGS_SNAPSHOT_VERSION.set(snapshot.version());
+                      }
+                      return snapshot;
+                    }));
+  }
+
+  /** Drops the settings snapshot of every server, after a new SettingsGroup is saved. */
+  private void invalidateSettingsSnapshots() {
+    cacheInvalidationBus.invalidate(
+        CacheInvalidationBus.Cache.SETTINGS, SETTINGS_SNAPSHOT_CACHE_KEY);
+  }
+
   /** Update settings stored in the database. */
   public SettingsGroupUpdateResult updateSettings(
       ImmutableMap<String, String> newSettings, CiviFormProfile profile) {
@@ -114,6 +235,7 @@ public final class SettingsService {
 
     var newSettingsGroup = new SettingsGroupModel(newSettings, papertrail);
     newSettingsGroup.save();
+    invalidateSettingsSnapshots();
 
     return SettingsGroupUpdateResult.success();
   }
@@ -286,6 +408,7 @@ public final class SettingsService {
 
     var group = new SettingsGroupModel(settings, "system");
     group.save();
+    invalidateSettingsSnapshots();
 
     logger.info("Migrated {} settings from config to database.", settings.size());
 
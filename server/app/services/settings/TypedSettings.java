@@ -0,0 +1,84 @@
+package services.settings;
+
+import com.google.common.base.Splitter;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.primitives.Ints;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * The admin-writeable settings of a {@link models.SettingsGroupModel}, parsed into each type a
+ * setting can be read as.
+ *
+ * <p>{@link SettingsService} parses the settings once for each SettingsGroup it loads, so reading a
+ * setting for a request is a map lookup. The values are stored already wrapped in an {@link
+ * Optional} so that lookups don't allocate.
+ */
+final class TypedSettings {
+  private static final Splitter LIST_SPLITTER = Splitter.on(",");
+
+  private final ImmutableMap<String, Optional<String>> strings;
+  private final ImmutableMap<String, Optional<Boolean>> bools;
+
+  /** Only has the settings that are valid ints. */
+  private final ImmutableMap<String, Optional<Integer>> ints;
+
+  private final ImmutableMap<String, Optional<ImmutableList<String>>> listsOfStrings;
+
+  private TypedSettings(ImmutableMap<String, String> settings) {
+    ImmutableMap.Builder<String, Optional<String>> strings = ImmutableMap.builder();
+    ImmutableMap.Builder<String, Optional<Boolean>> bools = ImmutableMap.builder();
+    ImmutableMap.Builder<String, Optional<Integer>> ints = ImmutableMap.builder();
+    ImmutableMap.Builder<String, Optional<ImmutableList<String>>> listsOfStrings =
+        ImmutableMap.builder();
+
+    for (Map.Entry<String, String> setting : settings.entrySet()) {
+      String name = setting.getKey();
+      String value = setting.getValue();
+      strings.put(name, Optional.of(value));
+      bools.put(name, Optional.of(value.equals("true")));
+      Integer intValue = Ints.tryParse(value);
+      if (intValue != null) {
+        ints.put(name, Optional.of(intValue));
+      }
+      listsOfStrings.put(name, Optional.of(ImmutableList.copyOf(LIST_SPLITTER.split(value))));
+    }
+
+    this.strings = strings.build();
+    this.bools = bools.build();
+    this.ints = ints.build();
+    this.listsOfStrings = listsOfStrings.build();
+  }
+
+  static TypedSettings parse(ImmutableMap<String, String> settings) {
+    return new TypedSettings(settings);
+  }
+
+  /** True if the setting is "true", or empty if there is no such setting. */
+  Optional<Boolean> getBool(String variableName) {
+    return bools.getOrDefault(variableName, Optional.empty());
+  }
+
+  Optional<String> getString(String variableName) {
+    return strings.getOrDefault(variableName, Optional.empty());
+  }
+
+  /**
+   * The setting as an int, or empty if there is no such setting.
+   *
+   * @throws NumberFormatException if the setting is not an int
+   */
+  Optional<Integer> getInt(String variableName) {
+    if (ints.containsKey(variableName)) {
+      return ints.get(variableName);
+    }
+    // Throws for a setting that isn't an int, and is empty if there is no such setting.
+    return getString(variableName).map(Integer::parseInt);
+  }
+
+  /** The comma separated values of the setting, or empty if there is no such setting. */
+  Optional<ImmutableList<String>> getListOfStrings(String variableName) {
+    return listsOfStrings.getOrDefault(variableName, Optional.empty());
+  }
+}
@@ -28,6 +28,7 @@ import j2html.tags.specialized.LiTag;
 import j2html.tags.specialized.NavTag;
 import j2html.tags.specialized.PTag;
 import j2html.tags.specialized.SpanTag;
+import j2html.tags.specialized.UlTag;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
@@ -174,7 +175,9 @@ public abstract class BaseHtmlView {
         .attr("aria-label", "Pagination")
         .with(
             ul().withClass("usa-pagination__list")
-                .condWith(page != 1, renderPreviousPageButton(page, linkForPage, optionalMessages))
+                .condWith(
+                    page != 1,
+                    renderPreviousPageButton(linkForPage.apply(page - 1), optionalMessages))
                 .with(
                     // Always show first page
                     renderPaginationPageButton(1, page == 1, linkForPage))
@@ -226,7 +229,20 @@ public abstract class BaseHtmlView {
                             renderPaginationPageButton(pageNum, page == pageNum, linkForPage)),
                     renderPaginationPageButton(pageCount, page == pageCount, linkForPage))
                 .condWith(
-                    page != pageCount, renderNextPageButton(page, linkForPage, optionalMessages)));
+                    page != pageCount,
+                    renderNextPageButton(linkForPage.apply(page + 1), optionalMessages)));
+  }
+
+  /**
+   * Renders links to the previous and next pages only, for paging through a result without page
+   * numbers, such as one paged with a keyset pagination spec.
+   */
+  protected static NavTag renderPreviousNextPagination(
+      Optional<Call> previousPage, Optional<Call> nextPage, Optional<Messages> optionalMessages) {
+    UlTag pageList = ul().withClass("usa-pagination__list");
+    previousPage.ifPresent(link -> pageList.with(renderPreviousPageButton(link, optionalMessages)));
+    nextPage.ifPresent(link -> pageList.with(renderNextPageButton(link, optionalMessages)));
+    return nav().withClass("usa-pagination").attr("aria-label", "Pagination").with(pageList);
   }
 
   private static LiTag renderPaginationPageButton(
@@ -241,13 +257,12 @@ public abstract class BaseHtmlView {
                 .condAttr(isCurrentPage, "aria-current", "page"));
   }
 
-  private static LiTag renderPreviousPageButton(
-      int page, Function<Integer, Call> linkForPage, Optional<Messages> optionalMessages) {
+  private static LiTag renderPreviousPageButton(Call link, Optional<Messages> optionalMessages) {
     return li().withClass("usa-pagination__item usa-pagination__arrow")
         .with(
             a().withClass("usa-pagination__link usa-pagination__previous-page")
                 .attr("aria-label", "Previous page")
-                .withHref(linkForPage.apply(page - 1).url())
+                .withHref(link.url())
                 .with(
                     Icons.svg(Icons.NAVIGATE_BEFORE)
                         .withClasses("usa-icon", "h-4", "w-4")
@@ -261,13 +276,12 @@ public abstract class BaseHtmlView {
                         .withClass("usa-pagination__link-text")));
   }
 
-  private static LiTag renderNextPageButton(
-      int page, Function<Integer, Call> linkForPage, Optional<Messages> optionalMessages) {
+  private static LiTag renderNextPageButton(Call link, Optional<Messages> optionalMessages) {
     return li().withClass("usa-pagination__item usa-pagination__arrow")
         .with(
             a().withClass("usa-pagination__link usa-pagination__next-page")
                 .attr("aria-label", "Next page")
-                .withHref(linkForPage.apply(page + 1).url())
+                .withHref(link.url())
                 .with(
                     span(optionalMessages.isPresent()
                             ? optionalMessages.get().at(MessageKey.BUTTON_NEXT.getKeyName())
@@ -92,9 +92,12 @@ public final class ProgramAdministratorProgramListView extends BaseHtmlView {
                 activeProgram.id(),
                 /* search= */ Optional.empty(),
                 /* page= */ Optional.empty(),
+                /* olderThan= */ Optional.empty(),
+                /* newerThan= */ Optional.empty(),
                 /* fromDate= */ Optional.empty(),
                 /* untilDate= */ Optional.empty(),
                 /* applicationStatus= */ Optional.empty(),
+                /* answerFilter= */ ImmutableList.of(),
                 /* selectedApplicationUri= */ Optional.empty(),
                 /* showDownloadModal= */ Optional.empty(),
                 /* message= */ Optional.empty())
@@ -124,9 +124,12 @@ public final class ProgramApplicationListView extends BaseHtmlView {
                             program.id(),
                             filterParams.search(),
                             Optional.of(pageNumber),
+                            /* olderThan= */ Optional.empty(),
+                            /* newerThan= */ Optional.empty(),
                             filterParams.fromDate(),
                             filterParams.untilDate(),
                             filterParams.selectedApplicationStatus(),
+                            filterParams.answerFilters(),
                             /* selectedApplicationUri= */ Optional.empty(),
                             /* showDownloadModal= */ Optional.empty(),
                             /* message= */ Optional.empty()),
@@ -164,9 +167,12 @@ public final class ProgramApplicationListView extends BaseHtmlView {
                 program.id(),
                 /* search= */ Optional.empty(),
                 /* page= */ Optional.empty(),
+                /* olderThan= */ Optional.empty(),
+                /* newerThan= */ Optional.empty(),
                 /* fromDate= */ Optional.empty(),
                 /* untilDate= */ Optional.empty(),
                 /* applicationStatus= */ Optional.empty(),
+                /* answerFilter= */ ImmutableList.of(),
                 /* selectedApplicationUri= */ Optional.empty(),
                 /* showDownloadModal= */ Optional.empty(),
                 /* message= */ Optional.empty())
@@ -181,9 +187,12 @@ public final class ProgramApplicationListView extends BaseHtmlView {
                     program.id(),
                     /* search= */ Optional.empty(),
                     /* page= */ Optional.empty(),
+                    /* olderThan= */ Optional.empty(),
+                    /* newerThan= */ Optional.empty(),
                     /* fromDate= */ Optional.empty(),
                     /* untilDate= */ Optional.empty(),
                     /* applicationStatus= */ Optional.empty(),
+                    /* answerFilter= */ ImmutableList.of(),
                     /* selectedApplicationUri= */ Optional.empty(),
                     /* showDownloadModal= */ Optional.empty(),
                     /* message= */ Optional.empty())
@@ -450,8 +459,12 @@ public final class ProgramApplicationListView extends BaseHtmlView {
 
     public abstract Optional<String> selectedApplicationStatus();
 
+    /** The answer filters, in the syntax of {@link repository.AnswerFilter#parse}. */
+    public abstract ImmutableList<String> answerFilters();
+
     public static Builder builder() {
-      return new AutoValue_ProgramApplicationListView_RenderFilterParams.Builder();
+      return new AutoValue_ProgramApplicationListView_RenderFilterParams.Builder()
+          .setAnswerFilters(ImmutableList.of());
     }
 
     @AutoValue.Builder
@@ -465,6 +478,8 @@ public final class ProgramApplicationListView extends BaseHtmlView {
       public abstract Builder setSelectedApplicationStatus(
           Optional<String> selectedApplicationStatus);
 
+      public abstract Builder setAnswerFilters(ImmutableList<String> answerFilters);
+
       public abstract RenderFilterParams build();
     }
   }
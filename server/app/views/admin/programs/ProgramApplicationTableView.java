@@ -12,6 +12,7 @@ import static j2html.TagCreator.input;
 import static j2html.TagCreator.label;
 import static j2html.TagCreator.legend;
 import static j2html.TagCreator.option;
+import static j2html.TagCreator.p;
 import static j2html.TagCreator.select;
 import static j2html.TagCreator.span;
 import static j2html.TagCreator.table;
@@ -29,17 +30,21 @@ import controllers.admin.routes;
 import j2html.TagCreator;
 import j2html.tags.specialized.ATag;
 import j2html.tags.specialized.DivTag;
+import j2html.tags.specialized.FieldsetTag;
 import j2html.tags.specialized.FormTag;
+import j2html.tags.specialized.NavTag;
 import j2html.tags.specialized.SelectTag;
 import j2html.tags.specialized.SpanTag;
 import j2html.tags.specialized.TableTag;
 import j2html.tags.specialized.TheadTag;
 import j2html.tags.specialized.TrTag;
 import java.util.Optional;
+import java.util.stream.Stream;
 import models.ApplicationModel;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import play.i18n.Messages;
+import play.mvc.Call;
 import play.mvc.Http;
 import play.twirl.api.Content;
 import repository.SubmittedApplicationFilter;
@@ -47,8 +52,10 @@ import services.AlertType;
 import services.DateConverter;
 import services.MessageKey;
 import services.applicant.ApplicantService;
+import services.pagination.BasePaginationSpec;
 import services.pagination.PageNumberPaginationSpec;
 import services.pagination.PaginationResult;
+import services.pagination.SubmitTimeKeysetPaginationSpec;
 import services.program.ProgramDefinition;
 import services.statuses.StatusDefinitions;
 import views.AlertComponent;
@@ -73,6 +80,7 @@ public class ProgramApplicationTableView extends BaseHtmlView {
   private static final String UNTIL_DATE_PARAM = "untilDate";
   private static final String SEARCH_PARAM = "search";
   private static final String APPLICATION_STATUS_PARAM = "applicationStatus";
+  private static final String ANSWER_FILTER_PARAM = "answerFilter";
   private static final String IGNORE_FILTERS_PARAM = "ignoreFilters";
   private static final String SHOW_DOWNLOAD_MODAL = "showDownloadModal";
 
@@ -103,7 +111,7 @@ public class ProgramApplicationTableView extends BaseHtmlView {
       ProgramDefinition program,
       StatusDefinitions activeStatusDefinitions,
       ImmutableList<String> allPossibleProgramApplicationStatuses,
-      PageNumberPaginationSpec paginationSpec,
+      BasePaginationSpec paginationSpec,
       PaginationResult<ApplicationModel> paginatedApplications,
       ProgramApplicationListView.RenderFilterParams filterParams,
       Optional<Boolean> showDownloadModal,
@@ -133,23 +141,10 @@ public class ProgramApplicationTableView extends BaseHtmlView {
                         program,
                         request,
                         message)
-                    .condWith(
-                        paginatedApplications.getNumPages() > 1,
-                        renderPagination(
-                            paginationSpec.getCurrentPage(),
-                            paginatedApplications.getNumPages(),
-                            pageNumber ->
-                                routes.AdminApplicationController.index(
-                                    program.id(),
-                                    filterParams.search(),
-                                    Optional.of(pageNumber),
-                                    filterParams.fromDate(),
-                                    filterParams.untilDate(),
-                                    filterParams.selectedApplicationStatus(),
-                                    /* selectedApplicationUri= */ Optional.empty(),
-                                    /* showDownloadModal= */ Optional.empty(),
-                                    /* message= */ Optional.empty()),
-                            /* optionalMessages= */ Optional.empty())));
+                    .with(
+                        renderApplicationPagination(
+                                program, paginationSpec, paginatedApplications, filterParams)
+                            .orElse(null)));
 
     HtmlBundle htmlBundle =
         layout
@@ -161,6 +156,136 @@ public class ProgramApplicationTableView extends BaseHtmlView {
     return layout.renderCentered(htmlBundle);
   }
 
+  /**
+   * Renders page number links for a {@link PageNumberPaginationSpec}, or links to the previous and
+   * next pages for a {@link SubmitTimeKeysetPaginationSpec}. Returns empty if there's only one
+   * page.
+   */
+  private Optional<NavTag> renderApplicationPagination(
+      ProgramDefinition program,
+      BasePaginationSpec paginationSpec,
+      PaginationResult<ApplicationModel> paginatedApplications,
+      ProgramApplicationListView.RenderFilterParams filterParams) {
+    if (paginationSpec instanceof SubmitTimeKeysetPaginationSpec keysetSpec) {
+      return renderKeysetPagination(program, keysetSpec, paginatedApplications, filterParams);
+    }
+    if (paginatedApplications.getNumPages() <= 1) {
+      return Optional.empty();
+    }
+    return Optional.of(
+        renderPagination(
+            ((PageNumberPaginationSpec) paginationSpec).getCurrentPage(),
+            paginatedApplications.getNumPages(),
+            pageNumber ->
+                routes.AdminApplicationController.index(
+                    program.id(),
+                    filterParams.search(),
+                    Optional.of(pageNumber),
+                    /* olderThan= */ Optional.empty(),
+                    /* newerThan= */ Optional.empty(),
+                    filterParams.fromDate(),
+                    filterParams.untilDate(),
+                    filterParams.selectedApplicationStatus(),
+                    filterParams.answerFilters(),
+                    /* selectedApplicationUri= */ Optional.empty(),
+                    /* showDownloadModal= */ Optional.empty(),
+                    /* message= */ Optional.empty()),
+            /* optionalMessages= */ Optional.empty()));
+  }
+
+  private Optional<NavTag> renderKeysetPagination(
+      ProgramDefinition program,
+      SubmitTimeKeysetPaginationSpec paginationSpec,
+      PaginationResult<ApplicationModel> paginatedApplications,
+      ProgramApplicationListView.RenderFilterParams filterParams) {
+    ImmutableList<ApplicationModel> applications = paginatedApplications.getPageContents();
+    // The result says if there are more applications in the direction the page was read in. In the
+    // other direction, there is at least the application the page was read from.
+    boolean hasNewer =
+        paginationSpec.isNewerThanCursor()
+            ? paginatedApplications.hasMorePages()
+            : !paginationSpec.isFirstPage();
+    boolean hasOlder =
+        paginationSpec.isNewerThanCursor()
+            ? !applications.isEmpty()
+            : paginatedApplications.hasMorePages();
+    if (!hasNewer && !hasOlder) {
+      return Optional.empty();
+    }
+
+    Optional<Call> previousPage =
+        hasNewer
+            ? Optional.of(
+                applications.isEmpty()
+                    ? keysetPageLink(program, filterParams, Optional.empty(), Optional.empty())
+                    : keysetPageLink(
+                        program,
+                        filterParams,
+                        /* olderThan= */ Optional.empty(),
+                        Optional.of(toCursorToken(applications.get(0)))))
+            : Optional.empty();
+    Optional<Call> nextPage =
+        hasOlder
+            ? Optional.of(
+                keysetPageLink(
+                    program,
+                    filterParams,
+                    Optional.of(toCursorToken(applications.get(applications.size() - 1))),
+                    /* newerThan= */ Optional.empty()))
+            : Optional.empty();
+    return Optional.of(
+        renderPreviousNextPagination(
+            previousPage, nextPage, /* optionalMessages= */ Optional.empty()));
+  }
+
+  private static String toCursorToken(ApplicationModel application) {
+    return new SubmitTimeKeysetPaginationSpec.Cursor(application.getSubmitTime(), application.id)
+        .toToken();
+  }
+
+  private static Call keysetPageLink(
+      ProgramDefinition program,
+      ProgramApplicationListView.RenderFilterParams filterParams,
+      Optional<String> olderThan,
+      Optional<String> newerThan) {
+    return routes.AdminApplicationController.index(
+        program.id(),
+        filterParams.search(),
+        /* page= */ Optional.empty(),
+        olderThan,
+        newerThan,
+        filterParams.fromDate(),
+        filterParams.untilDate(),
+        filterParams.selectedApplicationStatus(),
+        filterParams.answerFilters(),
+        /* selectedApplicationUri= */ Optional.empty(),
+        /* showDownloadModal= */ Optional.empty(),
+        /* message= */ Optional.empty());
+  }
+
+  /**
+   * Renders a field for each of the current answer filters, and an empty one for adding a filter.
+   * Fields left empty are ignored.
+   */
+  private FieldsetTag renderAnswerFilterFields(
+      ProgramApplicationListView.RenderFilterParams filterParams) {
+    return fieldset()
+        .withClasses("mt-4")
+        .with(legend("Filter by answer").withClasses("ml-1", "text-gray-600"))
+        .with(
+            Stream.concat(filterParams.answerFilters().stream(), Stream.of(""))
+                .map(
+                    answerFilter ->
+                        FieldWithLabel.input()
+                            .setFieldName(ANSWER_FILTER_PARAM)
+                            .setValue(answerFilter)
+                            .setLabelText("Question, operator and value")
+                            .setPlaceholderText("household_size.number:GREATER_THAN:4")
+                            .getInputTag()
+                            .withClasses("w-full"))
+                .collect(ImmutableList.toImmutableList()));
+  }
+
   private FormTag renderSearchForm(
       ProgramDefinition program,
       ImmutableList<String> allPossibleProgramApplicationStatuses,
@@ -170,9 +295,12 @@ public class ProgramApplicationTableView extends BaseHtmlView {
                 program.id(),
                 /* search= */ Optional.empty(),
                 /* page= */ Optional.empty(),
+                /* olderThan= */ Optional.empty(),
+                /* newerThan= */ Optional.empty(),
                 /* fromDate= */ Optional.empty(),
                 /* untilDate= */ Optional.empty(),
                 /* applicationStatus= */ Optional.empty(),
+                /* answerFilter= */ ImmutableList.of(),
                 /* selectedApplicationUri= */ Optional.empty(),
                 /* showDownloadModal= */ Optional.empty(),
                 /* message= */ Optional.empty())
@@ -187,9 +315,12 @@ public class ProgramApplicationTableView extends BaseHtmlView {
                     program.id(),
                     /* search= */ Optional.empty(),
                     /* page= */ Optional.empty(),
+                    /* olderThan= */ Optional.empty(),
+                    /* newerThan= */ Optional.empty(),
                     /* fromDate= */ Optional.empty(),
                     /* untilDate= */ Optional.empty(),
                     /* applicationStatus= */ Optional.empty(),
+                    /* answerFilter= */ ImmutableList.of(),
                     /* selectedApplicationUri= */ Optional.empty(),
                     /* showDownloadModal= */ Optional.empty(),
                     /* message= */ Optional.empty())
@@ -259,6 +390,7 @@ public class ProgramApplicationTableView extends BaseHtmlView {
                                     .build())
                             .build()))
                 .getSelectTag())
+        .with(renderAnswerFilterFields(filterParams))
         .with(
             div()
                 .withClasses("mt-6", "mb-8", "flex", "space-x-2")
@@ -297,7 +429,12 @@ public class ProgramApplicationTableView extends BaseHtmlView {
                             .setLabelText("All data")
                             .setValue("1")
                             .setChecked(false)
-                            .getRadioTag(),
+                            .getRadioTag())
+                    .condWith(
+                        !filterParams.answerFilters().isEmpty(),
+                        p("Downloads of the current results don't apply the answer filters.")
+                            .withClasses("mt-2", "text-sm", "text-gray-600"))
+                    .with(
                         input()
                             .withName(FROM_DATE_PARAM)
                             .isHidden()
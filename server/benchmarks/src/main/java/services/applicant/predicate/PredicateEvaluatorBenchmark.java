@@ -0,0 +1,121 @@
+package services.applicant.predicate;
+
+import static services.applicant.ApplicantData.APPLICANT_PATH;
+
+import com.google.common.collect.ImmutableList;
+import java.time.Clock;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import services.DateConverter;
+import services.Path;
+import services.applicant.ApplicantData;
+import services.applicant.question.Scalar;
+import services.program.predicate.AndNode;
+import services.program.predicate.LeafOperationExpressionNode;
+import services.program.predicate.Operator;
+import services.program.predicate.OrNode;
+import services.program.predicate.PredicateExpressionNode;
+import services.program.predicate.PredicateValue;
+import services.question.QuestionAnswerer;
+import services.question.types.QuestionDefinition;
+import support.TestQuestionBank;
+
+/**
+ * Compares evaluating an eligibility-style predicate in its compiled form with evaluating it by
+ * generating a JsonPath query for each leaf node.
+ *
+ * <p>Run with: {@code sbt "benchmarks/Jmh/run PredicateEvaluatorBenchmark"}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PredicateEvaluatorBenchmark {
+  private PredicateEvaluator evaluator;
+  private PredicateExpressionNode predicate;
+
+  @Setup
+  public void setUp() {
+    TestQuestionBank questionBank = new TestQuestionBank(/* canSave= */ false);
+    QuestionDefinition numberQuestion =
+        questionBank.numberApplicantJugglingNumber().getQuestionDefinition();
+    QuestionDefinition dateQuestion = questionBank.dateApplicantBirthdate().getQuestionDefinition();
+    QuestionDefinition checkboxQuestion =
+        questionBank.checkboxApplicantKitchenTools().getQuestionDefinition();
+    QuestionDefinition dropdownQuestion =
+        questionBank.dropdownApplicantIceCream().getQuestionDefinition();
+
+    ApplicantData applicantData = new ApplicantData();
+    QuestionAnswerer.answerNumberQuestion(applicantData, pathOf(numberQuestion), 4L);
+    applicantData.putDate(pathOf(dateQuestion).join(Scalar.DATE), "1990-04-12");
+    applicantData.putString(
+        pathOf(checkboxQuestion).join(Scalar.SELECTIONS).asArrayElement().atIndex(0), "2");
+    applicantData.putString(pathOf(dropdownQuestion).join(Scalar.SELECTION), "3");
+
+    JsonPathPredicateGenerator generator =
+        new JsonPathPredicateGenerator(
+            new DateConverter(Clock.systemDefaultZone()),
+            ImmutableList.of(numberQuestion, dateQuestion, checkboxQuestion, dropdownQuestion),
+            Optional.empty());
+    evaluator = new PredicateEvaluator(applicantData, generator);
+
+    // Household size of at most 5, over 18, and either has a stove or picked a given flavor.
+    predicate =
+        and(
+            leaf(
+                numberQuestion,
+                Scalar.NUMBER,
+                Operator.LESS_THAN_OR_EQUAL_TO,
+                PredicateValue.of(5)),
+            leaf(dateQuestion, Scalar.DATE, Operator.AGE_OLDER_THAN, PredicateValue.of(18)),
+            PredicateExpressionNode.create(
+                OrNode.create(
+                    ImmutableList.of(
+                        leaf(
+                            checkboxQuestion,
+                            Scalar.SELECTIONS,
+                            Operator.ANY_OF,
+                            PredicateValue.listOfStrings(ImmutableList.of("2", "3"))),
+                        leaf(
+                            dropdownQuestion,
+                            Scalar.SELECTION,
+                            Operator.IN,
+                            PredicateValue.listOfStrings(ImmutableList.of("1", "3")))))));
+  }
+
+  @Benchmark
+  public boolean compiled() {
+    return evaluator.evaluate(predicate);
+  }
+
+  @Benchmark
+  public boolean jsonPath() {
+    return evaluator.evaluateWithJsonPath(predicate);
+  }
+
+  private static Path pathOf(QuestionDefinition question) {
+    return question.getContextualizedPath(Optional.empty(), APPLICANT_PATH);
+  }
+
+  private static PredicateExpressionNode leaf(
+      QuestionDefinition question, Scalar scalar, Operator operator, PredicateValue value) {
+    return PredicateExpressionNode.create(
+        LeafOperationExpressionNode.create(question.getId(), scalar, operator, value));
+  }
+
+  private static PredicateExpressionNode and(PredicateExpressionNode... children) {
+    return PredicateExpressionNode.create(AndNode.create(ImmutableList.copyOf(children)));
+  }
+}
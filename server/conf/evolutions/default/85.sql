@@ -0,0 +1,32 @@
+# --- !Ups
+
+CREATE TABLE IF NOT EXISTS application_exports (
+  id BIGSERIAL PRIMARY KEY NOT NULL,
+  program_id BIGINT NOT NULL,
+  max_program_version_id BIGINT NOT NULL,
+  export_format VARCHAR NOT NULL,
+  status VARCHAR NOT NULL,
+  search_name_fragment VARCHAR,
+  submit_time_from TIMESTAMP,
+  submit_time_until TIMESTAMP,
+  application_status VARCHAR,
+  snapshot_time TIMESTAMP NOT NULL,
+  durable_job_id BIGINT NOT NULL,
+  file_key VARCHAR NOT NULL,
+  upload_id VARCHAR,
+  part_ids VARCHAR[],
+  cursor_submit_time TIMESTAMP,
+  cursor_application_id BIGINT,
+  exported_count BIGINT NOT NULL DEFAULT 0,
+  error_message VARCHAR,
+  create_time TIMESTAMP NOT NULL,
+  complete_time TIMESTAMP
+);
+
+CREATE INDEX IF NOT EXISTS index_application_exports_by_durable_job_id
+  ON application_exports(durable_job_id);
+
+# --- !Downs
+
+DROP INDEX IF EXISTS index_application_exports_by_durable_job_id;
+DROP TABLE IF EXISTS application_exports;
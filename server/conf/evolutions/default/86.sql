@@ -0,0 +1,24 @@
+# --- Add a search document for finding applications by their primary applicant
+
+# --- !Ups
+-- One lower-cased line per way an admin may search for an applicant, so that a single trigram
+-- index serves every search. Lines are separated by newlines, which searches never contain, so a
+-- search can't match across two of them.
+ALTER TABLE applicants ADD COLUMN IF NOT EXISTS search_document text
+GENERATED ALWAYS AS (
+  lower(
+    coalesce(first_name, '') || ' ' || coalesce(last_name, '') || E'\n' ||
+    coalesce(last_name, '') || ' ' || coalesce(first_name, '') || E'\n' ||
+    coalesce(last_name, '') || ', ' || coalesce(first_name, '') || E'\n' ||
+    coalesce(email_address, '') || E'\n' ||
+    regexp_replace(coalesce(phone_number, ''), '[^0-9]', '', 'g')
+  )
+) STORED;
+
+CREATE INDEX IF NOT EXISTS index_applicants_search_document ON applicants USING gin (search_document gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS index_applications_submitter_email ON applications USING gin (submitter_email gin_trgm_ops);
+
+# --- !Downs
+DROP INDEX IF EXISTS index_applications_submitter_email;
+DROP INDEX IF EXISTS index_applicants_search_document;
+ALTER TABLE applicants DROP COLUMN IF EXISTS search_document;
@@ -0,0 +1,14 @@
+# --- Store the program name with each application, so an applicant's applications to a program can be found without joining to programs
+
+# --- !Ups
+-- Filled in for existing applications by the BACKFILL_APPLICATION_PROGRAM_NAMES startup job.
+ALTER TABLE applications ADD COLUMN IF NOT EXISTS program_name varchar;
+
+CREATE INDEX IF NOT EXISTS index_applications_by_applicant_program_name_stage ON applications(applicant_id, program_name, lifecycle_stage);
+-- Lets the backfill find the applications it hasn't filled in yet without scanning the table.
+CREATE INDEX IF NOT EXISTS index_applications_without_program_name ON applications(id) WHERE program_name IS NULL;
+
+# --- !Downs
+DROP INDEX IF EXISTS index_applications_without_program_name;
+DROP INDEX IF EXISTS index_applications_by_applicant_program_name_stage;
+ALTER TABLE applications DROP COLUMN IF EXISTS program_name;
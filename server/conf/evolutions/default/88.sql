@@ -0,0 +1,16 @@
+# --- !Ups
+
+CREATE TABLE IF NOT EXISTS submission_notifications (
+  id BIGSERIAL PRIMARY KEY NOT NULL,
+  application_id BIGINT NOT NULL,
+  durable_job_id BIGINT NOT NULL,
+  create_time TIMESTAMP NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS index_submission_notifications_by_durable_job_id
+  ON submission_notifications(durable_job_id);
+
+# --- !Downs
+
+DROP INDEX IF EXISTS index_submission_notifications_by_durable_job_id;
+DROP TABLE IF EXISTS submission_notifications;
@@ -0,0 +1,14 @@
+# --- Require the answers of applicants and applications to be stored as jsonb objects rather than as a JSON string holding the object
+
+# --- !Ups
+-- Added NOT VALID so that adding them doesn't scan the tables. Rows written from now on are
+-- checked, and the CONVERT_APPLICANT_DATA_TO_JSONB_OBJECTS startup job converts any existing
+-- string and then validates the constraints.
+ALTER TABLE applicants DROP CONSTRAINT IF EXISTS applicants_object_is_jsonb_object;
+ALTER TABLE applicants ADD CONSTRAINT applicants_object_is_jsonb_object CHECK (jsonb_typeof(object) = 'object') NOT VALID;
+ALTER TABLE applications DROP CONSTRAINT IF EXISTS applications_object_is_jsonb_object;
+ALTER TABLE applications ADD CONSTRAINT applications_object_is_jsonb_object CHECK (jsonb_typeof(object) = 'object') NOT VALID;
+
+# --- !Downs
+ALTER TABLE applications DROP CONSTRAINT IF EXISTS applications_object_is_jsonb_object;
+ALTER TABLE applicants DROP CONSTRAINT IF EXISTS applicants_object_is_jsonb_object;
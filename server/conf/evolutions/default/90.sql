@@ -0,0 +1,10 @@
+# --- Index the answers of submitted applications for filtering applications by answer
+
+# --- !Ups
+-- jsonb_path_ops only supports containment (@>), which is how answer filters match values, and
+-- makes a smaller index than the default operator class. Partial on the submitted stages so that
+-- updates to drafts don't maintain it.
+CREATE INDEX IF NOT EXISTS index_applications_submitted_object ON applications USING gin (object jsonb_path_ops) WHERE lifecycle_stage IN ('active', 'obsolete');
+
+# --- !Downs
+DROP INDEX IF EXISTS index_applications_submitted_object;
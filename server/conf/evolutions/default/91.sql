@@ -0,0 +1,16 @@
+# --- Lease durable jobs to the server running them
+
+# --- !Ups
+alter table if exists persisted_durable_jobs add column if not exists lease_owner varchar;
+alter table if exists persisted_durable_jobs add column if not exists lease_expiration timestamp;
+
+-- Job runners look for jobs that haven't succeeded and have attempts remaining, which are a small
+-- part of the table, since succeeded jobs are kept for six months.
+create index if not exists index_persisted_durable_jobs_runnable
+  on persisted_durable_jobs(execution_time)
+  where success_time is null and remaining_attempts > 0;
+
+# --- !Downs
+drop index if exists index_persisted_durable_jobs_runnable;
+alter table if exists persisted_durable_jobs drop column if exists lease_expiration;
+alter table if exists persisted_durable_jobs drop column if exists lease_owner;
@@ -0,0 +1,13 @@
+# --- Checkpoint the progress of batch migration jobs
+
+# --- !Ups
+create table if not exists batch_migration_checkpoints (
+  job_name varchar not null,
+  migrated_column varchar not null,
+  -- Every matching row with an id up to and including this one has been migrated.
+  last_id bigint not null,
+  primary key (job_name, migrated_column)
+);
+
+# --- !Downs
+drop table if exists batch_migration_checkpoints;
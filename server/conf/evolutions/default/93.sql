@@ -0,0 +1,46 @@
+# --- Keep the stats of the applications submitted to each program by month up to date as they are
+# --- submitted, instead of in a materialized view refreshed monthly
+
+# --- !Ups
+create table if not exists submission_stats (
+  program_name varchar not null,
+  submit_month timestamp not null,
+  -- The number of applications by bucket of their submission duration, see SubmissionDurationSketch.
+  duration_buckets jsonb not null,
+  primary key (program_name, submit_month)
+);
+
+drop materialized view if exists monthly_submissions_reporting_view;
+
+# --- !Downs
+create materialized view if not exists monthly_submissions_reporting_view as
+  select
+  programs.name as program_name,
+  active_program.en_us_localized_name as en_us_localized_name,
+  date_trunc('month', applications.submit_time) as submit_month,
+  count(*),
+  percentile_cont(0.25) within group (
+  order by applications.submission_duration) as p25,
+  percentile_cont(0.5) within group (
+  order by applications.submission_duration) as p50,
+  percentile_cont(0.75) within group (
+  order by applications.submission_duration) as p75,
+  percentile_cont(0.99) within group (
+  order by applications.submission_duration) as p99
+  from applications
+  inner join programs on applications.program_id = programs.id
+  inner join
+  (select
+    p.name,
+    ((p.localized_name #>> '{}')::jsonb #>> '{translations,en_US}') as en_us_localized_name
+    from programs p
+    inner join versions_programs vp on
+    vp.programs_id = p.id
+    inner join versions v on
+    vp.versions_id = v.id where v.lifecycle_stage in ('active')) as active_program
+  on active_program.name = programs.name
+where applications.lifecycle_stage in ('active', 'obsolete')
+group by programs.name, active_program.en_us_localized_name, date_trunc('month', applications.submit_time)
+order by programs.name, active_program.en_us_localized_name, date_trunc('month', applications.submit_time) desc;
+
+drop table if exists submission_stats;
@@ -0,0 +1,14 @@
+# --- Record each submission in a row of its own, folded into submission_stats when it's read, so
+# --- that submissions to the same program don't contend on the row of its stats
+
+# --- !Ups
+create table if not exists recorded_submissions (
+  id bigserial primary key,
+  program_name varchar not null,
+  submit_month timestamp not null,
+  -- The bucket of the submission duration, see SubmissionDurationSketch.
+  bucket integer not null
+);
+
+# --- !Downs
+drop table if exists recorded_submissions;
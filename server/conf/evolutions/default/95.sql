@@ -0,0 +1,16 @@
+# --- Delete the submission notifications of durable jobs along with the jobs, such as when
+# --- OldJobCleanupJob deletes them
+
+# --- !Ups
+delete from submission_notifications
+where not exists (
+  select 1 from persisted_durable_jobs
+  where persisted_durable_jobs.id = submission_notifications.durable_job_id
+);
+
+alter table submission_notifications
+  add constraint fk_durable_job foreign key (durable_job_id)
+  references persisted_durable_jobs (id) on delete cascade;
+
+# --- !Downs
+alter table submission_notifications drop constraint if exists fk_durable_job;
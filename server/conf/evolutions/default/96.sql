@@ -0,0 +1,14 @@
+# --- Fill in the program name of every application and require it, so applications to a program are only ever found by their program name
+
+# --- !Ups
+UPDATE applications
+SET program_name = programs.name
+FROM programs
+WHERE applications.program_id = programs.id AND applications.program_name IS NULL;
+
+ALTER TABLE applications ALTER COLUMN program_name SET NOT NULL;
+DROP INDEX IF EXISTS index_applications_without_program_name;
+
+# --- !Downs
+CREATE INDEX IF NOT EXISTS index_applications_without_program_name ON applications(id) WHERE program_name IS NULL;
+ALTER TABLE applications ALTER COLUMN program_name DROP NOT NULL;
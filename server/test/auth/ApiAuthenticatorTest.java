@@ -37,6 +37,7 @@ import play.inject.guice.GuiceApplicationLoader;
 import play.mvc.Http;
 import play.test.Helpers;
 import services.apikey.ApiKeyService;
+import services.apikey.VerifiedApiCredentialCache;
 import services.settings.SettingsManifest;
 import support.ResourceCreator;
 
@@ -127,7 +128,8 @@ public class ApiAuthenticatorTest {
     var authenticator =
         new ApiAuthenticator(
             injector.getProvider(ApiKeyService.class),
-            new ClientIpResolver(MOCK_SETTINGS_MANIFEST));
+            new ClientIpResolver(MOCK_SETTINGS_MANIFEST),
+            new VerifiedApiCredentialCache());
     apiKey.setSubnet("3.3.3.3/32");
     apiKey.save();
 
@@ -197,7 +199,8 @@ public class ApiAuthenticatorTest {
     var authenticator =
         new ApiAuthenticator(
             injector.getProvider(ApiKeyService.class),
-            new ClientIpResolver(MOCK_SETTINGS_MANIFEST));
+            new ClientIpResolver(MOCK_SETTINGS_MANIFEST),
+            new VerifiedApiCredentialCache());
 
     apiKey.setSubnet("2.2.2.2/30,3.3.3.3/32");
     apiKey.save();
@@ -226,7 +229,8 @@ public class ApiAuthenticatorTest {
     var authenticator =
         new ApiAuthenticator(
             injector.getProvider(ApiKeyService.class),
-            new ClientIpResolver(MOCK_SETTINGS_MANIFEST));
+            new ClientIpResolver(MOCK_SETTINGS_MANIFEST),
+            new VerifiedApiCredentialCache());
 
     apiKey.setSubnet("2.2.2.2/30,3.3.3.3/32");
     apiKey.save();
@@ -254,6 +258,42 @@ public class ApiAuthenticatorTest {
                 + " \"2.2.2.2/30,3.3.3.3/32\"\")");
   }
 
+  @Test
+  public void validate_verifiedCredentials_stillChecksSecret() {
+    apiAuthenticator.validate(
+        new CallContext(
+            new PlayWebContext(
+                fakeRequestBuilder()
+                    .rawCredentials(validRawCredentials)
+                    .remoteAddress("1.1.1.1")
+                    .build()),
+            MOCK_SESSION_STORE),
+        new UsernamePasswordCredentials(keyId, secret));
+
+    assertBadCredentialsException(
+        fakeRequestBuilder()
+            .rawCredentials(keyId + ":" + "notthesecret")
+            .remoteAddress("1.1.1.1")
+            .build(),
+        new UsernamePasswordCredentials(keyId, "notthesecret"),
+        "Invalid secret for key ID: " + keyId);
+  }
+
+  @Test
+  public void validate_verifiedCredentials_stillChecksRetired() {
+    Http.Request request =
+        fakeRequestBuilder().rawCredentials(validRawCredentials).remoteAddress("1.1.1.1").build();
+    apiAuthenticator.validate(
+        new CallContext(new PlayWebContext(request), MOCK_SESSION_STORE),
+        new UsernamePasswordCredentials(keyId, secret));
+
+    apiKey.retire("test");
+    apiKey.save();
+    cacheApi.remove(keyId);
+
+    assertBadCredentialsException(request, "API key is retired: " + keyId);
+  }
+
   @Test
   public void validate_invalidSecret() {
     var rawCredentials = keyId + ":" + "notthesecret";
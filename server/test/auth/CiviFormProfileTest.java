@@ -64,6 +64,15 @@ public class CiviFormProfileTest extends ResetPostgres {
     profile.checkAuthorization(two.id).join();
   }
 
+  @Test
+  public void getAccount_loadsAccountOncePerProfile() {
+    CiviFormProfileData data = profileFactory.createNewApplicant();
+    CiviFormProfile profile = profileFactory.wrapProfileData(data);
+
+    assertThat(profile.getAccount().join()).isSameAs(profile.getAccount().join());
+    assertThat(profile.getApplicant().join()).isSameAs(profile.getApplicant().join());
+  }
+
   @Test
   public void checkAuthorization_fails() {
     CiviFormProfileData data = profileFactory.createNewApplicant();
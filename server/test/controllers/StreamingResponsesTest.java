@@ -0,0 +1,63 @@
+package controllers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.apache.pekko.stream.javadsl.Sink;
+import org.apache.pekko.util.ByteString;
+import org.junit.Test;
+import repository.ResetPostgres;
+
+public class StreamingResponsesTest extends ResetPostgres {
+
+  @Test
+  public void stream_writesTheBody() throws Exception {
+    CompletionStage<ByteString> body =
+        StreamingResponses.stream(
+                writer -> writer.write("first, second"),
+                Executors.newSingleThreadExecutor(),
+                "test body")
+            .runWith(Sink.fold(ByteString.emptyByteString(), ByteString::concat), mat);
+
+    assertThat(body.toCompletableFuture().get(10, TimeUnit.SECONDS).utf8String())
+        .isEqualTo("first, second");
+  }
+
+  @Test
+  public void stream_writerThrowsRuntimeException_failsTheBody() {
+    CompletionStage<ByteString> body =
+        StreamingResponses.stream(
+                writer -> {
+                  writer.write("first, ");
+                  throw new IllegalStateException("Failed to render");
+                },
+                Executors.newSingleThreadExecutor(),
+                "test body")
+            .runWith(Sink.fold(ByteString.emptyByteString(), ByteString::concat), mat);
+
+    assertThatThrownBy(() -> body.toCompletableFuture().get(10, TimeUnit.SECONDS))
+        .isInstanceOf(ExecutionException.class)
+        .hasRootCauseInstanceOf(IllegalStateException.class);
+  }
+
+  @Test
+  public void stream_writerThrowsIOException_failsTheBody() {
+    CompletionStage<ByteString> body =
+        StreamingResponses.stream(
+                writer -> {
+                  throw new IOException("Client went away");
+                },
+                Executors.newSingleThreadExecutor(),
+                "test body")
+            .runWith(Sink.fold(ByteString.emptyByteString(), ByteString::concat), mat);
+
+    assertThatThrownBy(() -> body.toCompletableFuture().get(10, TimeUnit.SECONDS))
+        .isInstanceOf(ExecutionException.class)
+        .hasRootCauseInstanceOf(IOException.class);
+  }
+}
@@ -25,6 +25,7 @@ import play.inject.Injector;
 import play.inject.guice.GuiceApplicationBuilder;
 import play.mvc.Http;
 import play.test.Helpers;
+import repository.VersionRepository;
 import support.ProgramBuilder;
 import support.ResourceCreator;
 import support.TestQuestionBank;
@@ -85,6 +86,7 @@ public class WithMockedProfiles {
     resourceCreator().truncateTables();
     VersionModel newActiveVersion = new VersionModel(LifecycleStage.ACTIVE);
     newActiveVersion.save();
+    instanceOf(VersionRepository.class).invalidateActiveVersionCache();
   }
 
   protected ApplicantModel createApplicant() {
@@ -3,6 +3,7 @@ package controllers.admin;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static play.mvc.Http.Status.BAD_REQUEST;
+import static play.mvc.Http.Status.NOT_FOUND;
 import static play.mvc.Http.Status.OK;
 import static play.mvc.Http.Status.SEE_OTHER;
 import static play.mvc.Http.Status.UNAUTHORIZED;
@@ -17,7 +18,10 @@ import auth.ProfileUtils;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.inject.util.Providers;
+import controllers.BadRequestException;
 import controllers.admin.AdminApplicationControllerTest.ProfileUtilsNoOpTester.ProfileTester;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
@@ -27,8 +31,12 @@ import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 import models.AccountModel;
 import models.ApplicantModel;
+import models.ApplicationExportFormat;
+import models.ApplicationExportModel;
 import models.ApplicationEventModel;
 import models.ApplicationModel;
 import models.LifecycleStage;
@@ -43,17 +51,22 @@ import play.mvc.Http;
 import play.mvc.Http.Request;
 import play.mvc.Result;
 import repository.AccountRepository;
+import repository.ApplicationExportRepository;
 import repository.ApplicationStatusesRepository;
+import repository.BulkDatabaseExecutionContext;
 import repository.DatabaseExecutionContext;
 import repository.ResetPostgres;
 import repository.VersionRepository;
 import services.DateConverter;
 import services.LocalizedStrings;
+import services.Path;
+import services.applicant.ApplicantData;
 import services.applicant.ApplicantService;
 import services.application.ApplicationEventDetails;
 import services.application.ApplicationEventDetails.StatusEvent;
 import services.applications.PdfExporterService;
 import services.applications.ProgramAdminApplicationService;
+import services.export.ApplicationExportService;
 import services.export.CsvExporterService;
 import services.export.JsonExporterService;
 import services.program.ProgramNotFoundException;
@@ -124,10 +137,13 @@ public class AdminApplicationControllerTest extends ResetPostgres {
             fakeRequest(),
             programId,
             /* search= */ Optional.empty(),
-            /* page= */ Optional.of(1), // Needed to skip redirect.
+            /* page= */ Optional.of(1),
+            /* olderThan= */ Optional.empty(),
+            /* newerThan= */ Optional.empty(),
             /* fromDate= */ Optional.empty(),
             /* untilDate= */ Optional.empty(),
             /* applicationStatus= */ Optional.empty(),
+            /* answerFilter= */ ImmutableList.of(),
             /* selectedApplicationUri= */ Optional.empty(),
             /* showDownloadModal= */ Optional.empty(),
             /* message= */ Optional.empty());
@@ -150,16 +166,137 @@ public class AdminApplicationControllerTest extends ResetPostgres {
             fakeRequest(),
             program.id,
             /* search= */ Optional.empty(),
-            /* page= */ Optional.of(1), // Needed to skip redirect.
+            /* page= */ Optional.of(1),
+            /* olderThan= */ Optional.empty(),
+            /* newerThan= */ Optional.empty(),
             /* fromDate= */ Optional.empty(),
             /* untilDate= */ Optional.empty(),
             /* applicationStatus= */ Optional.empty(),
+            /* answerFilter= */ ImmutableList.of(),
             /* selectedApplicationUri= */ Optional.empty(),
             /* showDownloadModal= */ Optional.empty(),
             /* message= */ Optional.empty());
     assertThat(result.status()).isEqualTo(OK);
   }
 
+  @Test
+  public void index_malformedCursor_showsFirstPage() throws Exception {
+    controller = makeNoOpProfileController(/* adminAccount= */ Optional.empty());
+    ProgramModel program = ProgramBuilder.newActiveProgram().build();
+    ApplicantModel applicant = resourceCreator.insertApplicantWithAccount();
+    ApplicationModel application =
+        ApplicationModel.create(applicant, program, LifecycleStage.ACTIVE).setSubmitTimeToNow();
+    application.save();
+
+    Result result =
+        controller.index(
+            fakeRequest(),
+            program.id,
+            /* search= */ Optional.empty(),
+            /* page= */ Optional.empty(),
+            /* olderThan= */ Optional.of("not-a-cursor"),
+            /* newerThan= */ Optional.empty(),
+            /* fromDate= */ Optional.empty(),
+            /* untilDate= */ Optional.empty(),
+            /* applicationStatus= */ Optional.empty(),
+            /* answerFilter= */ ImmutableList.of(),
+            /* selectedApplicationUri= */ Optional.empty(),
+            /* showDownloadModal= */ Optional.empty(),
+            /* message= */ Optional.empty());
+
+    // A malformed cursor falls back to the first page rather than failing.
+    assertThat(result.status()).isEqualTo(OK);
+    assertThat(contentAsString(result)).contains(Long.toString(application.id));
+  }
+
+  @Test
+  public void index_followsCursorsAcrossPages() throws Exception {
+    controller = makeNoOpProfileController(/* adminAccount= */ Optional.empty());
+    ProgramModel program = ProgramBuilder.newActiveProgram().build();
+    // One more application than fits on a page, submitted a second apart.
+    Instant firstSubmitTime = Instant.parse("2024-01-01T00:00:00Z");
+    List<ApplicationModel> applications = new ArrayList<>();
+    for (int i = 0; i <= 100; i++) {
+      ApplicationModel application =
+          ApplicationModel.create(
+              resourceCreator.insertApplicantWithAccount(), program, LifecycleStage.ACTIVE);
+      application.setSubmitTimeForTest(firstSubmitTime.plusSeconds(i));
+      application.save();
+      applications.add(application);
+    }
+    String oldestLink = "application-view-link-" + applications.get(0).id + "\"";
+    String newestLink = "application-view-link-" + applications.get(100).id + "\"";
+
+    String firstPage =
+        contentAsString(indexWithCursors(program, Optional.empty(), Optional.empty()));
+    String secondPage =
+        contentAsString(
+            indexWithCursors(program, cursorParam(firstPage, "olderThan"), Optional.empty()));
+    String backToFirstPage =
+        contentAsString(
+            indexWithCursors(program, Optional.empty(), cursorParam(secondPage, "newerThan")));
+
+    assertThat(firstPage).contains(newestLink).doesNotContain(oldestLink);
+    assertThat(secondPage).contains(oldestLink).doesNotContain(newestLink);
+    assertThat(backToFirstPage).contains(newestLink).doesNotContain(oldestLink);
+  }
+
+  @Test
+  public void index_withAnswerFilter_listsOnlyMatchingApplications() throws Exception {
+    controller = makeNoOpProfileController(/* adminAccount= */ Optional.empty());
+    ProgramModel program = ProgramBuilder.newActiveProgram().build();
+    ApplicationModel largeHousehold = insertSubmittedApplicationWithHouseholdSize(program, 6);
+    ApplicationModel smallHousehold = insertSubmittedApplicationWithHouseholdSize(program, 2);
+
+    Result result =
+        controller.index(
+            fakeRequest(),
+            program.id,
+            /* search= */ Optional.empty(),
+            /* page= */ Optional.empty(),
+            /* olderThan= */ Optional.empty(),
+            /* newerThan= */ Optional.empty(),
+            /* fromDate= */ Optional.empty(),
+            /* untilDate= */ Optional.empty(),
+            /* applicationStatus= */ Optional.empty(),
+            /* answerFilter= */ ImmutableList.of("household_size.number:GREATER_THAN:4", ""),
+            /* selectedApplicationUri= */ Optional.empty(),
+            /* showDownloadModal= */ Optional.empty(),
+            /* message= */ Optional.empty());
+
+    assertThat(result.status()).isEqualTo(OK);
+    String content = contentAsString(result);
+    assertThat(content).contains("application-view-link-" + largeHousehold.id + "\"");
+    assertThat(content).doesNotContain("application-view-link-" + smallHousehold.id + "\"");
+    // The filter is kept in the form, so that it applies to the next search too.
+    assertThat(content).contains("value=\"household_size.number:GREATER_THAN:4\"");
+  }
+
+  @Test
+  public void index_malformedAnswerFilter_throwsBadRequest() {
+    controller = makeNoOpProfileController(/* adminAccount= */ Optional.empty());
+    ProgramModel program = ProgramBuilder.newActiveProgram().build();
+
+    assertThatThrownBy(
+            () ->
+                controller.index(
+                    fakeRequest(),
+                    program.id,
+                    /* search= */ Optional.empty(),
+                    /* page= */ Optional.empty(),
+                    /* olderThan= */ Optional.empty(),
+                    /* newerThan= */ Optional.empty(),
+                    /* fromDate= */ Optional.empty(),
+                    /* untilDate= */ Optional.empty(),
+                    /* applicationStatus= */ Optional.empty(),
+                    /* answerFilter= */ ImmutableList.of("household_size.number:BIGGER:4"),
+                    /* selectedApplicationUri= */ Optional.empty(),
+                    /* showDownloadModal= */ Optional.empty(),
+                    /* message= */ Optional.empty()))
+        .isInstanceOf(BadRequestException.class)
+        .hasMessageContaining("answerFilter");
+  }
+
   @Test
   public void index_showsBulkStatusViewWhenFlagOn() throws Exception {
 
@@ -180,10 +317,13 @@ public class AdminApplicationControllerTest extends ResetPostgres {
             request,
             program.id,
             /* search= */ Optional.empty(),
-            /* page= */ Optional.of(1), // Needed to skip redirect.
+            /* page= */ Optional.of(1),
+            /* olderThan= */ Optional.empty(),
+            /* newerThan= */ Optional.empty(),
             /* fromDate= */ Optional.empty(),
             /* untilDate= */ Optional.empty(),
             /* applicationStatus= */ Optional.empty(),
+            /* answerFilter= */ ImmutableList.of(),
             /* selectedApplicationUri= */ Optional.empty(),
             /* showDownloadModal= */ Optional.empty(),
             /* message= */ Optional.empty());
@@ -827,6 +967,128 @@ public class AdminApplicationControllerTest extends ResetPostgres {
     assertThat(application.getLatestNote().get()).isEqualTo(noteText);
   }
 
+  @Test
+  public void startExport_redirectsToPendingExportStatus() throws Exception {
+    controller = makeNoOpProfileController(/* adminAccount= */ Optional.empty());
+    ProgramModel program = ProgramBuilder.newActiveProgram().build();
+
+    Result result = startCsvExport(program);
+
+    assertThat(result.status()).isEqualTo(SEE_OTHER);
+    long exportId = exportIdOf(result);
+    assertThat(result.redirectLocation())
+        .contains(routes.AdminApplicationController.exportStatus(program.id, exportId).url());
+    Result status = controller.exportStatus(fakeRequest(), program.id, exportId);
+    assertThat(status.status()).isEqualTo(OK);
+    assertThat(contentAsString(status)).contains("\"status\":\"PENDING\"");
+    assertThat(contentAsString(status)).doesNotContain("downloadUrl");
+  }
+
+  @Test
+  public void startExport_unsupportedFormat_badRequest() throws Exception {
+    controller = makeNoOpProfileController(/* adminAccount= */ Optional.empty());
+    ProgramModel program = ProgramBuilder.newActiveProgram().build();
+
+    Result result =
+        controller.startExport(
+            fakeRequest(),
+            program.id,
+            "pdf",
+            /* search= */ Optional.empty(),
+            /* fromDate= */ Optional.empty(),
+            /* untilDate= */ Optional.empty(),
+            /* applicationStatus= */ Optional.empty(),
+            /* ignoreFilters= */ Optional.empty());
+
+    assertThat(result.status()).isEqualTo(BAD_REQUEST);
+  }
+
+  @Test
+  public void startExport_notAdmin() throws Exception {
+    ProgramModel program = ProgramBuilder.newActiveProgram().build();
+
+    assertThat(startCsvExport(program).status()).isEqualTo(UNAUTHORIZED);
+  }
+
+  @Test
+  public void exportStatus_exportOfAnotherProgram_notFound() throws Exception {
+    controller = makeNoOpProfileController(/* adminAccount= */ Optional.empty());
+    ProgramModel program = ProgramBuilder.newActiveProgram("program").build();
+    ProgramModel otherProgram = ProgramBuilder.newActiveProgram("other program").build();
+    long exportId = exportIdOf(startCsvExport(program));
+
+    assertThat(controller.exportStatus(fakeRequest(), otherProgram.id, exportId).status())
+        .isEqualTo(NOT_FOUND);
+    assertThat(controller.downloadExport(fakeRequest(), otherProgram.id, exportId).status())
+        .isEqualTo(NOT_FOUND);
+  }
+
+  @Test
+  public void downloadExport_onlyOnceComplete() throws Exception {
+    controller = makeNoOpProfileController(/* adminAccount= */ Optional.empty());
+    ProgramModel program = ProgramBuilder.newActiveProgram().build();
+    long exportId = exportIdOf(startCsvExport(program));
+
+    assertThat(controller.downloadExport(fakeRequest(), program.id, exportId).status())
+        .isEqualTo(NOT_FOUND);
+
+    ApplicationExportModel export =
+        instanceOf(ApplicationExportService.class).getExport(exportId).orElseThrow();
+    instanceOf(ApplicationExportRepository.class)
+        .update(export.markComplete(Instant.now(), /* partApplicationCount= */ 0));
+
+    assertThat(contentAsString(controller.exportStatus(fakeRequest(), program.id, exportId)))
+        .contains("\"status\":\"COMPLETE\"")
+        .contains(routes.AdminApplicationController.downloadExport(program.id, exportId).url());
+    Result download = controller.downloadExport(fakeRequest(), program.id, exportId);
+    assertThat(download.status()).isEqualTo(SEE_OTHER);
+    assertThat(download.redirectLocation()).isPresent();
+  }
+
+  private Result indexWithCursors(
+      ProgramModel program, Optional<String> olderThan, Optional<String> newerThan)
+      throws ProgramNotFoundException {
+    return controller.index(
+        fakeRequest(),
+        program.id,
+        /* search= */ Optional.empty(),
+        /* page= */ Optional.empty(),
+        olderThan,
+        newerThan,
+        /* fromDate= */ Optional.empty(),
+        /* untilDate= */ Optional.empty(),
+        /* applicationStatus= */ Optional.empty(),
+        /* answerFilter= */ ImmutableList.of(),
+        /* selectedApplicationUri= */ Optional.empty(),
+        /* showDownloadModal= */ Optional.empty(),
+        /* message= */ Optional.empty());
+  }
+
+  /** The cursor in the link to the {@code param} page of the rendered {@code page}. */
+  private static Optional<String> cursorParam(String page, String param) {
+    Matcher matcher = Pattern.compile(param + "=([^&\"]+)").matcher(page);
+    assertThat(matcher.find()).isTrue();
+    return Optional.of(URLDecoder.decode(matcher.group(1), StandardCharsets.UTF_8));
+  }
+
+  private Result startCsvExport(ProgramModel program) throws ProgramNotFoundException {
+    return controller.startExport(
+        fakeRequest(),
+        program.id,
+        ApplicationExportFormat.CSV.getFileExtension(),
+        /* search= */ Optional.empty(),
+        /* fromDate= */ Optional.empty(),
+        /* untilDate= */ Optional.empty(),
+        /* applicationStatus= */ Optional.empty(),
+        /* ignoreFilters= */ Optional.empty());
+  }
+
+  /** The id of the export that {@code result} redirects to the status of. */
+  private static long exportIdOf(Result result) {
+    String location = result.redirectLocation().orElseThrow();
+    return Long.parseLong(location.substring(location.lastIndexOf('/') + 1));
+  }
+
   // Returns a controller with a faked ProfileUtils to bypass acl checks.
   AdminApplicationController makeNoOpProfileController(Optional<AccountModel> adminAccount) {
     ProfileTester profileTester =
@@ -854,7 +1116,9 @@ public class AdminApplicationControllerTest extends ResetPostgres {
         Providers.of(LocalDateTime.now(ZoneId.systemDefault())),
         instanceOf(VersionRepository.class),
         instanceOf(StatusService.class),
-        instanceOf(ProgramApplicationTableView.class));
+        instanceOf(ProgramApplicationTableView.class),
+        instanceOf(BulkDatabaseExecutionContext.class),
+        instanceOf(ApplicationExportService.class));
   }
 
   private List<String> createApplicationList(int count, ProgramModel program) {
@@ -868,6 +1132,19 @@ public class AdminApplicationControllerTest extends ResetPostgres {
     return returnList;
   }
 
+  private ApplicationModel insertSubmittedApplicationWithHouseholdSize(
+      ProgramModel program, long householdSize) {
+    ApplicantData answers = new ApplicantData();
+    answers.putLong(Path.create("applicant.household_size.number"), householdSize);
+    ApplicationModel application =
+        ApplicationModel.create(
+                resourceCreator.insertApplicantWithAccount(), program, LifecycleStage.ACTIVE)
+            .setSubmitTimeToNow();
+    application.setApplicantData(answers);
+    application.save();
+    return application;
+  }
+
   private void verifyApplicationStatusChange(
       ApplicationModel application, Optional<AccountModel> adminAccount, Optional<Instant> start) {
     application.refresh();
@@ -66,7 +66,7 @@ public class ProgramApplicationsApiControllerTest extends AbstractExporterTest {
     Result result = doRequest(requestUrl);
     assertThat(result.status()).isEqualTo(HttpStatus.SC_OK);
 
-    DocumentContext resultJson = JsonPathProvider.getJsonPath().parse(contentAsString(result));
+    DocumentContext resultJson = JsonPathProvider.getJsonPath().parse(contentAsString(result, mat));
     assertThat(resultJson.read("payload.length()", Integer.class)).isEqualTo(1);
     assertThat(resultJson.read("payload[0].application_id", Long.class))
         .isEqualTo(februaryApplication.id);
@@ -86,7 +86,7 @@ public class ProgramApplicationsApiControllerTest extends AbstractExporterTest {
     Result result = doRequest(firstRequestUrl);
     assertThat(result.status()).isEqualTo(HttpStatus.SC_OK);
 
-    DocumentContext resultJson = JsonPathProvider.getJsonPath().parse(contentAsString(result));
+    DocumentContext resultJson = JsonPathProvider.getJsonPath().parse(contentAsString(result, mat));
     assertThat(resultJson.read("payload.length()", Integer.class)).isEqualTo(2);
     assertThat(resultJson.read("payload[0].application_id", Long.class))
         .isEqualTo(marchApplication.id);
@@ -108,7 +108,7 @@ public class ProgramApplicationsApiControllerTest extends AbstractExporterTest {
     Result result = doRequest(firstRequestUrl);
     assertThat(result.status()).isEqualTo(HttpStatus.SC_OK);
 
-    DocumentContext resultJson = JsonPathProvider.getJsonPath().parse(contentAsString(result));
+    DocumentContext resultJson = JsonPathProvider.getJsonPath().parse(contentAsString(result, mat));
     String nextPageToken = resultJson.read("nextPageToken", String.class);
     assertThat(nextPageToken).isNotBlank();
 
@@ -124,7 +124,7 @@ public class ProgramApplicationsApiControllerTest extends AbstractExporterTest {
     result = doRequest(secondRequestUrl);
     assertThat(result.status()).isEqualTo(HttpStatus.SC_OK);
 
-    resultJson = JsonPathProvider.getJsonPath().parse(contentAsString(result));
+    resultJson = JsonPathProvider.getJsonPath().parse(contentAsString(result, mat));
     nextPageToken = resultJson.read("$.nextPageToken", String.class);
     assertThat(nextPageToken).isNull();
     assertThat(resultJson.read("payload[0].application_id", Long.class))
@@ -150,6 +150,23 @@ public class ProgramApplicationsApiControllerTest extends AbstractExporterTest {
         .hasMessage("API key key-id does not have access to test-program");
   }
 
+  @Test
+  public void list_malformedAnswerFilter_badRequest() {
+    String requestUrl =
+        controllers.api.routes.ProgramApplicationsApiController.list(
+                fakeProgramWithEnumerator.getSlug(),
+                /* fromDate= */ Optional.empty(),
+                /* toDate= */ Optional.empty(),
+                /* nextPageToken= */ Optional.empty(),
+                /* pageSize= */ Optional.empty())
+            .url();
+
+    assertThatThrownBy(
+            () -> doRequest(requestUrl + "?answerFilter=name.first_name:GREATER_THAN:4"))
+        .isInstanceOf(BadApiRequestException.class)
+        .hasMessageStartingWith("Malformed query param: answerFilter");
+  }
+
   private Result doRequest(String requestUrl) {
     return route(
         app,
@@ -0,0 +1,131 @@
+package durablejobs;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.google.common.collect.ImmutableList;
+import io.ebean.DB;
+import io.ebean.SqlRow;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.IntStream;
+import models.ApplicantModel;
+import models.JobType;
+import models.PersistedDurableJobModel;
+import org.junit.Test;
+import repository.ResetPostgres;
+import services.Path;
+
+public class BatchMigrationJobTest extends ResetPostgres {
+  private static final Path MIGRATED_PATH = Path.create("applicant.migrated");
+  private static final Path FAIL_PATH = Path.create("applicant.fail");
+
+  @Test
+  public void run_migratesEveryMatchingRowInChunks() {
+    List<ApplicantModel> applicants = insertApplicants(5);
+
+    new TestMigrationJob().run();
+
+    assertThat(applicants).allMatch(BatchMigrationJobTest::isMigrated);
+    assertThat(DB.sqlQuery("SELECT * FROM batch_migration_checkpoints").findList()).isEmpty();
+  }
+
+  @Test
+  public void run_rowFails_commitsTheOtherRowsAndFails() {
+    List<ApplicantModel> applicants = insertApplicants(5);
+    ApplicantModel failingApplicant = applicants.get(2);
+    failingApplicant.getApplicantData().putString(FAIL_PATH, "yes");
+    failingApplicant.save();
+
+    assertThatThrownBy(() -> new TestMigrationJob().run())
+        .isInstanceOf(IllegalStateException.class)
+        .hasMessageContaining("failed to migrate 1 rows");
+
+    assertThat(isMigrated(failingApplicant)).isFalse();
+    assertThat(applicants.stream().filter(BatchMigrationJobTest::isMigrated)).hasSize(4);
+    // The checkpoint stops before the chunk of the failed row, so that a retry migrates it.
+    SqlRow checkpoint = DB.sqlQuery("SELECT * FROM batch_migration_checkpoints").findOne();
+    assertThat(checkpoint.getString("migrated_column")).isEqualTo("applicants.object");
+    assertThat(checkpoint.getLong("last_id")).isEqualTo(applicants.get(1).id);
+  }
+
+  @Test
+  public void run_resumesFromCheckpoint() {
+    List<ApplicantModel> applicants = insertApplicants(4);
+    DB.sqlUpdate(
+            "INSERT INTO batch_migration_checkpoints (job_name, migrated_column, last_id)"
+                + " VALUES ('fake-job', 'applicants.object', :lastId)")
+        .setParameter("lastId", applicants.get(1).id)
+        .execute();
+
+    new TestMigrationJob().run();
+
+    assertThat(applicants.stream().map(BatchMigrationJobTest::isMigrated))
+        .containsExactly(false, false, true, true);
+  }
+
+  @Test
+  public void dryRun_reportsWithoutMigrating() {
+    List<ApplicantModel> applicants = insertApplicants(5);
+
+    BatchMigrationJob.Report report = new TestMigrationJob().dryRun();
+
+    assertThat(report.rowsExamined()).isEqualTo(5);
+    assertThat(report.rowsMigrated()).isEqualTo(5);
+    assertThat(report.rowsFailed()).isEqualTo(0);
+    assertThat(report.chunks()).isEqualTo(3);
+    assertThat(applicants).noneMatch(BatchMigrationJobTest::isMigrated);
+  }
+
+  private static List<ApplicantModel> insertApplicants(int count) {
+    return IntStream.range(0, count)
+        .mapToObj(
+            unused -> {
+              ApplicantModel applicant = new ApplicantModel();
+              applicant.save();
+              return applicant;
+            })
+        .toList();
+  }
+
+  private static boolean isMigrated(ApplicantModel applicant) {
+    return DB.find(ApplicantModel.class, applicant.id)
+        .getApplicantData()
+        .readString(MIGRATED_PATH)
+        .isPresent();
+  }
+
+  /** Marks the answers of each applicant as migrated, and fails on those marked to fail. */
+  private static final class TestMigrationJob extends BatchMigrationJob {
+    private final PersistedDurableJobModel persistedDurableJobModel =
+        new PersistedDurableJobModel("fake-job", JobType.RUN_ONCE, Instant.now());
+
+    TestMigrationJob() {
+      super(new Options(/* chunkSize= */ 2, /* parallelism= */ 2, Duration.ZERO));
+    }
+
+    @Override
+    public PersistedDurableJobModel getPersistedDurableJob() {
+      return persistedDurableJobModel;
+    }
+
+    @Override
+    protected ImmutableList<MigratedColumn> migratedColumns() {
+      return ImmutableList.of(
+          new MigratedColumn(
+              "applicants", "object", "NOT jsonb_path_exists(object, '$.applicant.migrated')"));
+    }
+
+    @Override
+    protected JsonNode migrate(MigratedColumn column, JsonNode value) {
+      if (!value.at("/applicant/fail").isMissingNode()) {
+        throw new IllegalArgumentException("Marked to fail");
+      }
+      ((ObjectNode) value.get("applicant")).put("migrated", "yes");
+      return value;
+    }
+  }
+}
@@ -21,6 +21,17 @@ public class DurableJobRegistryTest {
     assertThat(registry.getRecurringJobs()).isEmpty();
   }
 
+  @Test
+  public void registerOnDemandJob_isNotScheduled() throws Exception {
+    var registry = new DurableJobRegistry();
+
+    registry.registerOnDemandJob(DurableJobName.APPLICATION_EXPORT, new FakeJobFactory());
+
+    assertThat(registry.get(DurableJobName.APPLICATION_EXPORT).getJobType())
+        .isEqualTo(JobType.ON_DEMAND);
+    assertThat(registry.getRecurringJobs()).isEmpty();
+  }
+
   @Test
   public void get_aMissingJob_throwsException() {
     var registry = new DurableJobRegistry();
@@ -12,7 +12,10 @@ import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.time.temporal.ChronoUnit;
 import java.util.Optional;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 import models.JobType;
 import models.PersistedDurableJobModel;
 import org.junit.Before;
@@ -46,8 +49,18 @@ public class RecurringDurableJobRunnerTest extends ResetPostgres {
                 "https://civiform-test.dev",
                 "durable_jobs.job_timeout_minutes",
                 0,
-                "durable_jobs.poll_interval_seconds",
-                0));
+                "durable_jobs.lease_seconds",
+                60,
+                "durable_jobs.retry_backoff_seconds",
+                30,
+                "durable_jobs.max_concurrent_jobs.recurring",
+                2,
+                "durable_jobs.max_concurrent_jobs.run_once",
+                1,
+                "durable_jobs.max_concurrent_jobs.run_on_each_startup",
+                1,
+                "durable_jobs.max_concurrent_jobs.on_demand",
+                2));
 
     durableJobRegistry = new DurableJobRegistry();
 
@@ -66,7 +79,7 @@ public class RecurringDurableJobRunnerTest extends ResetPostgres {
   }
 
   @Test
-  public void runJobs_timesOut() {
+  public void runJobs_timesOut_keepsTheLeaseForItToExpire() {
     durableJobRegistry.registerWithNoTimeResolver(
         DurableJobName.TEST,
         JobType.RECURRING,
@@ -87,6 +100,10 @@ public class RecurringDurableJobRunnerTest extends ResetPostgres {
 
     job.refresh();
     assertThat(job.getErrorMessage().get()).contains("JobRunner_JobTimeout");
+    // The job may still be running, so it isn't released to be run again until the lease expires.
+    assertThat(job.getLeaseOwner()).isPresent();
+    assertThat(job.getLeaseExpiration()).isPresent();
+    assertThat(job.getSuccessTime()).isEmpty();
   }
 
   @Test
@@ -111,6 +128,33 @@ public class RecurringDurableJobRunnerTest extends ResetPostgres {
     assertThat(job.getRemainingAttempts()).isEqualTo(0);
   }
 
+  @Test
+  public void runJobs_onDemandJobFails_waitsBeforeRunningItAgain() {
+    AtomicInteger runCount = new AtomicInteger(0);
+    durableJobRegistry.registerWithNoTimeResolver(
+        DurableJobName.TEST,
+        JobType.ON_DEMAND,
+        (persistedDurableJob) ->
+            makeTestJob(
+                persistedDurableJob,
+                () -> {
+                  runCount.incrementAndGet();
+                  throw new RuntimeException("test-execution-exception");
+                }));
+    PersistedDurableJobModel job =
+        new PersistedDurableJobModel(
+            DurableJobName.TEST.getJobNameString(), JobType.ON_DEMAND, Instant.now());
+    job.save();
+
+    recurringDurableJobRunner.runJobs();
+    recurringDurableJobRunner.runJobs();
+
+    job.refresh();
+    assertThat(runCount.get()).isEqualTo(1);
+    assertThat(job.getRemainingAttempts()).isEqualTo(2);
+    assertThat(job.getExecutionTime()).isAfter(Instant.now().plusSeconds(20));
+  }
+
   @Test
   public void runJobs_runsJobsThatAreReady() {
     AtomicInteger runCount = new AtomicInteger(0);
@@ -145,6 +189,86 @@ public class RecurringDurableJobRunnerTest extends ResetPostgres {
     Mockito.verifyNoInteractions(emailSendClientMock);
   }
 
+  @Test
+  public void runJobs_runsJobsConcurrently() {
+    // Each job waits for the other to start, so they only succeed if they run at the same time.
+    CyclicBarrier barrier = new CyclicBarrier(2);
+    durableJobRegistry.registerWithNoTimeResolver(
+        DurableJobName.TEST,
+        JobType.RECURRING,
+        (persistedDurableJob) ->
+            makeTestJob(
+                persistedDurableJob,
+                () -> {
+                  try {
+                    barrier.await(/* timeout= */ 2, TimeUnit.SECONDS);
+                  } catch (Exception e) {
+                    throw new RuntimeException(e);
+                  }
+                }));
+
+    PersistedDurableJobModel jobA = createPersistedJobToExecute();
+    PersistedDurableJobModel jobB = createPersistedJobToExecute();
+
+    recurringDurableJobRunner.runJobs();
+
+    jobA.refresh();
+    jobB.refresh();
+    assertThat(jobA.getSuccessTime()).isPresent();
+    assertThat(jobB.getSuccessTime()).isPresent();
+    assertThat(jobA.getRemainingAttempts()).isEqualTo(2);
+    assertThat(jobB.getRemainingAttempts()).isEqualTo(2);
+  }
+
+  @Test
+  public void runJobs_releasesLeaseOnceJobFinishes() {
+    AtomicReference<Optional<String>> leaseOwnerWhileRunning =
+        new AtomicReference<>(Optional.empty());
+    durableJobRegistry.registerWithNoTimeResolver(
+        DurableJobName.TEST,
+        JobType.RECURRING,
+        (persistedDurableJob) ->
+            makeTestJob(
+                persistedDurableJob,
+                () -> leaseOwnerWhileRunning.set(persistedDurableJob.getLeaseOwner())));
+
+    PersistedDurableJobModel job = createPersistedJobToExecute();
+
+    recurringDurableJobRunner.runJobs();
+
+    job.refresh();
+    assertThat(leaseOwnerWhileRunning.get()).isPresent();
+    assertThat(job.getSuccessTime()).isPresent();
+    assertThat(job.getLeaseOwner()).isEmpty();
+    assertThat(job.getLeaseExpiration()).isEmpty();
+  }
+
+  @Test
+  public void runJobs_skipsJobsLeasedElsewhereUntilTheLeaseExpires() {
+    AtomicInteger runCount = new AtomicInteger(0);
+    durableJobRegistry.registerWithNoTimeResolver(
+        DurableJobName.TEST,
+        JobType.RECURRING,
+        (persistedDurableJob) ->
+            makeTestJob(persistedDurableJob, () -> runCount.getAndIncrement()));
+
+    PersistedDurableJobModel job = createPersistedJobToExecute();
+    leaseJob(job, "another-server", "now() + interval '1 minute'");
+
+    recurringDurableJobRunner.runJobs();
+
+    assertThat(runCount).hasValue(0);
+
+    // The other server stopped renewing the lease.
+    leaseJob(job, "another-server", "now() - interval '1 second'");
+
+    recurringDurableJobRunner.runJobs();
+
+    job.refresh();
+    assertThat(runCount).hasValue(1);
+    assertThat(job.getSuccessTime()).isPresent();
+  }
+
   @Test
   public void runJobs_jobNotFound_deletesJobFromDb() {
     PersistedDurableJobModel job = createPersistedJobToExecute();
@@ -227,6 +351,17 @@ public class RecurringDurableJobRunnerTest extends ResetPostgres {
     return persistedJob;
   }
 
+  private static void leaseJob(PersistedDurableJobModel job, String leaseOwner, String expiration) {
+    DB.sqlUpdate(
+            String.format(
+                "UPDATE persisted_durable_jobs SET lease_owner = :owner, lease_expiration = %s"
+                    + " WHERE id = :id",
+                expiration))
+        .setParameter("owner", leaseOwner)
+        .setParameter("id", job.id)
+        .execute();
+  }
+
   private static DurableJob makeTestJob(
       PersistedDurableJobModel persistedDurableJob, Runnable runnable) {
     return new DurableJob() {
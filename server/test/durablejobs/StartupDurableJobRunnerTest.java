@@ -46,8 +46,18 @@ public class StartupDurableJobRunnerTest extends ResetPostgres {
                 "https://civiform-test.dev",
                 "durable_jobs.job_timeout_minutes",
                 0,
-                "durable_jobs.poll_interval_seconds",
-                0));
+                "durable_jobs.lease_seconds",
+                60,
+                "durable_jobs.retry_backoff_seconds",
+                30,
+                "durable_jobs.max_concurrent_jobs.recurring",
+                2,
+                "durable_jobs.max_concurrent_jobs.run_once",
+                1,
+                "durable_jobs.max_concurrent_jobs.run_on_each_startup",
+                1,
+                "durable_jobs.max_concurrent_jobs.on_demand",
+                2));
 
     durableJobRegistry = new DurableJobRegistry();
 
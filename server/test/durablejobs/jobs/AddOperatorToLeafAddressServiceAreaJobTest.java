@@ -4,11 +4,13 @@ import static org.assertj.core.api.Assertions.assertThat;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import durablejobs.BatchMigrationJob;
 import io.ebean.DB;
 import io.ebean.Database;
 import io.ebean.SqlRow;
 import io.ebean.Transaction;
 import io.ebean.annotation.TxIsolation;
+import java.time.Duration;
 import java.time.Instant;
 import models.JobType;
 import models.PersistedDurableJobModel;
@@ -1052,6 +1054,7 @@ public class AddOperatorToLeafAddressServiceAreaJobTest extends ResetPostgres {
   private void runJob() {
     AddOperatorToLeafAddressServiceAreaJob job =
         new AddOperatorToLeafAddressServiceAreaJob(
+            new BatchMigrationJob.Options(/* chunkSize= */ 2, /* parallelism= */ 2, Duration.ZERO),
             new PersistedDurableJobModel("fake-job", JobType.RUN_ONCE, Instant.now()));
 
     job.run();
@@ -4,6 +4,8 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 import com.google.common.collect.ImmutableList;
+import durablejobs.BatchMigrationJob;
+import java.time.Duration;
 import java.time.Instant;
 import junitparams.JUnitParamsRunner;
 import junitparams.Parameters;
@@ -308,6 +310,7 @@ public class ConvertAddressServiceAreaToArrayJobTest extends ResetPostgres {
   private static void runJob() {
     ConvertAddressServiceAreaToArrayJob job =
         new ConvertAddressServiceAreaToArrayJob(
+            new BatchMigrationJob.Options(/* chunkSize= */ 2, /* parallelism= */ 2, Duration.ZERO),
             new PersistedDurableJobModel("fake-job", JobType.RUN_ONCE, Instant.now()));
 
     job.run();
@@ -0,0 +1,85 @@
+package durablejobs.jobs;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import durablejobs.BatchMigrationJob;
+import io.ebean.DB;
+import java.time.Duration;
+import java.time.Instant;
+import models.ApplicantModel;
+import models.ApplicationModel;
+import models.JobType;
+import models.LifecycleStage;
+import models.PersistedDurableJobModel;
+import models.ProgramModel;
+import org.junit.Test;
+import repository.ResetPostgres;
+import support.ProgramBuilder;
+
+public class ConvertApplicantDataToJsonbObjectsJobTest extends ResetPostgres {
+  @Test
+  public void run_convertsStringsToObjectsAndValidatesConstraints() {
+    ProgramModel program = ProgramBuilder.newActiveProgram("program").build();
+    ApplicantModel applicant = resourceCreator.insertApplicantWithAccount();
+    ApplicationModel application =
+        ApplicationModel.create(applicant, program, LifecycleStage.ACTIVE);
+    storeAnswersAsStrings("applicants", "applicants_object_is_jsonb_object");
+    storeAnswersAsStrings("applications", "applications_object_is_jsonb_object");
+
+    runJob();
+
+    assertThat(answersType("applicants", applicant.id)).isEqualTo("object");
+    assertThat(answersType("applications", application.id)).isEqualTo("object");
+    assertThat(isValidated("applicants_object_is_jsonb_object")).isTrue();
+    assertThat(isValidated("applications_object_is_jsonb_object")).isTrue();
+  }
+
+  @Test
+  public void run_noStrings_leavesAnswersUnchanged() {
+    ApplicantModel applicant = resourceCreator.insertApplicantWithAccount();
+    String answers = applicant.getApplicantData().asJsonString();
+
+    runJob();
+
+    applicant.refresh();
+    applicant.expireApplicantDataCache();
+    assertThat(applicant.getApplicantData().asJsonString()).isEqualTo(answers);
+    assertThat(answersType("applicants", applicant.id)).isEqualTo("object");
+  }
+
+  /** Stores the answers the way they were before they were required to be objects. */
+  private static void storeAnswersAsStrings(String table, String constraint) {
+    DB.sqlUpdate(String.format("ALTER TABLE %s DROP CONSTRAINT %s", table, constraint)).execute();
+    DB.sqlUpdate(String.format("UPDATE %s SET object = to_jsonb(CAST(object AS text))", table))
+        .execute();
+    DB.sqlUpdate(
+            String.format(
+                "ALTER TABLE %s ADD CONSTRAINT %s CHECK (jsonb_typeof(object) = 'object') NOT"
+                    + " VALID",
+                table, constraint))
+        .execute();
+  }
+
+  private static String answersType(String table, long id) {
+    String sql =
+        String.format("SELECT jsonb_typeof(object) AS answers_type FROM %s WHERE id = :id", table);
+    return DB.sqlQuery(sql)
+        .setParameter("id", id)
+        .findOne()
+        .getString("answers_type");
+  }
+
+  private static boolean isValidated(String constraint) {
+    return DB.sqlQuery("SELECT convalidated FROM pg_constraint WHERE conname = :constraint")
+        .setParameter("constraint", constraint)
+        .findOne()
+        .getBoolean("convalidated");
+  }
+
+  private void runJob() {
+    new ConvertApplicantDataToJsonbObjectsJob(
+            new BatchMigrationJob.Options(/* chunkSize= */ 2, /* parallelism= */ 2, Duration.ZERO),
+            new PersistedDurableJobModel("fake-job", JobType.RUN_ONCE, Instant.now()))
+        .run();
+  }
+}
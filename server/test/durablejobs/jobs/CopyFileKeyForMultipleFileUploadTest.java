@@ -3,6 +3,8 @@ package durablejobs.jobs;
 import static org.assertj.core.api.Assertions.assertThat;
 
 import com.google.common.collect.ImmutableList;
+import durablejobs.BatchMigrationJob;
+import java.time.Duration;
 import java.time.Instant;
 import java.util.Optional;
 import models.ApplicantModel;
@@ -53,6 +55,33 @@ public class CopyFileKeyForMultipleFileUploadTest extends ResetPostgres {
     assertOldAndNewDataEquals(latestProgramFileUpload, "applicantFile.jpg");
   }
 
+  @Test
+  public void run_skipsRowsAlreadyMigrated() {
+    ProgramModel program =
+        ProgramBuilder.newActiveProgram("program")
+            .withBlock("block1")
+            .withOptionalQuestion(testQuestionBank.fileUploadApplicantFile())
+            .build();
+    ProgramQuestionDefinition programFileUpload =
+        ProgramQuestionDefinition.create(
+            testQuestionBank.fileUploadApplicantFile().getQuestionDefinition(),
+            Optional.of(program.id));
+    ApplicantModel applicant = resourceCreator.insertApplicantWithAccount();
+    ApplicantQuestion applicantFileUploadQuestion =
+        new ApplicantQuestion(
+            programFileUpload, applicant, applicant.getApplicantData(), Optional.empty());
+    QuestionAnswerer.answerFileQuestion(
+        applicant.getApplicantData(),
+        applicantFileUploadQuestion.getContextualizedPath(),
+        "applicantFile.jpg");
+    applicant.save();
+    runJob();
+
+    BatchMigrationJob.Report report = createJob().dryRun();
+
+    assertThat(report.rowsExamined()).isEqualTo(0);
+  }
+
   @Test
   public void run_doesntModifyUnansweredQuestions() {
     ProgramModel program =
@@ -585,10 +614,12 @@ public class CopyFileKeyForMultipleFileUploadTest extends ResetPostgres {
   }
 
   private void runJob() {
-    CopyFileKeyForMultipleFileUpload job =
-        new CopyFileKeyForMultipleFileUpload(
-            new PersistedDurableJobModel("fake-job", JobType.RUN_ONCE, Instant.now()));
+    createJob().run();
+  }
 
-    job.run();
+  private static CopyFileKeyForMultipleFileUpload createJob() {
+    return new CopyFileKeyForMultipleFileUpload(
+        new BatchMigrationJob.Options(/* chunkSize= */ 2, /* parallelism= */ 2, Duration.ZERO),
+        new PersistedDurableJobModel("fake-job", JobType.RUN_ONCE, Instant.now()));
   }
 }
@@ -0,0 +1,75 @@
+package durablejobs.jobs;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.google.common.collect.ImmutableList;
+import io.ebean.DB;
+import java.time.Instant;
+import java.util.List;
+import models.JobType;
+import models.PersistedDurableJobModel;
+import org.junit.After;
+import org.junit.Test;
+import repository.AnswerFilter;
+import repository.ResetPostgres;
+
+public class CreateAnswerFilterIndexesJobTest extends ResetPostgres {
+  private static final String HOUSEHOLD_SIZE_INDEX =
+      CreateAnswerFilterIndexesJob.indexName(AnswerFilter.answerPath("household_size.number"));
+  private static final String BIRTH_DATE_INDEX =
+      CreateAnswerFilterIndexesJob.indexName(AnswerFilter.answerPath("birth_date.date"));
+
+  @After
+  public void dropIndexes() {
+    // Resetting the database between tests only truncates the tables.
+    runJob(ImmutableList.of());
+  }
+
+  @Test
+  public void run_createsIndexOnEachListedAnswer() {
+    runJob(ImmutableList.of("household_size.number", "birth_date.date"));
+
+    assertThat(answerIndexes()).containsExactlyInAnyOrder(HOUSEHOLD_SIZE_INDEX, BIRTH_DATE_INDEX);
+    assertThat(indexDefinition(HOUSEHOLD_SIZE_INDEX))
+        .contains("(object #> '{applicant,household_size,number}'::text[])")
+        .contains("lifecycle_stage");
+  }
+
+  @Test
+  public void run_dropsIndexesOnAnswersNoLongerListed() {
+    runJob(ImmutableList.of("household_size.number", "birth_date.date"));
+
+    runJob(ImmutableList.of("birth_date.date"));
+
+    assertThat(answerIndexes()).containsExactly(BIRTH_DATE_INDEX);
+  }
+
+  @Test
+  public void run_skipsMalformedAnswers() {
+    runJob(ImmutableList.of("not an answer", "household_size.number"));
+
+    assertThat(answerIndexes()).containsExactly(HOUSEHOLD_SIZE_INDEX);
+  }
+
+  private static void runJob(ImmutableList<String> indexedAnswers) {
+    PersistedDurableJobModel jobModel =
+        new PersistedDurableJobModel("fake-job", JobType.RUN_ON_EACH_STARTUP, Instant.now());
+    new CreateAnswerFilterIndexesJob(indexedAnswers, jobModel).run();
+  }
+
+  private static List<String> answerIndexes() {
+    return DB.sqlQuery(
+            "SELECT indexname FROM pg_indexes WHERE tablename = 'applications'"
+                + " AND starts_with(indexname, :prefix)")
+        .setParameter("prefix", CreateAnswerFilterIndexesJob.INDEX_NAME_PREFIX)
+        .mapToScalar(String.class)
+        .findList();
+  }
+
+  private static String indexDefinition(String indexName) {
+    return DB.sqlQuery("SELECT indexdef FROM pg_indexes WHERE indexname = :name")
+        .setParameter("name", indexName)
+        .mapToScalar(String.class)
+        .findOne();
+  }
+}
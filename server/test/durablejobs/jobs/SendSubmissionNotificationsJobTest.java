@@ -0,0 +1,81 @@
+package durablejobs.jobs;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.ebean.DB;
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+import models.JobType;
+import models.PersistedDurableJobModel;
+import models.SubmissionNotificationModel;
+import org.junit.Before;
+import org.junit.Test;
+import repository.ApplicationRepository;
+import repository.ResetPostgres;
+import services.applicant.ApplicantService;
+import services.email.EmailSendException;
+
+public class SendSubmissionNotificationsJobTest extends ResetPostgres {
+  private ApplicantService applicantService;
+  private PersistedDurableJobModel durableJob;
+
+  @Before
+  public void setUp() {
+    applicantService = mock(ApplicantService.class);
+    when(applicantService.sendSubmissionNotifications(anyLong()))
+        .thenReturn(CompletableFuture.completedFuture(null));
+    durableJob = new PersistedDurableJobModel("fake-job", JobType.ON_DEMAND, Instant.now());
+    durableJob.save();
+  }
+
+  @Test
+  public void run_sendsTheNotificationsOfTheApplicationAndDeletesThem() {
+    new SubmissionNotificationModel(/* applicationId= */ 123L, durableJob.id).save();
+
+    runJob();
+
+    verify(applicantService).sendSubmissionNotifications(123L);
+    assertThat(DB.find(SubmissionNotificationModel.class).findCount()).isEqualTo(0);
+  }
+
+  @Test
+  public void run_sendingFails_failsAndKeepsTheNotification() {
+    new SubmissionNotificationModel(/* applicationId= */ 123L, durableJob.id).save();
+    when(applicantService.sendSubmissionNotifications(anyLong()))
+        .thenReturn(
+            CompletableFuture.failedFuture(
+                new EmailSendException(new RuntimeException("provider down"))));
+
+    assertThatThrownBy(this::runJob).hasCauseInstanceOf(EmailSendException.class);
+
+    assertThat(DB.find(SubmissionNotificationModel.class).findCount()).isEqualTo(1);
+  }
+
+  @Test
+  public void deletingTheJob_deletesItsNotification() {
+    new SubmissionNotificationModel(/* applicationId= */ 123L, durableJob.id).save();
+
+    durableJob.delete();
+
+    assertThat(DB.find(SubmissionNotificationModel.class).findCount()).isEqualTo(0);
+  }
+
+  @Test
+  public void run_noNotificationForTheJob_sendsNothing() {
+    runJob();
+
+    verify(applicantService, never()).sendSubmissionNotifications(anyLong());
+  }
+
+  private void runJob() {
+    new SendSubmissionNotificationsJob(
+            instanceOf(ApplicationRepository.class), applicantService, durableJob)
+        .run();
+  }
+}
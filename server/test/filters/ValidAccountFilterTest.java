@@ -5,6 +5,7 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static support.FakeRequestBuilder.fakeRequestBuilder;
@@ -12,11 +13,16 @@ import static support.FakeRequestBuilder.fakeRequestBuilder;
 import auth.CiviFormProfile;
 import auth.CiviFormProfileData;
 import auth.ProfileUtils;
+import com.google.common.collect.ImmutableMap;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 import models.AccountModel;
+import models.SessionDetails;
 import org.junit.Before;
 import org.junit.Test;
+import play.api.inject.BindingKey;
+import play.cache.NamedCacheImpl;
+import play.cache.SyncCacheApi;
 import play.libs.streams.Accumulator;
 import play.mvc.EssentialAction;
 import play.mvc.Http.RequestHeader;
@@ -28,6 +34,7 @@ import services.settings.SettingsManifest;
 public class ValidAccountFilterTest extends WithApplication {
 
   private ProfileUtils profileUtils;
+  private SyncCacheApi accountSessionsCache;
   private SettingsManifest settingsManifest;
   private ValidAccountFilter filter;
   private CiviFormProfile mockProfile;
@@ -38,18 +45,24 @@ public class ValidAccountFilterTest extends WithApplication {
   public void setUp() {
     profileUtils = mock(ProfileUtils.class);
     settingsManifest = mock(SettingsManifest.class);
+    accountSessionsCache =
+        app.injector()
+            .instanceOf(
+                new BindingKey<>(SyncCacheApi.class)
+                    .qualifiedWith(new NamedCacheImpl("account-sessions")));
 
     filter =
         new ValidAccountFilter(
             profileUtils,
             () -> settingsManifest, // Provider<SettingsManifest>
             mat,
-            () -> instanceOf(DatabaseExecutionContext.class) // Provider<DatabaseExecutionContext>
-            );
+            () -> instanceOf(DatabaseExecutionContext.class), // Provider<DatabaseExecutionContext>
+            accountSessionsCache);
 
     mockProfile = mock(CiviFormProfile.class);
     mockProfileData = mock(CiviFormProfileData.class);
     mockAccount = mock(AccountModel.class);
+    when(mockProfile.getId()).thenReturn("1");
     when(mockProfile.getProfileData()).thenReturn(mockProfileData);
     when(mockProfile.getAccount()).thenReturn(CompletableFuture.completedFuture(mockAccount));
   }
@@ -88,6 +101,65 @@ public class ValidAccountFilterTest extends WithApplication {
     assertThat(result.redirectLocation()).hasValue("/logout");
   }
 
+  @Test
+  public void testValidSession_cachedForSubsequentRequests() throws Exception {
+    RequestHeader request = fakeRequestBuilder().method("GET").uri("/programs/1").build();
+    when(profileUtils.optionalCurrentUserProfile(request)).thenReturn(Optional.of(mockProfile));
+    when(profileUtils.validCiviFormProfile(mockProfile))
+        .thenReturn(CompletableFuture.completedFuture(true));
+    when(settingsManifest.getSessionReplayProtectionEnabled()).thenReturn(true);
+    SessionDetails session = new SessionDetails();
+    when(mockAccount.getActiveSessions()).thenReturn(ImmutableMap.of("session123", session));
+    when(mockAccount.getActiveSession("session123")).thenReturn(Optional.of(session));
+    when(mockProfileData.getSessionId()).thenReturn("session123");
+
+    assertThat(executeFilter(request).status()).isEqualTo(200);
+    assertThat(executeFilter(request).status()).isEqualTo(200);
+
+    verify(profileUtils, times(1)).validCiviFormProfile(mockProfile);
+  }
+
+  @Test
+  public void testSessionsInvalidatedWhileLoading_notCached() throws Exception {
+    RequestHeader request = fakeRequestBuilder().method("GET").uri("/programs/1").build();
+    when(profileUtils.optionalCurrentUserProfile(request)).thenReturn(Optional.of(mockProfile));
+    when(profileUtils.validCiviFormProfile(mockProfile))
+        .thenReturn(CompletableFuture.completedFuture(true));
+    when(settingsManifest.getSessionReplayProtectionEnabled()).thenReturn(true);
+    SessionDetails session = new SessionDetails();
+    when(mockAccount.getActiveSessions()).thenReturn(ImmutableMap.of("session123", session));
+    when(mockAccount.getActiveSession("session123")).thenReturn(Optional.of(session));
+    when(mockProfileData.getSessionId()).thenReturn("session123");
+    // A logout invalidates the cached sessions after the account was loaded.
+    when(mockProfile.getAccount())
+        .thenAnswer(
+            invocation -> {
+              accountSessionsCache.remove("1");
+              return CompletableFuture.completedFuture(mockAccount);
+            });
+
+    assertThat(executeFilter(request).status()).isEqualTo(200);
+    assertThat(executeFilter(request).status()).isEqualTo(200);
+
+    verify(profileUtils, times(2)).validCiviFormProfile(mockProfile);
+  }
+
+  @Test
+  public void testUncachedSession_checksDatabase() throws Exception {
+    RequestHeader request = fakeRequestBuilder().method("GET").uri("/programs/1").build();
+    when(profileUtils.optionalCurrentUserProfile(request)).thenReturn(Optional.of(mockProfile));
+    when(profileUtils.validCiviFormProfile(mockProfile))
+        .thenReturn(CompletableFuture.completedFuture(true));
+    when(settingsManifest.getSessionReplayProtectionEnabled()).thenReturn(true);
+    when(mockAccount.getActiveSession(anyString())).thenReturn(Optional.empty());
+    when(mockProfileData.getSessionId()).thenReturn("session123");
+
+    assertThat(executeFilter(request).status()).isEqualTo(303);
+    assertThat(executeFilter(request).status()).isEqualTo(303);
+
+    verify(profileUtils, times(2)).validCiviFormProfile(mockProfile);
+  }
+
   @Test
   public void testInvalidProfile_redirectsToLogout() throws Exception {
     RequestHeader request = fakeRequestBuilder().method("GET").uri("/programs/1").build();
@@ -60,7 +60,8 @@ public class AccountRepositoryTest extends ResetPostgres {
         new AccountRepository(
             instanceOf(DatabaseExecutionContext.class),
             instanceOf(Clock.class),
-            mockSettingsManifest);
+            mockSettingsManifest,
+            instanceOf(CacheInvalidationBus.class));
   }
 
   @Test
@@ -474,6 +475,32 @@ public class AccountRepositoryTest extends ResetPostgres {
                 + account.id);
   }
 
+  @Test
+  public void removeActiveSession_removesOnlyThatSession() {
+    AccountModel account = new AccountModel();
+    account.addActiveSession("sessionId1", Clock.systemUTC());
+    account.addActiveSession("sessionId2", Clock.systemUTC());
+    account.save();
+
+    repo.removeActiveSession(account, "sessionId1");
+
+    AccountModel retrievedAccount = repo.lookupAccount(account.id).get();
+    assertThat(retrievedAccount.getActiveSession("sessionId1")).isEmpty();
+    assertThat(retrievedAccount.getActiveSession("sessionId2")).isPresent();
+  }
+
+  @Test
+  public void clearActiveSessions_removesEverySession() {
+    AccountModel account = new AccountModel();
+    account.addActiveSession("sessionId1", Clock.systemUTC());
+    account.addActiveSession("sessionId2", Clock.systemUTC());
+    account.save();
+
+    repo.clearActiveSessions(account);
+
+    assertThat(repo.lookupAccount(account.id).get().getActiveSessions()).isEmpty();
+  }
+
   @Test
   public void listTrustedIntermediaryGroups_test() {
     String dummyDesc = "something";
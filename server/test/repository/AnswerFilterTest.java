@@ -0,0 +1,92 @@
+package repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import org.junit.Test;
+import services.Path;
+import services.applicant.question.Scalar;
+import services.program.predicate.Operator;
+
+public class AnswerFilterTest {
+  @Test
+  public void parse_comparison() {
+    AnswerFilter filter = AnswerFilter.parse("household_size.number:GREATER_THAN:4");
+
+    assertThat(filter.path()).isEqualTo(Path.create("applicant.household_size.number"));
+    assertThat(filter.scalar()).isEqualTo(Scalar.NUMBER);
+    assertThat(filter.operator()).isEqualTo(Operator.GREATER_THAN);
+    assertThat(filter.values()).containsExactly(JsonNodeFactory.instance.numberNode(4L));
+    assertThat(filter.comparisonOperator()).isEqualTo(">");
+    assertThat(filter.jsonbType()).isEqualTo("number");
+  }
+
+  @Test
+  public void parse_listOfValues() {
+    AnswerFilter filter = AnswerFilter.parse("county.selection:in:north, south");
+
+    assertThat(filter.operator()).isEqualTo(Operator.IN);
+    assertThat(filter.isContainment()).isTrue();
+    assertThat(filter.containingDocuments())
+        .containsExactly(
+            "{\"applicant\":{\"county\":{\"selection\":\"north\"}}}",
+            "{\"applicant\":{\"county\":{\"selection\":\"south\"}}}");
+  }
+
+  @Test
+  public void parse_selectionsAreContainedInAnArray() {
+    AnswerFilter filter = AnswerFilter.parse("benefits.selections:NONE_OF:2");
+
+    assertThat(filter.isNegatedContainment()).isTrue();
+    assertThat(filter.jsonbType()).isEqualTo("array");
+    assertThat(filter.containingDocuments())
+        .containsExactly("{\"applicant\":{\"benefits\":{\"selections\":[\"2\"]}}}");
+  }
+
+  @Test
+  public void parse_convertsValuesToHowTheyAreStored() {
+    assertThat(AnswerFilter.parse("birth_date.date:IS_BEFORE:2000-01-02").values())
+        .containsExactly(JsonNodeFactory.instance.numberNode(946771200000L));
+    assertThat(AnswerFilter.parse("income.currency_cents:LESS_THAN:1,000.50").values())
+        .containsExactly(JsonNodeFactory.instance.numberNode(100050L));
+    // Values of an operator taking a single value aren't split on commas.
+    assertThat(AnswerFilter.parse("city.text:EQUAL_TO:Seattle, WA").values())
+        .containsExactly(JsonNodeFactory.instance.textNode("Seattle, WA"));
+  }
+
+  @Test
+  public void parse_malformed_throws() {
+    assertThatThrownBy(() -> AnswerFilter.parse("household_size.number:4"))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> AnswerFilter.parse("household_size:EQUAL_TO:4"))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> AnswerFilter.parse("household_size.not_a_scalar:EQUAL_TO:4"))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> AnswerFilter.parse("household_size.number:EQUAL_TO:four"))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> AnswerFilter.parse("birth_date.date:IS_BEFORE:01/02/2000"))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  public void parse_operatorNotApplicableToScalar_throws() {
+    assertThatThrownBy(() -> AnswerFilter.parse("name.first_name:GREATER_THAN:a"))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessageContaining("can't apply GREATER_THAN to FIRST_NAME");
+    assertThatThrownBy(() -> AnswerFilter.parse("address.service_areas:IN_SERVICE_AREA:seattle"))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  public void parse_repeatedQuestion_throws() {
+    assertThatThrownBy(() -> AnswerFilter.parse("household_members[].name.first_name:EQUAL_TO:a"))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  public void jsonbPath() {
+    assertThat(AnswerFilter.jsonbPath(AnswerFilter.answerPath("household_size.number")))
+        .isEqualTo("{applicant,household_size,number}");
+  }
+}
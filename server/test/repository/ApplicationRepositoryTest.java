@@ -23,6 +23,7 @@ import org.junit.Before;
 import org.junit.Test;
 import services.DateConverter;
 import services.Path;
+import services.applicant.ApplicantData;
 import services.applicant.exception.DuplicateApplicationException;
 import services.program.ProgramType;
 import support.CfTestHelpers;
@@ -144,6 +145,54 @@ public class ApplicationRepositoryTest extends ResetPostgres {
     assertThat(appDraft2.getApplicantData().asJsonString()).isEqualTo("{}");
   }
 
+  @Test
+  public void updateApplicantAndSaveDraft_savesApplicantAndReusesDraft() {
+    ApplicantModel applicant = saveApplicant("Alice");
+    ProgramModel program = createActiveProgram("Program");
+    ProgramModel programV2 = createDraftProgram("Program");
+
+    applicant.getApplicantData().putString(Path.create("applicant.color"), "blue");
+    ApplicationModel draft =
+        repo.updateApplicantAndSaveDraft(applicant, program.getProgramDefinition())
+            .toCompletableFuture()
+            .join();
+    ApplicationModel draftForV2 =
+        repo.updateApplicantAndSaveDraft(applicant, programV2.getProgramDefinition())
+            .toCompletableFuture()
+            .join();
+
+    assertThat(draft.getLifecycleStage()).isEqualTo(LifecycleStage.DRAFT);
+    assertThat(draftForV2.id).isEqualTo(draft.id);
+    assertThat(lookupApplicantData(applicant).readString(Path.create("applicant.color")))
+        .hasValue("blue");
+  }
+
+  @Test
+  public void saveDraft_doesNotSaveApplicant() {
+    ApplicantModel applicant = saveApplicant("Alice");
+    ProgramModel program = createActiveProgram("Program");
+
+    applicant.getApplicantData().putString(Path.create("applicant.color"), "blue");
+    ApplicationModel draft =
+        repo.saveDraft(applicant, program.getProgramDefinition()).toCompletableFuture().join();
+
+    assertThat(draft.getLifecycleStage()).isEqualTo(LifecycleStage.DRAFT);
+    assertThat(lookupApplicantData(applicant).readString(Path.create("applicant.color")))
+        .isEmpty();
+  }
+
+  @Test
+  public void createOrUpdateDraft_storesProgramName() {
+    ApplicantModel applicant = saveApplicant("Alice");
+    ProgramModel program = createActiveProgram("Program");
+
+    ApplicationModel draft =
+        repo.saveDraft(applicant, program.getProgramDefinition()).toCompletableFuture().join();
+
+    draft.refresh();
+    assertThat(draft.getProgramName()).isEqualTo("Program");
+  }
+
   @Test
   public void submitApplication_twoDraftsThrowsException() {
     ApplicantModel applicant = saveApplicant("Alice");
@@ -427,6 +476,15 @@ public class ApplicationRepositoryTest extends ResetPostgres {
         .hasMessageContaining("Program not found");
   }
 
+  private ApplicantData lookupApplicantData(ApplicantModel applicant) {
+    return instanceOf(AccountRepository.class)
+        .lookupApplicant(applicant.id)
+        .toCompletableFuture()
+        .join()
+        .get()
+        .getApplicantData();
+  }
+
   private ApplicantModel saveApplicant(String name) {
     AccountModel account = new AccountModel();
     // TODO (#5503): This can be removed when we are no longer checking name
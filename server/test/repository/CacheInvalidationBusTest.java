@@ -0,0 +1,103 @@
+package repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.ebean.DB;
+import io.ebean.Transaction;
+import org.junit.Before;
+import org.junit.Test;
+import play.cache.NamedCacheImpl;
+import play.cache.SyncCacheApi;
+import play.inject.BindingKey;
+
+public class CacheInvalidationBusTest extends ResetPostgres {
+  private CacheInvalidationBus cacheInvalidationBus;
+  private SyncCacheApi programCache;
+  private SyncCacheApi programDefCache;
+
+  @Before
+  public void setUp() {
+    cacheInvalidationBus = instanceOf(CacheInvalidationBus.class);
+    programCache = getNamedCache("program");
+    programDefCache = getNamedCache("full-program-definition");
+    programCache.set("1", "program one");
+    programCache.set("2", "program two");
+    programDefCache.set("1", "definition one");
+  }
+
+  @Test
+  public void invalidate_removesOnlyKeyFromCache() {
+    cacheInvalidationBus.invalidate(CacheInvalidationBus.Cache.PROGRAM, "1");
+
+    assertThat(programCache.get("1")).isEmpty();
+    assertThat(programCache.<String>get("2")).hasValue("program two");
+    assertThat(programDefCache.<String>get("1")).hasValue("definition one");
+  }
+
+  @Test
+  public void invalidateAll_removesEveryKeyFromCache() {
+    cacheInvalidationBus.invalidateAll(CacheInvalidationBus.Cache.PROGRAM);
+
+    assertThat(programCache.get("1")).isEmpty();
+    assertThat(programCache.get("2")).isEmpty();
+    assertThat(programDefCache.<String>get("1")).hasValue("definition one");
+  }
+
+  @Test
+  public void invalidate_inTransaction_removesKeyOnCommit() {
+    try (Transaction transaction = DB.getDefault().beginTransaction()) {
+      cacheInvalidationBus.invalidate(CacheInvalidationBus.Cache.PROGRAM, "1");
+
+      assertThat(programCache.<String>get("1")).hasValue("program one");
+      transaction.commit();
+    }
+
+    assertThat(programCache.get("1")).isEmpty();
+  }
+
+  @Test
+  public void invalidate_inRolledBackTransaction_keepsKey() {
+    try (Transaction transaction = DB.getDefault().beginTransaction()) {
+      cacheInvalidationBus.invalidate(CacheInvalidationBus.Cache.PROGRAM, "1");
+      transaction.rollback();
+    }
+
+    assertThat(programCache.<String>get("1")).hasValue("program one");
+  }
+
+  @Test
+  public void applyNotification_fromAnotherServer_removesKey() {
+    cacheInvalidationBus.applyNotification("another-server program 1");
+
+    assertThat(programCache.get("1")).isEmpty();
+    assertThat(programCache.<String>get("2")).hasValue("program two");
+  }
+
+  @Test
+  public void applyNotification_withoutKey_removesEveryKey() {
+    cacheInvalidationBus.applyNotification("another-server program");
+
+    assertThat(programCache.get("1")).isEmpty();
+    assertThat(programCache.get("2")).isEmpty();
+  }
+
+  @Test
+  public void applyNotification_unknownCache_isIgnored() {
+    cacheInvalidationBus.applyNotification("another-server not-a-cache 1");
+
+    assertThat(programCache.<String>get("1")).hasValue("program one");
+  }
+
+  @Test
+  public void invalidateAllLocally_removesEveryCache() {
+    cacheInvalidationBus.invalidateAllLocally();
+
+    assertThat(programCache.get("1")).isEmpty();
+    assertThat(programDefCache.get("1")).isEmpty();
+  }
+
+  private SyncCacheApi getNamedCache(String name) {
+    return instanceOf(
+        new BindingKey<>(SyncCacheApi.class).qualifiedWith(new NamedCacheImpl(name)).asScala());
+  }
+}
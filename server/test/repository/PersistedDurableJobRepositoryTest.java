@@ -1,11 +1,14 @@
 package repository;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
 import io.ebean.DB;
 import io.ebean.Database;
 import io.ebean.Transaction;
+import java.time.Duration;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.Optional;
@@ -16,6 +19,11 @@ import org.junit.Before;
 import org.junit.Test;
 
 public class PersistedDurableJobRepositoryTest extends ResetPostgres {
+  private static final ImmutableSet<JobType> RECURRING = ImmutableSet.of(JobType.RECURRING);
+  private static final ImmutableSet<JobType> ON_DEMAND = ImmutableSet.of(JobType.ON_DEMAND);
+  private static final ImmutableSet<JobType> STARTUP =
+      ImmutableSet.of(JobType.RUN_ONCE, JobType.RUN_ON_EACH_STARTUP);
+
   private PersistedDurableJobRepository repo;
   private Database database;
 
@@ -46,54 +54,71 @@ public class PersistedDurableJobRepositoryTest extends ResetPostgres {
   }
 
   @Test
-  public void getRecurringJobForExecution_locksRowsForUpdateAndSkipsThem() throws Throwable {
+  public void claimJobForExecution_leasesJobAndSkipsItUntilTheLeaseExpires() {
     Instant yesterday = Instant.now().minus(1, ChronoUnit.DAYS);
-    var jobA = new PersistedDurableJobModel("fake-name", JobType.RECURRING, yesterday);
-    jobA.save();
+    var job = new PersistedDurableJobModel("fake-name", JobType.RECURRING, yesterday);
+    job.save();
 
-    // Exceptions thrown in a separate thread won't cause the test to fail, so
-    // we capture it in a ref and throw at the end of the test if it's present.
-    AtomicReference<Optional<Throwable>> threadException = new AtomicReference<>(Optional.empty());
+    Optional<PersistedDurableJobModel> claimedJob =
+        repo.claimJobForExecution(RECURRING, "runner-a", Duration.ofMinutes(1));
 
-    try (Transaction transactionA = database.beginTransaction()) {
-      Optional<PersistedDurableJobModel> firstFoundJob = repo.getRecurringJobForExecution();
-      assertThat(firstFoundJob.get()).isEqualTo(jobA);
+    assertThat(claimedJob).contains(job);
+    assertThat(claimedJob.get().getLeaseOwner()).contains("runner-a");
+    assertThat(claimedJob.get().getLeaseExpiration()).isPresent();
+    assertThat(claimedJob.get().getRemainingAttempts()).isEqualTo(2);
+    assertThat(repo.claimJobForExecution(RECURRING, "runner-b", Duration.ofMinutes(1))).isEmpty();
 
-      // Because EBean transactions are thread-local we start a new thread so
-      // that we can have two transactions open at the same time.
-      Thread thread =
-          new Thread(
-              () -> {
-                try (Transaction transactionB = database.beginTransaction()) {
-                  // There is only one job in the table, and it is locked by
-                  // a transaction in the parent thread, querying for jobs
-                  // should therefore return empty.
-                  Optional<PersistedDurableJobModel> secondFoundJob =
-                      repo.getRecurringJobForExecution();
-                  assertThat(secondFoundJob).isEmpty();
-
-                  // After saving the second job, it should now be available for
-                  // execution.
-                  var jobB =
-                      new PersistedDurableJobModel("fake-name", JobType.RECURRING, yesterday);
-                  jobB.save();
-                  secondFoundJob = repo.getRecurringJobForExecution();
-                  assertThat(secondFoundJob.get()).isEqualTo(jobB);
-                }
-              });
-      thread.setUncaughtExceptionHandler(
-          (t, exception) -> threadException.set(Optional.of(exception)));
-      thread.start();
-      thread.join();
-    }
+    // A lease that isn't renewed expires.
+    assertThat(repo.renewLease(job.id, "runner-a", Duration.ZERO)).isTrue();
 
-    if (threadException.get().isPresent()) {
-      throw threadException.get().get();
-    }
+    claimedJob = repo.claimJobForExecution(RECURRING, "runner-b", Duration.ofMinutes(1));
+    assertThat(claimedJob).contains(job);
+    assertThat(claimedJob.get().getLeaseOwner()).contains("runner-b");
+    assertThat(claimedJob.get().getRemainingAttempts()).isEqualTo(1);
+    assertThat(repo.renewLease(job.id, "runner-a", Duration.ofMinutes(1))).isFalse();
   }
 
   @Test
-  public void getStartupJobForExecution_locksRowsForUpdateAndSkipsThem() throws Throwable {
+  public void finishLeasedJob_onlyRecordsWhileTheJobIsLeasedToTheRunner() {
+    Instant yesterday = Instant.now().minus(1, ChronoUnit.DAYS);
+    var job = new PersistedDurableJobModel("fake-name", JobType.RECURRING, yesterday);
+    job.save();
+    PersistedDurableJobModel claimedJob =
+        repo.claimJobForExecution(RECURRING, "runner-a", Duration.ofMinutes(1)).get();
+
+    claimedJob.appendErrorMessage("failed");
+    assertThat(repo.recordLeasedJobError(claimedJob, "runner-b")).isFalse();
+    assertThat(repo.finishLeasedJob(claimedJob, "runner-b")).isFalse();
+    job.refresh();
+    assertThat(job.getErrorMessage()).isEmpty();
+    assertThat(job.getLeaseOwner()).contains("runner-a");
+
+    assertThat(repo.recordLeasedJobError(claimedJob, "runner-a")).isTrue();
+    job.refresh();
+    assertThat(job.getErrorMessage()).contains("failed");
+    assertThat(job.getLeaseOwner()).contains("runner-a");
+
+    claimedJob.setSuccessTime(Instant.now());
+    assertThat(repo.finishLeasedJob(claimedJob, "runner-a")).isTrue();
+    job.refresh();
+    assertThat(job.getSuccessTime()).isPresent();
+    assertThat(job.getLeaseOwner()).isEmpty();
+    assertThat(job.getLeaseExpiration()).isEmpty();
+  }
+
+  @Test
+  public void insertJobToRunNow_insertsAReadyJob() {
+    var job = new PersistedDurableJobModel("fake-name", JobType.ON_DEMAND, Instant.now());
+
+    repo.insertJobToRunNow(job);
+
+    assertThat(repo.countJobsReadyForExecution()).containsExactly(entry(JobType.ON_DEMAND, 1L));
+    assertThat(repo.claimJobForExecution(ON_DEMAND, "runner-a", Duration.ofMinutes(1)))
+        .contains(job);
+  }
+
+  @Test
+  public void claimJobForExecution_skipsJobsLockedByAnotherTransaction() throws Throwable {
     Instant yesterday = Instant.now().minus(1, ChronoUnit.DAYS);
     var jobA = new PersistedDurableJobModel("fake-name", JobType.RUN_ONCE, yesterday);
     jobA.save();
@@ -103,31 +128,27 @@ public class PersistedDurableJobRepositoryTest extends ResetPostgres {
     AtomicReference<Optional<Throwable>> threadException = new AtomicReference<>(Optional.empty());
 
     try (Transaction transactionA = database.beginTransaction()) {
-      Optional<PersistedDurableJobModel> firstFoundJob = repo.getStartupJobForExecution();
-      assertThat(firstFoundJob.get()).isEqualTo(jobA);
+      database.find(PersistedDurableJobModel.class).forUpdate().setId(jobA.id).findOne();
 
       // Because EBean transactions are thread-local we start a new thread so
-      // that we can have two transactions open at the same time.
+      // that the job is claimed while the parent thread holds the lock.
       Thread thread =
           new Thread(
               () -> {
-                try (Transaction transactionB = database.beginTransaction()) {
-                  // There is only one job in the table, and it is locked by
-                  // a transaction in the parent thread, querying for jobs
-                  // should therefore return empty.
-                  Optional<PersistedDurableJobModel> secondFoundJob =
-                      repo.getStartupJobForExecution();
-                  assertThat(secondFoundJob).isEmpty();
-
-                  // After saving the second job, it should now be available for
-                  // execution.
-                  var jobB =
-                      new PersistedDurableJobModel(
-                          "fake-name", JobType.RUN_ON_EACH_STARTUP, yesterday);
-                  jobB.save();
-                  secondFoundJob = repo.getStartupJobForExecution();
-                  assertThat(secondFoundJob.get()).isEqualTo(jobB);
-                }
+                // There is only one job in the table, and it is locked by
+                // a transaction in the parent thread, claiming a job
+                // should therefore return empty.
+                assertThat(repo.claimJobForExecution(STARTUP, "runner", Duration.ofMinutes(1)))
+                    .isEmpty();
+
+                // After saving the second job, it should now be available for
+                // execution.
+                var jobB =
+                    new PersistedDurableJobModel(
+                        "fake-name", JobType.RUN_ON_EACH_STARTUP, yesterday);
+                jobB.save();
+                assertThat(repo.claimJobForExecution(STARTUP, "runner", Duration.ofMinutes(1)))
+                    .contains(jobB);
               });
       thread.setUncaughtExceptionHandler(
           (t, exception) -> threadException.set(Optional.of(exception)));
@@ -140,6 +161,19 @@ public class PersistedDurableJobRepositoryTest extends ResetPostgres {
     }
   }
 
+  @Test
+  public void claimJobForExecution_onlyClaimsJobsOnceTheirTimeHasCome() {
+    Instant tomorrow = Instant.now().plus(1, ChronoUnit.DAYS);
+    new PersistedDurableJobModel("fake-name", JobType.RECURRING, tomorrow).save();
+    new PersistedDurableJobModel("fake-name", JobType.RUN_ONCE, tomorrow).save();
+    new PersistedDurableJobModel("fake-name", JobType.ON_DEMAND, tomorrow).save();
+
+    assertThat(repo.countJobsReadyForExecution()).isEmpty();
+    assertThat(repo.claimJobForExecution(RECURRING, "runner", Duration.ofMinutes(1))).isEmpty();
+    assertThat(repo.claimJobForExecution(STARTUP, "runner", Duration.ofMinutes(1))).isEmpty();
+    assertThat(repo.claimJobForExecution(ON_DEMAND, "runner", Duration.ofMinutes(1))).isEmpty();
+  }
+
   @Test
   public void deleteJobsOlderThanSixMonths() {
     Instant oneYearAgo = Instant.now().minus(365, ChronoUnit.DAYS);
@@ -149,8 +183,11 @@ public class PersistedDurableJobRepositoryTest extends ResetPostgres {
     var oneYearOldJob = new PersistedDurableJobModel("fake-name", JobType.RECURRING, oneYearAgo);
     var fiveMonthOldJob =
         new PersistedDurableJobModel("fake-name", JobType.RECURRING, fiveMonthsAgo);
+    var oneYearOldOnDemandJob =
+        new PersistedDurableJobModel("on-demand-job-name", JobType.ON_DEMAND, oneYearAgo);
     oneYearOldJob.save();
     fiveMonthOldJob.save();
+    oneYearOldOnDemandJob.save();
 
     // Jobs that will not be deleted
     var runOnceJob =
@@ -161,7 +198,7 @@ public class PersistedDurableJobRepositoryTest extends ResetPostgres {
     runOnceJob.save();
     runOnStartupJob.save();
 
-    assertThat(repo.getJobs().size()).isEqualTo(4);
+    assertThat(repo.getJobs().size()).isEqualTo(5);
     repo.deleteJobsOlderThanSixMonths();
     ImmutableList<PersistedDurableJobModel> remainingJobs = repo.getJobs();
     assertThat(remainingJobs.size()).isEqualTo(3);
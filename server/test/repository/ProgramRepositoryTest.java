@@ -9,6 +9,7 @@ import com.google.common.collect.ImmutableSet;
 import com.google.inject.util.Providers;
 import io.ebean.DataIntegrityException;
 import java.time.Instant;
+import java.util.Arrays;
 import java.util.Locale;
 import java.util.Optional;
 import java.util.concurrent.TimeUnit;
@@ -30,9 +31,11 @@ import services.LocalizedStrings;
 import services.Path;
 import services.applicant.ApplicantData;
 import services.application.ApplicationEventDetails.StatusEvent;
+import services.pagination.CountStrategy;
 import services.pagination.PageNumberPaginationSpec;
 import services.pagination.PaginationResult;
 import services.pagination.RowIdSequentialAccessPaginationSpec;
+import services.pagination.SubmitTimeKeysetPaginationSpec;
 import services.pagination.SubmitTimeSequentialAccessPaginationSpec;
 import services.program.BlockDefinition;
 import services.program.ProgramDefinition;
@@ -77,7 +80,8 @@ public class ProgramRepositoryTest extends ResetPostgres {
             mockSettingsManifest,
             programCache,
             programDefCache,
-            versionsByProgramCache);
+            versionsByProgramCache,
+            instanceOf(CacheInvalidationBus.class));
   }
 
   @Test
@@ -124,6 +128,45 @@ public class ProgramRepositoryTest extends ResetPostgres {
     assertThat(programDefFromCache).isEmpty();
   }
 
+  @Test
+  public void setDraftFullProgramDefinitionCache_doesNotSetWhenDraftCacheDisabled() {
+    Mockito.when(mockSettingsManifest.getQuestionCacheEnabled()).thenReturn(true);
+    Mockito.when(mockSettingsManifest.getDraftProgramCacheEnabled()).thenReturn(false);
+    ProgramModel program = resourceCreator.insertDraftProgram("testDraftInCache");
+
+    repo.setDraftFullProgramDefinitionCache(program.id, program.getProgramDefinition());
+
+    assertThat(repo.getFullProgramDefinitionFromCache(program)).isEmpty();
+  }
+
+  @Test
+  public void setDraftFullProgramDefinitionCache_setsWhenDraftCacheEnabled() {
+    Mockito.when(mockSettingsManifest.getQuestionCacheEnabled()).thenReturn(true);
+    Mockito.when(mockSettingsManifest.getDraftProgramCacheEnabled()).thenReturn(true);
+    ProgramModel program = resourceCreator.insertDraftProgram("testDraftInCache");
+
+    repo.setDraftFullProgramDefinitionCache(program.id, program.getProgramDefinition());
+
+    assertThat(repo.getFullProgramDefinitionFromCache(program))
+        .hasValue(program.getProgramDefinition());
+  }
+
+  @Test
+  public void updateProgramSync_invalidatesCachedFullProgramDefinition() {
+    Mockito.when(mockSettingsManifest.getQuestionCacheEnabled()).thenReturn(true);
+    Mockito.when(mockSettingsManifest.getDraftProgramCacheEnabled()).thenReturn(true);
+    ProgramModel program = resourceCreator.insertDraftProgram("testDraftInCache");
+    repo.setDraftFullProgramDefinitionCache(program.id, program.getProgramDefinition());
+
+    repo.updateProgramSync(
+        program.getProgramDefinition().toBuilder()
+            .setAdminDescription("new description")
+            .build()
+            .toProgram());
+
+    assertThat(repo.getFullProgramDefinitionFromCache(program)).isEmpty();
+  }
+
   @Test
   public void setFullProgramDefinitionFromCache_doesNotSetWhenNullQuestionsIncluded() {
     Mockito.when(mockSettingsManifest.getQuestionCacheEnabled()).thenReturn(true);
@@ -505,6 +548,64 @@ public class ProgramRepositoryTest extends ResetPostgres {
         .containsExactly(emailOne);
   }
 
+  @Test
+  public void getApplicationsForAllProgramVersions_searchesByLastNameFirstAndSubmitterEmail() {
+    ProgramModel program = resourceCreator.insertActiveProgram("test program");
+    makeApplicantWithAccountAndApplication(
+        "OneFirst", "OneLast", "one@email.com", "1234567890", program);
+    ApplicantModel applicantTwo =
+        resourceCreator.insertApplicantWithAccount(Optional.of("two@email.com"));
+    ApplicationModel applicationTwo =
+        resourceCreator.insertActiveApplication(applicantTwo, program);
+    applicationTwo.setSubmitterEmail("ti@agency.org");
+    applicationTwo.save();
+
+    PaginationResult<ApplicationModel> byLastNameFirst =
+        repo.getApplicationsForAllProgramVersions(
+            program.id,
+            RowIdSequentialAccessPaginationSpec.APPLICATION_MODEL_MAX_PAGE_SIZE_SPEC,
+            SubmittedApplicationFilter.builder()
+                .setSearchNameFragment(Optional.of("onelast, onefirst"))
+                .setSubmitTimeFilter(TimeFilter.EMPTY)
+                .build());
+    PaginationResult<ApplicationModel> bySubmitterEmail =
+        repo.getApplicationsForAllProgramVersions(
+            program.id,
+            RowIdSequentialAccessPaginationSpec.APPLICATION_MODEL_MAX_PAGE_SIZE_SPEC,
+            SubmittedApplicationFilter.builder()
+                .setSearchNameFragment(Optional.of("agency"))
+                .setSubmitTimeFilter(TimeFilter.EMPTY)
+                .build());
+
+    assertThat(byLastNameFirst.getPageContents())
+        .extracting(application -> application.getApplicant().getEmailAddress().get())
+        .containsExactly("one@email.com");
+    assertThat(bySubmitterEmail.getPageContents()).containsExactly(applicationTwo);
+  }
+
+  @Test
+  public void getApplicationsForAllProgramVersions_digitsOnlySearch_onlyMatchesPhoneNumber() {
+    ProgramModel program = resourceCreator.insertActiveProgram("test program");
+    makeApplicantWithAccountAndApplication(
+        "OneFirst", "OneLast", "one2024@email.com", "5550001111", program);
+    makeApplicantWithAccountAndApplication(
+        "TwoFirst", "TwoLast", "two@email.com", "5552024111", program);
+
+    PaginationResult<ApplicationModel> paginationResult =
+        repo.getApplicationsForAllProgramVersions(
+            program.id,
+            RowIdSequentialAccessPaginationSpec.APPLICATION_MODEL_MAX_PAGE_SIZE_SPEC,
+            SubmittedApplicationFilter.builder()
+                .setSearchNameFragment(Optional.of("2024"))
+                .setSubmitTimeFilter(TimeFilter.EMPTY)
+                .build());
+
+    // The digits are also in the first applicant's email, but only phone numbers are searched.
+    assertThat(paginationResult.getPageContents())
+        .extracting(application -> application.getApplicant().getEmailAddress().get())
+        .containsExactly("two@email.com");
+  }
+
   private void makeApplicantWithAccountAndApplication(
       String firstName, String lastName, String email, String phoneNumber, ProgramModel program) {
 
@@ -658,6 +759,74 @@ public class ProgramRepositoryTest extends ResetPostgres {
         .isEqualTo(ImmutableSet.of());
   }
 
+  @Test
+  public void getApplicationsForAllProgramVersions_filterByAnswer() {
+    ProgramModel program = resourceCreator.insertActiveProgram("test program");
+    ApplicationModel smallNorth =
+        insertActiveApplicationWithAnswers(program, 2, "north", ImmutableList.of("1"));
+    ApplicationModel largeNorth =
+        insertActiveApplicationWithAnswers(program, 6, "north", ImmutableList.of("1", "2"));
+    ApplicationModel largeSouth =
+        insertActiveApplicationWithAnswers(program, 5, "south", ImmutableList.of("3"));
+    ApplicationModel unanswered =
+        resourceCreator.insertActiveApplication(
+            resourceCreator.insertApplicantWithAccount(), program);
+
+    assertThat(answerFilteredApplicationIds(program, "household_size.number:GREATER_THAN:4"))
+        .containsExactlyInAnyOrder(largeNorth.id, largeSouth.id);
+    assertThat(answerFilteredApplicationIds(program, "household_size.number:LESS_THAN:6"))
+        .containsExactlyInAnyOrder(smallNorth.id, largeSouth.id);
+    assertThat(answerFilteredApplicationIds(program, "household_size.number:EQUAL_TO:5"))
+        .containsExactly(largeSouth.id);
+    assertThat(answerFilteredApplicationIds(program, "county.selection:IN:south,east"))
+        .containsExactly(largeSouth.id);
+    // Only applications that answered the question are not equal to a value.
+    assertThat(answerFilteredApplicationIds(program, "county.selection:NOT_EQUAL_TO:south"))
+        .containsExactlyInAnyOrder(smallNorth.id, largeNorth.id);
+    assertThat(answerFilteredApplicationIds(program, "benefits.selections:ANY_OF:2,3"))
+        .containsExactlyInAnyOrder(largeNorth.id, largeSouth.id);
+    assertThat(answerFilteredApplicationIds(program, "benefits.selections:NONE_OF:1"))
+        .containsExactly(largeSouth.id);
+    assertThat(
+            answerFilteredApplicationIds(
+                program,
+                "household_size.number:GREATER_THAN_OR_EQUAL_TO:2",
+                "county.selection:EQUAL_TO:north"))
+        .containsExactlyInAnyOrder(smallNorth.id, largeNorth.id);
+    assertThat(answerFilteredApplicationIds(program)).contains(unanswered.id);
+  }
+
+  private ApplicationModel insertActiveApplicationWithAnswers(
+      ProgramModel program, long householdSize, String county, ImmutableList<String> benefits) {
+    ApplicantData answers = new ApplicantData();
+    answers.putLong(Path.create("applicant.household_size.number"), householdSize);
+    answers.putString(Path.create("applicant.county.selection"), county);
+    for (int i = 0; i < benefits.size(); i++) {
+      answers.putString(
+          Path.create("applicant.benefits.selections").asArrayElement().atIndex(i),
+          benefits.get(i));
+    }
+    ApplicationModel application =
+        resourceCreator.insertActiveApplication(
+            resourceCreator.insertApplicantWithAccount(), program);
+    application.setApplicantData(answers);
+    application.save();
+    return application;
+  }
+
+  private ImmutableSet<Long> answerFilteredApplicationIds(
+      ProgramModel program, String... answerFilters) {
+    return applicationIdsForProgramAndFilter(
+        program,
+        SubmittedApplicationFilter.builder()
+            .setSubmitTimeFilter(TimeFilter.EMPTY)
+            .setAnswerFilters(
+                Arrays.stream(answerFilters)
+                    .map(AnswerFilter::parse)
+                    .collect(ImmutableList.toImmutableList()))
+            .build());
+  }
+
   private ImmutableSet<Long> applicationIdsForProgramAndFilter(
       ProgramModel program, SubmittedApplicationFilter filter) {
     PaginationResult<ApplicationModel> result =
@@ -1010,6 +1179,98 @@ public class ProgramRepositoryTest extends ResetPostgres {
     assertThat(paginationResult.getPageContents().get(0).getApplicant()).isEqualTo(applicantOne);
   }
 
+  @Test
+  public void getApplicationsForAllProgramVersions_countStrategyNone_findsNextPageWithoutCount() {
+    ProgramModel program = resourceCreator.insertActiveProgram("test program");
+    ApplicationModel applicationOne =
+        resourceCreator.insertActiveApplication(
+            resourceCreator.insertApplicantWithAccount(Optional.of("one@example.com")), program);
+    resourceCreator.insertActiveApplication(
+        resourceCreator.insertApplicantWithAccount(Optional.of("two@example.com")), program);
+    resourceCreator.insertActiveApplication(
+        resourceCreator.insertApplicantWithAccount(Optional.of("three@example.com")), program);
+
+    PaginationResult<ApplicationModel> paginationResult =
+        repo.getApplicationsForAllProgramVersions(
+            program.id,
+            new RowIdSequentialAccessPaginationSpec(
+                /* pageSize= */ 2, Long.MAX_VALUE, CountStrategy.NONE),
+            SubmittedApplicationFilter.EMPTY);
+
+    assertThat(paginationResult.getNumPages()).isEqualTo(0);
+    assertThat(paginationResult.hasMorePages()).isTrue();
+    assertThat(paginationResult.getPageContents()).hasSize(2);
+
+    paginationResult =
+        repo.getApplicationsForAllProgramVersions(
+            program.id,
+            new RowIdSequentialAccessPaginationSpec(
+                /* pageSize= */ 2,
+                paginationResult.getPageContents().get(1).id,
+                CountStrategy.NONE),
+            SubmittedApplicationFilter.EMPTY);
+
+    assertThat(paginationResult.hasMorePages()).isFalse();
+    assertThat(paginationResult.getPageContents()).containsExactly(applicationOne);
+  }
+
+  @Test
+  public void getApplicationsForAllProgramVersions_keysetPagination_stepsBothWays() {
+    ProgramModel program = resourceCreator.insertActiveProgram("test program");
+    ApplicationModel applicationOne =
+        resourceCreator.insertActiveApplication(
+            resourceCreator.insertApplicantWithAccount(Optional.of("one@example.com")), program);
+    ApplicationModel applicationTwo =
+        resourceCreator.insertActiveApplication(
+            resourceCreator.insertApplicantWithAccount(Optional.of("two@example.com")), program);
+    ApplicationModel applicationThree =
+        resourceCreator.insertActiveApplication(
+            resourceCreator.insertApplicantWithAccount(Optional.of("three@example.com")), program);
+
+    /* Set the submit date such that the results come back in this order: 2, 1, 3 */
+    applicationThree.setSubmitTimeToNow();
+    applicationThree.save();
+    applicationOne.setSubmitTimeToNow();
+    applicationOne.save();
+    applicationTwo.setSubmitTimeToNow();
+    applicationTwo.save();
+
+    PaginationResult<ApplicationModel> firstPage =
+        repo.getApplicationsForAllProgramVersions(
+            program.id,
+            SubmitTimeKeysetPaginationSpec.firstPage(/* pageSize= */ 2, CountStrategy.NONE),
+            SubmittedApplicationFilter.EMPTY);
+
+    assertThat(firstPage.hasMorePages()).isTrue();
+    assertThat(firstPage.getPageContents()).containsExactly(applicationTwo, applicationOne);
+
+    PaginationResult<ApplicationModel> olderPage =
+        repo.getApplicationsForAllProgramVersions(
+            program.id,
+            SubmitTimeKeysetPaginationSpec.olderThan(
+                /* pageSize= */ 2, CountStrategy.NONE, cursorFor(applicationOne)),
+            SubmittedApplicationFilter.EMPTY);
+
+    assertThat(olderPage.hasMorePages()).isFalse();
+    assertThat(olderPage.getPageContents()).containsExactly(applicationThree);
+
+    PaginationResult<ApplicationModel> newerPage =
+        repo.getApplicationsForAllProgramVersions(
+            program.id,
+            SubmitTimeKeysetPaginationSpec.newerThan(
+                /* pageSize= */ 2, CountStrategy.NONE, cursorFor(applicationThree)),
+            SubmittedApplicationFilter.EMPTY);
+
+    // Newer pages are returned newest first, and report whether there are newer pages still.
+    assertThat(newerPage.hasMorePages()).isFalse();
+    assertThat(newerPage.getPageContents()).containsExactly(applicationTwo, applicationOne);
+  }
+
+  private static SubmitTimeKeysetPaginationSpec.Cursor cursorFor(ApplicationModel application) {
+    application.refresh();
+    return new SubmitTimeKeysetPaginationSpec.Cursor(application.getSubmitTime(), application.id);
+  }
+
   @Test
   public void getMostRecentActiveProgramVersion_returnsDifferentProgramIdWhichIsTheLatest() {
     ProgramModel programModel1 = resourceCreator.insertActiveProgram("program-name-1");
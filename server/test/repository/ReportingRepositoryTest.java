@@ -4,18 +4,20 @@ import static java.time.ZoneOffset.UTC;
 import static org.assertj.core.api.Assertions.assertThat;
 
 import com.google.common.collect.ImmutableList;
+import io.ebean.DB;
 import java.sql.Timestamp;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
-import java.util.Optional;
 import models.ApplicantModel;
 import models.ApplicationModel;
 import models.LifecycleStage;
 import models.ProgramModel;
+import org.apache.commons.lang3.tuple.Pair;
 import org.apache.commons.lang3.tuple.Triple;
 import org.junit.Before;
 import org.junit.Test;
-import services.reporting.ApplicationSubmissionsStat;
+import services.reporting.MonthlySubmissionStats;
+import services.reporting.SubmissionDurationSketch;
 import support.ProgramBuilder;
 
 public class ReportingRepositoryTest extends ResetPostgres {
@@ -36,7 +38,7 @@ public class ReportingRepositoryTest extends ResetPostgres {
   }
 
   @Test
-  public void monthlyReportingView() {
+  public void rebuildAllSubmissionStats() {
     Instant lastMonth = testClock.instant().minus(40, ChronoUnit.DAYS);
     Instant twoMonthsAgo = testClock.instant().minus(70, ChronoUnit.DAYS);
 
@@ -68,92 +70,118 @@ public class ReportingRepositoryTest extends ResetPostgres {
                     applicationSpec.getMiddle(),
                     applicationSpec.getRight()));
 
-    repo.refreshMonthlyReportingView();
+    repo.rebuildAllSubmissionStats();
 
-    assertThat(repo.loadMonthlyReportingView())
+    assertThat(repo.loadSubmissionStats())
         .containsExactly(
-            // The expected values here have submission duration percentile stats calculated from
-            // the submitted (i.e. active and obsolete) applications.
-            ApplicationSubmissionsStat.create(
+            // The expected durations are those of the submitted (i.e. active and obsolete)
+            // applications.
+            MonthlySubmissionStats.create(
                 "fake-program-a",
                 "Fake Program A",
                 getMonthTimestamp(lastMonth),
-                3L,
-                300,
-                500,
-                750,
-                990),
-            ApplicationSubmissionsStat.create(
+                sketchOf(100, 1000, 500)),
+            MonthlySubmissionStats.create(
                 "fake-program-b",
                 "Fake Program B",
                 getMonthTimestamp(twoMonthsAgo),
-                3L,
-                300,
-                500,
-                750,
-                990));
+                sketchOf(100, 1000, 500)));
   }
 
   @Test
-  public void loadThisMonthReportingData() {
+  public void recordSubmission() {
     Instant today = testClock.instant();
 
     ImmutableList.of(
-            Triple.of(LifecycleStage.ACTIVE, today, today.plusSeconds(100)),
-            Triple.of(LifecycleStage.OBSOLETE, today, today.plusSeconds(1000)),
-            Triple.of(LifecycleStage.OBSOLETE, today, today.plusSeconds(500)),
-            Triple.of(LifecycleStage.DRAFT, today, today.plusSeconds(1)))
+            Pair.of(programA, today.plusSeconds(100)),
+            Pair.of(programA, today.plusSeconds(1000)),
+            Pair.of(programB, today.plusSeconds(500)))
         .stream()
         .forEach(
             applicationSpec ->
-                createFakeApplication(
-                    programA,
-                    applicationSpec.getLeft(),
-                    applicationSpec.getMiddle(),
-                    applicationSpec.getRight()));
+                recordSubmission(
+                    createFakeApplication(
+                        applicationSpec.getLeft(),
+                        LifecycleStage.ACTIVE,
+                        today,
+                        applicationSpec.getRight())));
+
+    assertThat(repo.loadSubmissionStats())
+        .containsExactly(
+            MonthlySubmissionStats.create(
+                "fake-program-a", "Fake Program A", getMonthTimestamp(today), sketchOf(100, 1000)),
+            MonthlySubmissionStats.create(
+                "fake-program-b", "Fake Program B", getMonthTimestamp(today), sketchOf(500)));
+  }
 
-    ImmutableList.of(
-            Triple.of(LifecycleStage.ACTIVE, today, today.plusSeconds(100)),
-            Triple.of(LifecycleStage.OBSOLETE, today, today.plusSeconds(1000)),
-            Triple.of(LifecycleStage.OBSOLETE, today, today.plusSeconds(500)),
-            Triple.of(LifecycleStage.DRAFT, today, today.plusSeconds(1)))
-        .stream()
-        .forEach(
-            applicationSpec ->
-                createFakeApplication(
-                    programB,
-                    applicationSpec.getLeft(),
-                    applicationSpec.getMiddle(),
-                    applicationSpec.getRight()));
+  @Test
+  public void loadSubmissionStats_foldsRecordedSubmissionsIntoStats() {
+    Instant today = testClock.instant();
+    recordSubmission(
+        createFakeApplication(programA, LifecycleStage.ACTIVE, today, today.plusSeconds(100)));
+    repo.loadSubmissionStats();
+    recordSubmission(
+        createFakeApplication(programA, LifecycleStage.ACTIVE, today, today.plusSeconds(1000)));
 
-    assertThat(repo.loadThisMonthReportingData())
+    assertThat(repo.loadSubmissionStats())
         .containsExactly(
-            // The expected values here have submission duration percentile stats calculated from
-            // the submitted (i.e. active and obsolete) applications.
-            ApplicationSubmissionsStat.create(
-                "fake-program-a",
-                "Fake Program A",
-                getMonthTimestamp(today),
-                3L,
-                300,
-                500,
-                750,
-                990),
-            ApplicationSubmissionsStat.create(
-                "fake-program-b",
-                "Fake Program B",
-                getMonthTimestamp(today),
-                3L,
-                300,
-                500,
-                750,
-                990));
+            MonthlySubmissionStats.create(
+                "fake-program-a", "Fake Program A", getMonthTimestamp(today), sketchOf(100, 1000)));
+    assertThat(DB.sqlQuery("SELECT * FROM recorded_submissions").findList()).isEmpty();
+  }
+
+  @Test
+  public void rebuildLastMonthSubmissionStats_countsRecordedSubmissionsOnce() {
+    Instant lastMonth = testClock.instant().minus(40, ChronoUnit.DAYS);
+    recordSubmission(
+        createFakeApplication(
+            programA, LifecycleStage.ACTIVE, lastMonth, lastMonth.plusSeconds(100)));
+
+    repo.rebuildLastMonthSubmissionStats();
+
+    assertThat(repo.loadSubmissionStats())
+        .containsExactly(
+            MonthlySubmissionStats.create(
+                "fake-program-a", "Fake Program A", getMonthTimestamp(lastMonth), sketchOf(100)));
+  }
+
+  @Test
+  public void rebuildLastMonthSubmissionStats_onlyRecomputesLastMonth() {
+    Instant today = testClock.instant();
+    Instant lastMonth = testClock.instant().minus(40, ChronoUnit.DAYS);
+    Instant twoMonthsAgo = testClock.instant().minus(70, ChronoUnit.DAYS);
+    recordSubmission(
+        createFakeApplication(programA, LifecycleStage.ACTIVE, today, today.plusSeconds(100)));
+    // Submitted without recording it, like by a server running an older version.
+    createFakeApplication(programA, LifecycleStage.ACTIVE, lastMonth, lastMonth.plusSeconds(500));
+    createFakeApplication(
+        programA, LifecycleStage.ACTIVE, twoMonthsAgo, twoMonthsAgo.plusSeconds(1000));
+
+    repo.rebuildLastMonthSubmissionStats();
+
+    assertThat(repo.loadSubmissionStats())
+        .containsExactly(
+            MonthlySubmissionStats.create(
+                "fake-program-a", "Fake Program A", getMonthTimestamp(today), sketchOf(100)),
+            MonthlySubmissionStats.create(
+                "fake-program-a", "Fake Program A", getMonthTimestamp(lastMonth), sketchOf(500)));
+  }
+
+  private static Timestamp getMonthTimestamp(Instant instant) {
+    return Timestamp.from(
+        instant.atZone(UTC).truncatedTo(ChronoUnit.DAYS).withDayOfMonth(1).toInstant());
+  }
+
+  private void recordSubmission(ApplicationModel application) {
+    repo.recordSubmission(application.getProgramName(), application);
   }
 
-  private static Optional<Timestamp> getMonthTimestamp(Instant lastMonth) {
-    return Optional.of(
-        Timestamp.from(
-            lastMonth.atZone(UTC).truncatedTo(ChronoUnit.DAYS).withDayOfMonth(1).toInstant()));
+  private static SubmissionDurationSketch sketchOf(double... durationSeconds) {
+    SubmissionDurationSketch.Builder builder = new SubmissionDurationSketch.Builder();
+    for (double duration : durationSeconds) {
+      builder.add(duration);
+    }
+    return builder.build();
   }
 
   private ApplicationModel createFakeApplication(
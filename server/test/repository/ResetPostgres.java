@@ -66,6 +66,7 @@ public class ResetPostgres {
     Models.truncate(database);
     VersionModel newActiveVersion = new VersionModel(LifecycleStage.ACTIVE);
     newActiveVersion.save();
+    instanceOf(VersionRepository.class).invalidateActiveVersionCache();
     instanceOf(SettingsService.class).migrateConfigValuesToSettingsGroup();
   }
 
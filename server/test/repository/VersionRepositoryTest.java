@@ -42,6 +42,7 @@ public class VersionRepositoryTest extends ResetPostgres {
   private VersionRepository versionRepository;
   private SyncCacheApi questionsByVersionCache;
   private SyncCacheApi programsByVersionCache;
+  private SyncCacheApi activeVersionCache;
   private SettingsManifest mockSettingsManifest;
 
   @Before
@@ -49,6 +50,7 @@ public class VersionRepositoryTest extends ResetPostgres {
     mockSettingsManifest = Mockito.mock(SettingsManifest.class);
     questionsByVersionCache = instanceOf(SyncCacheApi.class);
     programsByVersionCache = instanceOf(SyncCacheApi.class);
+    activeVersionCache = instanceOf(SyncCacheApi.class);
     versionRepository =
         new VersionRepository(
             instanceOf(ProgramRepository.class),
@@ -56,7 +58,11 @@ public class VersionRepositoryTest extends ResetPostgres {
             instanceOf(DatabaseExecutionContext.class),
             mockSettingsManifest,
             questionsByVersionCache,
-            programsByVersionCache);
+            programsByVersionCache,
+            activeVersionCache,
+            instanceOf(CacheInvalidationBus.class));
+    // Unlike the per-version caches, the active version key is reused across tests.
+    versionRepository.invalidateActiveVersionCache();
   }
 
   @Test
@@ -539,6 +545,12 @@ public class VersionRepositoryTest extends ResetPostgres {
     return q;
   }
 
+  private Optional<Long> cachedActiveVersionId() {
+    return activeVersionCache
+        .<VersionRepository.CachedActiveVersion>get(VersionRepository.ACTIVE_VERSION_CACHE_KEY)
+        .flatMap(VersionRepository.CachedActiveVersion::activeVersionId);
+  }
+
   private QuestionModel insertDraftQuestion(String name) {
     QuestionModel q = resourceCreator.insertQuestion(name);
     q.addVersion(versionRepository.getDraftVersionOrCreate()).save();
@@ -1096,6 +1108,89 @@ public class VersionRepositoryTest extends ResetPostgres {
     assertThat(programsByVersionCache.get(version1Key).isPresent()).isFalse();
   }
 
+  @Test
+  public void getActiveVersion_usesCacheIfEnabled() {
+    Mockito.when(mockSettingsManifest.getVersionCacheEnabled()).thenReturn(true);
+
+    VersionModel activeVersion = versionRepository.getActiveVersion();
+
+    assertThat(cachedActiveVersionId()).contains(activeVersion.id);
+    VersionModel cachedActiveVersion = versionRepository.getActiveVersion();
+    assertThat(cachedActiveVersion.id).isEqualTo(activeVersion.id);
+    assertThat(cachedActiveVersion.getLifecycleStage()).isEqualTo(LifecycleStage.ACTIVE);
+  }
+
+  @Test
+  public void getActiveVersion_looksUpVersionWhileAnotherLookupIsInProgress() {
+    Mockito.when(mockSettingsManifest.getVersionCacheEnabled()).thenReturn(true);
+    VersionModel activeVersion = versionRepository.getActiveVersion();
+    activeVersionCache.set(
+        VersionRepository.ACTIVE_VERSION_CACHE_KEY,
+        VersionRepository.CachedActiveVersion.loading());
+
+    assertThat(versionRepository.getActiveVersion().id).isEqualTo(activeVersion.id);
+    assertThat(cachedActiveVersionId()).contains(activeVersion.id);
+  }
+
+  @Test
+  public void getActiveVersion_doesNotUseCacheIfDisabled() {
+    Mockito.when(mockSettingsManifest.getVersionCacheEnabled()).thenReturn(false);
+
+    versionRepository.getActiveVersion();
+
+    assertThat(activeVersionCache.get(VersionRepository.ACTIVE_VERSION_CACHE_KEY)).isEmpty();
+  }
+
+  @Test
+  public void getActiveVersion_doesNotUseCacheInTransaction() {
+    Mockito.when(mockSettingsManifest.getVersionCacheEnabled()).thenReturn(true);
+
+    try (Transaction transaction = DB.getDefault().beginTransaction()) {
+      versionRepository.getActiveVersion();
+      transaction.commit();
+    }
+
+    assertThat(activeVersionCache.get(VersionRepository.ACTIVE_VERSION_CACHE_KEY)).isEmpty();
+  }
+
+  @Test
+  public void publishNewSynchronizedVersion_replacesCachedActiveVersion() {
+    Mockito.when(mockSettingsManifest.getVersionCacheEnabled()).thenReturn(true);
+    VersionModel oldActiveVersion = versionRepository.getActiveVersion();
+    VersionModel draftVersion = versionRepository.getDraftVersionOrCreate();
+    resourceCreator.insertDraftProgram("first-program");
+
+    versionRepository.publishNewSynchronizedVersion();
+
+    assertThat(versionRepository.getActiveVersion().id)
+        .isEqualTo(draftVersion.id)
+        .isNotEqualTo(oldActiveVersion.id);
+  }
+
+  @Test
+  public void publishNewSynchronizedVersion_forProgram_replacesCachedActiveVersion()
+      throws Exception {
+    Mockito.when(mockSettingsManifest.getVersionCacheEnabled()).thenReturn(true);
+    versionRepository.getActiveVersion();
+    VersionModel draftVersion = versionRepository.getDraftVersionOrCreate();
+    resourceCreator.insertDraftProgram("first-program");
+
+    versionRepository.publishNewSynchronizedVersion("first-program");
+
+    assertThat(versionRepository.getActiveVersion().id).isEqualTo(draftVersion.id);
+  }
+
+  @Test
+  public void previewPublishNewSynchronizedVersion_keepsCachedActiveVersion() {
+    Mockito.when(mockSettingsManifest.getVersionCacheEnabled()).thenReturn(true);
+    VersionModel activeVersion = versionRepository.getActiveVersion();
+    resourceCreator.insertDraftProgram("first-program");
+
+    versionRepository.previewPublishNewSynchronizedVersion();
+
+    assertThat(versionRepository.getActiveVersion().id).isEqualTo(activeVersion.id);
+  }
+
   @Test
   public void testAnyDisabledPrograms_activeProgramDisabled() {
     // When no programs, there are no disabled programs
@@ -0,0 +1,66 @@
+package services.apikey;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Clock;
+import models.ApiKeyModel;
+import org.junit.Before;
+import org.junit.Test;
+import repository.ApiKeyRepository;
+import repository.ResetPostgres;
+
+public class ApiKeyUsageAggregatorTest extends ResetPostgres {
+
+  private ApiKeyRepository apiKeyRepository;
+  private ApiKeyUsageAggregator aggregator;
+
+  @Before
+  public void setUp() {
+    apiKeyRepository = instanceOf(ApiKeyRepository.class);
+    aggregator = new ApiKeyUsageAggregator(apiKeyRepository, instanceOf(Clock.class));
+  }
+
+  @Test
+  public void flush_recordsCountedCallsOfEachKey() {
+    resourceCreator.createActiveApiKey("first", "first-key-id", "secret-1");
+    resourceCreator.createActiveApiKey("second", "second-key-id", "secret-2");
+
+    aggregator.record("first-key-id", "1.1.1.1");
+    aggregator.record("first-key-id", "8.8.8.8");
+    aggregator.record("second-key-id", "1.1.1.1");
+    aggregator.flush();
+
+    ApiKeyModel first = lookupApiKey("first-key-id");
+    assertThat(first.getCallCount()).isEqualTo(2L);
+    assertThat(first.getLastCallIpAddress()).hasValue("8.8.8.8");
+    assertThat(lookupApiKey("second-key-id").getCallCount()).isEqualTo(1L);
+  }
+
+  @Test
+  public void flush_onlyRecordsCallsSinceLastFlush() {
+    resourceCreator.createActiveApiKey("first", "first-key-id", "secret-1");
+
+    aggregator.record("first-key-id", "1.1.1.1");
+    aggregator.flush();
+    aggregator.flush();
+    aggregator.record("first-key-id", "1.1.1.1");
+    aggregator.flush();
+
+    assertThat(lookupApiKey("first-key-id").getCallCount()).isEqualTo(2L);
+  }
+
+  @Test
+  public void flush_ignoresUnknownKeys() {
+    resourceCreator.createActiveApiKey("first", "first-key-id", "secret-1");
+
+    aggregator.record("unknown-key-id", "1.1.1.1");
+    aggregator.record("first-key-id", "1.1.1.1");
+    aggregator.flush();
+
+    assertThat(lookupApiKey("first-key-id").getCallCount()).isEqualTo(1L);
+  }
+
+  private ApiKeyModel lookupApiKey(String keyId) {
+    return apiKeyRepository.lookupApiKey(keyId).toCompletableFuture().join().get();
+  }
+}
@@ -0,0 +1,49 @@
+package services.apikey;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Instant;
+import org.junit.Test;
+
+public class VerifiedApiCredentialCacheTest {
+  private static final Instant NOW = Instant.parse("2024-01-01T00:00:00Z");
+  private static final Instant KEY_EXPIRATION = Instant.parse("2025-01-01T00:00:00Z");
+
+  private final VerifiedApiCredentialCache cache = new VerifiedApiCredentialCache();
+
+  @Test
+  public void isVerified_afterPutVerified() {
+    cache.putVerified("key", "1.1.1.1", "secret", KEY_EXPIRATION);
+
+    assertThat(cache.isVerified("key", "1.1.1.1", "secret", NOW)).isTrue();
+  }
+
+  @Test
+  public void isVerified_differentSecretOrIp_isFalse() {
+    cache.putVerified("key", "1.1.1.1", "secret", KEY_EXPIRATION);
+
+    assertThat(cache.isVerified("key", "1.1.1.1", "other-secret", NOW)).isFalse();
+    assertThat(cache.isVerified("key", "2.2.2.2", "secret", NOW)).isFalse();
+    assertThat(cache.isVerified("other-key", "1.1.1.1", "secret", NOW)).isFalse();
+  }
+
+  @Test
+  public void isVerified_afterKeyExpiration_isFalse() {
+    cache.putVerified("key", "1.1.1.1", "secret", KEY_EXPIRATION);
+
+    assertThat(cache.isVerified("key", "1.1.1.1", "secret", KEY_EXPIRATION)).isFalse();
+  }
+
+  @Test
+  public void invalidateKey_forgetsOnlyThatKey() {
+    cache.putVerified("key", "1.1.1.1", "secret", KEY_EXPIRATION);
+    cache.putVerified("key", "2.2.2.2", "secret", KEY_EXPIRATION);
+    cache.putVerified("other-key", "1.1.1.1", "secret", KEY_EXPIRATION);
+
+    cache.invalidateKey("key");
+
+    assertThat(cache.isVerified("key", "1.1.1.1", "secret", NOW)).isFalse();
+    assertThat(cache.isVerified("key", "2.2.2.2", "secret", NOW)).isFalse();
+    assertThat(cache.isVerified("other-key", "1.1.1.1", "secret", NOW)).isTrue();
+  }
+}
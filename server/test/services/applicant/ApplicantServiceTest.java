@@ -16,6 +16,8 @@ import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import com.typesafe.config.Config;
 import com.typesafe.config.ConfigFactory;
+import durablejobs.DurableJobName;
+import durablejobs.jobs.SendSubmissionNotificationsJob;
 import io.ebean.DB;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
@@ -34,10 +36,12 @@ import models.ApplicationStep;
 import models.DisplayMode;
 import models.EligibilityDetermination;
 import models.LifecycleStage;
+import models.PersistedDurableJobModel;
 import models.ProgramModel;
 import models.ProgramNotificationPreference;
 import models.QuestionModel;
 import models.StoredFileModel;
+import models.SubmissionNotificationModel;
 import models.TrustedIntermediaryGroupModel;
 import org.apache.commons.lang3.reflect.FieldUtils;
 import org.junit.Before;
@@ -69,6 +73,7 @@ import services.applicant.question.ApplicantQuestion;
 import services.applicant.question.Scalar;
 import services.application.ApplicationEventDetails.StatusEvent;
 import services.email.EmailSendClient;
+import services.email.EmailSendException;
 import services.geo.AddressLocation;
 import services.geo.AddressSuggestion;
 import services.geo.AddressSuggestionGroup;
@@ -1022,12 +1027,13 @@ public class ApplicantServiceTest extends ResetPostgres {
                 applicant.id, progDef.id(), trustedIntermediaryProfile, fakeRequest())
             .toCompletableFuture()
             .join();
+    subject.sendSubmissionNotifications(application.id).toCompletableFuture().join();
     assertThat(application.getEligibilityDetermination())
         .isEqualTo(EligibilityDetermination.NO_ELIGIBILITY_CRITERIA);
     Messages messages = getMessages(Locale.US);
     String programName = progDef.adminName();
     Mockito.verify(emailSendClient)
-        .send(
+        .sendOrThrow(
             "picard@starfleet.com",
             messages.at(MessageKey.EMAIL_APPLICATION_RECEIVED_SUBJECT.getKeyName(), programName),
             String.format(
@@ -1384,13 +1390,14 @@ public class ApplicantServiceTest extends ResetPostgres {
             .toCompletableFuture()
             .join();
     application.refresh();
+    subject.sendSubmissionNotifications(application.id).toCompletableFuture().join();
 
     Messages messages = getMessages(Locale.US);
     String programName = programDefinition.adminName();
 
     // Program admin email
     Mockito.verify(emailSendClient)
-        .send(
+        .sendOrThrow(
             ImmutableList.of("admin@example.com"),
             String.format("New application %d submitted", application.id),
             String.format(
@@ -1405,7 +1412,7 @@ public class ApplicantServiceTest extends ResetPostgres {
                         programDefinition.id(), application.id)));
     // TI email
     Mockito.verify(emailSendClient)
-        .send(
+        .sendOrThrow(
             "ti@tis.com",
             messages.at(
                 MessageKey.EMAIL_TI_APPLICATION_SUBMITTED_SUBJECT.getKeyName(),
@@ -1424,7 +1431,7 @@ public class ApplicantServiceTest extends ResetPostgres {
 
     // Applicant email
     Mockito.verify(emailSendClient)
-        .send(
+        .sendOrThrow(
             "user1@example.com",
             messages.at(MessageKey.EMAIL_APPLICATION_RECEIVED_SUBJECT.getKeyName(), programName),
             String.format(
@@ -1473,13 +1480,14 @@ public class ApplicantServiceTest extends ResetPostgres {
             .toCompletableFuture()
             .join();
     application.refresh();
+    subject.sendSubmissionNotifications(application.id).toCompletableFuture().join();
 
     Messages messages = getMessages(Locale.US);
     String programName = programDefinition.adminName();
 
     // Program admin email
     Mockito.verify(emailSendClient)
-        .send(
+        .sendOrThrow(
             ImmutableList.of("admin@example.com"),
             String.format("New application %d submitted", application.id),
             String.format(
@@ -1494,7 +1502,7 @@ public class ApplicantServiceTest extends ResetPostgres {
                         programDefinition.id(), application.id)));
     // TI email
     Mockito.verify(emailSendClient)
-        .send(
+        .sendOrThrow(
             "ti@tis.com",
             messages.at(
                 MessageKey.EMAIL_TI_APPLICATION_SUBMITTED_SUBJECT.getKeyName(),
@@ -1509,7 +1517,7 @@ public class ApplicantServiceTest extends ResetPostgres {
 
     // Applicant email
     Mockito.verify(emailSendClient)
-        .send(
+        .sendOrThrow(
             "user1@example.com",
             messages.at(MessageKey.EMAIL_APPLICATION_RECEIVED_SUBJECT.getKeyName(), programName),
             "I'm a US email!\n"
@@ -1549,6 +1557,7 @@ public class ApplicantServiceTest extends ResetPostgres {
             .toCompletableFuture()
             .join();
     application.refresh();
+    subject.sendSubmissionNotifications(application.id).toCompletableFuture().join();
 
     Messages koMessages = getMessages(Locale.KOREA);
     Messages enMessages = getMessages(Locale.US);
@@ -1556,7 +1565,7 @@ public class ApplicantServiceTest extends ResetPostgres {
 
     // TI email
     Mockito.verify(emailSendClient)
-        .send(
+        .sendOrThrow(
             "ti@example.com",
             koMessages.at(
                 MessageKey.EMAIL_TI_APPLICATION_SUBMITTED_SUBJECT.getKeyName(),
@@ -1571,7 +1580,7 @@ public class ApplicantServiceTest extends ResetPostgres {
 
     // Applicant email
     Mockito.verify(emailSendClient)
-        .send(
+        .sendOrThrow(
             "user2@example.com",
             enMessages.at(MessageKey.EMAIL_APPLICATION_RECEIVED_SUBJECT.getKeyName(), programName),
             "I'm a US email!\n"
@@ -1608,13 +1617,14 @@ public class ApplicantServiceTest extends ResetPostgres {
             .toCompletableFuture()
             .join();
     application.refresh();
+    subject.sendSubmissionNotifications(application.id).toCompletableFuture().join();
 
     Messages messages = getMessages(Locale.KOREA);
     String programName = programDefinition.adminName();
 
     // Applicant email
     Mockito.verify(emailSendClient)
-        .send(
+        .sendOrThrow(
             "user3@example.com",
             messages.at(MessageKey.EMAIL_APPLICATION_RECEIVED_SUBJECT.getKeyName(), programName),
             "I'm a KOREAN email!\n"
@@ -1652,10 +1662,76 @@ public class ApplicantServiceTest extends ResetPostgres {
             .toCompletableFuture()
             .join();
     application.refresh();
+    subject.sendSubmissionNotifications(application.id).toCompletableFuture().join();
 
     // Program admin email not sent
     Mockito.verify(emailSendClient, Mockito.times(0))
-        .send(eq(ImmutableList.of("admin@example.com")), anyString(), anyString());
+        .sendOrThrow(eq(ImmutableList.of("admin@example.com")), anyString(), anyString());
+  }
+
+  @Test
+  public void submitApplication_leavesEmailsToSubmissionNotificationJob() {
+    ApplicantModel applicant = subject.createApplicant().toCompletableFuture().join();
+    applicant.setAccount(resourceCreator.insertAccountWithEmail("user1@example.com"));
+    applicant.save();
+    subject
+        .stageAndUpdateIfValid(
+            applicant.id, programDefinition.id(), "1", applicationUpdates(), false, false)
+        .toCompletableFuture()
+        .join();
+
+    ApplicationModel application =
+        subject
+            .submitApplication(
+                applicant.id, programDefinition.id(), applicantProfile, fakeRequest())
+            .toCompletableFuture()
+            .join();
+
+    Mockito.verifyNoInteractions(emailSendClient);
+    SubmissionNotificationModel notification =
+        DB.find(SubmissionNotificationModel.class)
+            .where()
+            .eq("application_id", application.id)
+            .findOne();
+    assertThat(notification).isNotNull();
+    PersistedDurableJobModel durableJob =
+        DB.find(PersistedDurableJobModel.class, notification.getDurableJobId());
+    assertThat(durableJob.getJobName())
+        .isEqualTo(DurableJobName.SEND_SUBMISSION_NOTIFICATIONS.getJobNameString());
+    assertThat(durableJob.getRemainingAttempts())
+        .isEqualTo(SendSubmissionNotificationsJob.ATTEMPTS);
+    assertThat(applicationRepository.lookupSubmissionNotificationForDurableJob(durableJob.id))
+        .hasValueSatisfying(n -> assertThat(n.getApplicationId()).isEqualTo(application.id));
+
+    subject.sendSubmissionNotifications(application.id).toCompletableFuture().join();
+
+    Mockito.verify(emailSendClient).sendOrThrow(eq("user1@example.com"), anyString(), anyString());
+  }
+
+  @Test
+  public void sendSubmissionNotifications_emailNotSent_fails() {
+    ApplicantModel applicant = subject.createApplicant().toCompletableFuture().join();
+    applicant.setAccount(resourceCreator.insertAccountWithEmail("user1@example.com"));
+    applicant.save();
+    subject
+        .stageAndUpdateIfValid(
+            applicant.id, programDefinition.id(), "1", applicationUpdates(), false, false)
+        .toCompletableFuture()
+        .join();
+    ApplicationModel application =
+        subject
+            .submitApplication(
+                applicant.id, programDefinition.id(), applicantProfile, fakeRequest())
+            .toCompletableFuture()
+            .join();
+    Mockito.doThrow(new EmailSendException(new RuntimeException("provider down")))
+        .when(emailSendClient)
+        .sendOrThrow(eq("user1@example.com"), anyString(), anyString());
+
+    assertThatExceptionOfType(CompletionException.class)
+        .isThrownBy(
+            () -> subject.sendSubmissionNotifications(application.id).toCompletableFuture().join())
+        .withCauseInstanceOf(EmailSendException.class);
   }
 
   @Test
@@ -1,14 +1,17 @@
 package services.applicant.predicate;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static services.applicant.ApplicantData.APPLICANT_PATH;
 
 import com.google.common.collect.ImmutableList;
+import java.time.LocalDate;
 import java.util.Optional;
 import models.ApplicantModel;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.Mockito;
 import services.DateConverter;
+import services.Path;
 import services.applicant.ApplicantData;
 import services.applicant.question.ApplicantQuestion;
 import services.applicant.question.Scalar;
@@ -18,6 +21,7 @@ import services.program.predicate.Operator;
 import services.program.predicate.OrNode;
 import services.program.predicate.PredicateExpressionNode;
 import services.program.predicate.PredicateValue;
+import services.question.QuestionAnswerer;
 import services.question.types.QuestionDefinition;
 import support.TestQuestionBank;
 
@@ -243,4 +247,110 @@ public class PredicateEvaluatorTest {
 
     assertThat(evaluator.evaluate(PredicateExpressionNode.create(andNode))).isFalse();
   }
+
+  @Test
+  public void evaluate_compiledLeafNodes_matchJsonPathEvaluation() {
+    QuestionDefinition numberQuestion =
+        questionBank.numberApplicantJugglingNumber().getQuestionDefinition();
+    QuestionDefinition dateQuestion =
+        questionBank.dateApplicantBirthdate().getQuestionDefinition();
+    QuestionDefinition checkboxQuestion =
+        questionBank.checkboxApplicantKitchenTools().getQuestionDefinition();
+    QuestionDefinition dropdownQuestion =
+        questionBank.dropdownApplicantIceCream().getQuestionDefinition();
+    Path numberPath = numberQuestion.getContextualizedPath(Optional.empty(), APPLICANT_PATH);
+    Path datePath = dateQuestion.getContextualizedPath(Optional.empty(), APPLICANT_PATH);
+    Path checkboxPath = checkboxQuestion.getContextualizedPath(Optional.empty(), APPLICANT_PATH);
+    Path dropdownPath = dropdownQuestion.getContextualizedPath(Optional.empty(), APPLICANT_PATH);
+    Path streetPath = applicantQuestion.createAddressQuestion().getStreetPath();
+
+    ImmutableList<LeafOperationExpressionNode> leafNodes =
+        ImmutableList.of(
+            LeafOperationExpressionNode.create(
+                numberQuestion.getId(), Scalar.NUMBER, Operator.EQUAL_TO, PredicateValue.of(5)),
+            LeafOperationExpressionNode.create(
+                numberQuestion.getId(), Scalar.NUMBER, Operator.NOT_EQUAL_TO, PredicateValue.of(5)),
+            LeafOperationExpressionNode.create(
+                numberQuestion.getId(), Scalar.NUMBER, Operator.GREATER_THAN, PredicateValue.of(7)),
+            LeafOperationExpressionNode.create(
+                numberQuestion.getId(),
+                Scalar.NUMBER,
+                Operator.BETWEEN,
+                PredicateValue.pairOfLongs(10, 4)),
+            LeafOperationExpressionNode.create(
+                numberQuestion.getId(),
+                Scalar.NUMBER,
+                Operator.IN,
+                PredicateValue.listOfLongs(ImmutableList.of(1L, 5L))),
+            LeafOperationExpressionNode.create(
+                dateQuestion.getId(), Scalar.DATE, Operator.AGE_OLDER_THAN, PredicateValue.of(18)),
+            LeafOperationExpressionNode.create(
+                dateQuestion.getId(),
+                Scalar.DATE,
+                Operator.IS_BEFORE,
+                PredicateValue.of(LocalDate.of(2001, 1, 1))),
+            LeafOperationExpressionNode.create(
+                checkboxQuestion.getId(),
+                Scalar.SELECTIONS,
+                Operator.ANY_OF,
+                PredicateValue.listOfStrings(ImmutableList.of("1", "3"))),
+            LeafOperationExpressionNode.create(
+                checkboxQuestion.getId(),
+                Scalar.SELECTIONS,
+                Operator.NONE_OF,
+                PredicateValue.listOfStrings(ImmutableList.of("1", "3"))),
+            LeafOperationExpressionNode.create(
+                checkboxQuestion.getId(),
+                Scalar.SELECTIONS,
+                Operator.SUBSET_OF,
+                PredicateValue.listOfStrings(ImmutableList.of("1", "2"))),
+            LeafOperationExpressionNode.create(
+                dropdownQuestion.getId(),
+                Scalar.SELECTION,
+                Operator.NOT_IN,
+                PredicateValue.listOfStrings(ImmutableList.of("2"))),
+            LeafOperationExpressionNode.create(
+                addressQuestion.getId(),
+                Scalar.STREET,
+                Operator.NOT_EQUAL_TO,
+                PredicateValue.of("123 Rhode St.")));
+
+    ApplicantData unanswered = new ApplicantData();
+    ApplicantData answered = new ApplicantData();
+    QuestionAnswerer.answerNumberQuestion(answered, numberPath, 5L);
+    answered.putDate(datePath.join(Scalar.DATE), "2000-01-01");
+    answered.putString(checkboxPath.join(Scalar.SELECTIONS).asArrayElement().atIndex(0), "1");
+    answered.putString(checkboxPath.join(Scalar.SELECTIONS).asArrayElement().atIndex(1), "2");
+    answered.putString(dropdownPath.join(Scalar.SELECTION), "2");
+    answered.putString(streetPath, "123 Rhode St.");
+    ApplicantData answeredDifferently = new ApplicantData();
+    QuestionAnswerer.answerNumberQuestion(answeredDifferently, numberPath, 12L);
+    answeredDifferently.putDate(datePath.join(Scalar.DATE), "2010-06-30");
+    answeredDifferently.putString(
+        checkboxPath.join(Scalar.SELECTIONS).asArrayElement().atIndex(0), "3");
+    answeredDifferently.putString(dropdownPath.join(Scalar.SELECTION), "1");
+    // The street is left out, but the rest of the address is answered.
+    answeredDifferently.putString(applicantQuestion.createAddressQuestion().getCityPath(), "Kent");
+    // Selections stored as numbers are compared to the option ids by JsonPath.
+    ApplicantData answeredWithNumbers = new ApplicantData();
+    QuestionAnswerer.answerMultiSelectQuestion(answeredWithNumbers, checkboxPath, 0, 1L);
+    QuestionAnswerer.answerSingleSelectQuestion(answeredWithNumbers, dropdownPath, 2L);
+
+    JsonPathPredicateGenerator programGenerator =
+        new JsonPathPredicateGenerator(
+            Mockito.mock(DateConverter.class),
+            ImmutableList.of(
+                addressQuestion, numberQuestion, dateQuestion, checkboxQuestion, dropdownQuestion),
+            Optional.empty());
+    for (ApplicantData data :
+        ImmutableList.of(unanswered, answered, answeredDifferently, answeredWithNumbers)) {
+      PredicateEvaluator programEvaluator = new PredicateEvaluator(data, programGenerator);
+      for (LeafOperationExpressionNode leafNode : leafNodes) {
+        PredicateExpressionNode node = PredicateExpressionNode.create(leafNode);
+        assertThat(programEvaluator.evaluate(node))
+            .as("%s with %s", leafNode, data.asJsonString())
+            .isEqualTo(programEvaluator.evaluateWithJsonPath(node));
+      }
+    }
+  }
 }
@@ -26,6 +26,7 @@ import org.mockito.ArgumentCaptor;
 import play.Environment;
 import repository.ResetPostgres;
 import services.cloud.azure.Credentials;
+import services.email.EmailSendException;
 import services.monitoring.EmailSendMetrics;
 import services.settings.SettingsManifest;
 
@@ -188,6 +189,15 @@ public class GraphApiEmailClientTest extends ResetPostgres {
         ApiException.class, () -> graphClient.users().byUserId(GRAPH_ACCOUNT_ID).sendMail());
   }
 
+  @Test
+  public void sendOrThrow_failure_throws() {
+    when(graphClient.users().byUserId(GRAPH_ACCOUNT_ID).sendMail()).thenThrow(new ApiException());
+
+    assertThrows(
+        EmailSendException.class,
+        () -> emailClient.sendOrThrow("recipient@example.com", "Test Subject", "Test Body"));
+  }
+
   @Test
   public void testSend_emptyRecipients() {
     emailClient.send(ImmutableList.of(), "subject", "body");
@@ -0,0 +1,250 @@
+package services.export;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+import com.typesafe.config.Config;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Instant;
+import models.ApplicationExportFormat;
+import models.ApplicationExportModel;
+import models.ApplicationExportStatus;
+import models.ApplicationModel;
+import models.PersistedDurableJobModel;
+import models.ProgramModel;
+import org.junit.Before;
+import org.junit.Test;
+import play.Environment;
+import repository.ApplicationExportRepository;
+import repository.PersistedDurableJobRepository;
+import repository.SubmittedApplicationFilter;
+import services.cloud.aws.AwsExportStorage;
+import services.cloud.aws.AwsRegion;
+import services.cloud.aws.AwsStorageUtils;
+import services.cloud.aws.Credentials;
+import services.pagination.SubmitTimeSequentialAccessPaginationSpec;
+import services.program.ProgramService;
+import support.cloud.FakeApplicantStorageClient;
+import support.cloud.FakeS3Client;
+
+public class ApplicationExportServiceTest extends AbstractExporterTest {
+  private final FakeS3Client fakeS3Client = new FakeS3Client();
+  private AwsExportStorage exportStorage;
+  private ApplicationExportService applicationExportService;
+  private ProgramService programService;
+  private ProgramModel program;
+  private ApplicationModel newestApplication;
+
+  @Before
+  public void setUp() {
+    programService = instanceOf(ProgramService.class);
+    exportStorage =
+        new AwsExportStorage(
+            fakeS3Client,
+            instanceOf(AwsStorageUtils.class),
+            instanceOf(AwsRegion.class),
+            instanceOf(Credentials.class),
+            instanceOf(Config.class),
+            instanceOf(Environment.class));
+    applicationExportService = createApplicationExportService(instanceOf(Clock.class));
+
+    createFakeQuestions();
+    program =
+        FakeProgramBuilder.newActiveProgram()
+            .withQuestion(testQuestionBank.textApplicantFavoriteColor())
+            .build();
+    Instant firstSubmissionTime = Instant.parse("2022-12-09T10:30:30.00Z");
+    FakeApplicationFiller.newFillerFor(program)
+        .answerTextQuestion(testQuestionBank.textApplicantFavoriteColor(), "blue")
+        .atSubmitTime(firstSubmissionTime)
+        .submit();
+    newestApplication =
+        FakeApplicationFiller.newFillerFor(program)
+            .answerTextQuestion(testQuestionBank.textApplicantFavoriteColor(), "green")
+            .atSubmitTime(firstSubmissionTime.plusSeconds(5L))
+            .submit()
+            .getApplication();
+  }
+
+  @Test
+  public void startExport_schedulesDurableJob() throws Exception {
+    ApplicationExportModel export =
+        applicationExportService.startExport(
+            programService.getFullProgramDefinition(program.id),
+            ApplicationExportFormat.CSV,
+            SubmittedApplicationFilter.EMPTY);
+
+    assertThat(export.getStatus()).isEqualTo(ApplicationExportStatus.PENDING);
+    assertThat(export.getFileKey()).endsWith(".csv");
+    assertThat(instanceOf(PersistedDurableJobRepository.class).getJobs())
+        .extracting(job -> job.id, PersistedDurableJobModel::getJobName)
+        .containsExactly(tuple(export.getDurableJobId(), "APPLICATION_EXPORT"));
+  }
+
+  @Test
+  public void runExport_csv_uploadsSameCsvAsStreamingExport() throws Exception {
+    ApplicationExportModel export =
+        applicationExportService.startExport(
+            programService.getFullProgramDefinition(program.id),
+            ApplicationExportFormat.CSV,
+            SubmittedApplicationFilter.EMPTY);
+
+    applicationExportService.runExport(getDurableJob(export));
+
+    ApplicationExportModel completedExport =
+        applicationExportService.getExport(export.id).orElseThrow();
+    assertThat(completedExport.getStatus()).isEqualTo(ApplicationExportStatus.COMPLETE);
+    assertThat(completedExport.getExportedCount()).isEqualTo(2);
+    StringWriter streamedCsv = new StringWriter();
+    instanceOf(CsvExporterService.class)
+        .streamProgramAllVersionsCsv(program.id, SubmittedApplicationFilter.EMPTY, streamedCsv);
+    assertThat(fakeS3Client.getObjectContents(export.getFileKey()))
+        .isEqualTo(streamedCsv.toString());
+  }
+
+  @Test
+  public void runExport_json_uploadsSameJsonAsBufferedExport() throws Exception {
+    ApplicationExportModel export =
+        applicationExportService.startExport(
+            programService.getFullProgramDefinition(program.id),
+            ApplicationExportFormat.JSON,
+            SubmittedApplicationFilter.EMPTY);
+
+    applicationExportService.runExport(getDurableJob(export));
+
+    assertThat(applicationExportService.getExport(export.id).orElseThrow().getStatus())
+        .isEqualTo(ApplicationExportStatus.COMPLETE);
+    String bufferedJson =
+        instanceOf(JsonExporterService.class)
+            .export(
+                programService.getFullProgramDefinition(program.id),
+                SubmitTimeSequentialAccessPaginationSpec.APPLICATION_MODEL_MAX_PAGE_SIZE_SPEC,
+                SubmittedApplicationFilter.EMPTY);
+    assertThat(fakeS3Client.getObjectContents(export.getFileKey())).isEqualTo(bufferedJson.trim());
+  }
+
+  @Test
+  public void runExport_finishedExport_isNotExportedAgain() throws Exception {
+    ApplicationExportModel export =
+        applicationExportService.startExport(
+            programService.getFullProgramDefinition(program.id),
+            ApplicationExportFormat.CSV,
+            SubmittedApplicationFilter.EMPTY);
+    PersistedDurableJobModel durableJob = getDurableJob(export);
+    applicationExportService.runExport(durableJob);
+
+    applicationExportService.runExport(durableJob);
+
+    ApplicationExportModel completedExport =
+        applicationExportService.getExport(export.id).orElseThrow();
+    assertThat(completedExport.getStatus()).isEqualTo(ApplicationExportStatus.COMPLETE);
+    assertThat(completedExport.getExportedCount()).isEqualTo(2);
+    assertThat(completedExport.getPartIds()).hasSize(1);
+  }
+
+  @Test
+  public void runExport_fromCheckpoint_continuesAfterTheUploadedParts() throws Exception {
+    ApplicationExportModel export =
+        applicationExportService.startExport(
+            programService.getFullProgramDefinition(program.id),
+            ApplicationExportFormat.CSV,
+            SubmittedApplicationFilter.EMPTY);
+    StringWriter streamedCsv = new StringWriter();
+    instanceOf(CsvExporterService.class)
+        .streamProgramAllVersionsCsv(program.id, SubmittedApplicationFilter.EMPTY, streamedCsv);
+    String csv = streamedCsv.toString();
+    // Applications are exported newest first, so a previous run that stopped after one part
+    // uploaded the header and the row of the newest application.
+    int firstPartEnd = csv.indexOf('\n', csv.indexOf('\n') + 1) + 1;
+    String uploadId = exportStorage.startMultipartUpload(export.getFileKey());
+    String partId =
+        exportStorage.uploadPart(
+            export.getFileKey(),
+            uploadId,
+            /* partNumber= */ 1,
+            csv.substring(0, firstPartEnd).getBytes(StandardCharsets.UTF_8));
+    ApplicationExportModel checkpointedExport =
+        applicationExportService
+            .getExport(export.id)
+            .orElseThrow()
+            .setUploadId(uploadId)
+            .recordUploadedPart(partId, newestApplication, /* partApplicationCount= */ 1);
+    instanceOf(ApplicationExportRepository.class).update(checkpointedExport);
+
+    applicationExportService.runExport(getDurableJob(export));
+
+    ApplicationExportModel completedExport =
+        applicationExportService.getExport(export.id).orElseThrow();
+    assertThat(completedExport.getStatus()).isEqualTo(ApplicationExportStatus.COMPLETE);
+    assertThat(completedExport.getExportedCount()).isEqualTo(2);
+    assertThat(completedExport.getPartIds()).hasSize(2);
+    // Each application is exported exactly once, in order.
+    assertThat(fakeS3Client.getObjectContents(export.getFileKey())).isEqualTo(csv);
+  }
+
+  @Test
+  public void deleteExpiredExports_deletesExportsPastRetentionAndTheirFiles() throws Exception {
+    ApplicationExportModel completedExport =
+        applicationExportService.startExport(
+            programService.getFullProgramDefinition(program.id),
+            ApplicationExportFormat.CSV,
+            SubmittedApplicationFilter.EMPTY);
+    applicationExportService.runExport(getDurableJob(completedExport));
+    ApplicationExportModel failedExport =
+        applicationExportService.startExport(
+            programService.getFullProgramDefinition(program.id),
+            ApplicationExportFormat.CSV,
+            SubmittedApplicationFilter.EMPTY);
+    String uploadId = exportStorage.startMultipartUpload(failedExport.getFileKey());
+    instanceOf(ApplicationExportRepository.class)
+        .update(failedExport.setUploadId(uploadId).markFailed("upload failed"));
+    ApplicationExportService laterApplicationExportService =
+        createApplicationExportService(
+            Clock.offset(
+                instanceOf(Clock.class),
+                ApplicationExportService.EXPORT_RETENTION.plusDays(1)));
+
+    assertThat(laterApplicationExportService.deleteExpiredExports()).isEqualTo(2);
+
+    assertThat(applicationExportService.getExport(completedExport.id)).isEmpty();
+    assertThat(fakeS3Client.getObjectContents(completedExport.getFileKey())).isNull();
+    assertThat(applicationExportService.getExport(failedExport.id)).isEmpty();
+    assertThat(fakeS3Client.wasAborted(uploadId)).isTrue();
+  }
+
+  @Test
+  public void deleteExpiredExports_keepsExportsWithinRetention() throws Exception {
+    ApplicationExportModel export =
+        applicationExportService.startExport(
+            programService.getFullProgramDefinition(program.id),
+            ApplicationExportFormat.CSV,
+            SubmittedApplicationFilter.EMPTY);
+    applicationExportService.runExport(getDurableJob(export));
+
+    assertThat(applicationExportService.deleteExpiredExports()).isEqualTo(0);
+
+    assertThat(applicationExportService.getExport(export.id)).isPresent();
+    assertThat(fakeS3Client.getObjectContents(export.getFileKey())).isNotNull();
+  }
+
+  private ApplicationExportService createApplicationExportService(Clock clock) {
+    return new ApplicationExportService(
+        instanceOf(ApplicationExportRepository.class),
+        programService,
+        instanceOf(CsvExporterService.class),
+        instanceOf(JsonExporterService.class),
+        exportStorage,
+        new FakeApplicantStorageClient(),
+        clock,
+        instanceOf(Config.class));
+  }
+
+  private PersistedDurableJobModel getDurableJob(ApplicationExportModel export) {
+    return instanceOf(PersistedDurableJobRepository.class).getJobs().stream()
+        .filter(job -> job.id == export.getDurableJobId())
+        .findFirst()
+        .orElseThrow();
+  }
+}
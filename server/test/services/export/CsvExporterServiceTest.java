@@ -7,6 +7,7 @@ import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.hash.Hashing;
 import com.typesafe.config.ConfigFactory;
+import java.io.StringWriter;
 import java.nio.charset.StandardCharsets;
 import java.time.Instant;
 import java.util.Locale;
@@ -23,6 +24,9 @@ import org.apache.commons.csv.CSVParser;
 import org.apache.commons.csv.CSVRecord;
 import org.junit.Before;
 import org.junit.Test;
+import play.cache.NamedCacheImpl;
+import play.cache.SyncCacheApi;
+import play.inject.BindingKey;
 import repository.SubmittedApplicationFilter;
 import repository.TimeFilter;
 import repository.VersionRepository;
@@ -84,7 +88,12 @@ public class CsvExporterServiceTest extends AbstractExporterTest {
             instanceOf(ApplicantService.class),
             ConfigFactory.parseMap(ImmutableMap.of("play.http.secret.key", SECRET_SALT)),
             instanceOf(DateConverter.class),
-            instanceOf(CsvColumnFactory.class));
+            instanceOf(CsvColumnFactory.class),
+            instanceOf(
+                new BindingKey<>(SyncCacheApi.class)
+                    .qualifiedWith(new NamedCacheImpl("csv-column-plans"))
+                    .asScala()),
+            instanceOf(ExportRowRenderer.class));
   }
 
   @Test
@@ -617,6 +626,163 @@ public class CsvExporterServiceTest extends AbstractExporterTest {
     assertThat(records.get(2).get("Application ID")).isEqualTo(appC.id.toString());
   }
 
+  @Test
+  public void streamProgramAllVersionsCsv_noApplications_questionColumnsComeFromDefinitions()
+      throws Exception {
+    createFakeQuestions();
+    ProgramModel fakeProgram =
+        FakeProgramBuilder.newActiveProgram()
+            .withQuestion(testQuestionBank.idApplicantId())
+            .build();
+
+    CSVParser parser =
+        CSVParser.parse(
+            streamCsv(fakeProgram.id, SubmittedApplicationFilter.EMPTY), DEFAULT_FORMAT);
+
+    assertThat(parser.getRecords()).hasSize(0);
+    // Unlike the buffered export, question columns don't depend on the applications.
+    assertThat(parser.getHeaderNames())
+        .containsExactly(
+            "Applicant ID",
+            "Application ID",
+            "Applicant Language",
+            "Submit Time",
+            "Submitter Type",
+            "TI Email",
+            "TI Organization",
+            "Status",
+            "applicant id (id)",
+            "Admin Note",
+            "Status Last Modified Time");
+  }
+
+  @Test
+  public void streamProgramAllVersionsCsv_matchesBufferedExport() throws Exception {
+    createFakeQuestions();
+    ProgramModel fakeProgram =
+        FakeProgramBuilder.newActiveProgram()
+            .withQuestion(testQuestionBank.textApplicantFavoriteColor())
+            .withHouseholdMembersEnumeratorQuestion()
+            .withHouseholdMembersRepeatedQuestion(
+                testQuestionBank.textRepeatedApplicantHouseholdMemberFavoriteShape())
+            .build();
+    Instant firstSubmissionTime = Instant.parse("2022-12-09T10:30:30.00Z");
+    FakeApplicationFiller.newFillerFor(fakeProgram)
+        .answerTextQuestion(testQuestionBank.textApplicantFavoriteColor(), "blue")
+        .answerEnumeratorQuestion(ImmutableList.of("taylor", "jordan"))
+        .answerTextQuestion(
+            testQuestionBank.textRepeatedApplicantHouseholdMemberFavoriteShape(),
+            "taylor",
+            "circle")
+        .atSubmitTime(firstSubmissionTime)
+        .submit();
+    FakeApplicationFiller.newFillerFor(fakeProgram)
+        .answerTextQuestion(testQuestionBank.textApplicantFavoriteColor(), "green")
+        .atSubmitTime(firstSubmissionTime.plusSeconds(5L))
+        .submit();
+
+    String bufferedCsv =
+        exporterService.getProgramAllVersionsCsv(fakeProgram.id, SubmittedApplicationFilter.EMPTY);
+    String streamedCsv = streamCsv(fakeProgram.id, SubmittedApplicationFilter.EMPTY);
+
+    assertThat(streamedCsv).isEqualTo(bufferedCsv);
+  }
+
+  @Test
+  public void streamProgramAllVersionsCsv_repeatedColumnsGrowWithNewApplications()
+      throws Exception {
+    createFakeQuestions();
+    ProgramModel fakeProgram =
+        FakeProgramBuilder.newActiveProgram()
+            .withHouseholdMembersEnumeratorQuestion()
+            .withHouseholdMembersRepeatedQuestion(
+                testQuestionBank.textRepeatedApplicantHouseholdMemberFavoriteShape())
+            .build();
+    Instant firstSubmissionTime = Instant.parse("2022-12-09T10:30:30.00Z");
+    FakeApplicationFiller.newFillerFor(fakeProgram)
+        .answerEnumeratorQuestion(ImmutableList.of("taylor", "jordan"))
+        .atSubmitTime(firstSubmissionTime)
+        .submit();
+    assertThat(streamedHeaderNames(fakeProgram.id, SubmittedApplicationFilter.EMPTY))
+        .noneMatch(header -> header.contains("[2]"));
+
+    FakeApplicationFiller.newFillerFor(fakeProgram)
+        .answerEnumeratorQuestion(ImmutableList.of("taylor", "jordan", "casey"))
+        .atSubmitTime(firstSubmissionTime.plusSeconds(5L))
+        .submit();
+
+    // The cached column plan is extended with the new application's third household member.
+    assertThat(streamedHeaderNames(fakeProgram.id, SubmittedApplicationFilter.EMPTY))
+        .anyMatch(header -> header.contains("[2]"));
+    assertThat(streamCsv(fakeProgram.id, SubmittedApplicationFilter.EMPTY))
+        .isEqualTo(
+            exporterService.getProgramAllVersionsCsv(
+                fakeProgram.id, SubmittedApplicationFilter.EMPTY));
+    // Exports of the applications submitted before the new one don't get its columns.
+    SubmittedApplicationFilter beforeSecondSubmission =
+        SubmittedApplicationFilter.builder()
+            .setSubmitTimeFilter(
+                TimeFilter.builder()
+                    .setUntilTime(Optional.of(firstSubmissionTime.plusSeconds(1L)))
+                    .build())
+            .build();
+    assertThat(streamedHeaderNames(fakeProgram.id, beforeSecondSubmission))
+        .noneMatch(header -> header.contains("[2]"));
+  }
+
+  @Test
+  public void streamProgramAllVersionsCsv_leavesOutQuestionsOnlyInTheDraft() throws Exception {
+    createFakeQuestions();
+    ProgramModel fakeProgram =
+        FakeProgramBuilder.newActiveProgram()
+            .withQuestion(testQuestionBank.textApplicantFavoriteColor())
+            .build();
+    FakeApplicationFiller.newFillerFor(fakeProgram)
+        .answerTextQuestion(testQuestionBank.textApplicantFavoriteColor(), "blue")
+        .submit();
+    ImmutableList<String> activeHeaderNames =
+        streamedHeaderNames(fakeProgram.id, SubmittedApplicationFilter.EMPTY);
+
+    FakeProgramBuilder.newDraftOf(fakeProgram)
+        .withQuestion(testQuestionBank.emailApplicantEmail())
+        .build();
+
+    assertThat(streamedHeaderNames(fakeProgram.id, SubmittedApplicationFilter.EMPTY))
+        .isEqualTo(activeHeaderNames);
+  }
+
+  @Test
+  public void streamProgramAllVersionsCsv_repeatedColumnsIncludeApplicationsCommittedLate()
+      throws Exception {
+    createFakeQuestions();
+    ProgramModel fakeProgram =
+        FakeProgramBuilder.newActiveProgram()
+            .withHouseholdMembersEnumeratorQuestion()
+            .withHouseholdMembersRepeatedQuestion(
+                testQuestionBank.textRepeatedApplicantHouseholdMemberFavoriteShape())
+            .build();
+    Instant firstSubmissionTime = Instant.parse("2022-12-09T10:30:30.00Z");
+    FakeApplicationFiller.newFillerFor(fakeProgram)
+        .answerEnumeratorQuestion(ImmutableList.of("taylor", "jordan"))
+        .atSubmitTime(firstSubmissionTime)
+        .submit();
+    assertThat(streamedHeaderNames(fakeProgram.id, SubmittedApplicationFilter.EMPTY))
+        .noneMatch(header -> header.contains("[2]"));
+
+    // Submitted well before the application already in the cached column plan.
+    FakeApplicationFiller.newFillerFor(fakeProgram)
+        .answerEnumeratorQuestion(ImmutableList.of("taylor", "jordan", "casey"))
+        .atSubmitTime(firstSubmissionTime.minusSeconds(3600L))
+        .submit();
+
+    assertThat(streamedHeaderNames(fakeProgram.id, SubmittedApplicationFilter.EMPTY))
+        .anyMatch(header -> header.contains("[2]"));
+    assertThat(streamCsv(fakeProgram.id, SubmittedApplicationFilter.EMPTY))
+        .isEqualTo(
+            exporterService.getProgramAllVersionsCsv(
+                fakeProgram.id, SubmittedApplicationFilter.EMPTY));
+  }
+
   @Test
   public void getDemographicsCsv_recordsExportedInAscendingIdOrder() throws Exception {
     ProgramModel fakeProgram = FakeProgramBuilder.newActiveProgram().build();
@@ -2113,6 +2279,18 @@ public class CsvExporterServiceTest extends AbstractExporterTest {
     return ImmutableList.copyOf(parser.getRecords());
   }
 
+  private String streamCsv(long programId, SubmittedApplicationFilter filters) throws Exception {
+    StringWriter writer = new StringWriter();
+    exporterService.streamProgramAllVersionsCsv(programId, filters, writer);
+    return writer.toString();
+  }
+
+  private ImmutableList<String> streamedHeaderNames(
+      long programId, SubmittedApplicationFilter filters) throws Exception {
+    return ImmutableList.copyOf(
+        CSVParser.parse(streamCsv(programId, filters), DEFAULT_FORMAT).getHeaderNames());
+  }
+
   private ImmutableList<CSVRecord> getParsedRecordsFromDemographicCsv() throws Exception {
     CSVParser parser =
         CSVParser.parse(exporterService.getDemographicsCsv(TimeFilter.EMPTY), DEFAULT_FORMAT);
@@ -0,0 +1,120 @@
+package services.export;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.google.common.collect.ImmutableList;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ExportRowRendererTest {
+  private static final int MAX_ROWS_IN_FLIGHT = 4;
+
+  private ExecutorService executor;
+  private ExportRowRenderer renderer;
+
+  @Before
+  public void setUp() {
+    executor = Executors.newFixedThreadPool(8);
+    renderer = new ExportRowRenderer(executor, MAX_ROWS_IN_FLIGHT);
+  }
+
+  @After
+  public void tearDown() {
+    executor.shutdownNow();
+  }
+
+  @Test
+  public void renderInOrder_writesRowsInItemOrder() throws Exception {
+    ImmutableList<Integer> items =
+        IntStream.range(0, 100).boxed().collect(ImmutableList.toImmutableList());
+    List<String> written = new ArrayList<>();
+
+    renderer.renderInOrder(
+        items,
+        item -> {
+          // Later items finish rendering first.
+          sleep(100 - item);
+          return "row " + item;
+        },
+        written::add);
+
+    assertThat(written)
+        .containsExactlyElementsOf(
+            items.stream().map(item -> "row " + item).collect(ImmutableList.toImmutableList()));
+  }
+
+  @Test
+  public void renderInOrder_boundsRowsInFlight() throws Exception {
+    AtomicInteger rendered = new AtomicInteger();
+    AtomicInteger written = new AtomicInteger();
+    AtomicInteger maxUnwritten = new AtomicInteger();
+
+    renderer.renderInOrder(
+        IntStream.range(0, 50).boxed().collect(ImmutableList.toImmutableList()),
+        item -> {
+          int unwritten = rendered.incrementAndGet() - written.get();
+          maxUnwritten.accumulateAndGet(unwritten, Math::max);
+          return item;
+        },
+        row -> {
+          // A slow writer.
+          sleep(2);
+          written.incrementAndGet();
+        });
+
+    assertThat(written.get()).isEqualTo(50);
+    assertThat(maxUnwritten.get()).isLessThanOrEqualTo(MAX_ROWS_IN_FLIGHT);
+  }
+
+  @Test
+  public void renderInOrder_rethrowsRenderingFailure() {
+    List<Integer> written = new ArrayList<>();
+
+    assertThatThrownBy(
+            () ->
+                renderer.renderInOrder(
+                    IntStream.range(0, 10).boxed().collect(ImmutableList.toImmutableList()),
+                    item -> {
+                      if (item == 3) {
+                        throw new IllegalStateException("bad row");
+                      }
+                      return item;
+                    },
+                    written::add))
+        .isInstanceOf(IllegalStateException.class)
+        .hasMessage("bad row");
+    assertThat(written).containsExactly(0, 1, 2);
+  }
+
+  @Test
+  public void renderInOrder_rethrowsWritingFailure() {
+    assertThatThrownBy(
+            () ->
+                renderer.renderInOrder(
+                    ImmutableList.of(1, 2, 3),
+                    item -> item,
+                    row -> {
+                      throw new IOException("disk full");
+                    }))
+        .isInstanceOf(IOException.class)
+        .hasMessage("disk full");
+  }
+
+  private static void sleep(long millis) {
+    try {
+      Thread.sleep(millis);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new RuntimeException(e);
+    }
+  }
+}
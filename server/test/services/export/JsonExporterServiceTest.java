@@ -4,6 +4,7 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static play.api.test.Helpers.testServerPort;
 
 import com.google.common.collect.ImmutableList;
+import java.io.StringWriter;
 import java.time.Instant;
 import java.util.Locale;
 import java.util.Optional;
@@ -66,6 +67,26 @@ public class JsonExporterServiceTest extends AbstractExporterTest {
     resultAsserter.assertValueAtPath(2, "application_id", firstApplication.id);
   }
 
+  @Test
+  public void streamProgramAllVersionsJson_writesSameJsonAsExport() throws Exception {
+    createFakeProgramWithEnumeratorAndAnswerQuestions();
+    JsonExporterService exporter = instanceOf(JsonExporterService.class);
+    ProgramDefinition programDefinition = fakeProgramWithEnumerator.getProgramDefinition();
+
+    StringWriter streamedJson = new StringWriter();
+    exporter.streamProgramAllVersionsJson(
+        programDefinition, SubmittedApplicationFilter.EMPTY, streamedJson);
+
+    assertThat(streamedJson.toString())
+        .isEqualTo(
+            exporter.export(
+                programDefinition,
+                SubmitTimeSequentialAccessPaginationSpec.APPLICATION_MODEL_MAX_PAGE_SIZE_SPEC,
+                SubmittedApplicationFilter.EMPTY));
+    new ResultAsserter(streamedJson.toString())
+        .assertValueAtPath(0, "program_name", programDefinition.adminName());
+  }
+
   @Test
   public void export_testApplicationTopLevelFields() {
     // Times are expected to be exported in instance local time, so we choose
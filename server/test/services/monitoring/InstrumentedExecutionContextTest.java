@@ -0,0 +1,39 @@
+package services.monitoring;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.prometheus.client.CollectorRegistry;
+import java.util.concurrent.CompletableFuture;
+import org.junit.Test;
+import repository.BulkDatabaseExecutionContext;
+import repository.ResetPostgres;
+
+public class InstrumentedExecutionContextTest extends ResetPostgres {
+  private static final String DISPATCHER = "database.bulk.dispatcher";
+
+  @Test
+  public void execute_recordsQueueWaitTime() {
+    BulkDatabaseExecutionContext executionContext = instanceOf(BulkDatabaseExecutionContext.class);
+    double waitsBefore = queueWaitCount();
+
+    CompletableFuture.runAsync(() -> {}, executionContext).join();
+    CompletableFuture.runAsync(() -> {}, executionContext.current()).join();
+
+    assertThat(queueWaitCount()).isEqualTo(waitsBefore + 2);
+    assertThat(queuedTasks()).isEqualTo(0);
+  }
+
+  private static double queueWaitCount() {
+    Double count =
+        CollectorRegistry.defaultRegistry.getSampleValue(
+            "executor_queue_wait_seconds_count",
+            new String[] {"dispatcher"},
+            new String[] {DISPATCHER});
+    return count == null ? 0 : count;
+  }
+
+  private static double queuedTasks() {
+    return CollectorRegistry.defaultRegistry.getSampleValue(
+        "executor_queued_tasks", new String[] {"dispatcher"}, new String[] {DISPATCHER});
+  }
+}
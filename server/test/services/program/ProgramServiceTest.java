@@ -41,6 +41,7 @@ import play.i18n.Lang;
 import play.inject.BindingKey;
 import repository.CategoryRepository;
 import repository.ResetPostgres;
+import repository.VersionRepository;
 import services.CiviFormError;
 import services.ErrorAnd;
 import services.LocalizedStrings;
@@ -91,6 +92,45 @@ public class ProgramServiceTest extends ResetPostgres {
     categoryRepository = instanceOf(CategoryRepository.class);
   }
 
+  @Test
+  public void getActiveProgramCatalog_indexesProgramsByDisplayMode() {
+    ProgramModel publicProgram =
+        ProgramBuilder.newActiveProgram("public-program", DisplayMode.PUBLIC).build();
+    ProgramModel tiProgram =
+        ProgramBuilder.newActiveProgram("ti-program", DisplayMode.TI_ONLY).build();
+    ProgramModel hiddenProgram =
+        ProgramBuilder.newActiveProgram("hidden-program", DisplayMode.HIDDEN_IN_INDEX).build();
+    ProgramBuilder.newDraftProgram("draft-program").build();
+
+    ActiveProgramCatalog catalog = ps.getActiveProgramCatalog();
+
+    assertThat(catalog.getVersionId())
+        .isEqualTo(instanceOf(VersionRepository.class).getActiveVersion().id);
+    assertThat(catalog.getPrograms().stream().map(ProgramDefinition::id))
+        .containsExactlyInAnyOrder(publicProgram.id, tiProgram.id, hiddenProgram.id);
+    assertThat(catalog.getPrograms(DisplayMode.PUBLIC).stream().map(ProgramDefinition::id))
+        .containsExactly(publicProgram.id);
+    assertThat(catalog.getPrograms(DisplayMode.TI_ONLY).stream().map(ProgramDefinition::id))
+        .containsExactly(tiProgram.id);
+    assertThat(catalog.getPrograms(DisplayMode.SELECT_TI)).isEmpty();
+    assertThat(catalog.getProgram(hiddenProgram.id)).isPresent();
+  }
+
+  @Test
+  public void getActiveProgramCatalog_isRebuiltWhenNewVersionIsPublished() {
+    ProgramModel activeProgram = ProgramBuilder.newActiveProgram("active-program").build();
+    ActiveProgramCatalog catalog = ps.getActiveProgramCatalog();
+    assertThat(ps.getActiveProgramCatalog()).isSameAs(catalog);
+
+    ProgramModel draftProgram = ProgramBuilder.newDraftProgram("draft-program").build();
+    instanceOf(VersionRepository.class).publishNewSynchronizedVersion();
+
+    ActiveProgramCatalog publishedCatalog = ps.getActiveProgramCatalog();
+    assertThat(publishedCatalog.getVersionId()).isNotEqualTo(catalog.getVersionId());
+    assertThat(publishedCatalog.getPrograms().stream().map(ProgramDefinition::id))
+        .containsExactlyInAnyOrder(activeProgram.id, draftProgram.id);
+  }
+
   @Test
   public void syncQuestions_constructsAllQuestionDefinitions() {
     QuestionDefinition questionOne = nameQuestion;
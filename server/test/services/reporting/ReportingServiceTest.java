@@ -17,7 +17,6 @@ import org.apache.commons.csv.CSVRecord;
 import org.apache.commons.lang3.tuple.Pair;
 import org.junit.Before;
 import org.junit.Test;
-import play.cache.SyncCacheApi;
 import repository.ReportingRepository;
 import repository.ResetPostgres;
 import services.DateConverter;
@@ -33,10 +32,7 @@ public class ReportingServiceTest extends ResetPostgres {
   @Before
   public void setUp() {
     service =
-        new ReportingService(
-            instanceOf(DateConverter.class),
-            new ReportingRepository(testClock),
-            instanceOf(SyncCacheApi.class));
+        new ReportingService(instanceOf(DateConverter.class), new ReportingRepository(testClock));
     applicant = resourceCreator.insertApplicantWithAccount();
     programA = ProgramBuilder.newActiveProgram().withName("Fake Program A").build();
     programB = ProgramBuilder.newActiveProgram().withName("Fake Program B").build();
@@ -44,7 +40,7 @@ public class ReportingServiceTest extends ResetPostgres {
 
   @Test
   public void getMonthlyStats_csvViewsOfStats() throws IOException {
-    insertFakeApplicationsAndRefreshDatabaseView();
+    insertFakeApplicationsAndRebuildStats();
 
     var parser =
         CSVParser.parse(
@@ -60,10 +56,11 @@ public class ReportingServiceTest extends ResetPostgres {
             "Time to complete (p99)");
 
     List<CSVRecord> records = parser.getRecords();
+    // The stats of each month merge those of the programs, and are estimated within 1%.
     assertThat(records.get(0).toList())
-        .containsExactly("01/2021", "4", "00:05:25", "00:06:40", "00:07:55", "00:09:07");
+        .containsExactly("01/2021", "4", "00:01:15", "00:04:59", "00:10:23", "00:16:27");
     assertThat(records.get(1).toList())
-        .containsExactly("12/2020", "4", "00:05:25", "00:06:40", "00:07:55", "00:09:07");
+        .containsExactly("12/2020", "4", "00:01:15", "00:04:59", "00:10:23", "00:16:27");
     assertThat(records.size()).isEqualTo(2);
 
     parser =
@@ -80,9 +77,9 @@ public class ReportingServiceTest extends ResetPostgres {
 
     records = parser.getRecords();
     assertThat(records.get(0).toList())
-        .containsExactly("Fake Program B", "4", "00:05:25", "00:06:40", "00:07:55", "00:09:07");
+        .containsExactly("Fake Program B", "4", "00:01:15", "00:04:59", "00:10:23", "00:16:27");
     assertThat(records.get(1).toList())
-        .containsExactly("Fake Program A", "4", "00:05:25", "00:06:40", "00:07:55", "00:09:07");
+        .containsExactly("Fake Program A", "4", "00:01:15", "00:04:59", "00:10:23", "00:16:27");
     assertThat(records.size()).isEqualTo(2);
 
     parser =
@@ -102,11 +99,11 @@ public class ReportingServiceTest extends ResetPostgres {
     assertThat(records.get(0).toList())
         .containsExactly("01/2021", "2", "00:00:25", "00:00:50", "00:01:15", "00:01:39");
     assertThat(records.get(1).toList())
-        .containsExactly("12/2020", "2", "00:10:25", "00:12:30", "00:14:35", "00:16:35");
+        .containsExactly("12/2020", "2", "00:10:23", "00:12:30", "00:14:36", "00:16:37");
     assertThat(records.size()).isEqualTo(2);
   }
 
-  private void insertFakeApplicationsAndRefreshDatabaseView() {
+  private void insertFakeApplicationsAndRebuildStats() {
     Instant lastMonth = testClock.instant().minus(30, ChronoUnit.DAYS);
     Instant today = testClock.instant();
 
@@ -132,7 +129,7 @@ public class ReportingServiceTest extends ResetPostgres {
                 createFakeApplication(
                     programB, applicationSpec.getLeft(), applicationSpec.getRight()));
 
-    instanceOf(ReportingRepository.class).refreshMonthlyReportingView();
+    new ReportingRepository(testClock).rebuildAllSubmissionStats();
   }
 
   private ApplicationModel createFakeApplication(
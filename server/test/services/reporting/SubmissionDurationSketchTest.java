@@ -0,0 +1,69 @@
+package services.reporting;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.withinPercentage;
+
+import org.junit.Test;
+
+public class SubmissionDurationSketchTest {
+  private static final double ACCURACY_PERCENT = SubmissionDurationSketch.RELATIVE_ACCURACY * 100;
+
+  @Test
+  public void percentile_interpolatesLikePercentileCont() {
+    SubmissionDurationSketch sketch =
+        new SubmissionDurationSketch.Builder().add(100).add(1000).add(500).build();
+
+    assertThat(sketch.count()).isEqualTo(3);
+    // percentile_cont of 100, 500 and 1000 is 300, 500, 750 and 990.
+    assertThat(sketch.percentile(0.25)).isCloseTo(300, withinPercentage(ACCURACY_PERCENT));
+    assertThat(sketch.percentile(0.5)).isCloseTo(500, withinPercentage(ACCURACY_PERCENT));
+    assertThat(sketch.percentile(0.75)).isCloseTo(750, withinPercentage(ACCURACY_PERCENT));
+    assertThat(sketch.percentile(0.99)).isCloseTo(990, withinPercentage(ACCURACY_PERCENT));
+  }
+
+  @Test
+  public void percentile_isWithinRelativeAccuracyAcrossMagnitudes() {
+    SubmissionDurationSketch.Builder builder = new SubmissionDurationSketch.Builder();
+    for (int seconds = 2; seconds <= 200_000; seconds *= 3) {
+      builder.add(seconds);
+    }
+    SubmissionDurationSketch sketch = builder.build();
+
+    for (int rank = 0, seconds = 2; seconds <= 200_000; rank++, seconds *= 3) {
+      assertThat(sketch.percentile((double) rank / (sketch.count() - 1)))
+          .isCloseTo(seconds, withinPercentage(ACCURACY_PERCENT));
+    }
+  }
+
+  @Test
+  public void merge_isTheSketchOfEveryDuration() {
+    SubmissionDurationSketch january =
+        new SubmissionDurationSketch.Builder().add(1).add(100).build();
+    SubmissionDurationSketch february =
+        new SubmissionDurationSketch.Builder().add(500).add(1000).build();
+
+    SubmissionDurationSketch merged =
+        new SubmissionDurationSketch.Builder().merge(january).merge(february).build();
+
+    assertThat(merged)
+        .isEqualTo(
+            new SubmissionDurationSketch.Builder().add(1).add(100).add(500).add(1000).build());
+    assertThat(merged.count()).isEqualTo(4);
+  }
+
+  @Test
+  public void json_roundTrips() {
+    SubmissionDurationSketch sketch =
+        new SubmissionDurationSketch.Builder().add(0).add(100).add(100).add(86_400).build();
+
+    assertThat(SubmissionDurationSketch.fromJson(sketch.toJson())).isEqualTo(sketch);
+  }
+
+  @Test
+  public void percentile_ofNoDurations_throws() {
+    SubmissionDurationSketch sketch = new SubmissionDurationSketch.Builder().build();
+
+    assertThatThrownBy(() -> sketch.percentile(0.5)).isInstanceOf(IllegalStateException.class);
+  }
+}
@@ -2,6 +2,7 @@ package services.settings;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static services.settings.SettingsService.CIVIFORM_SETTINGS_ATTRIBUTE_KEY;
+import static services.settings.SettingsService.CIVIFORM_TYPED_SETTINGS_ATTRIBUTE_KEY;
 import static support.FakeRequestBuilder.fakeRequest;
 
 import com.google.common.collect.ImmutableList;
@@ -125,4 +126,26 @@ public class SettingsManifestTest {
   public void getBool_noAttrsInRequest_returnsHoconValue() {
     assertThat(testManifest.getBool("BOOL_VARIABLE", fakeRequest())).isFalse();
   }
+
+  @Test
+  public void getSettingDisplayValue_typedSettingsInRequest_overrideHoconValues() {
+    Http.Request request =
+        fakeRequest()
+            .withAttrs(
+                TypedMap.empty()
+                    .put(
+                        CIVIFORM_TYPED_SETTINGS_ATTRIBUTE_KEY,
+                        TypedSettings.parse(
+                            ImmutableMap.of(
+                                "INT_VARIABLE", "42", "LIST_OF_STRINGS_VARIABLE", "a,b"))));
+
+    assertThat(testManifest.getSettingDisplayValue(request, INT_VARIABLE))
+        .isEqualTo(Optional.of("42"));
+    assertThat(testManifest.getSettingDisplayValue(request, LIST_OF_STRINGS_VARIABLE))
+        .isEqualTo(Optional.of("a, b"));
+    assertThat(testManifest.getSettingDisplayValue(request, STRING_VARIABLE))
+        .isEqualTo(Optional.of("my-var"));
+    assertThat(testManifest.getSettingDisplayValue(request, BOOL_VARIABLE))
+        .isEqualTo(Optional.of("FALSE"));
+  }
 }
@@ -17,7 +17,11 @@ import java.util.regex.Pattern;
 import models.SettingsGroupModel;
 import org.junit.Before;
 import org.junit.Test;
+import play.cache.NamedCacheImpl;
+import play.cache.SyncCacheApi;
+import play.inject.BindingKey;
 import play.mvc.Http;
+import repository.CacheInvalidationBus;
 import repository.ResetPostgres;
 import repository.SettingsGroupRepository;
 
@@ -128,7 +132,15 @@ public class SettingsServiceTest extends ResetPostgres {
     when(testProfile.getAuthorityId())
         .thenReturn(CompletableFuture.completedFuture(TEST_AUTHORITY_ID));
 
-    settingsService = new SettingsService(instanceOf(SettingsGroupRepository.class), testManifest);
+    settingsService =
+        new SettingsService(
+            instanceOf(SettingsGroupRepository.class),
+            testManifest,
+            instanceOf(
+                new BindingKey<>(SyncCacheApi.class)
+                    .qualifiedWith(new NamedCacheImpl("settings"))
+                    .asScala()),
+            instanceOf(CacheInvalidationBus.class));
   }
 
   @Test
@@ -163,6 +175,44 @@ public class SettingsServiceTest extends ResetPostgres {
         .isFalse();
   }
 
+  @Test
+  public void applySettingsToRequest_usesSnapshotUntilSettingsAreUpdated() {
+    Http.Request request = fakeRequest();
+    var initialSettings =
+        settingsService
+            .applySettingsToRequest(request)
+            .toCompletableFuture()
+            .join()
+            .attrs()
+            .get(SettingsService.CIVIFORM_SETTINGS_ATTRIBUTE_KEY);
+
+    // Saved without going through the service, so the snapshot isn't dropped.
+    createTestSettings();
+    assertThat(
+            settingsService
+                .applySettingsToRequest(request)
+                .toCompletableFuture()
+                .join()
+                .attrs()
+                .get(SettingsService.CIVIFORM_SETTINGS_ATTRIBUTE_KEY))
+        .isEqualTo(initialSettings);
+
+    var updatedSettings =
+        ImmutableMap.<String, String>builder()
+            .putAll(TEST_SETTINGS)
+            .put("TEST_WRITEABLE_INT_WITH_NO_HOCON_VALUE", "7")
+            .buildKeepingLast();
+    assertThat(settingsService.updateSettings(updatedSettings, testProfile).updated()).isTrue();
+    assertThat(
+            settingsService
+                .applySettingsToRequest(request)
+                .toCompletableFuture()
+                .join()
+                .attrs()
+                .get(SettingsService.CIVIFORM_SETTINGS_ATTRIBUTE_KEY))
+        .isEqualTo(updatedSettings);
+  }
+
   @Test
   public void updateSettings_newSettingsAreDifferent_insertsANewSettingsGroup() {
     var initialSettings = settingsService.loadSettings().toCompletableFuture().join().get();
@@ -238,6 +288,41 @@ public class SettingsServiceTest extends ResetPostgres {
         .join();
   }
 
+  @Test
+  public void applySettingsToRequest_doesNotKeepSettingsLoadedWhileSnapshotWasDropped() {
+    SyncCacheApi settingsCache =
+        instanceOf(
+            new BindingKey<>(SyncCacheApi.class)
+                .qualifiedWith(new NamedCacheImpl("settings"))
+                .asScala());
+    SettingsGroupRepository settingsGroupRepository = mock(SettingsGroupRepository.class);
+    CompletableFuture<Optional<SettingsGroupModel>> loadedSettings = new CompletableFuture<>();
+    when(settingsGroupRepository.getCurrentSettings()).thenReturn(loadedSettings);
+    SettingsService service =
+        new SettingsService(
+            settingsGroupRepository,
+            testManifest,
+            settingsCache,
+            instanceOf(CacheInvalidationBus.class));
+
+    Optional<SettingsGroupModel> currentSettings =
+        instanceOf(SettingsGroupRepository.class).getCurrentSettings().toCompletableFuture().join();
+
+    var request = service.applySettingsToRequest(fakeRequest());
+    // Another server updates the settings while they are loaded.
+    settingsCache.remove(SettingsService.SETTINGS_SNAPSHOT_CACHE_KEY);
+    loadedSettings.complete(currentSettings);
+
+    assertThat(
+            request
+                .toCompletableFuture()
+                .join()
+                .attrs()
+                .containsKey(SettingsService.CIVIFORM_SETTINGS_ATTRIBUTE_KEY))
+        .isTrue();
+    assertThat(settingsCache.get(SettingsService.SETTINGS_SNAPSHOT_CACHE_KEY)).isEmpty();
+  }
+
   private void createTestSettings() {
     // Since ResetPostres#resetTables create a settings group as well, if this
     // is created too fast it can attempt to create two settings group with the
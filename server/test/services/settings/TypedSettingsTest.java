@@ -0,0 +1,61 @@
+package services.settings;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import java.util.Optional;
+import org.junit.Test;
+
+public class TypedSettingsTest {
+
+  private static final TypedSettings SETTINGS =
+      TypedSettings.parse(
+          ImmutableMap.of(
+              "BOOL_TRUE",
+              "true",
+              "BOOL_FALSE",
+              "false",
+              "INT",
+              "12",
+              "LIST",
+              "one,two,three",
+              "STRING",
+              "hello"));
+
+  @Test
+  public void getBool() {
+    assertThat(SETTINGS.getBool("BOOL_TRUE")).isEqualTo(Optional.of(true));
+    assertThat(SETTINGS.getBool("BOOL_FALSE")).isEqualTo(Optional.of(false));
+    assertThat(SETTINGS.getBool("STRING")).isEqualTo(Optional.of(false));
+    assertThat(SETTINGS.getBool("MISSING")).isEmpty();
+  }
+
+  @Test
+  public void getString() {
+    assertThat(SETTINGS.getString("STRING")).isEqualTo(Optional.of("hello"));
+    assertThat(SETTINGS.getString("INT")).isEqualTo(Optional.of("12"));
+    assertThat(SETTINGS.getString("MISSING")).isEmpty();
+  }
+
+  @Test
+  public void getInt() {
+    assertThat(SETTINGS.getInt("INT")).isEqualTo(Optional.of(12));
+    assertThat(SETTINGS.getInt("MISSING")).isEmpty();
+  }
+
+  @Test
+  public void getInt_notAnInt_throws() {
+    assertThatThrownBy(() -> SETTINGS.getInt("STRING")).isInstanceOf(NumberFormatException.class);
+  }
+
+  @Test
+  public void getListOfStrings() {
+    assertThat(SETTINGS.getListOfStrings("LIST"))
+        .isEqualTo(Optional.of(ImmutableList.of("one", "two", "three")));
+    assertThat(SETTINGS.getListOfStrings("STRING"))
+        .isEqualTo(Optional.of(ImmutableList.of("hello")));
+    assertThat(SETTINGS.getListOfStrings("MISSING")).isEmpty();
+  }
+}
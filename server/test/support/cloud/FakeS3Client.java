@@ -2,17 +2,27 @@ package support.cloud;
 
 import com.google.common.collect.ImmutableList;
 import java.net.URI;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import services.cloud.FileUploadFailureException;
 import services.cloud.aws.Credentials;
 import services.cloud.aws.FileDeletionFailureException;
 import services.cloud.aws.FileListFailureException;
 import services.cloud.generic_s3.GenericS3ClientWrapper;
 import software.amazon.awssdk.awscore.exception.AwsServiceException;
 import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.model.AbortMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompleteMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompletedPart;
+import software.amazon.awssdk.services.s3.model.CreateMultipartUploadRequest;
 import software.amazon.awssdk.services.s3.model.DeleteObjectsRequest;
 import software.amazon.awssdk.services.s3.model.ListObjectsV2Request;
 import software.amazon.awssdk.services.s3.model.ObjectIdentifier;
+import software.amazon.awssdk.services.s3.model.UploadPartRequest;
 
 /** A fake implementation of {@link GenericS3ClientWrapper} to be used in tests. */
 public final class FakeS3Client implements GenericS3ClientWrapper {
@@ -31,6 +41,9 @@ public final class FakeS3Client implements GenericS3ClientWrapper {
 
   private URI lastDeleteEndpointUsed;
   private final List<String> objects = new ArrayList<>();
+  private final Map<String, byte[]> uploadedParts = new HashMap<>();
+  private final Map<String, String> objectContents = new HashMap<>();
+  private final List<String> abortedUploadIds = new ArrayList<>();
 
   /**
    * "Adds" an object to this fake bucket. Objects added here will be returned by {@link
@@ -57,7 +70,14 @@ public final class FakeS3Client implements GenericS3ClientWrapper {
     if (keys.contains(DELETION_ERROR_FILE_KEY)) {
       throw new FileDeletionFailureException(AwsServiceException.builder().build());
     }
-    request.delete().objects().forEach(object -> objects.remove(object.key()));
+    request
+        .delete()
+        .objects()
+        .forEach(
+            object -> {
+              objects.remove(object.key());
+              objectContents.remove(object.key());
+            });
   }
 
   @Override
@@ -70,6 +90,61 @@ public final class FakeS3Client implements GenericS3ClientWrapper {
     return ImmutableList.copyOf(objects);
   }
 
+  @Override
+  public String createMultipartUpload(
+      Credentials credentials, Region region, URI endpoint, CreateMultipartUploadRequest request) {
+    return UUID.randomUUID().toString();
+  }
+
+  @Override
+  public String uploadPart(
+      Credentials credentials,
+      Region region,
+      URI endpoint,
+      UploadPartRequest request,
+      byte[] content) {
+    String eTag = String.format("%s-%d", request.uploadId(), request.partNumber());
+    uploadedParts.put(eTag, content);
+    return eTag;
+  }
+
+  /**
+   * "Uploads" an object to this fake bucket by concatenating its parts. Objects uploaded here will
+   * be returned by {@link #listObjects} and {@link #getObjectContents}.
+   */
+  @Override
+  public void completeMultipartUpload(
+      Credentials credentials, Region region, URI endpoint, CompleteMultipartUploadRequest request)
+      throws FileUploadFailureException {
+    StringBuilder contents = new StringBuilder();
+    for (CompletedPart part : request.multipartUpload().parts()) {
+      if (!uploadedParts.containsKey(part.eTag())) {
+        throw new FileUploadFailureException(AwsServiceException.builder().build());
+      }
+      contents.append(new String(uploadedParts.get(part.eTag()), StandardCharsets.UTF_8));
+    }
+    objects.add(request.key());
+    objectContents.put(request.key(), contents.toString());
+  }
+
+  /** Discards the parts uploaded by the multipart upload. */
+  @Override
+  public void abortMultipartUpload(
+      Credentials credentials, Region region, URI endpoint, AbortMultipartUploadRequest request) {
+    abortedUploadIds.add(request.uploadId());
+    uploadedParts.keySet().removeIf(eTag -> eTag.startsWith(request.uploadId() + "-"));
+  }
+
+  /** Returns whether the multipart upload with {@code uploadId} was aborted. */
+  public boolean wasAborted(String uploadId) {
+    return abortedUploadIds.contains(uploadId);
+  }
+
+  /** Returns the contents of an object uploaded with {@link #completeMultipartUpload}. */
+  public String getObjectContents(String objectFileKey) {
+    return objectContents.get(objectFileKey);
+  }
+
   /** Returns the endpoint last used when calling {@link #deleteObjects}. */
   public URI getLastDeleteEndpointUsed() {
     return lastDeleteEndpointUsed;